@@ -0,0 +1,109 @@
+#!/usr/bin/env bash
+#
+# Measures time from JVM launch to the first successful forecast response for
+# each startup mode. Build first with: mvn -Pfast-start -DskipTests package
+#
+# Usage: scripts/startup-benchmark.sh [runs] [modes...]
+#   runs   Launches per mode (default 5)
+#   modes  jar, fast-start, fast-start-lazy (default all three)
+#
+# Environment:
+#   BENCHMARK_PORT  Port the application listens on (default 18080)
+#   BENCHMARK_PATH  Request that has to succeed (default
+#                   /api/weather/zipcode/10001?countryCode=US)
+#   BENCHMARK_TIMEOUT_SECONDS  Give up on a launch after this long (default 60)
+#   JAVA_OPTS       Extra JVM options for every mode
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+shift || true
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+    MODES=(jar fast-start fast-start-lazy)
+fi
+
+PORT=${BENCHMARK_PORT:-18080}
+REQUEST_PATH=${BENCHMARK_PATH:-/api/weather/zipcode/10001?countryCode=US}
+TIMEOUT_SECONDS=${BENCHMARK_TIMEOUT_SECONDS:-60}
+JAR=$(ls target/weather-forecast-*.jar 2>/dev/null | grep -v original | head -1 || true)
+FAST_START_DIR=target/fast-start
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+if [ -z "$JAR" ] || [ ! -f "$FAST_START_DIR/application.jsa" ]; then
+    echo "Build first: mvn -Pfast-start -DskipTests package" >&2
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Launches the application in the given mode and prints the milliseconds until
+# the request succeeded, followed by the startup time Spring Boot reported.
+measure() {
+    local mode=$1
+    local start pid elapsed
+    start=$(now_ms)
+    case "$mode" in
+        jar)
+            java ${JAVA_OPTS:-} -jar "$JAR" --server.port="$PORT" >"$LOG" 2>&1 &
+            ;;
+        fast-start)
+            (cd "$FAST_START_DIR" && exec java ${JAVA_OPTS:-} -XX:SharedArchiveFile=application.jsa \
+                -Dspring.aot.enabled=true -jar "$(basename "$JAR")" --server.port="$PORT") >"$LOG" 2>&1 &
+            ;;
+        fast-start-lazy)
+            (cd "$FAST_START_DIR" && exec java ${JAVA_OPTS:-} -XX:SharedArchiveFile=application.jsa \
+                -Dspring.aot.enabled=true -jar "$(basename "$JAR")" --server.port="$PORT" \
+                --spring.main.lazy-initialization=true) >"$LOG" 2>&1 &
+            ;;
+        *)
+            echo "Unknown mode: $mode" >&2
+            exit 1
+            ;;
+    esac
+    pid=$!
+
+    elapsed=""
+    while [ $(( $(now_ms) - start )) -lt $(( TIMEOUT_SECONDS * 1000 )) ]; do
+        if curl -sf -o /dev/null --max-time 5 "http://localhost:$PORT$REQUEST_PATH"; then
+            elapsed=$(( $(now_ms) - start ))
+            break
+        fi
+        sleep 0.02
+    done
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+
+    local started
+    started=$(grep -o 'Started .* in [0-9.]* seconds' "$LOG" | grep -o '[0-9.]* seconds' || echo "-")
+    echo "${elapsed:-timeout} ${started% seconds}"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { if (NR == 0) print "-"; else print values[int((NR + 1) / 2)] }'
+}
+
+printf "%-16s %10s %10s %10s %14s\n" "mode" "median ms" "min ms" "max ms" "boot-reported s"
+for mode in "${MODES[@]}"; do
+    results=()
+    reported=()
+    for _ in $(seq 1 "$RUNS"); do
+        read -r elapsed started <<<"$(measure "$mode")"
+        [ "$elapsed" != "timeout" ] && results+=("$elapsed")
+        reported+=("$started")
+    done
+    if [ ${#results[@]} -eq 0 ]; then
+        printf "%-16s %10s\n" "$mode" "timeout"
+        continue
+    fi
+    printf "%-16s %10s %10s %10s %14s\n" "$mode" \
+        "$(printf '%s\n' "${results[@]}" | median)" \
+        "$(printf '%s\n' "${results[@]}" | sort -n | head -1)" \
+        "$(printf '%s\n' "${results[@]}" | sort -n | tail -1)" \
+        "$(printf '%s\n' "${reported[@]}" | median)"
+done
@@ -0,0 +1,41 @@
+package com.example.weatherforecast.benchmark;
+
+import com.example.weatherforecast.resilience.AdmissionController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of an admission decision around an empty request, from
+ * one thread and from several threads contending on the same counters.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="AdmissionControllerBenchmark -f 1 -wi 3 -i 5"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AdmissionControllerBenchmark {
+
+    private final AdmissionController admissionController = new AdmissionController(1_000,
+            Duration.ofSeconds(3), Duration.ofSeconds(1));
+
+    @Benchmark
+    public Object admitSingleThread() {
+        return admissionController.execute(() -> Boolean.TRUE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object admitContended() {
+        return admissionController.execute(() -> Boolean.TRUE);
+    }
+}
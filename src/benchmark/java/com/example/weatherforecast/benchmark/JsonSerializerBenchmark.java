@@ -0,0 +1,102 @@
+package com.example.weatherforecast.benchmark;
+
+import com.example.weatherforecast.config.ApiClientConfig;
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective Jackson serialization of a forecast, driven by the
+ * model annotations, with the hand-written serializers the application's
+ * ObjectMapper uses. Both write to a discarding stream, as a response body
+ * would be written, and to a byte array.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="JsonSerializerBenchmark -f 1 -wi 3 -i 5"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializerBenchmark {
+
+    @Param({ "24", "168" })
+    public int hours;
+
+    private final ObjectWriter reflective = new ObjectMapper().registerModule(new JavaTimeModule())
+            .writerFor(WeatherResponse.class);
+    private final ObjectWriter generated = new ApiClientConfig().objectMapper().writerFor(WeatherResponse.class);
+    // Jackson closes the target after writing, so the sink must survive that
+    private final OutputStream discard = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private WeatherResponse response;
+
+    @Setup
+    public void setup() {
+        List<WeatherResponse.HourlyForecast> hourly = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2025, 4, 21, 0, 0);
+        for (int i = 0; i < hours; i++) {
+            hourly.add(new WeatherResponse.HourlyForecast(start.plusHours(i), 12.3 + (i % 17) * 0.7));
+        }
+        List<WeatherResponse.DailyForecast> daily = new ArrayList<>();
+        for (int i = 0; i < hours / 24; i++) {
+            daily.add(new WeatherResponse.DailyForecast(LocalDate.of(2025, 4, 21).plusDays(i), 25.1, 14.6));
+        }
+        response = WeatherResponse.builder()
+                .zipCode("10001")
+                .coordinates(new Coordinates(40.7305, -73.9925))
+                .currentTemperature(22.5)
+                .highTemperature(25.1)
+                .lowTemperature(14.6)
+                .hourlyForecast(hourly)
+                .dailyForecast(daily.size() > 1 ? daily : null)
+                .timestamp(LocalDateTime.of(2025, 4, 21, 15, 30))
+                .build();
+    }
+
+    @Benchmark
+    public void reflectiveStream() throws IOException {
+        reflective.writeValue(discard, response);
+    }
+
+    @Benchmark
+    public void generatedStream() throws IOException {
+        generated.writeValue(discard, response);
+    }
+
+    @Benchmark
+    public byte[] reflectiveBytes() throws IOException {
+        return reflective.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] generatedBytes() throws IOException {
+        return generated.writeValueAsBytes(response);
+    }
+}
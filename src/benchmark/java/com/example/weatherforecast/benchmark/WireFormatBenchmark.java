@@ -0,0 +1,112 @@
+package com.example.weatherforecast.benchmark;
+
+import com.example.weatherforecast.config.ApiClientConfig;
+import com.example.weatherforecast.model.CompactWeatherResponse;
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON encoding of a forecast with the compact CBOR and Smile
+ * encodings served to internal consumers. Each encode benchmark includes the
+ * conversion to the compact shape; each decode benchmark parses into the
+ * type a consumer would bind to. Payload sizes are printed once per trial.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="WireFormatBenchmark -f 1 -wi 3 -i 5"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({ "24", "168" })
+    public int hours;
+
+    private final ObjectMapper jsonMapper = new ApiClientConfig().objectMapper();
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final ObjectMapper smileMapper = new SmileMapper();
+
+    private WeatherResponse response;
+    private byte[] json;
+    private byte[] cbor;
+    private byte[] smile;
+
+    @Setup
+    public void setup() throws IOException {
+        List<WeatherResponse.HourlyForecast> hourly = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2025, 4, 21, 0, 0);
+        for (int i = 0; i < hours; i++) {
+            hourly.add(new WeatherResponse.HourlyForecast(start.plusHours(i), 12.3 + (i % 17) * 0.7));
+        }
+        List<WeatherResponse.DailyForecast> daily = new ArrayList<>();
+        for (int i = 0; i < hours / 24; i++) {
+            daily.add(new WeatherResponse.DailyForecast(LocalDate.of(2025, 4, 21).plusDays(i), 25.1, 14.6));
+        }
+        response = WeatherResponse.builder()
+                .zipCode("10001")
+                .coordinates(new Coordinates(40.7305, -73.9925))
+                .currentTemperature(22.5)
+                .highTemperature(25.1)
+                .lowTemperature(14.6)
+                .hourlyForecast(hourly)
+                .dailyForecast(daily.size() > 1 ? daily : null)
+                .timestamp(LocalDateTime.of(2025, 4, 21, 15, 30))
+                .utcOffsetSeconds(-14400)
+                .build();
+
+        json = encodeJson();
+        cbor = encodeCbor();
+        smile = encodeSmile();
+        System.out.printf("%n[payload bytes, %d hours] json=%d cbor=%d smile=%d%n", hours, json.length,
+                cbor.length, smile.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(CompactWeatherResponse.from(response));
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws IOException {
+        return smileMapper.writeValueAsBytes(CompactWeatherResponse.from(response));
+    }
+
+    @Benchmark
+    public WeatherResponse decodeJson() throws IOException {
+        return jsonMapper.readValue(json, WeatherResponse.class);
+    }
+
+    @Benchmark
+    public CompactWeatherResponse decodeCbor() throws IOException {
+        return cborMapper.readValue(cbor, CompactWeatherResponse.class);
+    }
+
+    @Benchmark
+    public CompactWeatherResponse decodeSmile() throws IOException {
+        return smileMapper.readValue(smile, CompactWeatherResponse.class);
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.weatherforecast.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Private HTTP cache for outbound GET calls, following the freshness and
+ * validation rules of RFC 9111. Successful responses are kept with their
+ * validators in a store bounded by the bytes of their bodies:
+ * <ul>
+ * <li>a response still fresh by its {@code Cache-Control: max-age} or
+ * {@code Expires} is served without a network call;</li>
+ * <li>a stale response with an {@code ETag} or {@code Last-Modified} is
+ * revalidated with {@code If-None-Match} or {@code If-Modified-Since}, and
+ * served from the store when the upstream answers {@code 304};</li>
+ * <li>anything else is fetched and, unless marked {@code no-store}, stored.</li>
+ * </ul>
+ * Outcomes are counted per upstream host.
+ *
+ * @since 1.1
+ */
+public class CachingClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    /**
+     * What the cache did for a call.
+     */
+    public enum Outcome {
+        /** Served a fresh response without a network call */
+        HIT,
+        /** Served a stored response the upstream confirmed with 304 */
+        REVALIDATED,
+        /** Fetched a full response */
+        MISS
+    }
+
+    // Hop-by-hop and framing headers of a 304 that must not replace the stored ones
+    private static final Set<String> NOT_UPDATED_BY_304 = Set.of("content-length", "content-encoding",
+            "transfer-encoding", "connection");
+    // Approximate bytes of an entry besides its body: key, headers and node
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final Cache<String, StoredResponse> store;
+    private final long maxEntryBytes;
+    private final Clock clock;
+    private final Map<String, LongAdder[]> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new CachingClientHttpRequestInterceptor.
+     *
+     * @param maxBytes      Bytes the stored responses may take in total
+     * @param maxEntryBytes Largest body that is stored
+     * @param retention     How long a response is kept after it was last
+     *                      stored or revalidated, fresh or not
+     * @param clock         Clock deciding freshness
+     */
+    public CachingClientHttpRequestInterceptor(long maxBytes, long maxEntryBytes, Duration retention, Clock clock) {
+        this.store = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, StoredResponse response) -> ENTRY_OVERHEAD + key.length()
+                        + response.body.length)
+                .expireAfterWrite(retention)
+                .build();
+        this.maxEntryBytes = maxEntryBytes;
+        this.clock = clock;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+        String key = request.getURI().toString();
+        String host = request.getURI().getHost();
+        long now = clock.millis();
+
+        StoredResponse stored = store.getIfPresent(key);
+        if (stored != null && stored.isFresh(now)) {
+            count(host, Outcome.HIT);
+            return stored.toResponse();
+        }
+        if (stored != null && stored.hasValidators()) {
+            if (stored.etag != null) {
+                request.getHeaders().setIfNoneMatch(stored.etag);
+            }
+            if (stored.lastModified >= 0) {
+                request.getHeaders().setIfModifiedSince(stored.lastModified);
+            }
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+        if (stored != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            HttpHeaders merged = new HttpHeaders();
+            merged.putAll(stored.headers);
+            response.getHeaders().forEach((name, values) -> {
+                if (!NOT_UPDATED_BY_304.contains(name.toLowerCase(Locale.ROOT))) {
+                    merged.put(name, values);
+                }
+            });
+            response.close();
+            StoredResponse revalidated = StoredResponse.of(stored.status, stored.statusText, merged, stored.body,
+                    clock.millis());
+            store.put(key, revalidated);
+            count(host, Outcome.REVALIDATED);
+            return revalidated.toResponse();
+        }
+
+        count(host, Outcome.MISS);
+        HttpStatusCode status = response.getStatusCode();
+        if (status.value() != HttpStatus.OK.value() || isNoStore(response.getHeaders())) {
+            return response;
+        }
+        String statusText = response.getStatusText();
+        HttpHeaders headers = response.getHeaders();
+        byte[] responseBody;
+        try (InputStream in = response.getBody()) {
+            responseBody = in.readAllBytes();
+        } finally {
+            response.close();
+        }
+        StoredResponse fetched = StoredResponse.of(status, statusText, headers, responseBody, clock.millis());
+        if (responseBody.length <= maxEntryBytes && (fetched.freshUntil > now || fetched.hasValidators())) {
+            store.put(key, fetched);
+        }
+        return fetched.toResponse();
+    }
+
+    private void count(String host, Outcome outcome) {
+        counts.computeIfAbsent(String.valueOf(host), h -> newCounters())[outcome.ordinal()].increment();
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] adders = new LongAdder[Outcome.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * @param host    Upstream host
+     * @param outcome What the cache did
+     * @return Calls to the host with that outcome since startup
+     */
+    public long getCount(String host, Outcome outcome) {
+        LongAdder[] adders = counts.get(host);
+        return adders != null ? adders[outcome.ordinal()].sum() : 0;
+    }
+
+    /**
+     * @return The number of responses currently stored
+     */
+    public long getStoredCount() {
+        return store.estimatedSize();
+    }
+
+    private static boolean isNoStore(HttpHeaders headers) {
+        return directives(headers).containsKey("no-store");
+    }
+
+    /**
+     * Parses the Cache-Control directives of a response, lower-cased, with
+     * the argument of each or an empty string.
+     */
+    static Map<String, String> directives(HttpHeaders headers) {
+        List<String> values = headers.get(HttpHeaders.CACHE_CONTROL);
+        if (values == null || values.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> directives = new HashMap<>();
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String trimmed = directive.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                int equals = trimmed.indexOf('=');
+                String name = (equals < 0 ? trimmed : trimmed.substring(0, equals)).trim().toLowerCase(Locale.ROOT);
+                String argument = equals < 0 ? "" : trimmed.substring(equals + 1).trim().replace("\"", "");
+                directives.putIfAbsent(name, argument);
+            }
+        }
+        return directives;
+    }
+
+    /**
+     * A stored response with its validators and the time it stops being
+     * fresh.
+     */
+    private static final class StoredResponse {
+
+        final HttpStatusCode status;
+        final String statusText;
+        final HttpHeaders headers;
+        final byte[] body;
+        final String etag;
+        final long lastModified;
+        final long freshUntil;
+
+        private StoredResponse(HttpStatusCode status, String statusText, HttpHeaders headers, byte[] body,
+                String etag, long lastModified, long freshUntil) {
+            this.status = status;
+            this.statusText = statusText;
+            this.headers = headers;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.freshUntil = freshUntil;
+        }
+
+        /**
+         * Creates an entry for a response received at the given time.
+         */
+        static StoredResponse of(HttpStatusCode status, String statusText, HttpHeaders received, byte[] body,
+                long receivedAt) {
+            HttpHeaders headers = HttpHeaders.readOnlyHttpHeaders(copy(received));
+            return new StoredResponse(status, statusText, headers, body, headers.getETag(),
+                    headers.getLastModified(), receivedAt + freshnessLifetime(headers) - ageMillis(headers));
+        }
+
+        private static HttpHeaders copy(HttpHeaders received) {
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(received);
+            return copy;
+        }
+
+        /**
+         * Freshness lifetime from max-age, or from Expires relative to Date;
+         * zero when the response must always be revalidated.
+         */
+        private static long freshnessLifetime(HttpHeaders headers) {
+            Map<String, String> directives = directives(headers);
+            if (directives.containsKey("no-cache")) {
+                return 0;
+            }
+            String maxAge = directives.get("max-age");
+            if (maxAge != null) {
+                try {
+                    return Math.max(0, Long.parseLong(maxAge)) * 1000;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+            long expires = headers.getExpires();
+            long date = headers.getDate();
+            return expires >= 0 && date >= 0 ? Math.max(0, expires - date) : 0;
+        }
+
+        private static long ageMillis(HttpHeaders headers) {
+            String age = headers.getFirst("Age");
+            if (age == null) {
+                return 0;
+            }
+            try {
+                return Math.max(0, Long.parseLong(age.trim())) * 1000;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        boolean isFresh(long now) {
+            return now < freshUntil;
+        }
+
+        boolean hasValidators() {
+            return etag != null || lastModified >= 0;
+        }
+
+        ClientHttpResponse toResponse() {
+            return new ClientHttpResponse() {
+                @Override
+                public HttpStatusCode getStatusCode() {
+                    return status;
+                }
+
+                @Override
+                public String getStatusText() {
+                    return statusText;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return headers;
+                }
+
+                @Override
+                public InputStream getBody() {
+                    return new ByteArrayInputStream(body);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.weatherforecast.client;
+
+import com.example.weatherforecast.resilience.Deadline;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Request factory that shortens the configured connect and read timeouts of
+ * each outbound call to the time left before the current request's
+ * {@link Deadline}. Calls made without a deadline keep the configured
+ * timeouts.
+ *
+ * @since 1.1
+ */
+public class DeadlineClientHttpRequestFactory extends SimpleClientHttpRequestFactory {
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+        Deadline deadline = Deadline.current();
+        if (deadline.isBounded()) {
+            connection.setConnectTimeout(deadline.timeoutMillis(connection.getConnectTimeout()));
+            connection.setReadTimeout(deadline.timeoutMillis(connection.getReadTimeout()));
+        }
+    }
+}
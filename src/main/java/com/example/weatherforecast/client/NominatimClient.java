@@ -1,7 +1,16 @@
 package com.example.weatherforecast.client;
 
+import com.example.weatherforecast.diagnostics.JsonParseEvent;
+import com.example.weatherforecast.diagnostics.RateLimitWaitEvent;
+import com.example.weatherforecast.diagnostics.UpstreamCallEvent;
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.DeadlineExceededException;
 import com.example.weatherforecast.exception.GeocodingException;
 import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.resilience.AdaptiveConcurrencyLimiter;
+import com.example.weatherforecast.resilience.Deadline;
+import com.example.weatherforecast.tracing.Span;
+import com.example.weatherforecast.tracing.Tracer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,6 +24,7 @@ import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -22,7 +32,13 @@ import java.util.regex.Pattern;
 /**
  * Client for interacting with the Nominatim geocoding service.
  * Provides functionality to convert zip/postal codes to geographic coordinates.
- * Implements circuit breaker pattern for handling API failures gracefully.
+ * Implements circuit breaker pattern for handling API failures gracefully and
+ * an adaptive concurrency limit so a slow API cannot exhaust request threads.
+ * Lookups are bounded by the deadline of the request they serve: the permit
+ * wait and socket timeouts are cut to the time left. Nominatim's usage policy
+ * of one request per second is kept by a shared
+ * {@link UsagePolicyClientHttpRequestInterceptor} behind the HTTP cache, so
+ * lookups answered from the cache are not delayed.
  * 
  * @since 1.0
  */
@@ -32,7 +48,10 @@ public class NominatimClient {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Tracer tracer;
     private static final String NOMINATIM_API_URL = "https://nominatim.openstreetmap.org/search";
+    private static final String UPSTREAM = "nominatimApi";
 
     // Map of country codes to postal code patterns
     private static final Map<String, Pattern> POSTAL_CODE_PATTERNS = new HashMap<>();
@@ -46,20 +65,41 @@ public class NominatimClient {
         POSTAL_CODE_PATTERNS.put("AU", Pattern.compile("^\\d{4}$")); // AU: 1234
     }
 
+    // Country names used in error messages, for the countries offered by the web UI
+    private static final Map<String, String> COUNTRY_NAMES = Map.ofEntries(
+            Map.entry("US", "United States"),
+            Map.entry("CA", "Canada"),
+            Map.entry("GB", "United Kingdom"),
+            Map.entry("AU", "Australia"),
+            Map.entry("DE", "Germany"),
+            Map.entry("FR", "France"),
+            Map.entry("JP", "Japan"),
+            Map.entry("IN", "India"),
+            Map.entry("IT", "Italy"),
+            Map.entry("ES", "Spain"),
+            Map.entry("NL", "Netherlands"),
+            Map.entry("BR", "Brazil"),
+            Map.entry("RU", "Russia"),
+            Map.entry("CN", "China"));
+
     /**
      * Constructs a new NominatimClient with required dependencies.
      * 
      * @param restTemplate            RestTemplate for making HTTP requests
      * @param objectMapper            ObjectMapper for JSON
      *                                serialization/deserialization
-     * @param nominatimCircuitBreaker Circuit breaker for handling API failures
+     * @param nominatimCircuitBreaker     Circuit breaker for handling API failures
+     * @param nominatimConcurrencyLimiter Limiter bounding concurrent API calls
+     * @param tracer                      Tracer recording the stages of a call
      */
     public NominatimClient(RestTemplate restTemplate, ObjectMapper objectMapper,
-            CircuitBreaker nominatimCircuitBreaker) {
+            CircuitBreaker nominatimCircuitBreaker, AdaptiveConcurrencyLimiter nominatimConcurrencyLimiter,
+            Tracer tracer) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.circuitBreaker = nominatimCircuitBreaker;
-
+        this.concurrencyLimiter = nominatimConcurrencyLimiter;
+        this.tracer = tracer;
     }
 
     /**
@@ -69,22 +109,40 @@ public class NominatimClient {
      * @param countryCode Country code (ISO 3166-1 alpha-2)
      * @return Coordinates (latitude and longitude)
      * @throws GeocodingException if geocoding fails
+     * @throws ConcurrencyLimitExceededException if too many calls are already in
+     *                                           flight
+     * @throws DeadlineExceededException if the request's deadline leaves no
+     *                                   time for the lookup
      */
     public Coordinates getCoordinatesForZipCode(String zipCode, String countryCode) throws GeocodingException {
         // Validate inputs
         if (zipCode == null || zipCode.trim().isEmpty()) {
             throw new GeocodingException("Postal code cannot be empty");
         }
-        // Wrap the API call with circuit breaker
-        return circuitBreaker.executeSupplier(() -> {
-            try {
-                return fetchCoordinates(zipCode, countryCode);
-            } catch (GeocodingException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+        Deadline.current().require(Duration.ZERO, "the geocoding lookup");
+        // Wrap the API call with the concurrency limit and circuit breaker
+        Span wait = tracer.startSpan("rate-limit.wait").setAttribute("upstream", UPSTREAM)
+                .setAttribute("limit", "concurrency");
+        RateLimitWaitEvent waitEvent = RateLimitWaitEvent.begin(UPSTREAM, "concurrency");
+        try {
+            return concurrencyLimiter.execute(() -> {
+                wait.end();
+                waitEvent.end();
+                return circuitBreaker.executeSupplier(() -> {
+                    try {
+                        return fetchCoordinates(zipCode, countryCode);
+                    } catch (GeocodingException | DeadlineExceededException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            });
+        } finally {
+            // Rejected without a permit
+            wait.end();
+            waitEvent.commit();
+        }
     }
 
     /**
@@ -106,8 +164,6 @@ public class NominatimClient {
         }
 
         try {
-            // Add delay to respect Nominatim usage policy (1 request per second)
-            Thread.sleep(1000);
             // Encode the ZIP code to handle special characters
             String encodedZipCode = URLEncoder.encode(zipCode, StandardCharsets.UTF_8);
 
@@ -120,15 +176,35 @@ public class NominatimClient {
                     .build()
                     .toUri();
 
-            ResponseEntity<String> responseEntity = restTemplate.getForEntity(uri, String.class);
-            String response = responseEntity.getBody();
+            String response = null;
+            int status = 0;
+            UpstreamCallEvent callEvent = UpstreamCallEvent.begin(UPSTREAM);
+            try (Span span = tracer.startSpan("geocode.http")) {
+                try {
+                    ResponseEntity<String> responseEntity = restTemplate.getForEntity(uri, String.class);
+                    status = responseEntity.getStatusCode().value();
+                    span.setAttribute("http.status", status);
+                    response = responseEntity.getBody();
+                } catch (RestClientException e) {
+                    span.recordError(e);
+                    throw e;
+                }
+            } finally {
+                callEvent.commit(status, response);
+            }
 
             if (response == null || response.equals("[]")) {
                 throw new GeocodingException("No location found for postal code '" + zipCode + "' in " +
                         getCountryName(countryCode) + ". Please verify both postal code and country selection.");
             }
 
-            JsonNode rootNode = objectMapper.readTree(response);
+            JsonParseEvent parseEvent = JsonParseEvent.begin(UPSTREAM, response);
+            JsonNode rootNode;
+            try {
+                rootNode = objectMapper.readTree(response);
+            } finally {
+                parseEvent.commit();
+            }
 
             if (rootNode.size() == 0) {
                 throw new GeocodingException("No location found for postal code '" + zipCode + "' in " +
@@ -141,10 +217,10 @@ public class NominatimClient {
 
             return new Coordinates(lat, lon);
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new GeocodingException("Request interrupted", e);
         } catch (RestClientException e) {
+            if (Deadline.current().isExpired()) {
+                throw Deadline.current().exceeded("the geocoding service responded");
+            }
             if (e.getMessage().contains("429")) {
                 throw new GeocodingException("Rate limit exceeded. Please try again later.", e);
             }
@@ -152,7 +228,7 @@ public class NominatimClient {
         } catch (JsonProcessingException e) {
             throw new GeocodingException("Error parsing geocoding service response: " + e.getMessage(), e);
         } catch (Exception e) {
-            if (!(e instanceof GeocodingException)) {
+            if (!(e instanceof GeocodingException) && !(e instanceof DeadlineExceededException)) {
                 throw new GeocodingException("Unexpected error during geocoding: " + e.getMessage(), e);
             }
             throw e;
@@ -163,22 +239,6 @@ public class NominatimClient {
      * Get a readable country name from country code
      */
     private String getCountryName(String countryCode) {
-        Map<String, String> countryNames = new HashMap<>();
-        countryNames.put("US", "United States");
-        countryNames.put("CA", "Canada");
-        countryNames.put("GB", "United Kingdom");
-        countryNames.put("AU", "Australia");
-        countryNames.put("DE", "Germany");
-        countryNames.put("FR", "France");
-        countryNames.put("JP", "Japan");
-        countryNames.put("IN", "India");
-        countryNames.put("IT", "Italy");
-        countryNames.put("ES", "Spain");
-        countryNames.put("NL", "Netherlands");
-        countryNames.put("BR", "Brazil");
-        countryNames.put("RU", "Russia");
-        countryNames.put("CN", "China");
-
-        return countryNames.getOrDefault(countryCode, countryCode);
+        return COUNTRY_NAMES.getOrDefault(countryCode, countryCode);
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,23 @@
 package com.example.weatherforecast.client;
 
+import com.example.weatherforecast.diagnostics.JsonParseEvent;
+import com.example.weatherforecast.diagnostics.RateLimitWaitEvent;
+import com.example.weatherforecast.diagnostics.UpstreamCallEvent;
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.DeadlineExceededException;
 import com.example.weatherforecast.exception.WeatherServiceException;
 import com.example.weatherforecast.model.Coordinates;
-import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.model.RawForecast;
+import com.example.weatherforecast.resilience.AdaptiveConcurrencyLimiter;
+import com.example.weatherforecast.resilience.Deadline;
+import com.example.weatherforecast.resilience.RequestHedger;
+import com.example.weatherforecast.tracing.Span;
+import com.example.weatherforecast.tracing.Tracer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
@@ -15,14 +26,28 @@ import org.springframework.web.util.UriComponentsBuilder;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Client for interacting with the Open-Meteo weather API.
- * Uses circuit breaker pattern to handle API failures gracefully.
+ * Uses circuit breaker pattern to handle API failures gracefully and an
+ * adaptive concurrency limit so a slow API cannot exhaust request threads.
+ * Slow forecast calls can optionally be hedged to cut tail latency.
+ * The complete forecast of a location is fetched in one call and parsed into
+ * a compact {@link RawForecast}, from which every view is materialized.
+ * The forecast's fetch time is when the upstream generated it, so a body
+ * served from the HTTP cache keeps its original time.
+ * The wait for a concurrency permit, the HTTP call and parsing are traced as
+ * separate spans.
+ * Calls are bounded by the deadline of the request they serve: the permit
+ * wait and socket timeouts are cut to the time left, and a call that cannot
+ * finish in time is not started.
  */
 @Component
 public class OpenMeteoClient {
@@ -30,7 +55,11 @@ public class OpenMeteoClient {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RequestHedger requestHedger;
+    private final Tracer tracer;
     private static final String OPEN_METEO_API_URL = "https://api.open-meteo.com/v1/forecast";
+    private static final String UPSTREAM = "openMeteoApi";
 
     /**
      * Constructs a new OpenMeteoClient with required dependencies.
@@ -38,104 +67,194 @@ public class OpenMeteoClient {
      * @param restTemplate            RestTemplate for making HTTP requests
      * @param objectMapper            ObjectMapper for JSON
      *                                serialization/deserialization
-     * @param openMeteoCircuitBreaker Circuit breaker for handling API failures
+     * @param openMeteoCircuitBreaker     Circuit breaker for handling API failures
+     * @param openMeteoConcurrencyLimiter Limiter bounding concurrent API calls
+     * @param openMeteoRequestHedger      Hedger issuing backup requests for slow
+     *                                    calls
+     * @param tracer                      Tracer recording the stages of a call
      */
     public OpenMeteoClient(RestTemplate restTemplate, ObjectMapper objectMapper,
-            CircuitBreaker openMeteoCircuitBreaker) {
+            CircuitBreaker openMeteoCircuitBreaker, AdaptiveConcurrencyLimiter openMeteoConcurrencyLimiter,
+            RequestHedger openMeteoRequestHedger, Tracer tracer) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.circuitBreaker = openMeteoCircuitBreaker;
+        this.concurrencyLimiter = openMeteoConcurrencyLimiter;
+        this.requestHedger = openMeteoRequestHedger;
+        this.tracer = tracer;
     }
 
     /**
-     * Get weather forecast for specific coordinates
+     * Get the complete forecast for specific coordinates: current conditions,
+     * the hourly series and the daily highs and lows for the given number of
+     * days from local midnight. Every view of the location's forecast can be
+     * materialized from the result.
      * 
      * @param coordinates Latitude and longitude
-     * @param zipCode     ZIP code for the response
-     * @return Weather forecast data
+     * @param zipCode     ZIP code the forecast is for, or null
+     * @param days        Number of days to fetch
+     * @return The forecast
      * @throws WeatherServiceException if weather data fetch fails
+     * @throws ConcurrencyLimitExceededException if too many calls are already in
+     *                                           flight
+     * @throws DeadlineExceededException if the request's deadline leaves no
+     *                                   time for the call
      */
-    public WeatherResponse getWeatherForecast(Coordinates coordinates, String zipCode) throws WeatherServiceException {
-        return circuitBreaker.executeSupplier(() -> {
-            try {
-                return fetchWeatherData(coordinates, zipCode);
-            } catch (WeatherServiceException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+    public RawForecast getForecast(Coordinates coordinates, String zipCode, int days) throws WeatherServiceException {
+        return execute(() -> fetchForecast(coordinates, zipCode, days));
     }
 
-    private WeatherResponse fetchWeatherData(Coordinates coordinates, String zipCode) throws WeatherServiceException {
+    private <T> T execute(Supplier<T> call) {
+        Deadline.current().require(Duration.ZERO, "the weather service call");
+        Span wait = tracer.startSpan("rate-limit.wait").setAttribute("upstream", UPSTREAM)
+                .setAttribute("limit", "concurrency");
+        RateLimitWaitEvent waitEvent = RateLimitWaitEvent.begin(UPSTREAM, "concurrency");
         try {
+            return concurrencyLimiter.execute(() -> {
+                wait.end();
+                waitEvent.end();
+                return circuitBreaker.executeSupplier(() -> {
+                    try {
+                        // Hedged attempts run on other threads and join the trace
+                        return requestHedger.execute(Deadline.wrap(tracer.wrap(call::get)));
+                    } catch (WeatherServiceException | DeadlineExceededException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            });
+        } finally {
+            // Rejected without a permit
+            wait.end();
+            waitEvent.commit();
+        }
+    }
 
-            URI uri = UriComponentsBuilder.fromUriString(OPEN_METEO_API_URL)
-                    .queryParam("latitude", coordinates.getLatitude())
-                    .queryParam("longitude", coordinates.getLongitude())
-                    .queryParam("hourly", "temperature_2m")
-                    .queryParam("daily", "temperature_2m_max,temperature_2m_min")
-                    .queryParam("current_weather", "true")
-                    .queryParam("timezone", "auto")
-                    .build()
-                    .toUri();
-
-            ResponseEntity<String> responseEntity = restTemplate.getForEntity(uri, String.class);
-            String response = responseEntity.getBody();
-
-            if (response == null) {
-                throw new WeatherServiceException("No weather data received from weather service");
-            }
+    /**
+     * Builds the URI of the complete forecast for a number of days.
+     */
+    URI buildForecastUri(Coordinates coordinates, int days) {
+        return UriComponentsBuilder.fromUriString(OPEN_METEO_API_URL)
+                .queryParam("latitude", coordinates.getLatitude())
+                .queryParam("longitude", coordinates.getLongitude())
+                .queryParam("hourly", "temperature_2m")
+                .queryParam("daily", "temperature_2m_max,temperature_2m_min")
+                .queryParam("current_weather", "true")
+                .queryParam("forecast_days", days)
+                .queryParam("timezone", "auto")
+                .build()
+                .toUri();
+    }
 
-            JsonNode rootNode = objectMapper.readTree(response);
+    private RawForecast fetchForecast(Coordinates coordinates, String zipCode, int days)
+            throws WeatherServiceException {
+        ResponseEntity<String> responseEntity = fetch(buildForecastUri(coordinates, days));
+        String response = responseEntity.getBody();
+        JsonParseEvent parseEvent = JsonParseEvent.begin(UPSTREAM, response);
+        try (Span span = tracer.startSpan("forecast.parse")) {
+            span.setAttribute("bytes", response.length());
+            return parseForecast(response, coordinates, zipCode, generatedAt(responseEntity.getHeaders()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            throw new WeatherServiceException("Error parsing weather service response: " + e.getMessage(), e);
+        } finally {
+            parseEvent.commit();
+        }
+    }
 
-            // Extract current temperature
-            double currentTemp;
-            if (rootNode.has("current_weather") && rootNode.get("current_weather").has("temperature")) {
-                currentTemp = rootNode.get("current_weather").get("temperature").asDouble();
-            } else {
-                // Fallback to first hourly value if current_weather not available
-                currentTemp = rootNode.path("hourly").path("temperature_2m").get(0).asDouble();
+    private ResponseEntity<String> fetch(URI uri) throws WeatherServiceException {
+        ResponseEntity<String> responseEntity = null;
+        String response = null;
+        int status = 0;
+        UpstreamCallEvent callEvent = UpstreamCallEvent.begin(UPSTREAM);
+        try (Span span = tracer.startSpan("forecast.http")) {
+            try {
+                responseEntity = restTemplate.getForEntity(uri, String.class);
+                status = responseEntity.getStatusCode().value();
+                span.setAttribute("http.status", status);
+                response = responseEntity.getBody();
+            } catch (RestClientException e) {
+                span.recordError(e);
+                if (Deadline.current().isExpired()) {
+                    throw Deadline.current().exceeded("the weather service responded");
+                }
+                throw new WeatherServiceException("Error communicating with weather service: " + e.getMessage(), e);
             }
+        } finally {
+            callEvent.commit(status, response);
+        }
 
-            // Extract high and low temperature
-            double highTemp = rootNode.path("daily").path("temperature_2m_max").get(0).asDouble();
-            double lowTemp = rootNode.path("daily").path("temperature_2m_min").get(0).asDouble();
-
-            // Create hourly forecast for next 24 hours
-            List<WeatherResponse.HourlyForecast> hourlyForecast = new ArrayList<>();
-            JsonNode hourlyTemp = rootNode.path("hourly").path("temperature_2m");
-            JsonNode hourlyTime = rootNode.path("hourly").path("time");
-            DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
-
-            int forecastHours = Math.min(24, hourlyTemp.size());
-            for (int i = 0; i < forecastHours; i++) {
-                String timeStr = hourlyTime.get(i).asText();
-                System.out.println("Raw time from API: " + timeStr);
-
-                LocalDateTime forecastTime;
-
-                // Handle different time formats that might be returned by the API
-                if (timeStr.contains("T")) {
-                    forecastTime = LocalDateTime.parse(timeStr, formatter);
-                } else {
-                    // If only date is provided, add time
-                    forecastTime = LocalDateTime.parse(timeStr + "T00:00:00", formatter).plusHours(i);
-                }
+        if (response == null) {
+            throw new WeatherServiceException("No weather data received from weather service");
+        }
+        return responseEntity;
+    }
 
-                double temperature = hourlyTemp.get(i).asDouble();
-                hourlyForecast.add(new WeatherResponse.HourlyForecast(forecastTime, temperature));
+    /**
+     * When the upstream generated a response: its Date minus its Age. A body
+     * served from the HTTP cache keeps the headers it was received with, so
+     * its forecast is not mistaken for a fresh one. Responses without a
+     * usable Date count as generated now.
+     */
+    static LocalDateTime generatedAt(HttpHeaders headers) {
+        long now = System.currentTimeMillis();
+        long generated = now;
+        try {
+            long date = headers.getDate();
+            if (date >= 0) {
+                String age = headers.getFirst("Age");
+                generated = date - (age != null ? Math.max(0, Long.parseLong(age.trim())) * 1000 : 0);
             }
+        } catch (IllegalArgumentException e) {
+            // Unparsable Date or Age, counted as generated now
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(Math.min(generated, now)), ZoneId.systemDefault());
+    }
 
-            // Build response
-            return WeatherResponse.builder().zipCode(zipCode).coordinates(coordinates).currentTemperature(currentTemp)
-                    .highTemperature(highTemp).lowTemperature(lowTemp).hourlyForecast(hourlyForecast)
-                    .timestamp(LocalDateTime.now()).fromCache(false).build();
+    private RawForecast parseForecast(String response, Coordinates coordinates, String zipCode,
+            LocalDateTime fetchedAt) throws JsonProcessingException {
+        JsonNode rootNode = objectMapper.readTree(response);
 
-        } catch (RestClientException e) {
-            throw new WeatherServiceException("Error communicating with weather service: " + e.getMessage(), e);
-        } catch (JsonProcessingException e) {
-            throw new WeatherServiceException("Error parsing weather service response: " + e.getMessage(), e);
+        JsonNode hourlyTime = rootNode.path("hourly").path("time");
+        JsonNode hourlyTemp = rootNode.path("hourly").path("temperature_2m");
+        int hours = Math.min(hourlyTime.size(), hourlyTemp.size());
+        double[] hourlyTemperatures = new double[hours];
+        for (int i = 0; i < hours; i++) {
+            hourlyTemperatures[i] = hourlyTemp.get(i).asDouble();
         }
+        LocalDateTime hourlyStart = null;
+        if (hours > 0) {
+            String timeStr = hourlyTime.get(0).asText();
+            hourlyStart = timeStr.contains("T")
+                    ? LocalDateTime.parse(timeStr, DateTimeFormatter.ISO_DATE_TIME)
+                    : LocalDate.parse(timeStr).atStartOfDay();
+        }
+
+        JsonNode dailyTime = rootNode.path("daily").path("time");
+        JsonNode dailyMax = rootNode.path("daily").path("temperature_2m_max");
+        JsonNode dailyMin = rootNode.path("daily").path("temperature_2m_min");
+        int days = Math.min(dailyTime.size(), Math.min(dailyMax.size(), dailyMin.size()));
+        double[] dailyHighs = new double[days];
+        double[] dailyLows = new double[days];
+        for (int i = 0; i < days; i++) {
+            dailyHighs[i] = dailyMax.get(i).asDouble();
+            dailyLows[i] = dailyMin.get(i).asDouble();
+        }
+        LocalDate dailyStart = days > 0 ? LocalDate.parse(dailyTime.get(0).asText()) : null;
+
+        Double currentTemp = null;
+        if (rootNode.path("current_weather").has("temperature")) {
+            currentTemp = rootNode.get("current_weather").get("temperature").asDouble();
+        } else if (hours > 0) {
+            // Fallback to first hourly value if current_weather not available
+            currentTemp = hourlyTemperatures[0];
+        }
+
+        Integer utcOffsetSeconds = rootNode.has("utc_offset_seconds")
+                ? rootNode.get("utc_offset_seconds").asInt()
+                : null;
+
+        return new RawForecast(zipCode, coordinates, utcOffsetSeconds, fetchedAt, currentTemp, hourlyStart,
+                hourlyTemperatures, dailyStart, dailyHighs, dailyLows);
     }
-}
\ No newline at end of file
+}
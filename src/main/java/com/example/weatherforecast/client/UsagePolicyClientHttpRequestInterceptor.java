@@ -0,0 +1,103 @@
+package com.example.weatherforecast.client;
+
+import com.example.weatherforecast.diagnostics.RateLimitWaitEvent;
+import com.example.weatherforecast.exception.DeadlineExceededException;
+import com.example.weatherforecast.resilience.Deadline;
+import com.example.weatherforecast.tracing.Span;
+import com.example.weatherforecast.tracing.Tracer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spaces out the calls to an upstream host whose usage policy limits the
+ * request rate, such as Nominatim's one request per second. The interceptor
+ * keeps the earliest time the next call may start; each call takes the next
+ * free slot and waits for it, so calls start at most once per interval no
+ * matter how many threads make them. Registered after the
+ * {@link CachingClientHttpRequestInterceptor}, so only calls that reach the
+ * network take a slot; responses served fresh from the HTTP cache return
+ * immediately. A call whose deadline would pass before its slot is abandoned
+ * without taking it.
+ *
+ * @since 1.1
+ */
+public class UsagePolicyClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private final String host;
+    private final String upstream;
+    private final long intervalNanos;
+    private final Tracer tracer;
+    private final AtomicLong nextCallNanos;
+
+    /**
+     * Constructs a new UsagePolicyClientHttpRequestInterceptor.
+     *
+     * @param host     Upstream host whose calls are paced
+     * @param upstream Name of the upstream in traces and recordings
+     * @param interval Least time between the starts of two calls to the host
+     * @param tracer   Tracer recording the wait
+     */
+    public UsagePolicyClientHttpRequestInterceptor(String host, String upstream, Duration interval, Tracer tracer) {
+        this.host = host;
+        this.upstream = upstream;
+        this.intervalNanos = interval.toNanos();
+        this.tracer = tracer;
+        this.nextCallNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * @throws DeadlineExceededException if the request's deadline leaves no
+     *                                   time for the call after its slot
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (host.equalsIgnoreCase(request.getURI().getHost())) {
+            await(reserve());
+        }
+        return execution.execute(request, body);
+    }
+
+    /**
+     * Takes the next free slot.
+     *
+     * @return Nanoseconds until the slot starts
+     */
+    private long reserve() {
+        Deadline deadline = Deadline.current();
+        while (true) {
+            long now = System.nanoTime();
+            long next = nextCallNanos.get();
+            long slot = Math.max(now, next);
+            // Check before taking the slot, so an abandoned call does not delay the others
+            deadline.require(Duration.ofNanos(slot - now), "the " + upstream + " call");
+            if (nextCallNanos.compareAndSet(next, slot + intervalNanos)) {
+                return slot - now;
+            }
+        }
+    }
+
+    private void await(long waitNanos) throws InterruptedIOException {
+        if (waitNanos <= 0) {
+            return;
+        }
+        RateLimitWaitEvent waitEvent = RateLimitWaitEvent.begin(upstream, "usage-policy");
+        try (Span span = tracer.startSpan("rate-limit.wait")) {
+            span.setAttribute("upstream", upstream).setAttribute("limit", "usage-policy");
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the " + upstream + " usage policy");
+        } finally {
+            waitEvent.commit();
+        }
+    }
+}
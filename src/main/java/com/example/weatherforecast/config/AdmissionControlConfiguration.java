@@ -0,0 +1,62 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.resilience.AdmissionController;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for load shedding in front of the forecast endpoints.
+ * Only requests that miss the cache pass through admission control; cached
+ * forecasts are served regardless of load.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class AdmissionControlConfiguration {
+
+    /**
+     * Creates the admission controller for forecast requests that need an
+     * upstream fetch. The target delay has to allow for a geocoding lookup,
+     * including the wait for a Nominatim usage policy slot, plus the forecast
+     * call.
+     *
+     * @return An AdmissionController for uncached forecast requests
+     */
+    @Bean
+    public AdmissionController forecastAdmissionController(MeterRegistry meterRegistry,
+            @Value("${weather.admission.max-in-flight:64}") int maxInFlight,
+            @Value("${weather.admission.target-delay-ms:3000}") long targetDelayMs,
+            @Value("${weather.admission.interval-ms:1000}") long intervalMs) {
+        AdmissionController admissionController = new AdmissionController(maxInFlight,
+                Duration.ofMillis(targetDelayMs), Duration.ofMillis(intervalMs));
+        Gauge.builder("weather.admission.inflight", admissionController, AdmissionController::getInFlight)
+                .description("Uncached forecast requests currently running")
+                .register(meterRegistry);
+        Gauge.builder("weather.admission.standing.delay", admissionController,
+                AdmissionController::getStandingDelayMillis)
+                .description("Shortest uncached forecast request time over the last interval, in milliseconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.admission.requests", admissionController,
+                AdmissionController::getAdmittedCount)
+                .tag("outcome", "admitted")
+                .description("Uncached forecast requests by admission outcome")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.admission.requests", admissionController,
+                AdmissionController::getRejectedInFlightCount)
+                .tag("outcome", "rejected_in_flight")
+                .description("Uncached forecast requests by admission outcome")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.admission.requests", admissionController,
+                AdmissionController::getRejectedDelayCount)
+                .tag("outcome", "rejected_delay")
+                .description("Uncached forecast requests by admission outcome")
+                .register(meterRegistry);
+        return admissionController;
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.weatherforecast.config;
 
+import com.example.weatherforecast.client.CachingClientHttpRequestInterceptor;
+import com.example.weatherforecast.client.DeadlineClientHttpRequestFactory;
+import com.example.weatherforecast.client.UsagePolicyClientHttpRequestInterceptor;
+import com.example.weatherforecast.tracing.Tracer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Configuration class for API client components.
  * Sets up RestTemplate and other required beans for making API calls.
@@ -17,9 +28,16 @@ import org.springframework.web.client.RestTemplate;
  */
 @Configuration
 public class ApiClientConfig {
+
+    // Upstream hosts whose HTTP cache outcomes are exported as metrics
+    private static final List<String> UPSTREAM_HOSTS = List.of("api.open-meteo.com", "nominatim.openstreetmap.org");
+    // Nominatim usage policy allows one request per second
+    private static final Duration NOMINATIM_USAGE_POLICY_INTERVAL = Duration.ofSeconds(1);
+
     /**
      * Creates an ObjectMapper bean for JSON serialization and deserialization.
-     * Configured with appropriate modules and serialization settings.
+     * Configured with appropriate modules and serialization settings, and
+     * with the hand-written forecast serializers of {@link WeatherJsonModule}.
      * 
      * @return A configured ObjectMapper instance
      */
@@ -27,25 +45,70 @@ public class ApiClientConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new WeatherJsonModule());
         return mapper;
     }
 
+    /**
+     * Creates the request factory for outbound calls. The timeouts are upper
+     * bounds; each call is further limited to the time left before the
+     * deadline of the request it serves.
+     * 
+     * @return A configured ClientHttpRequestFactory instance
+     */
     @Bean
     public ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        DeadlineClientHttpRequestFactory factory = new DeadlineClientHttpRequestFactory();
         factory.setConnectTimeout(5000); // 5 seconds
         factory.setReadTimeout(5000); // 5 seconds
         return factory;
     }
 
+    /**
+     * Creates the HTTP cache for outbound calls, which honours the upstreams'
+     * Cache-Control, ETag and Last-Modified headers.
+     * 
+     * @return A CachingClientHttpRequestInterceptor with per-host metrics
+     *         registered
+     */
+    @Bean
+    public CachingClientHttpRequestInterceptor httpResponseCache(MeterRegistry meterRegistry,
+            @Value("${weather.http-cache.max-size-mb:16}") long maxSizeMb,
+            @Value("${weather.http-cache.max-entry-kb:512}") long maxEntryKb,
+            @Value("${weather.http-cache.retention-minutes:60}") long retentionMinutes) {
+        CachingClientHttpRequestInterceptor cache = new CachingClientHttpRequestInterceptor(
+                maxSizeMb * 1024 * 1024, maxEntryKb * 1024, Duration.ofMinutes(retentionMinutes), Clock.systemUTC());
+        for (String host : UPSTREAM_HOSTS) {
+            for (CachingClientHttpRequestInterceptor.Outcome outcome : CachingClientHttpRequestInterceptor.Outcome
+                    .values()) {
+                FunctionCounter.builder("weather.upstream.http.cache", cache, c -> c.getCount(host, outcome))
+                        .tag("host", host)
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .description("Outbound GET calls by HTTP cache outcome")
+                        .register(meterRegistry);
+            }
+        }
+        Gauge.builder("weather.upstream.http.cache.size", cache, CachingClientHttpRequestInterceptor::getStoredCount)
+                .description("Upstream responses held by the HTTP cache")
+                .register(meterRegistry);
+        return cache;
+    }
+
     /**
      * Creates a RestTemplate bean for making HTTP requests to external APIs.
-     * Configured with appropriate connection and read timeouts.
+     * Configured with appropriate connection and read timeouts, with the
+     * outbound HTTP cache and, behind it, the pacing of Nominatim's usage
+     * policy, so only calls that reach the network are paced.
      * 
      * @return A configured RestTemplate instance
      */
     @Bean
-    public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory) {
-        return new RestTemplate(clientHttpRequestFactory);
+    public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory,
+            CachingClientHttpRequestInterceptor httpResponseCache, Tracer tracer) {
+        RestTemplate restTemplate = new RestTemplate(clientHttpRequestFactory);
+        restTemplate.getInterceptors().add(httpResponseCache);
+        restTemplate.getInterceptors().add(new UsagePolicyClientHttpRequestInterceptor(
+                "nominatim.openstreetmap.org", "nominatimApi", NOMINATIM_USAGE_POLICY_INTERVAL, tracer));
+        return restTemplate;
     }
 }
\ No newline at end of file
@@ -1,32 +1,86 @@
 package com.example.weatherforecast.config;
 
+import com.example.weatherforecast.repository.ForecastExpiry;
+import com.example.weatherforecast.repository.ForecastWeigher;
+import com.example.weatherforecast.repository.GeocodingCache;
+import com.example.weatherforecast.repository.SpatialForecastIndex;
+import com.example.weatherforecast.repository.WeatherCacheCapacity;
+import com.example.weatherforecast.service.CurrentConditionsDeriver;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import java.util.concurrent.TimeUnit;
+
+import java.time.Clock;
+import java.time.Duration;
 
 /**
  * Configuration class for setting up caching in the application.
- * Configures Caffeine cache with appropriate time-to-live settings.
+ * Configures Caffeine cache with per-entry expiry that follows the upstream
+ * forecast update cadence, bounded by the estimated bytes of its entries.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    /**
+     * Creates the expiry policy for cached forecasts.
+     *
+     * @return A ForecastExpiry configured from the weather.cache.expiry
+     *         properties, or following the hourly series when current
+     *         conditions are derived on read
+     */
     @Bean
-    public Caffeine<Object, Object> caffeineConfig() {
+    public ForecastExpiry forecastExpiry(
+            @Value("${weather.cache.expiry.policy:MODEL_UPDATE}") ForecastExpiry.Policy policy,
+            @Value("${weather.cache.expiry.fixed-ttl-minutes:15}") long fixedTtlMinutes,
+            @Value("${weather.cache.expiry.model-update-interval-minutes:60}") long modelUpdateIntervalMinutes,
+            @Value("${weather.cache.expiry.model-publication-delay-minutes:5}") long modelPublicationDelayMinutes,
+            @Value("${weather.cache.expiry.min-ttl-minutes:1}") long minTtlMinutes,
+            @Value("${weather.cache.expiry.max-ttl-minutes:180}") long maxTtlMinutes,
+            CurrentConditionsDeriver currentConditionsDeriver) {
+        Duration maxTtl = Duration.ofMinutes(maxTtlMinutes);
+        if (currentConditionsDeriver.isEnabled()) {
+            // Current conditions are derived on read, so entries live as long as
+            // their hourly series allows
+            policy = ForecastExpiry.Policy.SERIES;
+            maxTtl = currentConditionsDeriver.getMaxAge();
+        }
+        return new ForecastExpiry(policy, Duration.ofMinutes(fixedTtlMinutes),
+                Duration.ofMinutes(modelUpdateIntervalMinutes), Duration.ofMinutes(modelPublicationDelayMinutes),
+                Duration.ofMinutes(minTtlMinutes), maxTtl, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the Caffeine builder for the weather cache. Entries are weighed
+     * by their estimated size in bytes; the capacity is managed by
+     * {@link WeatherCacheCapacity}. Evicted entries are dropped from the
+     * spatial index as part of the eviction.
+     *
+     * @return The configured Caffeine builder
+     */
+    @Bean
+    public Caffeine<Object, Object> caffeineConfig(ForecastExpiry forecastExpiry, SpatialForecastIndex spatialIndex,
+            @Value("${weather.cache.max-size-mb:64}") long maxSizeMb) {
         return Caffeine.newBuilder()
-                .expireAfterWrite(15, TimeUnit.MINUTES)
+                .expireAfter(forecastExpiry)
+                .evictionListener((key, value, cause) -> spatialIndex.remove(String.valueOf(key)))
                 .initialCapacity(10)
-                .maximumSize(100);
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher(new ForecastWeigher())
+                .recordStats();
     }
 
     /**
      * Configures the cache manager using Caffeine as the cache provider.
-     * 
+     *
      * @return A CacheManager instance configured with appropriate settings
      */
     @Bean
@@ -35,4 +89,54 @@ public class CacheConfig {
         cacheManager.setCaffeine(caffeine);
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates the capacity control of the weather cache, which shrinks the
+     * cache under heap pressure and allows resizing it at runtime.
+     *
+     * @return A WeatherCacheCapacity for the weather cache
+     */
+    @Bean(destroyMethod = "close")
+    public WeatherCacheCapacity weatherCacheCapacity(CacheManager cacheManager, MeterRegistry meterRegistry,
+            @Value("${weather.cache.max-size-mb:64}") long maxSizeMb,
+            @Value("${weather.cache.min-size-mb:4}") long minSizeMb,
+            @Value("${weather.cache.heap-pressure.threshold:0.8}") double pressureRatio,
+            @Value("${weather.cache.heap-pressure.recovery-threshold:0.6}") double recoveryRatio,
+            @Value("${weather.cache.heap-pressure.shrink-factor:0.5}") double shrinkFactor,
+            @Value("${weather.cache.heap-pressure.recovery-interval-seconds:30}") long recoveryIntervalSeconds) {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache("weatherCache");
+        WeatherCacheCapacity capacity = new WeatherCacheCapacity(cache.getNativeCache(), maxSizeMb * 1024 * 1024,
+                minSizeMb * 1024 * 1024, pressureRatio, recoveryRatio, shrinkFactor,
+                Duration.ofSeconds(recoveryIntervalSeconds));
+        Gauge.builder("weather.cache.capacity", capacity, WeatherCacheCapacity::getConfiguredBytes)
+                .tag("kind", "configured")
+                .baseUnit("bytes")
+                .description("Weather cache capacity")
+                .register(meterRegistry);
+        Gauge.builder("weather.cache.capacity", capacity, WeatherCacheCapacity::getEffectiveBytes)
+                .tag("kind", "effective")
+                .baseUnit("bytes")
+                .description("Weather cache capacity")
+                .register(meterRegistry);
+        Gauge.builder("weather.cache.weight", capacity, WeatherCacheCapacity::getWeightedBytes)
+                .baseUnit("bytes")
+                .description("Estimated bytes held by the weather cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.cache.heap.pressure", capacity, WeatherCacheCapacity::getHeapPressureEvents)
+                .description("Times heap pressure shrank the weather cache")
+                .register(meterRegistry);
+        return capacity;
+    }
+
+    /**
+     * Creates the cache of geocoded zip/postal codes.
+     *
+     * @return A GeocodingCache holding up to weather.geocoding.cache.max-entries
+     *         codes
+     */
+    @Bean
+    public GeocodingCache geocodingCache(
+            @Value("${weather.geocoding.cache.max-entries:100000}") long maxEntries) {
+        return new GeocodingCache(maxEntries);
+    }
+}
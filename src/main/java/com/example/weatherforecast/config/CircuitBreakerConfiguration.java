@@ -1,45 +1,40 @@
 package com.example.weatherforecast.config;
 
+import com.example.weatherforecast.resilience.CircuitBreakerMetrics;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.time.Duration;
-
 /**
  * Configuration class for setting up Circuit Breaker patterns in the
  * application.
  * Configures circuit breakers for external API calls to improve resilience.
+ * The registry is built by the Resilience4j starter from the
+ * {@code resilience4j.circuitbreaker.*} properties, so each upstream has its
+ * own profile of failure and slow call thresholds over a time-based window.
  * 
  * @since 1.0
  */
 @Configuration
 public class CircuitBreakerConfiguration {
+
     /**
-     * Creates a CircuitBreaker instance for the Nominatim geocoding service.
-     * Configured with appropriate timeout, retry, and failure rate thresholds.
-     * 
-     * @return A CircuitBreaker instance for Nominatim API calls
+     * Exports the state and transitions of every circuit breaker in the
+     * registry. The starter passes all such consumers to the registry it
+     * builds.
+     *
+     * @return CircuitBreakerMetrics registering with the application's meters
      */
     @Bean
-    public CircuitBreakerRegistry circuitBreakerRegistry() {
-        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
-                .failureRateThreshold(50) // Open circuit if 50% of calls fail
-                .waitDurationInOpenState(Duration.ofSeconds(60)) // Wait 60s before half-open
-                .slidingWindowSize(10) // Use last 10 calls to calculate failure rate
-                .permittedNumberOfCallsInHalfOpenState(3) // Allow 3 calls in half-open state
-                .minimumNumberOfCalls(5) // Need at least 5 calls to calculate failure rate
-                .automaticTransitionFromOpenToHalfOpenEnabled(true)
-                .build();
-
-        return CircuitBreakerRegistry.of(config);
+    public CircuitBreakerMetrics circuitBreakerMetrics(MeterRegistry meterRegistry) {
+        return new CircuitBreakerMetrics(meterRegistry);
     }
 
     /**
      * Creates a CircuitBreaker instance for the Nominatim geocoding service.
-     * Configured with appropriate timeout, retry, and failure rate thresholds.
+     * Configured by the {@code nominatimApi} instance properties.
      * 
      * @return A CircuitBreaker instance for Nominatim API calls
      */
@@ -50,7 +45,7 @@ public class CircuitBreakerConfiguration {
 
     /**
      * Creates a CircuitBreaker instance for the Open-Meteo weather service.
-     * Configured with appropriate timeout, retry, and failure rate thresholds.
+     * Configured by the {@code openMeteoApi} instance properties.
      * 
      * @return A CircuitBreaker instance for Open-Meteo API calls
      */
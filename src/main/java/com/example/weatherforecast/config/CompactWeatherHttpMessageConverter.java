@@ -0,0 +1,67 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.model.CompactWeatherResponse;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link WeatherResponse} bodies as a {@link CompactWeatherResponse} in
+ * CBOR or Smile, selected by the request's {@code Accept} header. Other
+ * response types in these encodings, such as errors, are left to the standard
+ * Jackson converters.
+ *
+ * @since 1.1
+ */
+public class CompactWeatherHttpMessageConverter extends AbstractHttpMessageConverter<WeatherResponse> {
+
+    /**
+     * Media type of the Smile binary JSON encoding.
+     */
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final ObjectMapper smileMapper = new SmileMapper();
+
+    /**
+     * Constructs a new converter for CBOR and Smile.
+     */
+    public CompactWeatherHttpMessageConverter() {
+        super(MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return WeatherResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected WeatherResponse readInternal(@NonNull Class<? extends WeatherResponse> clazz,
+            @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Compact forecasts are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull WeatherResponse response, @NonNull HttpOutputMessage outputMessage)
+            throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        ObjectMapper mapper = APPLICATION_SMILE.isCompatibleWith(contentType) ? smileMapper : cborMapper;
+        mapper.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), CompactWeatherResponse.from(response));
+    }
+}
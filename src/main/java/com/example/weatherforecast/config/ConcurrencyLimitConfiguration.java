@@ -0,0 +1,87 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.resilience.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the adaptive concurrency limits on outbound API
+ * calls.
+ * Each upstream gets its own limiter so that a slow dependency can only tie up
+ * a bounded number of request threads.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class ConcurrencyLimitConfiguration {
+
+    /**
+     * Creates the concurrency limiter for the Nominatim geocoding service.
+     * The latency threshold has to allow for the wait for a slot under the
+     * Nominatim usage policy, which starts calls at most once per second.
+     *
+     * @return An AdaptiveConcurrencyLimiter for Nominatim API calls
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter nominatimConcurrencyLimiter(MeterRegistry meterRegistry,
+            @Value("${nominatim.concurrency.initial-limit:4}") int initialLimit,
+            @Value("${nominatim.concurrency.min-limit:1}") int minLimit,
+            @Value("${nominatim.concurrency.max-limit:10}") int maxLimit,
+            @Value("${nominatim.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${nominatim.concurrency.latency-threshold-ms:2500}") long latencyThresholdMs,
+            @Value("${nominatim.concurrency.max-queue-wait-ms:0}") long maxQueueWaitMs,
+            @Value("${nominatim.concurrency.max-queue-size:0}") int maxQueueSize) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("nominatimApi", initialLimit, minLimit,
+                maxLimit, backoffRatio, Duration.ofMillis(latencyThresholdMs), Duration.ofMillis(maxQueueWaitMs),
+                maxQueueSize);
+        bindMetrics(limiter, meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Creates the concurrency limiter for the Open-Meteo weather service.
+     *
+     * @return An AdaptiveConcurrencyLimiter for Open-Meteo API calls
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter openMeteoConcurrencyLimiter(MeterRegistry meterRegistry,
+            @Value("${openmeteo.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${openmeteo.concurrency.min-limit:2}") int minLimit,
+            @Value("${openmeteo.concurrency.max-limit:100}") int maxLimit,
+            @Value("${openmeteo.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${openmeteo.concurrency.latency-threshold-ms:1000}") long latencyThresholdMs,
+            @Value("${openmeteo.concurrency.max-queue-wait-ms:50}") long maxQueueWaitMs,
+            @Value("${openmeteo.concurrency.max-queue-size:20}") int maxQueueSize) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("openMeteoApi", initialLimit, minLimit,
+                maxLimit, backoffRatio, Duration.ofMillis(latencyThresholdMs), Duration.ofMillis(maxQueueWaitMs),
+                maxQueueSize);
+        bindMetrics(limiter, meterRegistry);
+        return limiter;
+    }
+
+    private void bindMetrics(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder("weather.upstream.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("upstream", limiter.getName())
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("weather.upstream.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("upstream", limiter.getName())
+                .description("Calls currently holding a permit")
+                .register(meterRegistry);
+        Gauge.builder("weather.upstream.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                .tag("upstream", limiter.getName())
+                .description("Calls currently waiting for a permit")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.upstream.concurrency.rejected", limiter,
+                AdaptiveConcurrencyLimiter::getRejectedCount)
+                .tag("upstream", limiter.getName())
+                .description("Calls rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+    }
+}
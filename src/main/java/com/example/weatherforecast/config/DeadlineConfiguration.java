@@ -0,0 +1,35 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.resilience.DeadlineFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for request deadlines.
+ * Every API request gets a time budget that the geocoding and forecast calls
+ * it makes share, instead of each hop waiting out its own fixed timeout.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class DeadlineConfiguration {
+
+    /**
+     * Registers the filter giving each API request its deadline.
+     *
+     * @return The filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(
+            @Value("${weather.deadline.default-ms:8000}") long defaultMs,
+            @Value("${weather.deadline.max-ms:30000}") long maxMs) {
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(
+                new DeadlineFilter(Duration.ofMillis(defaultMs), Duration.ofMillis(maxMs)));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.diagnostics.FlightRecordings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration class for JDK Flight Recorder recordings of the application's
+ * request stages.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class FlightRecorderConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderConfiguration.class);
+
+    /**
+     * Creates the control of the application's recording, started right away
+     * when recording is continuous. With the default settings a recording
+     * costs about 1% of throughput, and only its most recent data is kept.
+     *
+     * @return FlightRecordings writing dumps to the configured directory
+     */
+    @Bean(destroyMethod = "close")
+    public FlightRecordings flightRecordings(
+            @Value("${weather.jfr.directory:${java.io.tmpdir}/weather-recordings}") String directory,
+            @Value("${weather.jfr.max-age-minutes:30}") long maxAgeMinutes,
+            @Value("${weather.jfr.max-size-mb:100}") long maxSizeMb,
+            @Value("${weather.jfr.kept-dumps:10}") int keptDumps,
+            @Value("${weather.jfr.continuous:true}") boolean continuous,
+            @Value("${weather.jfr.settings:default}") String settings) {
+        FlightRecordings recordings = new FlightRecordings(Path.of(directory), Duration.ofMinutes(maxAgeMinutes),
+                maxSizeMb * 1024 * 1024, keptDumps);
+        if (continuous) {
+            recordings.start(settings);
+            log.info("Continuous flight recording started with {} settings", settings);
+        }
+        return recordings;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.resilience.LatencyHistogram;
+import com.example.weatherforecast.resilience.RequestHedger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration class for hedged requests to the Open-Meteo weather service.
+ * Hedging is off by default; the latency histogram is maintained either way so
+ * that the hedge delay is meaningful as soon as hedging is switched on.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class HedgingConfiguration {
+
+    /**
+     * Creates the request hedger for Open-Meteo forecast calls.
+     *
+     * @return A RequestHedger for Open-Meteo API calls
+     */
+    @Bean
+    public RequestHedger openMeteoRequestHedger(MeterRegistry meterRegistry,
+            @Value("${openmeteo.hedging.enabled:false}") boolean enabled,
+            @Value("${openmeteo.hedging.percentile:95}") double percentile,
+            @Value("${openmeteo.hedging.min-delay-ms:50}") long minDelayMs,
+            @Value("${openmeteo.hedging.budget-ratio:0.05}") double budgetRatio,
+            @Value("${openmeteo.hedging.max-burst:10}") int maxBurst,
+            @Value("${openmeteo.hedging.window-seconds:60}") long windowSeconds,
+            @Value("${openmeteo.hedging.max-threads:32}") int maxThreads) {
+        ExecutorService executor = enabled ? hedgingExecutor(maxThreads) : null;
+        RequestHedger hedger = new RequestHedger(enabled, percentile, Duration.ofMillis(minDelayMs), budgetRatio,
+                maxBurst, new LatencyHistogram(Duration.ofSeconds(windowSeconds)), executor);
+
+        FunctionCounter.builder("weather.upstream.hedge.sent", hedger, RequestHedger::getHedgesSent)
+                .tag("upstream", "openMeteoApi")
+                .description("Hedged requests sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.upstream.hedge.won", hedger, RequestHedger::getHedgesWon)
+                .tag("upstream", "openMeteoApi")
+                .description("Hedged requests that finished before the original")
+                .register(meterRegistry);
+        Gauge.builder("weather.upstream.hedge.delay", hedger, RequestHedger::getHedgeDelayMillis)
+                .tag("upstream", "openMeteoApi")
+                .baseUnit("milliseconds")
+                .description("Current delay before a hedged request is sent")
+                .register(meterRegistry);
+        return hedger;
+    }
+
+    private ExecutorService hedgingExecutor(int maxThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxThreads), runnable -> {
+                    Thread thread = new Thread(runnable, "openmeteo-hedge-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.management.HotKeyTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for hot key tracking on the forecast endpoints.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class HotKeyConfiguration {
+
+    /**
+     * Creates the tracker of heavily requested cache keys. Each window holds
+     * three sketches of depth times width counters; with the defaults that is
+     * 96 KB per window, and a key's count is overestimated by at most 0.3% of
+     * the window's traffic with 98% probability.
+     *
+     * @return A HotKeyTracker fed by the forecast endpoints
+     */
+    @Bean(destroyMethod = "close")
+    public HotKeyTracker hotKeyTracker(
+            @Value("${weather.hotkeys.enabled:true}") boolean enabled,
+            @Value("${weather.hotkeys.sketch-width:1024}") int width,
+            @Value("${weather.hotkeys.sketch-depth:4}") int depth,
+            @Value("${weather.hotkeys.tracked-keys:100}") int trackedKeys,
+            @Value("${weather.hotkeys.window-seconds:60}") long windowSeconds) {
+        return new HotKeyTracker(enabled, width, depth, trackedKeys, Duration.ofSeconds(windowSeconds));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.repository.PostalCodeIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Configuration class for postal code suggestions.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class PostalCodeConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(PostalCodeConfiguration.class);
+
+    /**
+     * Creates the prefix index of postal codes from a local dataset in the
+     * GeoNames postal code format, either as a text file or as the zip
+     * archive GeoNames publishes. Without a dataset, the index is empty and
+     * no suggestions are made.
+     *
+     * @return The PostalCodeIndex of weather.postal.dataset
+     * @throws IOException if the dataset cannot be read
+     */
+    @Bean
+    public PostalCodeIndex postalCodeIndex(MeterRegistry meterRegistry,
+            @Value("${weather.postal.dataset:}") String dataset) throws IOException {
+        PostalCodeIndex index = dataset.isBlank() ? PostalCodeIndex.empty() : read(Path.of(dataset));
+        if (!dataset.isBlank()) {
+            log.info("Indexed {} postal codes from {} in {} KB", index.size(), dataset,
+                    index.getSizeInBytes() / 1024);
+        }
+        Gauge.builder("weather.postal.index.size", index, PostalCodeIndex::size)
+                .description("Postal codes available for suggestions")
+                .register(meterRegistry);
+        return index;
+    }
+
+    private static PostalCodeIndex read(Path dataset) throws IOException {
+        try (InputStream input = Files.newInputStream(dataset)) {
+            if (!dataset.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                return PostalCodeIndex.read(new InputStreamReader(input, StandardCharsets.UTF_8));
+            }
+            ZipInputStream zip = new ZipInputStream(input);
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                // GeoNames archives hold the data file next to a readme.txt
+                String name = entry.getName().toLowerCase(Locale.ROOT);
+                if (name.endsWith(".txt") && !name.endsWith("readme.txt")) {
+                    return PostalCodeIndex.read(new InputStreamReader(zip, StandardCharsets.UTF_8));
+                }
+            }
+            throw new IOException("No postal code data in " + dataset);
+        }
+    }
+}
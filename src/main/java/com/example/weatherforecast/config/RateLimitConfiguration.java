@@ -0,0 +1,100 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.controller.ClientRateLimitInterceptor;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.resilience.ClientRateLimiter;
+import com.example.weatherforecast.service.CoordinateGrid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for per-client rate limits on the weather API.
+ * Cache hits are charged to a generous request limit; requests that will
+ * reach Nominatim and Open-Meteo are also charged to a stricter upstream
+ * limit, so a few clients cannot use up the shared upstream budget.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class RateLimitConfiguration {
+
+    /**
+     * Creates the per-client limit charged for every weather API request.
+     *
+     * @return A ClientRateLimiter for all requests
+     */
+    @Bean
+    public ClientRateLimiter requestRateLimiter(MeterRegistry meterRegistry,
+            @Value("${weather.ratelimit.requests.per-second:20}") double permitsPerSecond,
+            @Value("${weather.ratelimit.requests.burst:40}") int burst,
+            @Value("${weather.ratelimit.max-clients:10000}") int maxClients,
+            @Value("${weather.ratelimit.idle-timeout-seconds:300}") long idleTimeoutSeconds,
+            @Value("${weather.ratelimit.stripes:16}") int stripes) {
+        ClientRateLimiter limiter = new ClientRateLimiter("requests", permitsPerSecond, burst, maxClients,
+                Duration.ofSeconds(idleTimeoutSeconds), stripes);
+        bindMetrics(limiter, meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Creates the per-client limit charged for forecast requests that are not
+     * cached, per uncached zip code of a stream subscription and per export
+     * entry that misses the cache.
+     *
+     * @return A ClientRateLimiter for requests reaching the upstream APIs
+     */
+    @Bean
+    public ClientRateLimiter upstreamRateLimiter(MeterRegistry meterRegistry,
+            @Value("${weather.ratelimit.upstream.per-second:0.5}") double permitsPerSecond,
+            @Value("${weather.ratelimit.upstream.burst:5}") int burst,
+            @Value("${weather.ratelimit.max-clients:10000}") int maxClients,
+            @Value("${weather.ratelimit.idle-timeout-seconds:300}") long idleTimeoutSeconds,
+            @Value("${weather.ratelimit.stripes:16}") int stripes) {
+        ClientRateLimiter limiter = new ClientRateLimiter("upstream", permitsPerSecond, burst, maxClients,
+                Duration.ofSeconds(idleTimeoutSeconds), stripes);
+        bindMetrics(limiter, meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Creates the interceptor applying both limits ahead of the controllers.
+     *
+     * @return A ClientRateLimitInterceptor for the weather API
+     */
+    @Bean
+    public ClientRateLimitInterceptor clientRateLimitInterceptor(ClientRateLimiter requestRateLimiter,
+            ClientRateLimiter upstreamRateLimiter, WeatherCacheRepository cacheRepository,
+            CoordinateGrid coordinateGrid, ObjectMapper objectMapper,
+            @Value("${weather.ratelimit.api-key-header:X-API-Key}") String apiKeyHeader) {
+        return new ClientRateLimitInterceptor(requestRateLimiter, upstreamRateLimiter, cacheRepository,
+                coordinateGrid, objectMapper, apiKeyHeader);
+    }
+
+    private void bindMetrics(ClientRateLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder("weather.ratelimit.clients", limiter, ClientRateLimiter::getClientCount)
+                .tag("limit", limiter.getName())
+                .description("Clients with a tracked rate limit bucket")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.ratelimit.requests", limiter, ClientRateLimiter::getAllowedCount)
+                .tag("limit", limiter.getName())
+                .tag("outcome", "allowed")
+                .description("Requests checked against a per-client rate limit")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.ratelimit.requests", limiter, ClientRateLimiter::getRejectedCount)
+                .tag("limit", limiter.getName())
+                .tag("outcome", "rejected")
+                .description("Requests checked against a per-client rate limit")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.ratelimit.evicted", limiter, ClientRateLimiter::getEvictedCount)
+                .tag("limit", limiter.getName())
+                .description("Client buckets evicted to make room for new clients")
+                .register(meterRegistry);
+    }
+}
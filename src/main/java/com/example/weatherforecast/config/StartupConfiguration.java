@@ -0,0 +1,32 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.controller.HomeController;
+import com.example.weatherforecast.controller.WeatherController;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for faster startup with
+ * {@code spring.main.lazy-initialization=true}. Beans needed to serve the
+ * forecast endpoint and the UI, and everything they depend on, are still
+ * created at startup, so the first request does not pay for them. Streams,
+ * exports and other features are only initialized when first used.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class StartupConfiguration {
+
+    /**
+     * Keeps the beans on the path of the first forecast request eager when lazy
+     * initialization is enabled.
+     *
+     * @return A filter excluding the forecast and UI controllers from lazy
+     *         initialization
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerForecastPath() {
+        return LazyInitializationExcludeFilter.forBeanTypes(WeatherController.class, HomeController.class);
+    }
+}
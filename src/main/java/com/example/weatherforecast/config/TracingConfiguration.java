@@ -0,0 +1,119 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.tracing.AsyncSpanProcessor;
+import com.example.weatherforecast.tracing.FileSpanExporter;
+import com.example.weatherforecast.tracing.OtlpHttpSpanExporter;
+import com.example.weatherforecast.tracing.SpanExporter;
+import com.example.weatherforecast.tracing.Tracer;
+import com.example.weatherforecast.tracing.TracingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration class for request tracing.
+ * Spans of sampled requests are exported in the background to a local file or
+ * an OTLP collector; with the {@code NONE} exporter nothing is sampled.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class TracingConfiguration {
+
+    /**
+     * Where spans are exported to.
+     */
+    public enum Exporter {
+        /** Newline delimited JSON appended to a local file */
+        FILE,
+        /** OTLP over HTTP with JSON encoding */
+        OTLP,
+        /** Tracing off */
+        NONE
+    }
+
+    /**
+     * Creates the span exporter selected by weather.tracing.exporter.
+     *
+     * @return The exporter
+     */
+    @Bean
+    public SpanExporter spanExporter(ObjectMapper objectMapper,
+            @Value("${weather.tracing.exporter:FILE}") Exporter exporter,
+            @Value("${weather.tracing.file.path:${java.io.tmpdir}/weather-forecast-spans.ndjson}") String filePath,
+            @Value("${weather.tracing.otlp.endpoint:http://localhost:4318/v1/traces}") String otlpEndpoint,
+            @Value("${weather.tracing.otlp.timeout-ms:2000}") long otlpTimeoutMs,
+            @Value("${spring.application.name:weather-forecast}") String serviceName) {
+        return switch (exporter) {
+            case FILE -> new FileSpanExporter(Path.of(filePath), objectMapper);
+            case OTLP -> new OtlpHttpSpanExporter(URI.create(otlpEndpoint), serviceName, objectMapper,
+                    Duration.ofMillis(otlpTimeoutMs));
+            case NONE -> spans -> {
+            };
+        };
+    }
+
+    /**
+     * Creates the processor exporting spans in the background.
+     *
+     * @return An AsyncSpanProcessor with span metrics registered
+     */
+    @Bean(destroyMethod = "close")
+    public AsyncSpanProcessor spanProcessor(SpanExporter spanExporter, MeterRegistry meterRegistry,
+            @Value("${weather.tracing.queue-size:2048}") int queueSize,
+            @Value("${weather.tracing.batch-size:256}") int batchSize,
+            @Value("${weather.tracing.flush-interval-ms:1000}") long flushIntervalMs) {
+        AsyncSpanProcessor processor = new AsyncSpanProcessor(spanExporter, queueSize, batchSize,
+                Duration.ofMillis(flushIntervalMs));
+
+        FunctionCounter.builder("weather.tracing.spans", processor, AsyncSpanProcessor::getExportedCount)
+                .description("Spans of sampled traces by export outcome")
+                .tag("outcome", "exported")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.tracing.spans", processor, AsyncSpanProcessor::getDroppedCount)
+                .description("Spans of sampled traces by export outcome")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.tracing.spans", processor, AsyncSpanProcessor::getFailedCount)
+                .description("Spans of sampled traces by export outcome")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        Gauge.builder("weather.tracing.queue", processor, AsyncSpanProcessor::getQueueSize)
+                .description("Spans waiting for export")
+                .register(meterRegistry);
+        return processor;
+    }
+
+    /**
+     * Creates the tracer with head-based sampling.
+     *
+     * @return A Tracer sampling weather.tracing.sample-ratio of new traces
+     */
+    @Bean
+    public Tracer tracer(AsyncSpanProcessor spanProcessor,
+            @Value("${weather.tracing.exporter:FILE}") Exporter exporter,
+            @Value("${weather.tracing.sample-ratio:0.05}") double sampleRatio) {
+        return new Tracer(exporter == Exporter.NONE ? 0 : sampleRatio, spanProcessor);
+    }
+
+    /**
+     * Registers the filter starting a trace for each API request.
+     *
+     * @return The filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
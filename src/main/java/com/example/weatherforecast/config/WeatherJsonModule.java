@@ -0,0 +1,237 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Jackson module with hand-written serializers for forecasts, the most
+ * frequently written type. They produce the same JSON as the annotated
+ * model classes, but write every field directly instead of going through
+ * reflective property access, use pre-encoded field names, and format
+ * timestamps with a fixed-width writer instead of a pattern formatter.
+ * <p>
+ * Any change to the JSON shape of {@link WeatherResponse},
+ * {@link WeatherResponse.HourlyForecast}, {@link WeatherResponse.DailyForecast}
+ * or {@link Coordinates} has to be made here as well;
+ * {@code WeatherJsonModuleTest} compares both against each other.
+ *
+ * @since 1.1
+ */
+public class WeatherJsonModule extends SimpleModule {
+
+    private static final SerializableString ZIP_CODE = new SerializedString("zipCode");
+    private static final SerializableString COORDINATES = new SerializedString("coordinates");
+    private static final SerializableString LATITUDE = new SerializedString("latitude");
+    private static final SerializableString LONGITUDE = new SerializedString("longitude");
+    private static final SerializableString CURRENT_TEMPERATURE = new SerializedString("currentTemperature");
+    private static final SerializableString HIGH_TEMPERATURE = new SerializedString("highTemperature");
+    private static final SerializableString LOW_TEMPERATURE = new SerializedString("lowTemperature");
+    private static final SerializableString HOURLY_FORECAST = new SerializedString("hourlyForecast");
+    private static final SerializableString DAILY_FORECAST = new SerializedString("dailyForecast");
+    private static final SerializableString TIME = new SerializedString("time");
+    private static final SerializableString TEMPERATURE = new SerializedString("temperature");
+    private static final SerializableString DATE = new SerializedString("date");
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString FROM_CACHE = new SerializedString("fromCache");
+    private static final SerializableString APPROXIMATE = new SerializedString("approximate");
+    private static final SerializableString APPROXIMATE_DISTANCE_KM = new SerializedString("approximateDistanceKm");
+
+    private static final DateTimeFormatter DATE_TIME_FALLBACK = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final DateTimeFormatter DATE_FALLBACK = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int DATE_TIME_LENGTH = 19;
+    private static final int DATE_LENGTH = 10;
+
+    /**
+     * Constructs the module with the forecast serializers.
+     */
+    public WeatherJsonModule() {
+        super("WeatherJsonModule");
+        addSerializer(WeatherResponse.class, new WeatherResponseSerializer());
+        addSerializer(WeatherResponse.HourlyForecast.class, new HourlyForecastSerializer());
+        addSerializer(Coordinates.class, new CoordinatesSerializer());
+    }
+
+    static class WeatherResponseSerializer extends StdSerializer<WeatherResponse> {
+
+        WeatherResponseSerializer() {
+            super(WeatherResponse.class);
+        }
+
+        @Override
+        public void serialize(WeatherResponse response, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            char[] buffer = new char[DATE_TIME_LENGTH];
+            gen.writeStartObject(response);
+            if (response.getZipCode() != null) {
+                gen.writeFieldName(ZIP_CODE);
+                gen.writeString(response.getZipCode());
+            }
+            if (response.getCoordinates() != null) {
+                gen.writeFieldName(COORDINATES);
+                writeCoordinates(response.getCoordinates(), gen);
+            }
+            writeNumberField(gen, CURRENT_TEMPERATURE, response.getCurrentTemperature());
+            writeNumberField(gen, HIGH_TEMPERATURE, response.getHighTemperature());
+            writeNumberField(gen, LOW_TEMPERATURE, response.getLowTemperature());
+            List<WeatherResponse.HourlyForecast> hourly = response.getHourlyForecast();
+            if (hourly != null) {
+                gen.writeFieldName(HOURLY_FORECAST);
+                gen.writeStartArray(hourly, hourly.size());
+                for (int i = 0, n = hourly.size(); i < n; i++) {
+                    writeHourly(hourly.get(i), gen, buffer);
+                }
+                gen.writeEndArray();
+            }
+            List<WeatherResponse.DailyForecast> daily = response.getDailyForecast();
+            if (daily != null) {
+                gen.writeFieldName(DAILY_FORECAST);
+                gen.writeStartArray(daily, daily.size());
+                for (int i = 0, n = daily.size(); i < n; i++) {
+                    writeDaily(daily.get(i), gen, buffer);
+                }
+                gen.writeEndArray();
+            }
+            if (response.getTimestamp() != null) {
+                gen.writeFieldName(TIMESTAMP);
+                writeDateTime(response.getTimestamp(), gen, buffer);
+            }
+            gen.writeFieldName(FROM_CACHE);
+            gen.writeBoolean(response.isFromCache());
+            if (response.getApproximate() != null) {
+                gen.writeFieldName(APPROXIMATE);
+                gen.writeBoolean(response.getApproximate());
+            }
+            writeNumberField(gen, APPROXIMATE_DISTANCE_KM, response.getApproximateDistanceKm());
+            gen.writeEndObject();
+        }
+    }
+
+    static class HourlyForecastSerializer extends StdSerializer<WeatherResponse.HourlyForecast> {
+
+        HourlyForecastSerializer() {
+            super(WeatherResponse.HourlyForecast.class);
+        }
+
+        @Override
+        public void serialize(WeatherResponse.HourlyForecast hourly, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            writeHourly(hourly, gen, new char[DATE_TIME_LENGTH]);
+        }
+    }
+
+    static class CoordinatesSerializer extends StdSerializer<Coordinates> {
+
+        CoordinatesSerializer() {
+            super(Coordinates.class);
+        }
+
+        @Override
+        public void serialize(Coordinates coordinates, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            writeCoordinates(coordinates, gen);
+        }
+    }
+
+    private static void writeCoordinates(Coordinates coordinates, JsonGenerator gen) throws IOException {
+        gen.writeStartObject(coordinates);
+        gen.writeFieldName(LATITUDE);
+        gen.writeNumber(coordinates.getLatitude());
+        gen.writeFieldName(LONGITUDE);
+        gen.writeNumber(coordinates.getLongitude());
+        gen.writeEndObject();
+    }
+
+    private static void writeHourly(WeatherResponse.HourlyForecast hourly, JsonGenerator gen, char[] buffer)
+            throws IOException {
+        gen.writeStartObject(hourly);
+        gen.writeFieldName(TIME);
+        if (hourly.getTime() != null) {
+            writeDateTime(hourly.getTime(), gen, buffer);
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(TEMPERATURE);
+        gen.writeNumber(hourly.getTemperature());
+        gen.writeEndObject();
+    }
+
+    private static void writeDaily(WeatherResponse.DailyForecast daily, JsonGenerator gen, char[] buffer)
+            throws IOException {
+        gen.writeStartObject(daily);
+        gen.writeFieldName(DATE);
+        if (daily.getDate() != null) {
+            writeDate(daily.getDate(), gen, buffer);
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(HIGH_TEMPERATURE);
+        gen.writeNumber(daily.getHighTemperature());
+        gen.writeFieldName(LOW_TEMPERATURE);
+        gen.writeNumber(daily.getLowTemperature());
+        gen.writeEndObject();
+    }
+
+    private static void writeNumberField(JsonGenerator gen, SerializableString name, Double value)
+            throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * Writes {@code yyyy-MM-dd'T'HH:mm:ss} for four digit years, falling back
+     * to the pattern formatter otherwise.
+     */
+    private static void writeDateTime(LocalDateTime time, JsonGenerator gen, char[] buffer) throws IOException {
+        if (!fillDate(time.getYear(), time.getMonthValue(), time.getDayOfMonth(), buffer)) {
+            gen.writeString(DATE_TIME_FALLBACK.format(time));
+            return;
+        }
+        buffer[10] = 'T';
+        twoDigits(time.getHour(), buffer, 11);
+        buffer[13] = ':';
+        twoDigits(time.getMinute(), buffer, 14);
+        buffer[16] = ':';
+        twoDigits(time.getSecond(), buffer, 17);
+        gen.writeString(buffer, 0, DATE_TIME_LENGTH);
+    }
+
+    private static void writeDate(LocalDate date, JsonGenerator gen, char[] buffer) throws IOException {
+        if (!fillDate(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), buffer)) {
+            gen.writeString(DATE_FALLBACK.format(date));
+            return;
+        }
+        gen.writeString(buffer, 0, DATE_LENGTH);
+    }
+
+    private static boolean fillDate(int year, int month, int day, char[] buffer) {
+        if (year < 1000 || year > 9999) {
+            return false;
+        }
+        twoDigits(year / 100, buffer, 0);
+        twoDigits(year % 100, buffer, 2);
+        buffer[4] = '-';
+        twoDigits(month, buffer, 5);
+        buffer[7] = '-';
+        twoDigits(day, buffer, 8);
+        return true;
+    }
+
+    private static void twoDigits(int value, char[] buffer, int offset) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+}
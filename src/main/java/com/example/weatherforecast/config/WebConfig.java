@@ -0,0 +1,60 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.controller.ClientRateLimitInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Web MVC configuration.
+ * Registers the compact binary encodings of forecasts for internal consumers
+ * and the per-client rate limits on the weather API.
+ *
+ * @since 1.1
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ClientRateLimitInterceptor clientRateLimitInterceptor;
+
+    /**
+     * Constructs a new WebConfig.
+     *
+     * @param clientRateLimitInterceptor Rate limits weather API requests
+     */
+    public WebConfig(ClientRateLimitInterceptor clientRateLimitInterceptor) {
+        this.clientRateLimitInterceptor = clientRateLimitInterceptor;
+    }
+
+    /**
+     * Applies the per-client rate limits to the weather API.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(clientRateLimitInterceptor).addPathPatterns("/api/weather/**");
+    }
+
+    /**
+     * Adds the compact forecast converter ahead of the standard CBOR and Smile
+     * converters, but after JSON so that clients accepting anything still get
+     * JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        int index = converters.size();
+        for (int i = 0; i < converters.size(); i++) {
+            HttpMessageConverter<?> converter = converters.get(i);
+            if (converter instanceof MappingJackson2CborHttpMessageConverter
+                    || converter instanceof MappingJackson2SmileHttpMessageConverter) {
+                index = i;
+                break;
+            }
+        }
+        converters.add(index, new CompactWeatherHttpMessageConverter());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.exception.ErrorResponse;
+import com.example.weatherforecast.exception.InvalidRequestException;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.resilience.ClientRateLimiter;
+import com.example.weatherforecast.service.CoordinateGrid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits weather API requests per client before they reach a controller.
+ * Clients are identified by their API key header, or by their address when
+ * they send none. Every request is charged to the request limit; forecast
+ * requests for a location that is not cached are also charged to the
+ * stricter upstream limit, since they will call Nominatim and Open-Meteo.
+ * A stream subscription is charged one upstream token per zip code that is
+ * not cached, up to the limit's burst. Exports only learn their list while
+ * streaming it, so the client is passed on as a request attribute and the
+ * export charges each entry that misses the cache itself.
+ * Requests over either limit get {@code 429 Too Many Requests} with a
+ * {@code Retry-After} header.
+ *
+ * @since 1.1
+ */
+public class ClientRateLimitInterceptor implements HandlerInterceptor {
+
+    /**
+     * Request attribute holding the id the client's limits are kept under.
+     */
+    public static final String CLIENT_ID_ATTRIBUTE = ClientRateLimitInterceptor.class.getName() + ".clientId";
+
+    private static final Set<String> ZIP_CODE_ROUTES = Set.of("/api/weather/zipcode/{zipCode}",
+            "/api/weather/zipcode/{zipCode}/daily", "/api/weather/zipcode/{zipCode}/hourly",
+            "/api/weather/zipcode/{zipCode}/current");
+    private static final String COORDINATES_ROUTE = "/api/weather/coordinates";
+    private static final String STREAM_ROUTE = "/api/weather/stream";
+
+    private final ClientRateLimiter requestLimiter;
+    private final ClientRateLimiter upstreamLimiter;
+    private final WeatherCacheRepository cacheRepository;
+    private final CoordinateGrid coordinateGrid;
+    private final ObjectMapper objectMapper;
+    private final String apiKeyHeader;
+
+    /**
+     * Constructs a new ClientRateLimitInterceptor.
+     *
+     * @param requestLimiter  Limit charged for every request
+     * @param upstreamLimiter Limit charged for forecasts that are not cached
+     * @param cacheRepository Repository used to tell cached locations apart
+     * @param coordinateGrid  Rounds coordinates the way the controller does
+     * @param objectMapper    Writes the error response body
+     * @param apiKeyHeader    Header carrying the client's API key
+     */
+    public ClientRateLimitInterceptor(ClientRateLimiter requestLimiter, ClientRateLimiter upstreamLimiter,
+            WeatherCacheRepository cacheRepository, CoordinateGrid coordinateGrid, ObjectMapper objectMapper,
+            String apiKeyHeader) {
+        this.requestLimiter = requestLimiter;
+        this.upstreamLimiter = upstreamLimiter;
+        this.cacheRepository = cacheRepository;
+        this.coordinateGrid = coordinateGrid;
+        this.objectMapper = objectMapper;
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String clientId = clientId(request);
+        request.setAttribute(CLIENT_ID_ATTRIBUTE, clientId);
+        long waitNanos = requestLimiter.tryAcquire(clientId);
+        if (waitNanos == 0) {
+            int upstreamTokens = upstreamTokens(request);
+            if (upstreamTokens > 0) {
+                waitNanos = upstreamLimiter.tryAcquire(clientId, upstreamTokens);
+            }
+        }
+        if (waitNanos == 0) {
+            return true;
+        }
+        reject(request, response, waitNanos);
+        return false;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        return apiKey != null && !apiKey.isBlank() ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Counts the locations a request will fetch from the upstream APIs.
+     */
+    private int upstreamTokens(HttpServletRequest request) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String countryCodeParameter = request.getParameter("countryCode");
+        String countryCode = countryCodeParameter != null ? countryCodeParameter : "US";
+        if (ZIP_CODE_ROUTES.contains(route)) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> variables = (Map<String, String>) request
+                    .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            return isCached(variables.get("zipCode"), countryCode) ? 0 : 1;
+        }
+        if (COORDINATES_ROUTE.equals(route)) {
+            try {
+                return cacheRepository.isInCache(WeatherCacheRepository.coordinatesKey(
+                        coordinateGrid.snap(request.getParameter("lat"), request.getParameter("lon")))) ? 0 : 1;
+            } catch (InvalidRequestException e) {
+                // Rejected by the controller without an upstream call
+                return 0;
+            }
+        }
+        if (STREAM_ROUTE.equals(route)) {
+            String[] values = request.getParameterValues("zipCodes");
+            if (values == null) {
+                return 0;
+            }
+            long uncached = Arrays.stream(values)
+                    .flatMap(value -> Arrays.stream(value.split(",")))
+                    .map(String::trim)
+                    .filter(zipCode -> !zipCode.isEmpty())
+                    .distinct()
+                    .filter(zipCode -> !isCached(zipCode, countryCode))
+                    .count();
+            return (int) Math.min(uncached, upstreamLimiter.getBurst());
+        }
+        return 0;
+    }
+
+    private boolean isCached(String zipCode, String countryCode) {
+        return cacheRepository.isInCache(WeatherCacheRepository.zipCodeKey(zipCode, countryCode));
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        ErrorResponse error = ErrorResponse.of(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                "Rate limit exceeded. Please retry after " + retryAfterSeconds + " seconds.",
+                request.getRequestURI());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
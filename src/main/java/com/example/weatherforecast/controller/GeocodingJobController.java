@@ -0,0 +1,111 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.model.GeocodingJobStatus;
+import com.example.weatherforecast.service.BulkGeocoder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * REST controller for bulk geocoding jobs.
+ * A list of zip/country pairs is submitted as the request body or as an
+ * uploaded file and geocoded in the background; the job's progress can be
+ * polled and its results downloaded as NDJSON while it runs.
+ *
+ * @since 1.1
+ */
+@RestController
+@RequestMapping("/api/weather/geocode/jobs")
+public class GeocodingJobController {
+
+    private final BulkGeocoder bulkGeocoder;
+
+    /**
+     * Constructs a new GeocodingJobController.
+     *
+     * @param bulkGeocoder Runs the geocoding jobs
+     */
+    public GeocodingJobController(BulkGeocoder bulkGeocoder) {
+        this.bulkGeocoder = bulkGeocoder;
+    }
+
+    /**
+     * Submits a job for a list of zip codes sent as the request body.
+     *
+     * @param countryCode Country for lines without one (defaults to "US")
+     * @param request     The request whose body holds the list
+     * @return The queued job, with its location
+     * @throws IOException if the request body cannot be read or stored
+     */
+    @PostMapping(consumes = { MediaType.TEXT_PLAIN_VALUE, "text/csv" })
+    public ResponseEntity<GeocodingJobStatus> submitList(
+            @RequestParam(required = false, defaultValue = "US") String countryCode,
+            HttpServletRequest request) throws IOException {
+        Reader input = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        return accepted(bulkGeocoder.submit(input, countryCode));
+    }
+
+    /**
+     * Submits a job for a list of zip codes in an uploaded file.
+     *
+     * @param file        The uploaded list
+     * @param countryCode Country for lines without one (defaults to "US")
+     * @return The queued job, with its location
+     * @throws IOException if the upload cannot be read or stored
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<GeocodingJobStatus> submitFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false, defaultValue = "US") String countryCode) throws IOException {
+        Reader input = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
+        return accepted(bulkGeocoder.submit(input, countryCode));
+    }
+
+    /**
+     * Reports the progress of a job.
+     *
+     * @param id The job identifier
+     * @return The job's status, or 404 if there is no such job
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<GeocodingJobStatus> getStatus(@PathVariable String id) {
+        GeocodingJobStatus status = bulkGeocoder.getStatus(id);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Downloads the results a job has produced so far, one NDJSON line per
+     * code.
+     *
+     * @param id The job identifier
+     * @return The result lines, or 404 if there is no such job
+     */
+    @GetMapping("/{id}/results")
+    public ResponseEntity<StreamingResponseBody> getResults(@PathVariable String id) {
+        if (bulkGeocoder.getStatus(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = output -> bulkGeocoder.copyResults(id, output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static ResponseEntity<GeocodingJobStatus> accepted(GeocodingJobStatus status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/weather/geocode/jobs/" + status.getId()))
+                .body(status);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.exception.InvalidRequestException;
+import com.example.weatherforecast.model.PostalCodeSuggestion;
+import com.example.weatherforecast.repository.PostalCodeIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * REST controller for postal code suggestions while a user types.
+ * Suggestions come from the in-memory {@link PostalCodeIndex}, never from an
+ * upstream service, and can be cached by the browser since the dataset does
+ * not change while the application runs.
+ *
+ * @since 1.1
+ */
+@RestController
+@RequestMapping("/api/postal")
+public class PostalCodeController {
+
+    private static final int MAX_PREFIX_LENGTH = 12;
+
+    private final PostalCodeIndex postalCodeIndex;
+    private final int maxSuggestions;
+    private final CacheControl cacheControl;
+
+    /**
+     * Constructs a new PostalCodeController.
+     *
+     * @param postalCodeIndex Index of the known postal codes
+     * @param maxSuggestions  Most suggestions returned for a prefix
+     * @param maxAgeSeconds   How long clients may reuse a list of suggestions
+     */
+    public PostalCodeController(PostalCodeIndex postalCodeIndex,
+            @Value("${weather.postal.max-suggestions:10}") int maxSuggestions,
+            @Value("${weather.postal.max-age-seconds:86400}") long maxAgeSeconds) {
+        this.postalCodeIndex = postalCodeIndex;
+        this.maxSuggestions = maxSuggestions;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    /**
+     * Suggests postal codes starting with a prefix.
+     *
+     * @param prefix  The start of the postal code, in any case
+     * @param country The ISO 3166-1 alpha-2 country code (defaults to "US")
+     * @param limit   Most suggestions to return, up to the configured maximum
+     * @return The matching postal codes with their places and coordinates,
+     *         in lexicographic order
+     * @throws InvalidRequestException if the prefix, country or limit is
+     *         invalid
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<PostalCodeSuggestion>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false, defaultValue = "US") String country,
+            @RequestParam(required = false) Integer limit) {
+        String trimmed = prefix.trim();
+        if (trimmed.isEmpty() || trimmed.length() > MAX_PREFIX_LENGTH) {
+            throw new InvalidRequestException("prefix must be 1 to " + MAX_PREFIX_LENGTH + " characters");
+        }
+        if (country.length() != 2) {
+            throw new InvalidRequestException("country must be an ISO 3166-1 alpha-2 code");
+        }
+        if (limit != null && limit < 1) {
+            throw new InvalidRequestException("limit must be positive");
+        }
+        int count = limit == null ? maxSuggestions : Math.min(limit, maxSuggestions);
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(postalCodeIndex.suggest(country, trimmed, count));
+    }
+}
@@ -1,18 +1,41 @@
 package com.example.weatherforecast.controller;
 
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.DeadlineExceededException;
 import com.example.weatherforecast.exception.ErrorResponse;
+import com.example.weatherforecast.exception.InvalidRequestException;
 import com.example.weatherforecast.exception.WeatherServiceException;
+import com.example.weatherforecast.management.HotKeyTracker;
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.ForecastProjection;
 import com.example.weatherforecast.model.WeatherResponse;
 import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.resilience.AdmissionController;
+import com.example.weatherforecast.service.CoordinateGrid;
+import com.example.weatherforecast.service.CurrentConditionsDeriver;
+import com.example.weatherforecast.service.ForecastCacheLookup;
 import com.example.weatherforecast.service.WeatherService;
+import com.example.weatherforecast.tracing.Span;
+import com.example.weatherforecast.tracing.Tracer;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.function.Supplier;
+
 /**
  * REST controller that handles weather-related API endpoints.
  * Provides functionality to fetch weather information based on zip/postal codes
- * and country codes, with caching support.
+ * and country codes, with caching support. Responses can be narrowed to
+ * selected fields, hours and days, and the daily, hourly and current views of
+ * a location are materialized from the same cached forecast. Cached forecasts
+ * are always served;
+ * requests that need an upstream fetch are shed while the server is
+ * overloaded. Every request is counted towards the hot key rankings.
  * 
  * @author Vijayendra Gaur
  * @version 1.0
@@ -23,17 +46,38 @@ import jakarta.servlet.http.HttpServletRequest;
 public class WeatherController {
 
     private final WeatherService weatherService;
-    private final WeatherCacheRepository cacheRepository;
+    private final CurrentConditionsDeriver currentConditionsDeriver;
+    private final CoordinateGrid coordinateGrid;
+    private final Tracer tracer;
+    private final AdmissionController admissionController;
+    private final HotKeyTracker hotKeyTracker;
+    private final ForecastCacheLookup cacheLookup;
+    private final Clock clock = Clock.systemUTC();
 
     /**
      * Constructs a new WeatherController with the required dependencies.
      * 
      * @param weatherService  Service for retrieving weather forecasts
      * @param cacheRepository Repository for caching weather data
+     * @param currentConditionsDeriver Re-bases forecasts to the current time
+     * @param coordinateGrid  Validates and rounds caller supplied coordinates
+     * @param tracer          Tracer recording request validation and cache
+     *                        checks
+     * @param admissionController Sheds requests that miss the cache under
+     *                            overload
+     * @param hotKeyTracker   Ranks cache keys by requests, misses and
+     *                        upstream time
      */
-    public WeatherController(WeatherService weatherService, WeatherCacheRepository cacheRepository) {
+    public WeatherController(WeatherService weatherService, WeatherCacheRepository cacheRepository,
+            CurrentConditionsDeriver currentConditionsDeriver, CoordinateGrid coordinateGrid, Tracer tracer,
+            AdmissionController admissionController, HotKeyTracker hotKeyTracker) {
         this.weatherService = weatherService;
-        this.cacheRepository = cacheRepository;
+        this.currentConditionsDeriver = currentConditionsDeriver;
+        this.coordinateGrid = coordinateGrid;
+        this.tracer = tracer;
+        this.admissionController = admissionController;
+        this.hotKeyTracker = hotKeyTracker;
+        this.cacheLookup = new ForecastCacheLookup(cacheRepository, currentConditionsDeriver, tracer);
     }
 
     /**
@@ -43,24 +87,226 @@ public class WeatherController {
      * @param zipCode     The zip or postal code to get weather for
      * @param countryCode The ISO 3166-1 alpha-2 country code (defaults to "US" if
      *                    not provided)
+     * @param fields      Comma separated fields to include (current, daily,
+     *                    hourly); all fields if not provided
+     * @param hours       Number of hourly entries from the current hour; 24
+     *                    hours from midnight for each requested day if not
+     *                    provided
+     * @param days        Number of days of highs and lows; today only if not
+     *                    provided
      * @return ResponseEntity containing the weather forecast data
      * @throws WeatherServiceException if there's an error retrieving weather data
+     * @throws InvalidRequestException if the projection parameters are invalid
+     * @throws ConcurrencyLimitExceededException if the forecast is not cached
+     *                                           and the server is overloaded
      */
     @GetMapping("/zipcode/{zipCode}")
     public ResponseEntity<WeatherResponse> getWeatherByZipCode(
+            @PathVariable String zipCode,
+            @RequestParam(required = false, defaultValue = "US") String countryCode,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Integer hours,
+            @RequestParam(required = false) Integer days) {
+
+        ForecastProjection projection;
+        try (Span span = tracer.startSpan("validate")) {
+            projection = ForecastProjection.of(fields, hours, days);
+        }
+        return forecastByZipCode(zipCode, countryCode, projection);
+    }
+
+    /**
+     * Gets the daily highs and lows for a zip/postal code.
+     * 
+     * @param zipCode     The zip or postal code to get weather for
+     * @param countryCode The ISO 3166-1 alpha-2 country code (defaults to "US" if
+     *                    not provided)
+     * @param days        Number of days from today (defaults to 7)
+     * @return ResponseEntity containing today's and the following days' highs
+     *         and lows
+     * @throws InvalidRequestException if the number of days is out of range
+     */
+    @GetMapping("/zipcode/{zipCode}/daily")
+    public ResponseEntity<WeatherResponse> getDailyByZipCode(
+            @PathVariable String zipCode,
+            @RequestParam(required = false, defaultValue = "US") String countryCode,
+            @RequestParam(required = false, defaultValue = "7") Integer days) {
+        ForecastProjection projection;
+        try (Span span = tracer.startSpan("validate")) {
+            projection = ForecastProjection.of("daily", null, days);
+        }
+        return forecastByZipCode(zipCode, countryCode, projection);
+    }
+
+    /**
+     * Gets the hourly series for a zip/postal code, starting at the location's
+     * current hour.
+     * 
+     * @param zipCode     The zip or postal code to get weather for
+     * @param countryCode The ISO 3166-1 alpha-2 country code (defaults to "US" if
+     *                    not provided)
+     * @param hours       Number of hourly entries (defaults to 48)
+     * @return ResponseEntity containing the hourly series
+     * @throws InvalidRequestException if the number of hours is out of range
+     */
+    @GetMapping("/zipcode/{zipCode}/hourly")
+    public ResponseEntity<WeatherResponse> getHourlyByZipCode(
+            @PathVariable String zipCode,
+            @RequestParam(required = false, defaultValue = "US") String countryCode,
+            @RequestParam(required = false, defaultValue = "48") Integer hours) {
+        ForecastProjection projection;
+        try (Span span = tracer.startSpan("validate")) {
+            projection = ForecastProjection.of("hourly", hours, null);
+        }
+        return forecastByZipCode(zipCode, countryCode, projection);
+    }
+
+    /**
+     * Gets the current conditions for a zip/postal code.
+     * 
+     * @param zipCode     The zip or postal code to get weather for
+     * @param countryCode The ISO 3166-1 alpha-2 country code (defaults to "US" if
+     *                    not provided)
+     * @return ResponseEntity containing the current temperature
+     */
+    @GetMapping("/zipcode/{zipCode}/current")
+    public ResponseEntity<WeatherResponse> getCurrentByZipCode(
             @PathVariable String zipCode,
             @RequestParam(required = false, defaultValue = "US") String countryCode) {
+        return forecastByZipCode(zipCode, countryCode, ForecastProjection.of("current", null, null));
+    }
+
+    private ResponseEntity<WeatherResponse> forecastByZipCode(String zipCode, String countryCode,
+            ForecastProjection projection) {
+        Instant now = clock.instant();
+
+        // Check if data is in cache and covers the projection
+        String cacheKey = WeatherCacheRepository.zipCodeKey(zipCode, countryCode);
+        ForecastCacheLookup.Result lookup = lookup(cacheKey, projection, now);
+        if (lookup.view() != null) {
+            return ResponseEntity.ok(project(lookup.view(), projection, now));
+        }
+
+        // If not in cache, get fresh data unless overloaded
+        WeatherResponse response = fetch(cacheKey,
+                () -> weatherService.getWeatherForecast(zipCode, countryCode, projection, lookup.cached()));
+        return ResponseEntity.ok(project(response, projection, now));
+    }
 
-        // Check if data is in cache
-        String cacheKey = zipCode + "_" + countryCode;
-        if (cacheRepository.isInCache(cacheKey)) {
-            WeatherResponse cachedResponse = cacheRepository.getFromCache(cacheKey);
-            return ResponseEntity.ok(cachedResponse);
+    /**
+     * Gets weather information for known coordinates, skipping the geocoding
+     * lookup. Coordinates are rounded to the configured precision, and nearby
+     * requests share a cached forecast.
+     * 
+     * @param lat    Latitude in decimal degrees, -90 to 90
+     * @param lon    Longitude in decimal degrees, -180 to 180
+     * @param fields Comma separated fields to include (current, daily, hourly);
+     *               all fields if not provided
+     * @param hours  Number of hourly entries from the current hour; 24 hours
+     *               from midnight for each requested day if not provided
+     * @param days   Number of days of highs and lows; today only if not provided
+     * @return ResponseEntity containing the weather forecast data
+     * @throws WeatherServiceException if there's an error retrieving weather data
+     * @throws InvalidRequestException if the coordinates or projection
+     *                                 parameters are invalid
+     * @throws ConcurrencyLimitExceededException if the forecast is not cached
+     *                                           and the server is overloaded
+     */
+    @GetMapping("/coordinates")
+    public ResponseEntity<WeatherResponse> getWeatherByCoordinates(
+            @RequestParam(required = false) String lat,
+            @RequestParam(required = false) String lon,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Integer hours,
+            @RequestParam(required = false) Integer days) {
+
+        Coordinates coordinates;
+        ForecastProjection projection;
+        try (Span span = tracer.startSpan("validate")) {
+            coordinates = coordinateGrid.snap(lat, lon);
+            projection = ForecastProjection.of(fields, hours, days);
+        }
+        Instant now = clock.instant();
+
+        String cacheKey = WeatherCacheRepository.coordinatesKey(coordinates);
+        ForecastCacheLookup.Result lookup = lookup(cacheKey, projection, now);
+        if (lookup.view() != null) {
+            return ResponseEntity.ok(project(lookup.view(), projection, now));
         }
 
-        // If not in cache, get fresh data
-        WeatherResponse response = weatherService.getWeatherForecast(zipCode, countryCode);
-        return ResponseEntity.ok(response);
+        WeatherResponse response = fetch(cacheKey,
+                () -> weatherService.getWeatherForecast(coordinates, projection, lookup.cached()));
+        return ResponseEntity.ok(project(response, projection, now));
+    }
+
+    /**
+     * Looks the request up in the cache, once, and counts it against the key.
+     */
+    private ForecastCacheLookup.Result lookup(String cacheKey, ForecastProjection projection, Instant now) {
+        ForecastCacheLookup.Result lookup = cacheLookup.lookup(cacheKey, projection, now);
+        hotKeyTracker.recordRequest(cacheKey, lookup.isHit());
+        return lookup;
+    }
+
+    /**
+     * Fetches a forecast that missed the cache, unless overloaded, and counts
+     * the time taken against the key.
+     */
+    private WeatherResponse fetch(String cacheKey, Supplier<WeatherResponse> fetch) {
+        long start = System.nanoTime();
+        try {
+            return admissionController.execute(fetch);
+        } finally {
+            hotKeyTracker.recordUpstream(cacheKey, System.nanoTime() - start);
+        }
+    }
+
+    private WeatherResponse project(WeatherResponse response, ForecastProjection projection, Instant now) {
+        return projection.apply(currentConditionsDeriver.derive(response, projection.getHourlyLength()), now);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException ex,
+            HttpServletRequest request) {
+        ErrorResponse error = ErrorResponse.of(
+                400,
+                "Bad Request",
+                ex.getMessage(),
+                request.getRequestURI());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex,
+            HttpServletRequest request) {
+        ErrorResponse error = ErrorResponse.of(
+                503,
+                "Service Temporarily Unavailable",
+                ex.getMessage(),
+                request.getRequestURI());
+        return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<ErrorResponse> handleCircuitOpen(CallNotPermittedException ex,
+            HttpServletRequest request) {
+        ErrorResponse error = ErrorResponse.of(
+                503,
+                "Service Temporarily Unavailable",
+                "The weather service is currently experiencing issues. Please try again later.",
+                request.getRequestURI());
+        return ResponseEntity.status(503).body(error);
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceeded(DeadlineExceededException ex,
+            HttpServletRequest request) {
+        ErrorResponse error = ErrorResponse.of(
+                504,
+                "Deadline Exceeded",
+                ex.getMessage(),
+                request.getRequestURI());
+        return ResponseEntity.status(504).body(error);
     }
 
     @ExceptionHandler(Exception.class)
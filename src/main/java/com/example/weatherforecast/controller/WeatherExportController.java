@@ -0,0 +1,99 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.service.BulkForecastExporter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * REST controller for bulk forecast exports.
+ * Accepts a list of zip/country pairs, one per line, either as the request
+ * body or as an uploaded file, and streams one NDJSON line per forecast as
+ * soon as it is ready. Entries that miss the cache are charged to the
+ * client's upstream rate limit as the export reaches them.
+ *
+ * @since 1.1
+ */
+@RestController
+@RequestMapping("/api/weather")
+public class WeatherExportController {
+
+    private final BulkForecastExporter bulkForecastExporter;
+
+    /**
+     * Constructs a new WeatherExportController.
+     *
+     * @param bulkForecastExporter Exporter streaming the forecasts
+     */
+    public WeatherExportController(BulkForecastExporter bulkForecastExporter) {
+        this.bulkForecastExporter = bulkForecastExporter;
+    }
+
+    /**
+     * Exports forecasts for a list of zip codes sent as the request body.
+     *
+     * @param countryCode Country for lines without one (defaults to "US")
+     * @param fields      Comma separated fields to include in each forecast
+     * @param hours       Number of hourly entries from the current hour
+     * @param days        Number of days of highs and lows
+     * @param request     The request whose body holds the list
+     * @return A stream of NDJSON result lines
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(path = "/export", consumes = { MediaType.TEXT_PLAIN_VALUE, "text/csv" })
+    public ResponseEntity<StreamingResponseBody> exportList(
+            @RequestParam(required = false, defaultValue = "US") String countryCode,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Integer hours,
+            @RequestParam(required = false) Integer days,
+            HttpServletRequest request) throws IOException {
+        Reader input = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        return stream(input, countryCode, ForecastProjection.of(fields, hours, days), request);
+    }
+
+    /**
+     * Exports forecasts for a list of zip codes in an uploaded file.
+     *
+     * @param file        The uploaded list
+     * @param countryCode Country for lines without one (defaults to "US")
+     * @param fields      Comma separated fields to include in each forecast
+     * @param hours       Number of hourly entries from the current hour
+     * @param days        Number of days of highs and lows
+     * @param request     The request carrying the upload
+     * @return A stream of NDJSON result lines
+     * @throws IOException if the upload cannot be read
+     */
+    @PostMapping(path = "/export", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false, defaultValue = "US") String countryCode,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Integer hours,
+            @RequestParam(required = false) Integer days,
+            HttpServletRequest request) throws IOException {
+        Reader input = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
+        return stream(input, countryCode, ForecastProjection.of(fields, hours, days), request);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(Reader input, String countryCode,
+            ForecastProjection projection, HttpServletRequest request) {
+        bulkForecastExporter.reserve();
+        // Set by the rate limit interceptor; read now, as the request is recycled before the body is streamed
+        String clientId = (String) request.getAttribute(ClientRateLimitInterceptor.CLIENT_ID_ATTRIBUTE);
+        StreamingResponseBody body = output -> bulkForecastExporter.export(input, countryCode, projection, clientId,
+                output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
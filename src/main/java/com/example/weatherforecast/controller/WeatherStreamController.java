@@ -0,0 +1,94 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.exception.ErrorResponse;
+import com.example.weatherforecast.service.ForecastBroadcaster;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * REST controller that streams forecast updates as Server-Sent Events.
+ * Clients subscribe to one or more zip/postal codes and receive a
+ * {@code forecast} event whenever the shared refresh schedule fetches them,
+ * instead of polling the zip code endpoint.
+ *
+ * @since 1.1
+ */
+@RestController
+@RequestMapping("/api/weather")
+public class WeatherStreamController {
+
+    private final ForecastBroadcaster forecastBroadcaster;
+    private final long streamTimeoutMs;
+    private final int maxZipCodes;
+
+    /**
+     * Constructs a new WeatherStreamController.
+     *
+     * @param forecastBroadcaster Broadcaster delivering updates to subscribers
+     * @param streamTimeoutMs     How long a stream stays open before the client
+     *                            has to reconnect
+     * @param maxZipCodes         Maximum number of zip codes per subscription
+     */
+    public WeatherStreamController(ForecastBroadcaster forecastBroadcaster,
+            @Value("${weather.stream.timeout-ms:3600000}") long streamTimeoutMs,
+            @Value("${weather.stream.max-zip-codes:20}") int maxZipCodes) {
+        this.forecastBroadcaster = forecastBroadcaster;
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.maxZipCodes = maxZipCodes;
+    }
+
+    /**
+     * Subscribes to forecast updates for the given zip/postal codes.
+     *
+     * @param zipCodes    Comma separated zip or postal codes to follow
+     * @param countryCode The ISO 3166-1 alpha-2 country code (defaults to "US" if
+     *                    not provided)
+     * @return An event stream of forecast updates
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamWeather(
+            @RequestParam("zipCodes") List<String> zipCodes,
+            @RequestParam(required = false, defaultValue = "US") String countryCode,
+            HttpServletRequest request) throws IOException {
+        List<String> distinctZipCodes = zipCodes.stream().map(String::trim).filter(z -> !z.isEmpty()).distinct()
+                .toList();
+        if (distinctZipCodes.isEmpty() || distinctZipCodes.size() > maxZipCodes) {
+            return ResponseEntity.badRequest().body(errorStream(ErrorResponse.of(
+                    400,
+                    "Bad Request",
+                    "Provide between 1 and " + maxZipCodes + " zip codes.",
+                    request.getRequestURI())));
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        if (!forecastBroadcaster.subscribe(distinctZipCodes, countryCode, emitter)) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "30").body(errorStream(ErrorResponse.of(
+                    503,
+                    "Service Temporarily Unavailable",
+                    "Too many stream subscribers. Please try again later.",
+                    request.getRequestURI())));
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Creates a stream that carries a single error event and then ends.
+     */
+    private SseEmitter errorStream(ErrorResponse error) throws IOException {
+        SseEmitter emitter = new SseEmitter();
+        emitter.send(SseEmitter.event().name("error").data(error));
+        emitter.complete();
+        return emitter;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.weatherforecast.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a weather cache lookup. A lookup hits when the
+ * cached forecast covers the requested view.
+ *
+ * @since 1.1
+ */
+@Name("com.example.weatherforecast.CacheLookup")
+@Label("Cache Lookup")
+@Category({ "Weather Forecast", "Cache" })
+@Description("Lookup of a forecast in the weather cache")
+@StackTrace(false)
+public class CacheLookupEvent extends jdk.jfr.Event {
+
+    @Label("Cache Key")
+    String cacheKey;
+
+    @Label("Hit")
+    boolean hit;
+
+    /**
+     * Starts timing a lookup.
+     *
+     * @param cacheKey The key looked up
+     * @return The started event
+     */
+    public static CacheLookupEvent begin(String cacheKey) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.cacheKey = cacheKey;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the lookup and records it if the event is enabled.
+     *
+     * @param hit Whether the cached forecast could be used
+     */
+    public void commit(boolean hit) {
+        end();
+        if (shouldCommit()) {
+            this.hit = hit;
+            commit();
+        }
+    }
+}
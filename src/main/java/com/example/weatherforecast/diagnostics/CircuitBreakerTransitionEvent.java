@@ -0,0 +1,45 @@
+package com.example.weatherforecast.diagnostics;
+
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnStateTransitionEvent;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a circuit breaker changing state.
+ *
+ * @since 1.1
+ */
+@Name("com.example.weatherforecast.CircuitBreakerTransition")
+@Label("Circuit Breaker Transition")
+@Category({ "Weather Forecast", "Upstream" })
+@Description("State change of an upstream circuit breaker")
+@StackTrace(false)
+public class CircuitBreakerTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Circuit Breaker")
+    String circuitBreaker;
+
+    @Label("From State")
+    String fromState;
+
+    @Label("To State")
+    String toState;
+
+    /**
+     * Records a transition if the event is enabled.
+     *
+     * @param transition The transition published by the circuit breaker
+     */
+    public static void record(CircuitBreakerOnStateTransitionEvent transition) {
+        CircuitBreakerTransitionEvent event = new CircuitBreakerTransitionEvent();
+        if (event.isEnabled()) {
+            event.circuitBreaker = transition.getCircuitBreakerName();
+            event.fromState = transition.getStateTransition().getFromState().name();
+            event.toState = transition.getStateTransition().getToState().name();
+            event.commit();
+        }
+    }
+}
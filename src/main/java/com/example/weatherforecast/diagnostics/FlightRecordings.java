@@ -0,0 +1,192 @@
+package com.example.weatherforecast.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controls the application's JDK Flight Recorder recording. One recording is
+ * kept at a time, bounded by age and size, with the application's own events
+ * enabled next to the JVM's GC, lock and I/O events. Dumps are written to a
+ * fixed local directory, of which only the newest few are kept.
+ *
+ * @since 1.1
+ */
+public class FlightRecordings implements AutoCloseable {
+
+    private static final String RECORDING_NAME = "weather-forecast";
+    private static final DateTimeFormatter DUMP_NAME = DateTimeFormatter
+            .ofPattern("'weather-'yyyyMMdd-HHmmss-SSS'.jfr'");
+    private static final List<Class<? extends Event>> EVENTS = List.of(GeocodeEvent.class, RateLimitWaitEvent.class,
+            UpstreamCallEvent.class, JsonParseEvent.class, CacheLookupEvent.class,
+            CircuitBreakerTransitionEvent.class);
+
+    private final Path directory;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final int keptDumps;
+
+    private Recording recording;
+    private String settings;
+    private Path lastDump;
+
+    /**
+     * Constructs a new FlightRecordings.
+     *
+     * @param directory    Directory dumps are written to
+     * @param maxAge       Oldest data kept by a recording
+     * @param maxSizeBytes Most data kept by a recording
+     * @param keptDumps    Number of dumps kept in the directory
+     */
+    public FlightRecordings(Path directory, Duration maxAge, long maxSizeBytes, int keptDumps) {
+        this.directory = directory;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeBytes;
+        this.keptDumps = Math.max(1, keptDumps);
+    }
+
+    /**
+     * Starts a recording, unless one is already running.
+     *
+     * @param settings Name of the JDK settings to record with, "default" for
+     *                 about 1% overhead or "profile" for more detail
+     * @return The recording's status
+     * @throws IllegalArgumentException if there are no such settings
+     */
+    public synchronized Map<String, Object> start(String settings) {
+        if (isRunning()) {
+            return status();
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown recording settings: " + settings, e);
+        }
+        Recording started = new Recording(configuration);
+        started.setName(RECORDING_NAME);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSizeBytes);
+        started.setToDisk(true);
+        for (Class<? extends Event> event : EVENTS) {
+            started.enable(event);
+        }
+        started.start();
+        closeRecording();
+        this.recording = started;
+        this.settings = settings;
+        return status();
+    }
+
+    /**
+     * Writes the data of the running recording to a new file.
+     *
+     * @return The file written
+     * @throws IllegalStateException if no recording is running
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized Path dump() throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("No recording is running");
+        }
+        return write();
+    }
+
+    /**
+     * Stops the running recording after writing its data to a new file.
+     *
+     * @return The file written
+     * @throws IllegalStateException if no recording is running
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized Path stop() throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("No recording is running");
+        }
+        try {
+            return write();
+        } finally {
+            closeRecording();
+        }
+    }
+
+    /**
+     * @return The state, settings and bounds of the recording and the last
+     *         file written
+     */
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name() : RecordingState.CLOSED.name());
+        if (isRunning()) {
+            status.put("settings", settings);
+            status.put("startTime", recording.getStartTime().toString());
+            status.put("maxAgeSeconds", maxAge.toSeconds());
+            status.put("maxSizeBytes", maxSizeBytes);
+            status.put("sizeBytes", recording.getSize());
+        }
+        status.put("directory", directory.toString());
+        if (lastDump != null) {
+            status.put("lastDump", lastDump.toString());
+        }
+        return status;
+    }
+
+    /**
+     * @return Whether a recording is running
+     */
+    public synchronized boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Stops the recording without writing its data.
+     */
+    @Override
+    public synchronized void close() {
+        closeRecording();
+    }
+
+    private Path write() throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(DUMP_NAME.format(ZonedDateTime.now(ZoneOffset.UTC)));
+        recording.dump(file);
+        lastDump = file;
+        deleteOldDumps();
+        return file;
+    }
+
+    private void deleteOldDumps() throws IOException {
+        List<Path> dumps = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "weather-*.jfr")) {
+            files.forEach(dumps::add);
+        }
+        // Names sort by the time they were written
+        dumps.sort(null);
+        for (int i = 0; i < dumps.size() - keptDumps; i++) {
+            Files.deleteIfExists(dumps.get(i));
+        }
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            settings = null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.weatherforecast.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for resolving a zip/postal code to coordinates,
+ * from the geocoding cache or through Nominatim.
+ *
+ * @since 1.1
+ */
+@Name("com.example.weatherforecast.Geocode")
+@Label("Geocode Lookup")
+@Category({ "Weather Forecast", "Geocoding" })
+@Description("Resolution of a zip/postal code to coordinates")
+@StackTrace(false)
+public class GeocodeEvent extends jdk.jfr.Event {
+
+    @Label("Zip Code")
+    String zipCode;
+
+    @Label("Country Code")
+    String countryCode;
+
+    @Label("Cached")
+    @Description("Whether the coordinates came from the geocoding cache")
+    boolean cached;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * Starts timing a lookup.
+     *
+     * @param zipCode     The zip or postal code
+     * @param countryCode The ISO 3166-1 alpha-2 country code
+     * @return The started event
+     */
+    public static GeocodeEvent begin(String zipCode, String countryCode) {
+        GeocodeEvent event = new GeocodeEvent();
+        event.zipCode = zipCode;
+        event.countryCode = countryCode;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the lookup and records it if the event is enabled.
+     *
+     * @param cached    Whether the coordinates came from the cache
+     * @param succeeded Whether coordinates were found
+     */
+    public void commit(boolean cached, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.cached = cached;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.weatherforecast.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for parsing an upstream JSON response.
+ *
+ * @since 1.1
+ */
+@Name("com.example.weatherforecast.JsonParse")
+@Label("JSON Parse")
+@Category({ "Weather Forecast", "Upstream" })
+@Description("Parsing of an upstream JSON response")
+@StackTrace(false)
+public class JsonParseEvent extends jdk.jfr.Event {
+
+    @Label("Upstream")
+    String upstream;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Starts timing a parse.
+     *
+     * @param upstream The upstream service the response came from
+     * @param body     The response body
+     * @return The started event
+     */
+    public static JsonParseEvent begin(String upstream, String body) {
+        JsonParseEvent event = new JsonParseEvent();
+        event.upstream = upstream;
+        event.bytes = body.length();
+        event.begin();
+        return event;
+    }
+}
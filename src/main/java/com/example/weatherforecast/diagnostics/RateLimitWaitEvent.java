@@ -0,0 +1,43 @@
+package com.example.weatherforecast.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for time spent waiting before an upstream call: for
+ * a concurrency limit permit, or for the Nominatim usage policy delay.
+ *
+ * @since 1.1
+ */
+@Name("com.example.weatherforecast.RateLimitWait")
+@Label("Rate Limit Wait")
+@Category({ "Weather Forecast", "Upstream" })
+@Description("Wait for a concurrency permit or a usage policy delay before an upstream call")
+@StackTrace(false)
+public class RateLimitWaitEvent extends jdk.jfr.Event {
+
+    @Label("Upstream")
+    String upstream;
+
+    @Label("Limit")
+    @Description("concurrency or usage-policy")
+    String limit;
+
+    /**
+     * Starts timing a wait.
+     *
+     * @param upstream The upstream service the call goes to
+     * @param limit    The limit being waited for
+     * @return The started event
+     */
+    public static RateLimitWaitEvent begin(String upstream, String limit) {
+        RateLimitWaitEvent event = new RateLimitWaitEvent();
+        event.upstream = upstream;
+        event.limit = limit;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.weatherforecast.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for an HTTP call to Open-Meteo or Nominatim, from
+ * sending the request to reading the response body.
+ *
+ * @since 1.1
+ */
+@Name("com.example.weatherforecast.UpstreamCall")
+@Label("Upstream Call")
+@Category({ "Weather Forecast", "Upstream" })
+@Description("HTTP call to an upstream service")
+@StackTrace(false)
+public class UpstreamCallEvent extends jdk.jfr.Event {
+
+    @Label("Upstream")
+    String upstream;
+
+    @Label("Status")
+    @Description("HTTP status code, or 0 if no response was received")
+    int status;
+
+    @Label("Response Size")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Starts timing a call.
+     *
+     * @param upstream The upstream service called
+     * @return The started event
+     */
+    public static UpstreamCallEvent begin(String upstream) {
+        UpstreamCallEvent event = new UpstreamCallEvent();
+        event.upstream = upstream;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the call and records it if the event is enabled.
+     *
+     * @param status HTTP status code, or 0 if no response was received
+     * @param body   The response body, or null
+     */
+    public void commit(int status, String body) {
+        end();
+        if (shouldCommit()) {
+            this.status = status;
+            this.bytes = body != null ? body.length() : 0;
+            commit();
+        }
+    }
+}
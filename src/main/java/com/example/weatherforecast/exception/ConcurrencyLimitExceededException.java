@@ -0,0 +1,16 @@
+package com.example.weatherforecast.exception;
+
+/**
+ * Exception thrown when an upstream call is rejected because the adaptive
+ * concurrency limit for that upstream has been reached.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    /**
+     * Constructs a new exception with the specified message.
+     * 
+     * @param message The error message
+     */
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
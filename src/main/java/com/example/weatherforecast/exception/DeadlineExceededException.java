@@ -0,0 +1,16 @@
+package com.example.weatherforecast.exception;
+
+/**
+ * Exception thrown when a request's deadline has passed, or leaves too little
+ * time for the next upstream call to be worth starting.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    /**
+     * Constructs a new exception with the specified message.
+     *
+     * @param message The error message
+     */
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.weatherforecast.management;
+
+import com.example.weatherforecast.diagnostics.FlightRecordings;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Actuator endpoint controlling the application's flight recording.
+ * {@code GET /actuator/flightrecording} shows the recording's state, and
+ * {@code POST /actuator/flightrecording/{action}} starts it, dumps its data
+ * to the configured directory, or stops it after a final dump.
+ *
+ * @since 1.1
+ */
+@Component
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    private final FlightRecordings recordings;
+
+    /**
+     * Constructs a new FlightRecordingEndpoint.
+     *
+     * @param recordings Control of the application's recording
+     */
+    public FlightRecordingEndpoint(FlightRecordings recordings) {
+        this.recordings = recordings;
+    }
+
+    /**
+     * @return The state of the recording and the last file written
+     */
+    @ReadOperation
+    public Map<String, Object> recording() {
+        return recordings.status();
+    }
+
+    /**
+     * Starts, dumps or stops the recording.
+     *
+     * @param action   One of start, dump or stop
+     * @param settings JDK settings to start with, "default" unless given
+     * @return The state of the recording and the last file written
+     */
+    @WriteOperation
+    public Map<String, Object> control(@Selector String action, @Nullable String settings) {
+        try {
+            switch (action) {
+                case "start" -> recordings.start(settings != null ? settings : "default");
+                case "dump" -> recordings.dump();
+                case "stop" -> recordings.stop();
+                default -> throw new InvalidEndpointRequestException("Unknown action: " + action,
+                        "action must be start, dump or stop");
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the recording", e);
+        }
+        return recordings.status();
+    }
+}
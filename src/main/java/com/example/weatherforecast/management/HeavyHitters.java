@@ -0,0 +1,156 @@
+package com.example.weatherforecast.management;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finds the heaviest keys of a weighted stream in constant memory. Weights
+ * are summed in a count-min sketch: {@code depth} rows of {@code width}
+ * counters, each key adding to one counter per row. The smallest of a key's
+ * counters estimates its total; it never underestimates, and overestimates by
+ * at most {@code e / width} of the stream total with probability
+ * {@code 1 - e^-depth}. Adding is one atomic increment per row and never
+ * locks.
+ * <p>
+ * Next to the sketch, a bounded set of candidate keys remembers which keys
+ * were heavy, since the sketch itself cannot list them. A key whose estimate
+ * rises above the lightest candidate replaces it. Replacing takes a lock,
+ * but only with {@code tryLock}: if another thread is already replacing,
+ * the key is skipped and gets another chance on its next addition.
+ *
+ * @since 1.1
+ */
+public class HeavyHitters {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+    private final int capacity;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock admission = new ReentrantLock();
+    // Estimate of the lightest candidate when the set was last full
+    private volatile long floor;
+
+    /**
+     * Constructs a new HeavyHitters.
+     *
+     * @param width    Counters per row, rounded up to a power of two
+     * @param depth    Number of rows
+     * @param capacity Number of candidate keys remembered
+     */
+    public HeavyHitters(int width, int depth, int capacity) {
+        if (width < 1 || depth < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Invalid sketch size: width " + width + ", depth " + depth
+                    + ", capacity " + capacity);
+        }
+        this.width = Integer.highestOneBit(width * 2 - 1);
+        this.depth = depth;
+        this.counters = new AtomicLongArray(this.width * depth);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds weight to a key.
+     *
+     * @param key    The key
+     * @param weight The weight to add, positive
+     */
+    public void add(String key, long weight) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(row, h1, h2), weight));
+        }
+        if (estimate <= floor || candidates.contains(key)) {
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.add(key);
+        } else if (admission.tryLock()) {
+            try {
+                admit(key, estimate);
+            } finally {
+                admission.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replaces the lightest candidate with the key if the key is heavier.
+     */
+    private void admit(String key, long estimate) {
+        String lightest = null;
+        long lightestEstimate = Long.MAX_VALUE;
+        long secondLightest = Long.MAX_VALUE;
+        for (String candidate : candidates) {
+            long candidateEstimate = estimate(candidate);
+            if (candidateEstimate < lightestEstimate) {
+                secondLightest = lightestEstimate;
+                lightestEstimate = candidateEstimate;
+                lightest = candidate;
+            } else if (candidateEstimate < secondLightest) {
+                secondLightest = candidateEstimate;
+            }
+        }
+        if (lightest == null || estimate <= lightestEstimate) {
+            floor = lightestEstimate;
+            return;
+        }
+        candidates.remove(lightest);
+        candidates.add(key);
+        floor = Math.min(secondLightest, estimate);
+    }
+
+    /**
+     * Estimates the total weight added to a key.
+     *
+     * @param key The key
+     * @return The estimate; never less than the true total
+     */
+    public long estimate(String key) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Lists the heaviest candidate keys.
+     *
+     * @param limit Maximum number of keys
+     * @return Keys and their estimates, heaviest first
+     */
+    public List<Map.Entry<String, Long>> top(int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(candidates.size());
+        for (String candidate : candidates) {
+            entries.add(Map.entry(candidate, estimate(candidate)));
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    private int index(int row, int h1, int h2) {
+        // Row hashes derived from two hashes (Kirsch and Mitzenmacher)
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+
+    private static long mix(int hash) {
+        // SplitMix64 finalizer, spreading the String hash over 64 bits
+        long z = hash * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.weatherforecast.management;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks which cache keys drive forecast traffic: the keys requested most,
+ * the keys that miss the cache most, and the keys that spend the most time
+ * waiting on upstream services. Each measure is summed in a
+ * {@link HeavyHitters} sketch, so recording is a few atomic increments and
+ * memory stays constant however many distinct keys are requested.
+ * <p>
+ * Counts are kept per tumbling window. At the end of each window a fresh set
+ * of sketches takes over and the finished window is kept for reporting, so
+ * at most two windows are held at a time and rates reflect recent traffic.
+ *
+ * @since 1.1
+ */
+public class HotKeyTracker implements AutoCloseable {
+
+    private final boolean enabled;
+    private final int width;
+    private final int depth;
+    private final int trackedKeys;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Window current;
+    private volatile Window previous;
+
+    /**
+     * Constructs a new HotKeyTracker and starts rotating windows.
+     *
+     * @param enabled     Whether requests are tracked at all
+     * @param width       Counters per sketch row
+     * @param depth       Rows per sketch
+     * @param trackedKeys Number of candidate keys remembered per measure
+     * @param window      Length of a counting window
+     */
+    public HotKeyTracker(boolean enabled, int width, int depth, int trackedKeys, Duration window) {
+        this.enabled = enabled;
+        this.width = width;
+        this.depth = depth;
+        this.trackedKeys = trackedKeys;
+        this.current = new Window(System.nanoTime());
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hot-keys");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long windowMillis = window.toMillis();
+            scheduler.scheduleAtFixedRate(this::rotate, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Records a forecast request.
+     *
+     * @param key The cache key requested
+     * @param hit Whether the cache could answer it
+     */
+    public void recordRequest(String key, boolean hit) {
+        if (!enabled) {
+            return;
+        }
+        Window window = current;
+        window.requests.add(key, 1);
+        if (!hit) {
+            window.misses.add(key, 1);
+        }
+    }
+
+    /**
+     * Records time spent fetching a forecast that missed the cache.
+     *
+     * @param key   The cache key fetched
+     * @param nanos Time taken, in nanoseconds
+     */
+    public void recordUpstream(String key, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        current.upstreamMicros.add(key, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Starts a new counting window.
+     */
+    void rotate() {
+        Window finished = current;
+        current = new Window(System.nanoTime());
+        finished.endNanos = current.startNanos;
+        previous = finished;
+    }
+
+    /**
+     * Reports the heaviest keys of the last finished window, or of the current
+     * window while none has finished yet.
+     *
+     * @param limit Maximum number of keys per ranking
+     * @return The rankings by request count, misses and upstream time
+     */
+    public Report report(int limit) {
+        Window window = previous;
+        boolean complete = window != null;
+        if (!complete) {
+            window = current;
+        }
+        long endNanos = complete ? window.endNanos : System.nanoTime();
+        double seconds = Math.max(1e-3, (endNanos - window.startNanos) / 1e9);
+        return new Report(seconds, complete,
+                stats(window, window.requests.top(limit), seconds),
+                stats(window, window.misses.top(limit), seconds),
+                stats(window, window.upstreamMicros.top(limit), seconds));
+    }
+
+    private static List<KeyStats> stats(Window window, List<Map.Entry<String, Long>> top, double seconds) {
+        List<KeyStats> stats = new ArrayList<>(top.size());
+        for (Map.Entry<String, Long> entry : top) {
+            String key = entry.getKey();
+            // Estimates are tallied independently and may overcount, so the
+            // derived ratios are capped rather than trusted blindly
+            long requests = window.requests.estimate(key);
+            long misses = Math.min(requests, window.misses.estimate(key));
+            long upstreamMicros = window.upstreamMicros.estimate(key);
+            stats.add(new KeyStats(key, requests, requests / seconds, misses,
+                    requests > 0 ? (double) misses / requests : 0,
+                    upstreamMicros / 1000.0,
+                    misses > 0 ? upstreamMicros / 1000.0 / misses : 0));
+        }
+        return stats;
+    }
+
+    /**
+     * @return Whether requests are tracked
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stops rotating windows.
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private final class Window {
+
+        final long startNanos;
+        final HeavyHitters requests;
+        final HeavyHitters misses;
+        final HeavyHitters upstreamMicros;
+        volatile long endNanos;
+
+        Window(long startNanos) {
+            this.startNanos = startNanos;
+            this.requests = new HeavyHitters(width, depth, trackedKeys);
+            this.misses = new HeavyHitters(width, depth, trackedKeys);
+            this.upstreamMicros = new HeavyHitters(width, depth, trackedKeys);
+        }
+    }
+
+    /**
+     * Heaviest keys of one window.
+     *
+     * @param windowSeconds  Length of the window reported on
+     * @param complete       Whether the window has finished
+     * @param byRequests     Keys requested most
+     * @param byMisses       Keys missing the cache most
+     * @param byUpstreamTime Keys spending the most time on upstream fetches
+     */
+    public record Report(double windowSeconds, boolean complete, List<KeyStats> byRequests, List<KeyStats> byMisses,
+            List<KeyStats> byUpstreamTime) {
+    }
+
+    /**
+     * Estimated traffic of one key within a window. Counts are sketch
+     * estimates and may be slightly high, never low.
+     *
+     * @param key                The cache key
+     * @param requests           Requests for the key
+     * @param requestsPerSecond  Requests per second over the window
+     * @param misses             Requests the cache could not answer
+     * @param missRatio          Share of requests that missed
+     * @param upstreamMillis     Total time spent fetching the key
+     * @param meanUpstreamMillis Mean fetch time per miss
+     */
+    public record KeyStats(String key, long requests, double requestsPerSecond, long misses, double missRatio,
+            double upstreamMillis, double meanUpstreamMillis) {
+    }
+}
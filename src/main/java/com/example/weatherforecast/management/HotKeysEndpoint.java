@@ -0,0 +1,51 @@
+package com.example.weatherforecast.management;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint listing the cache keys that drive forecast traffic.
+ * {@code GET /actuator/hotkeys} ranks the keys of the last counting window by
+ * request rate, by cache misses and by time spent on upstream fetches.
+ *
+ * @since 1.1
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker tracker;
+    private final int topK;
+
+    /**
+     * Constructs a new HotKeysEndpoint.
+     *
+     * @param tracker Tracker fed by the forecast endpoints
+     * @param topK    Number of keys listed per ranking
+     */
+    public HotKeysEndpoint(HotKeyTracker tracker, @Value("${weather.hotkeys.top-k:20}") int topK) {
+        this.tracker = tracker;
+        this.topK = topK;
+    }
+
+    /**
+     * @return The heaviest keys of the last window by each measure
+     */
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        HotKeyTracker.Report report = tracker.report(topK);
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("enabled", tracker.isEnabled());
+        details.put("windowSeconds", report.windowSeconds());
+        details.put("complete", report.complete());
+        details.put("byRequests", report.byRequests());
+        details.put("byMisses", report.byMisses());
+        details.put("byUpstreamTime", report.byUpstreamTime());
+        return details;
+    }
+}
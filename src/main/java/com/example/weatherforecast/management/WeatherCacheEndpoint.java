@@ -0,0 +1,63 @@
+package com.example.weatherforecast.management;
+
+import com.example.weatherforecast.repository.WeatherCacheCapacity;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint showing the size of the weather cache and resizing it at
+ * runtime. {@code GET /actuator/weathercache} reports the capacity and
+ * contents; {@code POST /actuator/weathercache} with
+ * {@code {"maxSizeMb": 128}} changes the capacity.
+ *
+ * @since 1.1
+ */
+@Component
+@Endpoint(id = "weathercache")
+public class WeatherCacheEndpoint {
+
+    private static final long MB = 1024 * 1024;
+
+    private final WeatherCacheCapacity capacity;
+
+    /**
+     * Constructs a new WeatherCacheEndpoint.
+     *
+     * @param capacity Capacity control of the weather cache
+     */
+    public WeatherCacheEndpoint(WeatherCacheCapacity capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return Capacity, estimated size and eviction counts of the cache
+     */
+    @ReadOperation
+    public Map<String, Object> cache() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("configuredBytes", capacity.getConfiguredBytes());
+        details.put("effectiveBytes", capacity.getEffectiveBytes());
+        details.put("weightedBytes", capacity.getWeightedBytes());
+        details.put("entries", capacity.getEntryCount());
+        details.put("evictions", capacity.getEvictionCount());
+        details.put("heapPressureEvents", capacity.getHeapPressureEvents());
+        return details;
+    }
+
+    /**
+     * Changes the capacity of the cache.
+     *
+     * @param maxSizeMb The new capacity in megabytes
+     * @return The cache details after resizing
+     */
+    @WriteOperation
+    public Map<String, Object> resize(long maxSizeMb) {
+        capacity.resize(maxSizeMb * MB);
+        return cache();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.weatherforecast.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a bulk forecast export: the forecast for a zip/country pair, or
+ * the reason it could not be retrieved.
+ *
+ * @since 1.1
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkForecastResult {
+    /**
+     * The zip/postal code as given in the request.
+     */
+    private String zipCode;
+    /**
+     * The ISO 3166-1 alpha-2 country code.
+     */
+    private String countryCode;
+    /**
+     * The forecast, or null if it could not be retrieved.
+     */
+    private WeatherResponse forecast;
+    /**
+     * Why the forecast could not be retrieved, or null on success.
+     */
+    private String error;
+}
@@ -0,0 +1,180 @@
+package com.example.weatherforecast.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Compact wire representation of a {@link WeatherResponse} used by the binary
+ * encodings (CBOR and Smile). Timestamps are epoch based and the hourly and
+ * daily series are packed into parallel temperature arrays with a start and
+ * a step, instead of one object per entry. Property names are shortened since
+ * binary encodings repeat them in every payload.
+ *
+ * @since 1.1
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactWeatherResponse {
+    /**
+     * The zip/postal code this forecast is for.
+     */
+    @JsonProperty("zip")
+    private String zipCode;
+    /**
+     * Latitude of the location.
+     */
+    @JsonProperty("lat")
+    private Double latitude;
+    /**
+     * Longitude of the location.
+     */
+    @JsonProperty("lon")
+    private Double longitude;
+    /**
+     * The current temperature in degrees Celsius.
+     */
+    @JsonProperty("cur")
+    private Float currentTemperature;
+    /**
+     * Today's high temperature in degrees Celsius.
+     */
+    @JsonProperty("hi")
+    private Float highTemperature;
+    /**
+     * Today's low temperature in degrees Celsius.
+     */
+    @JsonProperty("lo")
+    private Float lowTemperature;
+    /**
+     * Offset of the location's local time from UTC in seconds.
+     */
+    @JsonProperty("off")
+    private Integer utcOffsetSeconds;
+    /**
+     * Time of the first hourly entry in epoch seconds.
+     */
+    @JsonProperty("hStart")
+    private Long hourlyStart;
+    /**
+     * Seconds between hourly entries.
+     */
+    @JsonProperty("hStep")
+    private Integer hourlyStep;
+    /**
+     * Hourly temperatures in degrees Celsius, starting at hourlyStart.
+     */
+    @JsonProperty("hTemp")
+    private float[] hourlyTemperatures;
+    /**
+     * Date of the first daily entry in epoch days.
+     */
+    @JsonProperty("dStart")
+    private Long dailyStart;
+    /**
+     * Daily highs in degrees Celsius, one per day from dailyStart.
+     */
+    @JsonProperty("dHi")
+    private float[] dailyHighTemperatures;
+    /**
+     * Daily lows in degrees Celsius, one per day from dailyStart.
+     */
+    @JsonProperty("dLo")
+    private float[] dailyLowTemperatures;
+    /**
+     * When this forecast was generated, in epoch milliseconds.
+     */
+    @JsonProperty("ts")
+    private Long timestamp;
+    /**
+     * Flag indicating whether this forecast was retrieved from cache.
+     */
+    @JsonProperty("cached")
+    private boolean fromCache;
+    /**
+     * Set when this is the cached forecast of a nearby location, served while
+     * the weather service was unavailable.
+     */
+    @JsonProperty("approx")
+    private Boolean approximate;
+    /**
+     * Distance in kilometers to the location of an approximate forecast.
+     */
+    @JsonProperty("approxKm")
+    private Double approximateDistanceKm;
+
+    /**
+     * Converts a forecast to its compact representation. The hourly series is
+     * expected to be evenly spaced, as returned by the weather service.
+     *
+     * @param response The forecast to convert
+     * @return The compact representation
+     */
+    public static CompactWeatherResponse from(WeatherResponse response) {
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(
+                response.getUtcOffsetSeconds() == null ? 0 : response.getUtcOffsetSeconds());
+        CompactWeatherResponseBuilder builder = CompactWeatherResponse.builder()
+                .zipCode(response.getZipCode())
+                .currentTemperature(toFloat(response.getCurrentTemperature()))
+                .highTemperature(toFloat(response.getHighTemperature()))
+                .lowTemperature(toFloat(response.getLowTemperature()))
+                .utcOffsetSeconds(response.getUtcOffsetSeconds())
+                .fromCache(response.isFromCache())
+                .approximate(response.getApproximate())
+                .approximateDistanceKm(response.getApproximateDistanceKm());
+        if (response.getCoordinates() != null) {
+            builder.latitude(response.getCoordinates().getLatitude())
+                    .longitude(response.getCoordinates().getLongitude());
+        }
+        if (response.getTimestamp() != null) {
+            // Generated with the server's local clock
+            builder.timestamp(response.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        List<WeatherResponse.HourlyForecast> hourly = response.getHourlyForecast();
+        if (hourly != null) {
+            float[] temperatures = new float[hourly.size()];
+            for (int i = 0; i < temperatures.length; i++) {
+                temperatures[i] = (float) hourly.get(i).getTemperature();
+            }
+            builder.hourlyTemperatures(temperatures);
+            if (!hourly.isEmpty()) {
+                LocalDateTime first = hourly.get(0).getTime();
+                builder.hourlyStart(first.toEpochSecond(offset))
+                        .hourlyStep(hourly.size() > 1
+                                ? (int) Duration.between(first, hourly.get(1).getTime()).toSeconds()
+                                : 3600);
+            }
+        }
+
+        List<WeatherResponse.DailyForecast> daily = response.getDailyForecast();
+        if (daily != null && !daily.isEmpty()) {
+            float[] highs = new float[daily.size()];
+            float[] lows = new float[daily.size()];
+            for (int i = 0; i < highs.length; i++) {
+                highs[i] = (float) daily.get(i).getHighTemperature();
+                lows[i] = (float) daily.get(i).getLowTemperature();
+            }
+            builder.dailyStart(daily.get(0).getDate().toEpochDay())
+                    .dailyHighTemperatures(highs)
+                    .dailyLowTemperatures(lows);
+        }
+        return builder.build();
+    }
+
+    private static Float toFloat(Double value) {
+        return value == null ? null : value.floatValue();
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.weatherforecast.model;
+
+import com.example.weatherforecast.exception.InvalidRequestException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The parts of a forecast a client asked for: which fields, how many hours of
+ * the hourly series and how many days of daily highs and lows.
+ * A projection decides which fields are left out of the response; every
+ * projection is materialized from the same complete cached forecast.
+ *
+ * @since 1.1
+ */
+public final class ForecastProjection {
+
+    /**
+     * Forecast fields a client can select.
+     */
+    public enum Field {
+        /**
+         * The current temperature.
+         */
+        CURRENT,
+        /**
+         * The daily high and low temperatures.
+         */
+        DAILY,
+        /**
+         * The hourly temperature series.
+         */
+        HOURLY
+    }
+
+    public static final int MAX_HOURS = 168;
+    public static final int MAX_DAYS = 16;
+
+    /**
+     * The projection of the zip code endpoint without parameters: every field,
+     * today's hourly series from local midnight and today's high and low.
+     */
+    public static final ForecastProjection DEFAULT = new ForecastProjection(EnumSet.allOf(Field.class), null, 1);
+
+    private final Set<Field> fields;
+    private final Integer hours;
+    private final int days;
+
+    private ForecastProjection(Set<Field> fields, Integer hours, int days) {
+        this.fields = fields;
+        this.hours = hours;
+        this.days = days;
+    }
+
+    /**
+     * Creates a projection from request parameters.
+     *
+     * @param fields Comma separated field names (current, daily, hourly), or null
+     *               for all fields
+     * @param hours  Number of hourly entries from the current hour, or null for
+     *               today's series from local midnight
+     * @param days   Number of days of highs and lows, or null for today only
+     * @return The projection
+     * @throws InvalidRequestException if a parameter is out of range
+     */
+    public static ForecastProjection of(String fields, Integer hours, Integer days) {
+        Set<Field> selected = EnumSet.allOf(Field.class);
+        if (fields != null && !fields.isBlank()) {
+            selected = EnumSet.noneOf(Field.class);
+            for (String name : fields.split(",")) {
+                try {
+                    selected.add(Field.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new InvalidRequestException("Unknown field '" + name.trim()
+                            + "'. Supported fields are current, daily and hourly.");
+                }
+            }
+        }
+        if (hours != null && (hours < 1 || hours > MAX_HOURS)) {
+            throw new InvalidRequestException("hours must be between 1 and " + MAX_HOURS + ".");
+        }
+        if (days != null && (days < 1 || days > MAX_DAYS)) {
+            throw new InvalidRequestException("days must be between 1 and " + MAX_DAYS + ".");
+        }
+        ForecastProjection projection = new ForecastProjection(selected, hours, days == null ? 1 : days);
+        return projection.equals(DEFAULT) ? DEFAULT : projection;
+    }
+
+    /**
+     * @param field The field to check
+     * @return Whether the field is part of the projection
+     */
+    public boolean includes(Field field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * @return Number of hourly entries from the current hour, or null for
+     *         today's series from local midnight
+     */
+    public Integer getHours() {
+        return hours;
+    }
+
+    /**
+     * @return Number of days of highs and lows
+     */
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * @return Number of hourly entries the projection covers: its hours
+     *         limit, or a full day for each requested day without one
+     */
+    public int getHourlyLength() {
+        return hours != null ? hours : 24 * days;
+    }
+
+    /**
+     * Returns a copy of this projection with a different hourly series length.
+     *
+     * @param hours Number of hourly entries from the current hour
+     * @return The projection
+     */
+    public ForecastProjection withHours(int hours) {
+        return new ForecastProjection(fields, hours, days);
+    }
+
+    /**
+     * Returns a copy of this projection that also includes an hourly series
+     * from the current hour.
+     *
+     * @param hours Number of hourly entries from the current hour
+     * @return The projection
+     */
+    public ForecastProjection withHourly(int hours) {
+        Set<Field> widened = EnumSet.copyOf(fields);
+        widened.add(Field.HOURLY);
+        return new ForecastProjection(widened, hours, days);
+    }
+
+    /**
+     * Narrows a forecast to this projection. Fields that were not selected are
+     * cleared so they are left out of the response.
+     *
+     * @param response The forecast to narrow
+     * @param now      The current time
+     * @return A narrowed copy; the input is never modified
+     */
+    public WeatherResponse apply(WeatherResponse response, Instant now) {
+        if (response == null || (this == DEFAULT && response.getDailyForecast() == null)) {
+            return response;
+        }
+        WeatherResponse.WeatherResponseBuilder builder = response.toBuilder();
+        if (!includes(Field.CURRENT)) {
+            builder.currentTemperature(null);
+        }
+        if (!includes(Field.DAILY)) {
+            builder.highTemperature(null).lowTemperature(null).dailyForecast(null);
+        } else if (days == 1 || response.getDailyForecast() == null) {
+            builder.dailyForecast(null);
+        } else {
+            List<WeatherResponse.DailyForecast> daily = response.getDailyForecast();
+            builder.dailyForecast(List.copyOf(daily.subList(0, Math.min(days, daily.size()))));
+        }
+        if (!includes(Field.HOURLY)) {
+            builder.hourlyForecast(null);
+        } else if (hours != null && response.getHourlyForecast() != null) {
+            List<WeatherResponse.HourlyForecast> series = response.getHourlyForecast();
+            int start = Math.max(0, currentHourIndex(response, now));
+            builder.hourlyForecast(List.copyOf(series.subList(Math.min(start, series.size()),
+                    Math.min(start + hours, series.size()))));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Finds the entry for the location's current hour in the hourly series.
+     *
+     * @return The index, or -1 if the series does not contain the current hour
+     */
+    private static int currentHourIndex(WeatherResponse response, Instant now) {
+        List<WeatherResponse.HourlyForecast> series = response.getHourlyForecast();
+        if (series == null) {
+            return -1;
+        }
+        Integer utcOffsetSeconds = response.getUtcOffsetSeconds();
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(utcOffsetSeconds == null ? 0 : utcOffsetSeconds);
+        LocalDateTime currentHour = LocalDateTime.ofInstant(now, offset).truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < series.size(); i++) {
+            if (series.get(i).getTime().equals(currentHour)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ForecastProjection that)) {
+            return false;
+        }
+        return days == that.days && fields.equals(that.fields) && Objects.equals(hours, that.hours);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fields, hours, days);
+    }
+
+    @Override
+    public String toString() {
+        return "ForecastProjection{fields=" + fields + ", hours=" + hours + ", days=" + days + "}";
+    }
+}
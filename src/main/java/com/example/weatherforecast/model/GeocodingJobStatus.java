@@ -0,0 +1,85 @@
+package com.example.weatherforecast.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Progress of a bulk geocoding job.
+ *
+ * @since 1.1
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GeocodingJobStatus {
+
+    /**
+     * Lifecycle of a job.
+     */
+    public enum State {
+        /** Waiting for earlier jobs to finish */
+        QUEUED,
+        /** Being geocoded */
+        RUNNING,
+        /** Every code has a result */
+        COMPLETED,
+        /** Stopped by an error that retrying would not fix */
+        FAILED
+    }
+
+    /**
+     * The job identifier.
+     */
+    private String id;
+    /**
+     * Where the job is in its lifecycle.
+     */
+    private State state;
+    /**
+     * Number of codes submitted.
+     */
+    private int total;
+    /**
+     * Number of codes with a result so far.
+     */
+    private int processed;
+    /**
+     * Codes geocoded through Nominatim.
+     */
+    private int resolved;
+    /**
+     * Codes that were already known.
+     */
+    private int skipped;
+    /**
+     * Codes that could not be geocoded.
+     */
+    private int failed;
+    /**
+     * When the job was submitted.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant submittedAt;
+    /**
+     * When the job last made progress.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant updatedAt;
+    /**
+     * Estimated seconds until the job completes, while it is queued or
+     * running.
+     */
+    private Long estimatedSecondsRemaining;
+    /**
+     * Why the job failed.
+     */
+    private String error;
+}
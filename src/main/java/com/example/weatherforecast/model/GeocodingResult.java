@@ -0,0 +1,39 @@
+package com.example.weatherforecast.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a bulk geocoding job's results: the coordinates of a
+ * zip/country pair, or the reason it could not be geocoded.
+ *
+ * @since 1.1
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GeocodingResult {
+    /**
+     * The zip/postal code as given in the job.
+     */
+    private String zipCode;
+    /**
+     * The ISO 3166-1 alpha-2 country code.
+     */
+    private String countryCode;
+    /**
+     * The coordinates, or null if the code could not be geocoded.
+     */
+    private Coordinates coordinates;
+    /**
+     * True if the code was already known and Nominatim was not asked.
+     */
+    private Boolean skipped;
+    /**
+     * Why the code could not be geocoded, or null on success.
+     */
+    private String error;
+}
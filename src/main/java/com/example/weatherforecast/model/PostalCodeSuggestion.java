@@ -0,0 +1,32 @@
+package com.example.weatherforecast.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A postal code completing the prefix typed by a user.
+ *
+ * @since 1.1
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostalCodeSuggestion {
+    /**
+     * The postal code, upper-cased.
+     */
+    private String postalCode;
+    /**
+     * The ISO 3166-1 alpha-2 country code.
+     */
+    private String countryCode;
+    /**
+     * The place the code belongs to.
+     */
+    private String placeName;
+    /**
+     * Where the place is.
+     */
+    private Coordinates coordinates;
+}
@@ -0,0 +1,227 @@
+package com.example.weatherforecast.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the weather service returned for a location, kept in a compact
+ * form: the hourly series and the daily highs and lows are primitive arrays
+ * with a start time, as the upstream series are evenly spaced. One instance
+ * is fetched and cached per location; the responses clients see are
+ * materialized from it on demand with {@link #view(ForecastProjection,
+ * Instant, boolean)}, so the zip code, daily, hourly and current conditions
+ * endpoints share one upstream call and one cache entry.
+ * <p>
+ * Instances are immutable. The arrays passed to the constructor are owned by
+ * the instance afterwards and must not be modified.
+ *
+ * @since 1.1
+ */
+public final class RawForecast {
+
+
+    private final String zipCode;
+    private final Coordinates coordinates;
+    private final Integer utcOffsetSeconds;
+    private final LocalDateTime fetchedAt;
+    private final Double currentTemperature;
+    private final LocalDateTime hourlyStart;
+    private final double[] hourlyTemperatures;
+    private final LocalDate dailyStart;
+    private final double[] dailyHighs;
+    private final double[] dailyLows;
+
+    /**
+     * Constructs a new RawForecast.
+     *
+     * @param zipCode            ZIP code the forecast was fetched for, or null
+     * @param coordinates        Location of the forecast
+     * @param utcOffsetSeconds   Offset of the location's local time from UTC, or
+     *                           null if unknown
+     * @param fetchedAt          When the forecast was fetched
+     * @param currentTemperature Current temperature at fetch time, or null
+     * @param hourlyStart        Local time of the first hourly entry, or null
+     *                           without hourly entries
+     * @param hourlyTemperatures Hourly temperatures, one hour apart
+     * @param dailyStart         Local date of the first daily entry, or null
+     *                           without daily entries
+     * @param dailyHighs         Daily high temperatures
+     * @param dailyLows          Daily low temperatures, as many as highs
+     */
+    public RawForecast(String zipCode, Coordinates coordinates, Integer utcOffsetSeconds, LocalDateTime fetchedAt,
+            Double currentTemperature, LocalDateTime hourlyStart, double[] hourlyTemperatures, LocalDate dailyStart,
+            double[] dailyHighs, double[] dailyLows) {
+        if (dailyHighs.length != dailyLows.length) {
+            throw new IllegalArgumentException("Daily highs and lows differ in length: " + dailyHighs.length + ", "
+                    + dailyLows.length);
+        }
+        this.zipCode = zipCode;
+        this.coordinates = coordinates;
+        this.utcOffsetSeconds = utcOffsetSeconds;
+        this.fetchedAt = fetchedAt;
+        this.currentTemperature = currentTemperature;
+        this.hourlyStart = hourlyStart;
+        this.hourlyTemperatures = hourlyTemperatures;
+        this.dailyStart = dailyStart;
+        this.dailyHighs = dailyHighs;
+        this.dailyLows = dailyLows;
+    }
+
+    /**
+     * Checks whether everything a projection asks for can be materialized at
+     * the given time.
+     *
+     * @param projection The fields, hours and days needed
+     * @param now        The current time
+     * @return true if {@link #view(ForecastProjection, Instant, boolean)} can
+     *         answer the projection
+     */
+    public boolean covers(ForecastProjection projection, Instant now) {
+        LocalDateTime localNow = localTime(now);
+        if (projection.includes(ForecastProjection.Field.CURRENT) && currentTemperature == null) {
+            return false;
+        }
+        if (projection.includes(ForecastProjection.Field.DAILY)) {
+            int today = dayIndex(localNow.toLocalDate());
+            if (today < 0 || today + projection.getDays() > dailyHighs.length) {
+                return false;
+            }
+        }
+        if (projection.includes(ForecastProjection.Field.HOURLY)) {
+            int start = hourlyStartIndex(projection, localNow);
+            return start >= 0 && start + projection.getHourlyLength() <= hourlyTemperatures.length;
+        }
+        return true;
+    }
+
+    /**
+     * Materializes the response for a projection. Only the selected fields are
+     * set. The hourly series starts at the location's current hour when the
+     * projection has an hours limit, and at local midnight covering every
+     * requested day otherwise; highs and lows start today. Parts the forecast
+     * does not cover are cut short.
+     *
+     * @param projection The fields, hours and days to materialize
+     * @param now        The current time
+     * @param fromCache  Whether the forecast was served from the cache
+     * @return A new response
+     */
+    public WeatherResponse view(ForecastProjection projection, Instant now, boolean fromCache) {
+        LocalDateTime localNow = localTime(now);
+        WeatherResponse.WeatherResponseBuilder builder = WeatherResponse.builder()
+                .zipCode(zipCode)
+                .coordinates(coordinates)
+                .timestamp(fetchedAt)
+                .fromCache(fromCache)
+                .utcOffsetSeconds(utcOffsetSeconds);
+        if (projection.includes(ForecastProjection.Field.CURRENT)) {
+            builder.currentTemperature(currentTemperature);
+        }
+        if (projection.includes(ForecastProjection.Field.DAILY)) {
+            int today = Math.max(0, dayIndex(localNow.toLocalDate()));
+            if (today < dailyHighs.length) {
+                builder.highTemperature(dailyHighs[today]).lowTemperature(dailyLows[today]);
+            }
+            if (projection.getDays() > 1) {
+                int end = Math.min(dailyHighs.length, today + projection.getDays());
+                List<WeatherResponse.DailyForecast> daily = new ArrayList<>(Math.max(0, end - today));
+                for (int i = today; i < end; i++) {
+                    daily.add(new WeatherResponse.DailyForecast(dailyStart.plusDays(i), dailyHighs[i], dailyLows[i]));
+                }
+                builder.dailyForecast(daily);
+            }
+        }
+        if (projection.includes(ForecastProjection.Field.HOURLY)) {
+            int start = Math.max(0, hourlyStartIndex(projection, localNow));
+            int end = Math.min(hourlyTemperatures.length, start + projection.getHourlyLength());
+            List<WeatherResponse.HourlyForecast> hourly = new ArrayList<>(Math.max(0, end - start));
+            for (int i = start; i < end; i++) {
+                hourly.add(new WeatherResponse.HourlyForecast(hourlyStart.plusHours(i), hourlyTemperatures[i]));
+            }
+            builder.hourlyForecast(hourly);
+        }
+        return builder.build();
+    }
+
+    private LocalDateTime localTime(Instant now) {
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(utcOffsetSeconds == null ? 0 : utcOffsetSeconds);
+        return LocalDateTime.ofInstant(now, offset);
+    }
+
+    private int dayIndex(LocalDate date) {
+        if (dailyStart == null) {
+            return -1;
+        }
+        return (int) ChronoUnit.DAYS.between(dailyStart, date);
+    }
+
+    /**
+     * Index of the first hourly entry of a projection: the current hour, or
+     * today's local midnight without an hours limit. Negative if the series
+     * starts later.
+     */
+    private int hourlyStartIndex(ForecastProjection projection, LocalDateTime localNow) {
+        if (hourlyStart == null) {
+            return -1;
+        }
+        LocalDateTime first = projection.getHours() != null
+                ? localNow.truncatedTo(ChronoUnit.HOURS)
+                : localNow.toLocalDate().atStartOfDay();
+        return (int) Duration.between(hourlyStart, first).toHours();
+    }
+
+    /**
+     * @return ZIP code the forecast was fetched for, or null
+     */
+    public String getZipCode() {
+        return zipCode;
+    }
+
+    /**
+     * @return Location of the forecast
+     */
+    public Coordinates getCoordinates() {
+        return coordinates;
+    }
+
+    /**
+     * @return Offset of the location's local time from UTC in seconds, or null
+     */
+    public Integer getUtcOffsetSeconds() {
+        return utcOffsetSeconds;
+    }
+
+    /**
+     * @return When the forecast was fetched
+     */
+    public LocalDateTime getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * @return Number of hourly entries
+     */
+    public int getHourCount() {
+        return hourlyTemperatures.length;
+    }
+
+    /**
+     * @return Number of days of highs and lows
+     */
+    public int getDayCount() {
+        return dailyHighs.length;
+    }
+
+    /**
+     * @return Local time of the last hourly entry, or null if there are none
+     */
+    public LocalDateTime getLastHour() {
+        return hourlyTemperatures.length > 0 ? hourlyStart.plusHours(hourlyTemperatures.length - 1L) : null;
+    }
+}
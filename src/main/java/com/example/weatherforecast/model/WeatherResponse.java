@@ -1,22 +1,25 @@
 package com.example.weatherforecast.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Data Transfer Object representing weather forecast information.
  * Contains current temperature, high/low temperatures, and hourly forecast
- * data.
+ * data. Fields left out by a {@link ForecastProjection} are null and omitted
+ * from the JSON.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -32,19 +35,25 @@ public class WeatherResponse {
     /**
      * The current temperature in degrees Celsius.
      */
-    private double currentTemperature;
+    private Double currentTemperature;
     /**
      * The forecasted high temperature for the day in degrees Celsius.
      */
-    private double highTemperature;
+    private Double highTemperature;
     /**
      * The forecasted low temperature for the day in degrees Celsius.
      */
-    private double lowTemperature;
+    private Double lowTemperature;
     /**
-     * List of hourly forecast entries for the next 24 hours.
+     * List of hourly forecast entries for the next 24 hours, or for the
+     * requested number of hours.
      */
     private List<HourlyForecast> hourlyForecast;
+    /**
+     * Daily highs and lows, starting today. Only present when more than one day
+     * was requested.
+     */
+    private List<DailyForecast> dailyForecast;
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
     /**
@@ -55,6 +64,24 @@ public class WeatherResponse {
      * Flag indicating whether this forecast was retrieved from cache.
      */
     private boolean fromCache;
+    /**
+     * Set when the upstream weather service was unavailable and this is the
+     * cached forecast of a nearby location instead, or the location's own
+     * cached forecast as far as it still reaches. Null for regular forecasts.
+     */
+    private Boolean approximate;
+    /**
+     * Distance in kilometers between the requested location and the location
+     * of an approximate forecast, whose coordinates are returned.
+     */
+    private Double approximateDistanceKm;
+    /**
+     * Offset of the location's local time from UTC in seconds, as reported by
+     * the weather service. Used internally to align cache expiry with local
+     * hour boundaries.
+     */
+    @JsonIgnore
+    private Integer utcOffsetSeconds;
 
     @Data
     @NoArgsConstructor
@@ -64,4 +91,14 @@ public class WeatherResponse {
         private LocalDateTime time;
         private double temperature;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyForecast {
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+        private LocalDate date;
+        private double highTemperature;
+        private double lowTemperature;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.example.weatherforecast.repository;
+
+import com.example.weatherforecast.model.RawForecast;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Per-entry cache expiry for weather forecasts.
+ * Instead of expiring every entry a fixed time after it was written, entries
+ * can live until the forecast they hold actually changes upstream: the next
+ * local hour boundary of the location, or the next time a new model run
+ * becomes available.
+ *
+ * @since 1.1
+ */
+public class ForecastExpiry implements Expiry<Object, Object> {
+
+    /**
+     * Strategy used to compute how long a forecast stays in the cache.
+     */
+    public enum Policy {
+        /**
+         * Expire a fixed time after the entry was written.
+         */
+        FIXED,
+        /**
+         * Expire at the next hour boundary in the location's local time, when
+         * the hourly series and current conditions move on.
+         */
+        HOUR_BOUNDARY,
+        /**
+         * Expire when the next model run is available upstream. Runs are aligned
+         * to UTC multiples of the model update interval and become available
+         * after the publication delay.
+         */
+        MODEL_UPDATE,
+        /**
+         * Keep the entry while its hourly series can still fill a full 24 hour
+         * window from now, and never past local midnight when the daily high and
+         * low change. Used when current conditions are derived from the series
+         * on read.
+         */
+        SERIES
+    }
+
+    private static final int SERIES_WINDOW_HOURS = 24;
+
+    private final Policy policy;
+    private final Duration fixedTtl;
+    private final Duration modelUpdateInterval;
+    private final Duration modelPublicationDelay;
+    private final Duration minTtl;
+    private final Duration maxTtl;
+    private final Clock clock;
+
+    /**
+     * Constructs a new ForecastExpiry.
+     *
+     * @param policy                The expiry strategy
+     * @param fixedTtl              Time to live for the FIXED policy
+     * @param modelUpdateInterval   How often the upstream model runs
+     * @param modelPublicationDelay How long after a run boundary new data is
+     *                              served upstream
+     * @param minTtl                Lower bound for any computed expiry
+     * @param maxTtl                Upper bound for any computed expiry
+     * @param clock                 Clock used to find the next boundary
+     */
+    public ForecastExpiry(Policy policy, Duration fixedTtl, Duration modelUpdateInterval,
+            Duration modelPublicationDelay, Duration minTtl, Duration maxTtl, Clock clock) {
+        this.policy = policy;
+        this.fixedTtl = fixedTtl;
+        this.modelUpdateInterval = modelUpdateInterval;
+        this.modelPublicationDelay = modelPublicationDelay;
+        this.minTtl = minTtl;
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Computes how long a freshly fetched value should stay in the cache.
+     *
+     * @param value The cached value
+     * @return The time to live for the value
+     */
+    public Duration timeToLive(Object value) {
+        if (policy == Policy.FIXED || !(value instanceof RawForecast forecast)) {
+            return fixedTtl;
+        }
+        Instant now = clock.instant();
+        Duration ttl = switch (policy) {
+            case HOUR_BOUNDARY -> untilNextBoundary(now, Duration.ofHours(1), offsetOf(forecast), Duration.ZERO);
+            case MODEL_UPDATE -> untilNextBoundary(now, modelUpdateInterval, Duration.ZERO, modelPublicationDelay);
+            case SERIES -> untilSeriesExhausted(now, forecast);
+            default -> fixedTtl;
+        };
+        if (ttl.compareTo(minTtl) < 0) {
+            return minTtl;
+        }
+        return ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+    }
+
+    /**
+     * Finds the time until the next instant of the form
+     * {@code k * interval - offset + delay} after now.
+     */
+    private static Duration untilNextBoundary(Instant now, Duration interval, Duration offset, Duration delay) {
+        long intervalMillis = interval.toMillis();
+        long shifted = now.toEpochMilli() + offset.toMillis() - delay.toMillis();
+        long next = Math.floorDiv(shifted, intervalMillis) * intervalMillis + intervalMillis;
+        return Duration.ofMillis(next - shifted);
+    }
+
+    private Duration untilSeriesExhausted(Instant now, RawForecast forecast) {
+        LocalDateTime lastHour = forecast.getLastHour();
+        if (lastHour == null) {
+            return fixedTtl;
+        }
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds((int) offsetOf(forecast).toSeconds());
+        LocalDateTime localNow = LocalDateTime.ofInstant(now, offset);
+        // The last full window must still have one more entry to interpolate towards
+        LocalDateTime exhausted = lastHour.minusHours(SERIES_WINDOW_HOURS);
+        LocalDateTime midnight = localNow.toLocalDate().plusDays(1).atStartOfDay();
+        LocalDateTime expiresAt = exhausted.isBefore(midnight) ? exhausted : midnight;
+        return Duration.between(localNow, expiresAt);
+    }
+
+    private static Duration offsetOf(RawForecast forecast) {
+        Integer utcOffsetSeconds = forecast.getUtcOffsetSeconds();
+        return utcOffsetSeconds == null ? Duration.ZERO : Duration.ofSeconds(utcOffsetSeconds);
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return timeToLive(value).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return timeToLive(value).toNanos();
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    /**
+     * @return The configured expiry strategy
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.weatherforecast.repository;
+
+import com.example.weatherforecast.model.RawForecast;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Estimates the heap footprint of a cached forecast in bytes, so the weather
+ * cache can be bounded by memory rather than entry count. The estimate
+ * assumes a 64-bit JVM with compressed references and counts the objects an
+ * entry keeps reachable: the forecast, its key and zip code strings, boxed
+ * values, coordinates, timestamps, the temperature arrays and the cache's own
+ * entry node. The hourly array dominates; an 8 day forecast weighs about
+ * 2 KB.
+ *
+ * @since 1.1
+ */
+public class ForecastWeigher implements Weigher<Object, Object> {
+
+    static final int ENTRY_OVERHEAD = 64;
+    static final int FORECAST = 56;
+    static final int STRING_OVERHEAD = 40;
+    static final int BOXED = 16;
+    static final int COORDINATES = 32;
+    static final int LOCAL_DATE_TIME = 72;
+    static final int LOCAL_DATE = 24;
+    static final int ARRAY_OVERHEAD = 16;
+    static final int DOUBLE = 8;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long weight = ENTRY_OVERHEAD + string(key);
+        if (value instanceof RawForecast forecast) {
+            weight += FORECAST
+                    + string(forecast.getZipCode())
+                    + (forecast.getCoordinates() != null ? COORDINATES : 0)
+                    // Current temperature and UTC offset
+                    + 2 * BOXED
+                    // Fetch time and start of the hourly series
+                    + 2 * LOCAL_DATE_TIME
+                    + LOCAL_DATE
+                    + ARRAY_OVERHEAD + (long) forecast.getHourCount() * DOUBLE
+                    + 2 * (ARRAY_OVERHEAD + (long) forecast.getDayCount() * DOUBLE);
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static long string(Object value) {
+        return value != null ? STRING_OVERHEAD + value.toString().length() : 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.weatherforecast.repository;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cache of geocoded zip/postal codes. Postal codes do not move, so entries
+ * never expire; the cache is only bounded by its number of entries, at about
+ * 150 bytes each. Keys are normalized the way {@link WeatherCacheRepository}
+ * builds zip code keys.
+ *
+ * @since 1.1
+ */
+public class GeocodingCache {
+
+    private final Cache<String, Coordinates> cache;
+
+    /**
+     * Constructs a new GeocodingCache.
+     *
+     * @param maxEntries Number of codes kept at most
+     */
+    public GeocodingCache(long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Looks up the coordinates of a code.
+     *
+     * @param zipCode     The zip or postal code
+     * @param countryCode The ISO 3166-1 alpha-2 country code
+     * @return The cached coordinates, or null
+     */
+    public Coordinates get(String zipCode, String countryCode) {
+        return cache.getIfPresent(WeatherCacheRepository.zipCodeKey(zipCode, countryCode));
+    }
+
+    /**
+     * Stores the coordinates of a code.
+     *
+     * @param zipCode     The zip or postal code
+     * @param countryCode The ISO 3166-1 alpha-2 country code
+     * @param coordinates Where the code is
+     */
+    public void put(String zipCode, String countryCode, Coordinates coordinates) {
+        cache.put(WeatherCacheRepository.zipCodeKey(zipCode, countryCode), coordinates);
+    }
+
+    /**
+     * @return The number of codes cached
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
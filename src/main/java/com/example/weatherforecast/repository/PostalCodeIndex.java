@@ -0,0 +1,292 @@
+package com.example.weatherforecast.repository;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.PostalCodeSuggestion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read-only prefix index over a postal code dataset. Keys, the country code
+ * followed by the upper-cased postal code, are packed in sorted order into a
+ * single byte array, place names into another, and coordinates into int
+ * arrays of 1e-5 degrees (about a metre), so an entry costs about 40 bytes
+ * and the index holds no object per entry. A lookup is a binary search for the first key at or after the
+ * prefix followed by a forward scan; it reads the arrays in place and only
+ * allocates the suggestions it returns.
+ *
+ * @since 1.1
+ */
+public final class PostalCodeIndex {
+
+    private static final PostalCodeIndex EMPTY = new Builder().build();
+    private static final double DEGREE_UNITS = 1e5;
+
+    private final byte[] keys;
+    private final int[] keyOffsets;
+    private final byte[] names;
+    private final int[] nameOffsets;
+    private final int[] latitudes;
+    private final int[] longitudes;
+
+    private PostalCodeIndex(byte[] keys, int[] keyOffsets, byte[] names, int[] nameOffsets, int[] latitudes,
+            int[] longitudes) {
+        this.keys = keys;
+        this.keyOffsets = keyOffsets;
+        this.names = names;
+        this.nameOffsets = nameOffsets;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     * @return An index without entries
+     */
+    public static PostalCodeIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Reads a dataset in the GeoNames postal code format: tab separated
+     * lines of country code, postal code, place name, six administrative
+     * division columns, latitude and longitude. Lines that do not have these
+     * columns, or whose postal code is not plain ASCII, are skipped.
+     *
+     * @param input The dataset
+     * @return The index of the dataset
+     * @throws IOException if the dataset cannot be read
+     */
+    public static PostalCodeIndex read(Reader input) throws IOException {
+        Builder builder = new Builder();
+        BufferedReader reader = new BufferedReader(input);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] columns = line.split("\t", -1);
+            if (columns.length < 11) {
+                continue;
+            }
+            try {
+                builder.add(columns[0], columns[1], columns[2], Double.parseDouble(columns[9]),
+                        Double.parseDouble(columns[10]));
+            } catch (NumberFormatException e) {
+                // A header or damaged line
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Lists the postal codes of a country that start with a prefix, in
+     * lexicographic order. Letters in the prefix match regardless of case.
+     *
+     * @param countryCode The ISO 3166-1 alpha-2 country code
+     * @param prefix      The start of the postal code
+     * @param limit       Most suggestions to return
+     * @return Up to limit matching postal codes
+     */
+    public List<PostalCodeSuggestion> suggest(String countryCode, String prefix, int limit) {
+        int first = lowerBound(countryCode, prefix);
+        int end = Math.min(size(), first + limit);
+        int last = first;
+        while (last < end && matches(last, countryCode, prefix)) {
+            last++;
+        }
+        List<PostalCodeSuggestion> suggestions = new ArrayList<>(last - first);
+        for (int entry = first; entry < last; entry++) {
+            int keyStart = keyOffsets[entry];
+            suggestions.add(new PostalCodeSuggestion(
+                    new String(keys, keyStart + 2, keyOffsets[entry + 1] - keyStart - 2, StandardCharsets.US_ASCII),
+                    new String(keys, keyStart, 2, StandardCharsets.US_ASCII),
+                    new String(names, nameOffsets[entry], nameOffsets[entry + 1] - nameOffsets[entry],
+                            StandardCharsets.UTF_8),
+                    new Coordinates(latitudes[entry] / DEGREE_UNITS, longitudes[entry] / DEGREE_UNITS)));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Looks up a postal code of a country. Letters match regardless of case.
+     *
+     * @param countryCode The ISO 3166-1 alpha-2 country code
+     * @param postalCode  The complete postal code
+     * @return The postal code with its place and coordinates, or null if it is
+     *         not indexed
+     */
+    public PostalCodeSuggestion find(String countryCode, String postalCode) {
+        // An exact match sorts before every longer code it prefixes
+        List<PostalCodeSuggestion> first = suggest(countryCode, postalCode, 1);
+        if (first.isEmpty() || !first.get(0).getPostalCode().equalsIgnoreCase(postalCode)) {
+            return null;
+        }
+        return first.get(0);
+    }
+
+    /**
+     * @return The number of postal codes indexed
+     */
+    public int size() {
+        return latitudes.length;
+    }
+
+    /**
+     * @return The bytes held by the index arrays
+     */
+    public long getSizeInBytes() {
+        return keys.length + names.length + 4L * (keyOffsets.length + nameOffsets.length) + 8L * size();
+    }
+
+    private int lowerBound(String countryCode, String prefix) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(middle, countryCode, prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int entry, String countryCode, String prefix) {
+        int start = keyOffsets[entry];
+        int length = keyOffsets[entry + 1] - start;
+        int queryLength = 2 + prefix.length();
+        for (int i = 0; i < Math.min(length, queryLength); i++) {
+            int difference = keys[start + i] - queryChar(countryCode, prefix, i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - queryLength;
+    }
+
+    private boolean matches(int entry, String countryCode, String prefix) {
+        int start = keyOffsets[entry];
+        int queryLength = 2 + prefix.length();
+        if (keyOffsets[entry + 1] - start < queryLength) {
+            return false;
+        }
+        for (int i = 0; i < queryLength; i++) {
+            if (keys[start + i] != queryChar(countryCode, prefix, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char queryChar(String countryCode, String prefix, int position) {
+        return Character.toUpperCase(position < 2 ? countryCode.charAt(position) : prefix.charAt(position - 2));
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects entries and packs them into an index. The first entry of a
+     * postal code wins; datasets list one line per place sharing the code.
+     */
+    public static final class Builder {
+
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private int[] latitudes = new int[1024];
+        private int[] longitudes = new int[1024];
+
+        /**
+         * Adds a postal code. Codes with a country code that is not two
+         * letters, or with characters outside ASCII, are ignored.
+         *
+         * @param countryCode The ISO 3166-1 alpha-2 country code
+         * @param postalCode  The postal code
+         * @param placeName   The place the code belongs to
+         * @param latitude    Latitude of the place
+         * @param longitude   Longitude of the place
+         * @return This builder
+         */
+        public Builder add(String countryCode, String postalCode, String placeName, double latitude,
+                double longitude) {
+            String code = postalCode.trim().toUpperCase(Locale.ROOT);
+            if (countryCode.length() != 2 || code.isEmpty() || !isAscii(countryCode) || !isAscii(code)) {
+                return this;
+            }
+            int entry = keys.size();
+            if (entry == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, entry * 2);
+                longitudes = Arrays.copyOf(longitudes, entry * 2);
+            }
+            keys.add(countryCode.toUpperCase(Locale.ROOT) + code);
+            names.add(placeName);
+            latitudes[entry] = (int) Math.round(latitude * DEGREE_UNITS);
+            longitudes[entry] = (int) Math.round(longitude * DEGREE_UNITS);
+            return this;
+        }
+
+        /**
+         * @return The index of the entries added so far
+         */
+        public PostalCodeIndex build() {
+            Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            // Stable, so the first of several entries for a code stays first
+            Arrays.sort(order, Comparator.comparing(keys::get));
+
+            int count = 0;
+            int keyBytes = 0;
+            int nameBytes = 0;
+            byte[][] encodedNames = new byte[order.length][];
+            String previous = null;
+            for (int i = 0; i < order.length; i++) {
+                String key = keys.get(order[i]);
+                if (key.equals(previous)) {
+                    order[i] = null;
+                    continue;
+                }
+                previous = key;
+                encodedNames[i] = names.get(order[i]).getBytes(StandardCharsets.UTF_8);
+                keyBytes += keys.get(order[i]).length();
+                nameBytes += encodedNames[i].length;
+                count++;
+            }
+
+            byte[] packedKeys = new byte[keyBytes];
+            int[] keyOffsets = new int[count + 1];
+            byte[] packedNames = new byte[nameBytes];
+            int[] nameOffsets = new int[count + 1];
+            int[] packedLatitudes = new int[count];
+            int[] packedLongitudes = new int[count];
+            int entry = 0;
+            for (int i = 0; i < order.length; i++) {
+                if (order[i] == null) {
+                    continue;
+                }
+                byte[] key = keys.get(order[i]).getBytes(StandardCharsets.US_ASCII);
+                System.arraycopy(key, 0, packedKeys, keyOffsets[entry], key.length);
+                keyOffsets[entry + 1] = keyOffsets[entry] + key.length;
+                System.arraycopy(encodedNames[i], 0, packedNames, nameOffsets[entry], encodedNames[i].length);
+                nameOffsets[entry + 1] = nameOffsets[entry] + encodedNames[i].length;
+                packedLatitudes[entry] = latitudes[order[i]];
+                packedLongitudes[entry] = longitudes[order[i]];
+                entry++;
+            }
+            return new PostalCodeIndex(packedKeys, keyOffsets, packedNames, nameOffsets, packedLatitudes,
+                    packedLongitudes);
+        }
+    }
+}
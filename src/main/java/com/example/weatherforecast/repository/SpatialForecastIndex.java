@@ -0,0 +1,249 @@
+package com.example.weatherforecast.repository;
+
+import com.example.weatherforecast.model.Coordinates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index over the locations of cached forecasts.
+ * Locations are bucketed by geohash, with the cell size chosen from the
+ * expected search radius, so a nearest-neighbour search only scans the cells
+ * around the query point. Inserts and removals only touch the buckets of the
+ * affected cells; there is no index-wide lock.
+ *
+ * @since 1.1
+ */
+@Component
+public class SpatialForecastIndex {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final int MAX_PRECISION = 8;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final int precision;
+    private final double cellHeight;
+    private final double cellWidth;
+    private final Map<String, Set<String>> cells = new ConcurrentHashMap<>();
+    private final Map<String, IndexedLocation> locations = new ConcurrentHashMap<>();
+
+    /**
+     * A cache key found near a query point.
+     *
+     * @param cacheKey    The key of the cached forecast
+     * @param coordinates The location of the cached forecast
+     * @param distanceKm  Great-circle distance from the query point
+     */
+    public record Neighbor(String cacheKey, Coordinates coordinates, double distanceKm) {
+    }
+
+    private record IndexedLocation(Coordinates coordinates, String cell) {
+    }
+
+    /**
+     * Constructs a new SpatialForecastIndex.
+     *
+     * @param radiusKm Typical search radius; cells are the finest geohash cells
+     *                 at least this tall
+     */
+    public SpatialForecastIndex(@Value("${weather.fallback.nearest.radius-km:25}") double radiusKm) {
+        int cellPrecision = 1;
+        while (cellPrecision < MAX_PRECISION
+                && 180.0 / (1L << latitudeBits(cellPrecision + 1)) * KM_PER_DEGREE >= radiusKm) {
+            cellPrecision++;
+        }
+        this.precision = cellPrecision;
+        this.cellHeight = 180.0 / (1L << latitudeBits(cellPrecision));
+        this.cellWidth = 360.0 / (1L << longitudeBits(cellPrecision));
+    }
+
+    /**
+     * Adds or moves the location of a cached forecast.
+     *
+     * @param cacheKey    The key of the cached forecast
+     * @param coordinates The location of the forecast
+     */
+    public void put(String cacheKey, Coordinates coordinates) {
+        String cell = geohash(coordinates.getLatitude(), coordinates.getLongitude(), precision);
+        IndexedLocation previous = locations.put(cacheKey, new IndexedLocation(coordinates, cell));
+        if (previous != null && !previous.cell().equals(cell)) {
+            removeFromCell(previous.cell(), cacheKey);
+        }
+        cells.compute(cell, (key, members) -> {
+            Set<String> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+            updated.add(cacheKey);
+            return updated;
+        });
+    }
+
+    /**
+     * Removes the location of a cached forecast, typically when it is evicted.
+     *
+     * @param cacheKey The key of the cached forecast
+     */
+    public void remove(String cacheKey) {
+        IndexedLocation previous = locations.remove(cacheKey);
+        if (previous != null) {
+            removeFromCell(previous.cell(), cacheKey);
+        }
+    }
+
+    private void removeFromCell(String cell, String cacheKey) {
+        // Runs atomically with other updates to the same cell, so a concurrent
+        // put of the key into this cell is never undone, and drops the bucket
+        // with its last member
+        cells.computeIfPresent(cell, (key, members) -> {
+            IndexedLocation current = locations.get(cacheKey);
+            if (current == null || !current.cell().equals(cell)) {
+                members.remove(cacheKey);
+            }
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    /**
+     * Finds indexed locations within a radius of a point.
+     *
+     * @param coordinates The query point
+     * @param radiusKm    Maximum great-circle distance in kilometers
+     * @return The locations found, nearest first
+     */
+    public List<Neighbor> findWithin(Coordinates coordinates, double radiusKm) {
+        double latitude = coordinates.getLatitude();
+        double longitude = coordinates.getLongitude();
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double cosLatitude = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latitudeSpan)));
+        double longitudeSpan = cosLatitude > 1e-6 ? latitudeSpan / cosLatitude : 180;
+
+        int rows = (int) Math.ceil(latitudeSpan / cellHeight);
+        int columns = (int) Math.min(Math.ceil(longitudeSpan / cellWidth), Math.ceil(180 / cellWidth));
+        Set<String> searched = new HashSet<>();
+        List<Neighbor> found = new ArrayList<>();
+        for (int row = -rows; row <= rows; row++) {
+            double cellLatitude = latitude + row * cellHeight;
+            if (cellLatitude < -90 - cellHeight || cellLatitude > 90 + cellHeight) {
+                continue;
+            }
+            cellLatitude = Math.max(-90, Math.min(90, cellLatitude));
+            for (int column = -columns; column <= columns; column++) {
+                String cell = geohash(cellLatitude, wrapLongitude(longitude + column * cellWidth), precision);
+                if (!searched.add(cell)) {
+                    continue;
+                }
+                Set<String> members = cells.get(cell);
+                if (members == null) {
+                    continue;
+                }
+                for (String cacheKey : members) {
+                    IndexedLocation location = locations.get(cacheKey);
+                    if (location == null || !location.cell().equals(cell)) {
+                        // Left behind by a racing remove or move
+                        removeFromCell(cell, cacheKey);
+                        continue;
+                    }
+                    double distance = distanceKm(coordinates, location.coordinates());
+                    if (distance <= radiusKm) {
+                        found.add(new Neighbor(cacheKey, location.coordinates(), distance));
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(Neighbor::distanceKm));
+        return found;
+    }
+
+    /**
+     * @return The number of indexed locations
+     */
+    public int size() {
+        return locations.size();
+    }
+
+    /**
+     * @return The geohash precision of the index cells
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Great-circle distance between two points using the haversine formula.
+     *
+     * @param from The first point
+     * @param to   The second point
+     * @return The distance in kilometers
+     */
+    public static double distanceKm(Coordinates from, Coordinates to) {
+        double deltaLatitude = Math.toRadians(to.getLatitude() - from.getLatitude());
+        double deltaLongitude = Math.toRadians(to.getLongitude() - from.getLongitude());
+        double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                + Math.cos(Math.toRadians(from.getLatitude())) * Math.cos(Math.toRadians(to.getLatitude()))
+                        * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Encodes a point as a geohash.
+     *
+     * @param latitude  Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @param precision Number of characters
+     * @return The geohash of the cell containing the point
+     */
+    static String geohash(double latitude, double longitude, int precision) {
+        double minLatitude = -90, maxLatitude = 90;
+        double minLongitude = -180, maxLongitude = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int character = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double middle = (minLongitude + maxLongitude) / 2;
+                if (longitude >= middle) {
+                    character = (character << 1) | 1;
+                    minLongitude = middle;
+                } else {
+                    character <<= 1;
+                    maxLongitude = middle;
+                }
+            } else {
+                double middle = (minLatitude + maxLatitude) / 2;
+                if (latitude >= middle) {
+                    character = (character << 1) | 1;
+                    minLatitude = middle;
+                } else {
+                    character <<= 1;
+                    maxLatitude = middle;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(character));
+                bit = 0;
+                character = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    private static double wrapLongitude(double longitude) {
+        return ((longitude + 180) % 360 + 360) % 360 - 180;
+    }
+
+    private static int latitudeBits(int precision) {
+        return 5 * precision / 2;
+    }
+
+    private static int longitudeBits(int precision) {
+        return (5 * precision + 1) / 2;
+    }
+}
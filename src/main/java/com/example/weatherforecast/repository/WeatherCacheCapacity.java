@@ -0,0 +1,218 @@
+package com.example.weatherforecast.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controls the byte capacity of the weather cache. The configured capacity
+ * can be changed at runtime. Independently, the capacity in effect shrinks
+ * when the JVM reports heap pressure: a collection usage threshold is set on
+ * every heap memory pool that supports one, and each time the heap is still
+ * above it after a garbage collection, the effective capacity is cut by the
+ * shrink factor, down to the minimum. Once usage after collection has fallen
+ * below the recovery ratio, the capacity grows back towards the configured
+ * value one step per check.
+ *
+ * @since 1.1
+ */
+public class WeatherCacheCapacity implements AutoCloseable {
+
+    private final Cache<Object, Object> cache;
+    private final Policy.Eviction<Object, Object> eviction;
+    private final long minBytes;
+    private final double recoveryRatio;
+    private final double shrinkFactor;
+    private final List<MemoryPoolMXBean> pools;
+    private final NotificationEmitter emitter;
+    private final NotificationListener listener = this::onNotification;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong pressureEvents = new AtomicLong();
+    private volatile long configuredBytes;
+
+    /**
+     * Constructs a new WeatherCacheCapacity and starts watching the heap.
+     *
+     * @param cache            The weight-bounded cache to size
+     * @param maxBytes         Configured capacity
+     * @param minBytes         Capacity the cache never shrinks below
+     * @param pressureRatio    Share of a heap pool's maximum that, when still
+     *                         used after a collection, counts as pressure;
+     *                         zero disables heap monitoring
+     * @param recoveryRatio    Share below which the capacity grows back
+     * @param shrinkFactor     Factor applied to the capacity under pressure
+     *                         (between 0 and 1)
+     * @param recoveryInterval How often usage is checked for recovery
+     */
+    public WeatherCacheCapacity(Cache<Object, Object> cache, long maxBytes, long minBytes, double pressureRatio,
+            double recoveryRatio, double shrinkFactor, Duration recoveryInterval) {
+        if (shrinkFactor <= 0 || shrinkFactor >= 1) {
+            throw new IllegalArgumentException("Shrink factor must be between 0 and 1: " + shrinkFactor);
+        }
+        if (pressureRatio < 0 || pressureRatio > 1 || (pressureRatio > 0 && recoveryRatio > pressureRatio)) {
+            throw new IllegalArgumentException("Invalid heap ratios: pressure " + pressureRatio + ", recovery "
+                    + recoveryRatio);
+        }
+        this.cache = cache;
+        this.eviction = cache.policy().eviction()
+                .filter(Policy.Eviction::isWeighted)
+                .orElseThrow(() -> new IllegalArgumentException("Cache is not bounded by weight"));
+        this.minBytes = minBytes;
+        this.recoveryRatio = recoveryRatio;
+        this.shrinkFactor = shrinkFactor;
+        this.configuredBytes = maxBytes;
+        eviction.setMaximum(maxBytes);
+
+        if (pressureRatio > 0) {
+            this.pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .filter(MemoryPoolMXBean::isCollectionUsageThresholdSupported)
+                    .filter(pool -> pool.getUsage().getMax() > 0)
+                    .toList();
+            for (MemoryPoolMXBean pool : pools) {
+                pool.setCollectionUsageThreshold((long) (pool.getUsage().getMax() * pressureRatio));
+            }
+            this.emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+            emitter.addNotificationListener(listener, null, null);
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cache-capacity");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = recoveryInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::checkRecovery, intervalMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.pools = List.of();
+            this.emitter = null;
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Changes the configured capacity. The new value also takes effect
+     * immediately, replacing any reduction made under heap pressure; if it is
+     * smaller than the current contents, entries are evicted.
+     *
+     * @param maxBytes The new capacity in bytes
+     */
+    public synchronized void resize(long maxBytes) {
+        if (maxBytes < minBytes) {
+            throw new IllegalArgumentException("Capacity must be at least " + minBytes + " bytes: " + maxBytes);
+        }
+        configuredBytes = maxBytes;
+        eviction.setMaximum(maxBytes);
+    }
+
+    private void onNotification(Notification notification, Object handback) {
+        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            onHeapPressure();
+        }
+    }
+
+    /**
+     * Shrinks the effective capacity by the shrink factor.
+     */
+    synchronized void onHeapPressure() {
+        pressureEvents.incrementAndGet();
+        eviction.setMaximum(Math.max(minBytes, (long) (eviction.getMaximum() * shrinkFactor)));
+    }
+
+    private void checkRecovery() {
+        double usage = 0;
+        for (MemoryPoolMXBean pool : pools) {
+            MemoryUsage afterCollection = pool.getCollectionUsage();
+            if (afterCollection != null && afterCollection.getMax() > 0) {
+                usage = Math.max(usage, (double) afterCollection.getUsed() / afterCollection.getMax());
+            }
+        }
+        recover(usage);
+    }
+
+    /**
+     * Grows the effective capacity back one step if heap usage after the
+     * last collection is below the recovery ratio.
+     *
+     * @param heapUsage Highest heap pool usage after collection, 0 to 1
+     */
+    synchronized void recover(double heapUsage) {
+        long current = eviction.getMaximum();
+        if (heapUsage < recoveryRatio && current < configuredBytes) {
+            eviction.setMaximum(Math.min(configuredBytes, (long) Math.ceil(current / shrinkFactor)));
+        }
+    }
+
+    /**
+     * Stops watching the heap.
+     */
+    @Override
+    public void close() {
+        if (emitter != null) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // Already removed
+            }
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * @return Capacity set by configuration or {@link #resize(long)}, in bytes
+     */
+    public long getConfiguredBytes() {
+        return configuredBytes;
+    }
+
+    /**
+     * @return Capacity currently in effect, in bytes
+     */
+    public long getEffectiveBytes() {
+        return eviction.getMaximum();
+    }
+
+    /**
+     * @return Estimated bytes held by the cache
+     */
+    public long getWeightedBytes() {
+        return eviction.weightedSize().orElse(0);
+    }
+
+    /**
+     * @return Entries in the cache
+     */
+    public long getEntryCount() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * @return Entries evicted for capacity since startup, if the cache records
+     *         statistics
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * @return Times heap pressure shrank the capacity
+     */
+    public long getHeapPressureEvents() {
+        return pressureEvents.get();
+    }
+}
@@ -1,13 +1,20 @@
 package com.example.weatherforecast.repository;
 
-import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.RawForecast;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Repository for caching and retrieving weather forecast data.
  * Provides methods to check, retrieve, and store weather data in the cache.
+ * Each location has one entry holding its complete {@link RawForecast}, from
+ * which every response is materialized.
+ * The locations of cached forecasts are kept in a spatial index so forecasts
+ * near a point can be found.
  * 
  * @since 1.0
  */
@@ -15,14 +22,39 @@ import org.springframework.stereotype.Component;
 public class WeatherCacheRepository {
 
     private final CacheManager cacheManager;
+    private final SpatialForecastIndex spatialIndex;
 
     /**
      * Constructs a new WeatherCacheRepository with the required cache manager.
      * 
      * @param cacheManager The cache manager used for storing and retrieving data
+     * @param spatialIndex Index over the locations of cached forecasts
      */
-    public WeatherCacheRepository(CacheManager cacheManager) {
+    public WeatherCacheRepository(CacheManager cacheManager, SpatialForecastIndex spatialIndex) {
         this.cacheManager = cacheManager;
+        this.spatialIndex = spatialIndex;
+    }
+
+    /**
+     * Builds the cache key of the forecast for a zip/postal code.
+     * 
+     * @param zipCode     The zip or postal code
+     * @param countryCode The ISO 3166-1 alpha-2 country code
+     * @return The cache key
+     */
+    public static String zipCodeKey(String zipCode, String countryCode) {
+        return zipCode + "_" + countryCode;
+    }
+
+    /**
+     * Builds the cache key of the forecast for a coordinate pair. Callers
+     * should round coordinates first so nearby requests share an entry.
+     * 
+     * @param coordinates The coordinates
+     * @return The cache key
+     */
+    public static String coordinatesKey(Coordinates coordinates) {
+        return "@" + coordinates.getLatitude() + "," + coordinates.getLongitude();
     }
 
     /**
@@ -42,24 +74,48 @@ public class WeatherCacheRepository {
 
     /**
      * Retrieves weather data from the cache for the specified key.
-     * Sets the fromCache flag to true before returning the data.
      * 
      * @param cacheKey The key to retrieve data for
-     * @return The cached WeatherResponse, or null if not found or on error
+     * @return The cached forecast, or null if not found
      */
-    public WeatherResponse getFromCache(String cacheKey) {
+    public RawForecast getFromCache(String cacheKey) {
         Cache cache = cacheManager.getCache("weatherCache");
         if (cache != null) {
             Cache.ValueWrapper wrapper = cache.get(cacheKey);
-            if (wrapper != null) {
-                Object value = wrapper.get();
-                if (value instanceof WeatherResponse) {
-                    WeatherResponse response = (WeatherResponse) value;
-                    response.setFromCache(true);
-                    return response;
-                }
+            if (wrapper != null && wrapper.get() instanceof RawForecast forecast) {
+                return forecast;
             }
         }
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Stores weather data in the cache under the specified key, replacing any
+     * existing entry, and indexes its location.
+     * 
+     * @param cacheKey The key to store data under
+     * @param forecast The weather data to store
+     */
+    public void putInCache(String cacheKey, RawForecast forecast) {
+        Cache cache = cacheManager.getCache("weatherCache");
+        if (cache != null && forecast != null) {
+            cache.put(cacheKey, forecast);
+            if (forecast.getCoordinates() != null) {
+                spatialIndex.put(cacheKey, forecast.getCoordinates());
+            }
+        }
+    }
+
+    /**
+     * Finds the keys of cached forecasts within a radius of a point. Entries
+     * may have expired since they were indexed, so callers should read them
+     * with {@link #getFromCache(String)} and skip missing ones.
+     * 
+     * @param coordinates The point to search around
+     * @param radiusKm    Maximum distance in kilometers
+     * @return The forecasts found, nearest first
+     */
+    public List<SpatialForecastIndex.Neighbor> findNearby(Coordinates coordinates, double radiusKm) {
+        return spatialIndex.findWithin(coordinates, radiusKm);
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.weatherforecast.resilience;
+
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Concurrency limiter for calls to a single upstream service.
+ * The limit adapts to observed latency using AIMD (additive increase,
+ * multiplicative decrease): every fast call grows the limit by {@code 1/limit},
+ * every slow or timed-out call shrinks it by the configured backoff ratio.
+ * Calls beyond the limit wait briefly in a bounded queue and are rejected with
+ * a {@link ConcurrencyLimitExceededException} when no permit frees up in time.
+ * The wait never outlasts the caller's {@link Deadline}.
+ *
+ * @since 1.1
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final long maxQueueWaitNanos;
+    private final int maxQueueSize;
+
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final Condition permitReleased = queueLock.newCondition();
+
+    /**
+     * Constructs a new AdaptiveConcurrencyLimiter.
+     *
+     * @param name             Upstream name, used in metrics and error messages
+     * @param initialLimit     Concurrency limit to start with
+     * @param minLimit         Lower bound the limit never shrinks below
+     * @param maxLimit         Upper bound the limit never grows above
+     * @param backoffRatio     Factor applied to the limit after a slow call
+     *                         (between 0 and 1)
+     * @param latencyThreshold Calls slower than this count as congestion signals
+     * @param maxQueueWait     How long a call may wait for a permit; zero fails
+     *                         fast
+     * @param maxQueueSize     Maximum number of calls waiting for a permit
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+            double backoffRatio, Duration latencyThreshold, Duration maxQueueWait, int maxQueueSize) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds for " + name + ": " + minLimit + ".." + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1: " + backoffRatio);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.maxQueueSize = maxQueueSize;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(clamp(initialLimit)));
+    }
+
+    /**
+     * Runs the call once a permit is available and feeds its latency back into
+     * the limit.
+     *
+     * @param call The upstream call to execute
+     * @return The result of the call
+     * @throws ConcurrencyLimitExceededException if no permit became available
+     *                                           within the queue wait
+     * @throws com.example.weatherforecast.exception.DeadlineExceededException
+     *         if the caller's deadline passed while waiting for a permit
+     */
+    public <T> T execute(Supplier<T> call) {
+        acquire();
+        long start = System.nanoTime();
+        boolean timedOut = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            timedOut = isTimeout(e);
+            throw e;
+        } finally {
+            release(System.nanoTime() - start, timedOut);
+        }
+    }
+
+    /**
+     * Attempts to take a permit without waiting.
+     *
+     * @return true if a permit was taken, false if the limit is reached
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void acquire() {
+        if (tryAcquire()) {
+            return;
+        }
+        if (maxQueueWaitNanos <= 0 || queued.incrementAndGet() > maxQueueSize) {
+            if (maxQueueWaitNanos > 0) {
+                queued.decrementAndGet();
+            }
+            reject();
+        }
+        try {
+            Deadline deadline = Deadline.current();
+            long remaining = Math.min(maxQueueWaitNanos, deadline.remainingNanos());
+            queueLock.lock();
+            try {
+                while (!tryAcquire()) {
+                    if (remaining <= 0) {
+                        if (deadline.isExpired()) {
+                            rejected.incrementAndGet();
+                            throw deadline.exceeded("a permit for " + name + " was free");
+                        }
+                        reject();
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+            } finally {
+                queueLock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject();
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void release(long latencyNanos, boolean timedOut) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (timedOut || latencyNanos > latencyThresholdNanos) {
+            updateLimit(limit -> limit * backoffRatio);
+        } else if (inFlightAtCompletion * 2 >= getLimit()) {
+            // Only grow while the limit is actually being used, otherwise an idle
+            // period would inflate it to maxLimit
+            updateLimit(limit -> limit + 1.0 / limit);
+        }
+        if (queued.get() > 0) {
+            queueLock.lock();
+            try {
+                permitReleased.signal();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        while (true) {
+            long bits = limitBits.get();
+            double next = clamp(update.applyAsDouble(Double.longBitsToDouble(bits)));
+            if (limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    private void reject() {
+        rejected.incrementAndGet();
+        throw new ConcurrencyLimitExceededException("Too many concurrent requests to " + name
+                + " (limit " + (int) getLimit() + "). Please try again later.");
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The upstream name this limiter protects
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The current adaptive concurrency limit
+     */
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    /**
+     * @return The number of calls currently holding a permit
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return The number of calls currently waiting for a permit
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return The total number of calls rejected since startup
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.weatherforecast.resilience;
+
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sheds requests that need an upstream fetch once the server is overloaded, so
+ * latency stays bounded instead of growing with the backlog. Two signals are
+ * tracked:
+ * <ul>
+ * <li>requests in flight, capped at {@code maxInFlight};</li>
+ * <li>the standing queueing delay, in the manner of CoDel: the shortest time
+ * any admitted request took during the last interval. A single slow call
+ * does not raise it; it only exceeds {@code targetDelay} when every request
+ * in the interval waited, which means work is queueing.</li>
+ * </ul>
+ * Above either target new requests are rejected at once. An interval in which
+ * nothing completed resets the delay, so admission resumes once the backlog
+ * has drained.
+ * <p>
+ * The admission decision reads and updates a few atomic counters and never
+ * blocks.
+ *
+ * @since 1.1
+ */
+public class AdmissionController {
+
+    private static final long NO_SAMPLE = Long.MAX_VALUE;
+
+    private final int maxInFlight;
+    private final long targetDelayNanos;
+    private final long intervalNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong intervalStart;
+    private final AtomicLong intervalMinDelay = new AtomicLong(NO_SAMPLE);
+    private volatile long standingDelayNanos;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedInFlight = new LongAdder();
+    private final LongAdder rejectedDelay = new LongAdder();
+
+    /**
+     * Constructs a new AdmissionController.
+     *
+     * @param maxInFlight Requests that may run at once
+     * @param targetDelay Standing delay above which requests are rejected
+     * @param interval    Window over which the standing delay is measured
+     */
+    public AdmissionController(int maxInFlight, Duration targetDelay, Duration interval) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in-flight requests must be positive: " + maxInFlight);
+        }
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+        this.maxInFlight = maxInFlight;
+        this.targetDelayNanos = targetDelay.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.intervalStart = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Runs the call if the server has capacity for it.
+     *
+     * @param call The request work to run
+     * @return The result of the call
+     * @throws ConcurrencyLimitExceededException if the request was shed
+     */
+    public <T> T execute(Supplier<T> call) {
+        long start = System.nanoTime();
+        admit(start);
+        try {
+            return call.get();
+        } finally {
+            inFlight.decrementAndGet();
+            long end = System.nanoTime();
+            record(end - start, end);
+        }
+    }
+
+    private void admit(long now) {
+        roll(now);
+        if (standingDelayNanos > targetDelayNanos) {
+            rejectedDelay.increment();
+            throw new ConcurrencyLimitExceededException(
+                    "Server is overloaded; forecasts that are not cached cannot be fetched right now");
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                rejectedInFlight.increment();
+                throw new ConcurrencyLimitExceededException(
+                        "Too many forecasts are being fetched; forecasts that are not cached cannot be fetched right now");
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                return;
+            }
+        }
+    }
+
+    private void record(long delayNanos, long now) {
+        roll(now);
+        intervalMinDelay.accumulateAndGet(delayNanos, Math::min);
+    }
+
+    private void roll(long now) {
+        long start = intervalStart.get();
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            long min = intervalMinDelay.getAndSet(NO_SAMPLE);
+            standingDelayNanos = min == NO_SAMPLE ? 0 : min;
+        }
+    }
+
+    /**
+     * @return Requests currently running
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return Standing delay measured over the last interval, in milliseconds
+     */
+    public double getStandingDelayMillis() {
+        return standingDelayNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return Requests admitted since startup
+     */
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    /**
+     * @return Requests rejected because too many were in flight
+     */
+    public long getRejectedInFlightCount() {
+        return rejectedInFlight.sum();
+    }
+
+    /**
+     * @return Requests rejected because the standing delay was above target
+     */
+    public long getRejectedDelayCount() {
+        return rejectedDelay.sum();
+    }
+}
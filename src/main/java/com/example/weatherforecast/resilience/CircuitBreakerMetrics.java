@@ -0,0 +1,106 @@
+package com.example.weatherforecast.resilience;
+
+import com.example.weatherforecast.diagnostics.CircuitBreakerTransitionEvent;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports the state of every circuit breaker added to a registry, and how long
+ * each breaker stayed in a state before it moved on:
+ * <ul>
+ * <li>{@code weather.circuitbreaker.state}, 1 for the breaker's current state
+ * and 0 for the others, tagged by {@code name} and {@code state};</li>
+ * <li>{@code weather.circuitbreaker.failure.rate} and
+ * {@code weather.circuitbreaker.slow.call.rate} of the current sliding window,
+ * -1 until the window holds the minimum number of calls;</li>
+ * <li>{@code weather.circuitbreaker.transition}, a timer of the time spent in
+ * the state that was left, tagged by {@code name}, {@code from} and
+ * {@code to}.</li>
+ * </ul>
+ * Transitions are also recorded as flight recorder events.
+ *
+ * @since 1.1
+ */
+public class CircuitBreakerMetrics implements RegistryEventConsumer<CircuitBreaker> {
+
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    /**
+     * Constructs a new CircuitBreakerMetrics.
+     *
+     * @param meterRegistry Registry the metrics are registered with, whose
+     *                      clock times the transitions
+     */
+    public CircuitBreakerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.clock = meterRegistry.config().clock();
+    }
+
+    @Override
+    public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> entryAddedEvent) {
+        bind(entryAddedEvent.getAddedEntry());
+    }
+
+    @Override
+    public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> entryRemoveEvent) {
+        // Breakers live as long as the application
+    }
+
+    @Override
+    public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> entryReplacedEvent) {
+        bind(entryReplacedEvent.getNewEntry());
+    }
+
+    private void bind(CircuitBreaker circuitBreaker) {
+        String name = circuitBreaker.getName();
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("weather.circuitbreaker.state", circuitBreaker,
+                    breaker -> breaker.getState() == state ? 1 : 0)
+                    .tag("name", name)
+                    .tag("state", tagValue(state))
+                    .description("Whether the circuit breaker is in a state")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("weather.circuitbreaker.failure.rate", circuitBreaker,
+                breaker -> breaker.getMetrics().getFailureRate())
+                .tag("name", name)
+                .baseUnit("percent")
+                .description("Failure rate of the sliding window")
+                .register(meterRegistry);
+        Gauge.builder("weather.circuitbreaker.slow.call.rate", circuitBreaker,
+                breaker -> breaker.getMetrics().getSlowCallRate())
+                .tag("name", name)
+                .baseUnit("percent")
+                .description("Rate of calls slower than the threshold in the sliding window")
+                .register(meterRegistry);
+
+        AtomicLong enteredState = new AtomicLong(clock.monotonicTime());
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            long now = clock.monotonicTime();
+            Timer.builder("weather.circuitbreaker.transition")
+                    .tag("name", name)
+                    .tag("from", tagValue(event.getStateTransition().getFromState()))
+                    .tag("to", tagValue(event.getStateTransition().getToState()))
+                    .description("Time spent in a state before the circuit breaker left it")
+                    .register(meterRegistry)
+                    .record(now - enteredState.getAndSet(now), TimeUnit.NANOSECONDS);
+            CircuitBreakerTransitionEvent.record(event);
+        });
+    }
+
+    private static String tagValue(CircuitBreaker.State state) {
+        return state.name().toLowerCase(Locale.ROOT);
+    }
+}
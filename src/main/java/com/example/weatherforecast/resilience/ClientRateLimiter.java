@@ -0,0 +1,196 @@
+package com.example.weatherforecast.resilience;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client rate limiter with a token bucket for every client.
+ * Buckets are kept as a single theoretical arrival time (the generic cell rate
+ * algorithm), so taking a token is one compare-and-set and never locks. A
+ * client may send {@code burst} requests at once and {@code permitsPerSecond}
+ * after that.
+ * <p>
+ * The bucket table is split into stripes of bounded size. A bucket that has
+ * been idle long enough to refill is indistinguishable from a new one, so
+ * when a stripe is full its idle buckets are evicted without changing any
+ * client's limit; if none are idle, the fullest bucket is evicted instead.
+ * Memory therefore stays bounded by {@code maxClients} no matter how many
+ * clients show up.
+ *
+ * @since 1.1
+ */
+public class ClientRateLimiter {
+
+    private final String name;
+    private final int burst;
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+    private final long idleTimeoutNanos;
+    private final int stripeCapacity;
+    private final Map<String, AtomicLong>[] stripes;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * Constructs a new ClientRateLimiter.
+     *
+     * @param name             Limit name, used in metrics
+     * @param permitsPerSecond Sustained rate allowed per client
+     * @param burst            Requests a client may send at once
+     * @param maxClients       Clients tracked at most
+     * @param idleTimeout      Time without requests after which a client's
+     *                         bucket may be evicted; at least the time a bucket
+     *                         takes to refill
+     * @param stripes          Number of stripes the table is split into, rounded
+     *                         up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public ClientRateLimiter(String name, double permitsPerSecond, int burst, int maxClients, Duration idleTimeout,
+            int stripes) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Invalid rate for " + name + ": " + permitsPerSecond + "/s, burst "
+                    + burst);
+        }
+        if (maxClients < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Invalid table size for " + name + ": " + maxClients + " clients in "
+                    + stripes + " stripes");
+        }
+        this.name = name;
+        this.burst = burst;
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = intervalNanos * burst;
+        this.idleTimeoutNanos = Math.max(idleTimeout.toNanos(), burstToleranceNanos);
+        int stripeCount = Integer.highestOneBit(Math.min(stripes, maxClients) * 2 - 1);
+        this.stripeCapacity = Math.max(1, maxClients / stripeCount);
+        this.stripes = new Map[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Takes a token for the client if one is available.
+     *
+     * @param clientId Identifies the client, e.g. an API key or address
+     * @return 0 if the request is allowed, otherwise the nanoseconds until the
+     *         client may retry
+     */
+    public long tryAcquire(String clientId) {
+        return tryAcquire(clientId, 1);
+    }
+
+    /**
+     * Takes several tokens for the client at once if they are all available,
+     * for a request that costs as much as that many single ones.
+     *
+     * @param clientId Identifies the client, e.g. an API key or address
+     * @param tokens   Tokens to take, at most {@link #getBurst()}
+     * @return 0 if the request is allowed, otherwise the nanoseconds until the
+     *         client may retry
+     */
+    public long tryAcquire(String clientId, int tokens) {
+        if (tokens < 1 || tokens > burst) {
+            throw new IllegalArgumentException("Cannot take " + tokens + " tokens from " + name + " with burst "
+                    + burst);
+        }
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(clientId, now);
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + intervalNanos * tokens;
+            long wait = next - now - burstToleranceNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String clientId, long now) {
+        Map<String, AtomicLong> stripe = stripes[spread(clientId.hashCode()) & (stripes.length - 1)];
+        AtomicLong bucket = stripe.get(clientId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= stripeCapacity) {
+            makeRoom(stripe, now);
+        }
+        return stripe.computeIfAbsent(clientId, id -> new AtomicLong(now));
+    }
+
+    private void makeRoom(Map<String, AtomicLong> stripe, long now) {
+        String fullest = null;
+        long earliest = Long.MAX_VALUE;
+        for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            long arrival = entry.getValue().get();
+            if (now - arrival >= idleTimeoutNanos) {
+                if (stripe.remove(entry.getKey(), entry.getValue())) {
+                    evicted.increment();
+                }
+            } else if (arrival < earliest) {
+                earliest = arrival;
+                fullest = entry.getKey();
+            }
+        }
+        if (stripe.size() >= stripeCapacity && fullest != null && stripe.remove(fullest) != null) {
+            evicted.increment();
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Requests a client may send at once, and the most tokens one
+     *         request may take
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * @return Clients currently tracked
+     */
+    public int getClientCount() {
+        int count = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return Requests allowed since startup
+     */
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    /**
+     * @return Requests rejected since startup
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return Client buckets evicted to make room for new clients
+     */
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.weatherforecast.resilience;
+
+import com.example.weatherforecast.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Point in time by which a request must be answered. The deadline of the
+ * request being handled is kept per thread, so every hop below the controller
+ * can derive its timeouts and waits from the time that is left without it
+ * being passed through each call. Work handed to another thread keeps the
+ * deadline through {@link #wrap(Supplier)}.
+ * <p>
+ * Threads without a deadline see {@link #NONE}, which never expires, so
+ * background work keeps the fixed timeouts it had before.
+ *
+ * @since 1.1
+ */
+public final class Deadline {
+
+    /**
+     * Least time worth starting an upstream call with; with less left the
+     * call is abandoned before it is made.
+     */
+    public static final Duration MIN_CALL_BUDGET = Duration.ofMillis(100);
+
+    /** Deadline that never expires */
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE, false);
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Creates a deadline the given time from now.
+     *
+     * @param timeout Time allowed
+     * @return The deadline
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    /**
+     * @return The deadline of this thread's request, or {@link #NONE}
+     */
+    public static Deadline current() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null ? deadline : NONE;
+    }
+
+    /**
+     * Makes this the deadline of the current thread until the returned scope
+     * is closed.
+     *
+     * @return Scope restoring the previous deadline when closed
+     */
+    public Scope attach() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> restore(previous);
+    }
+
+    /**
+     * Makes a call keep the current deadline when it runs on another thread.
+     *
+     * @param call The call to run later
+     * @return A call that runs with the deadline that is current now
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> call) {
+        Deadline captured = CURRENT.get();
+        if (captured == null) {
+            return call;
+        }
+        return () -> {
+            try (Scope scope = captured.attach()) {
+                return call.get();
+            }
+        };
+    }
+
+    /**
+     * @return Whether this deadline ever expires
+     */
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * @return Nanoseconds left, zero once expired; {@code Long.MAX_VALUE} when
+     *         unbounded
+     */
+    public long remainingNanos() {
+        return bounded ? Math.max(0, expiresAtNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return Whether the deadline has passed
+     */
+    public boolean isExpired() {
+        return remainingNanos() == 0;
+    }
+
+    /**
+     * Shortens a configured socket timeout to the time left. The result is
+     * never zero, which would mean no timeout at all.
+     *
+     * @param configuredMillis Configured timeout in milliseconds, zero for none
+     * @return The timeout to use in milliseconds
+     */
+    public int timeoutMillis(int configuredMillis) {
+        if (!bounded) {
+            return configuredMillis;
+        }
+        long remainingMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos()));
+        return (int) (configuredMillis > 0 ? Math.min(configuredMillis, remainingMillis)
+                : Math.min(Integer.MAX_VALUE, remainingMillis));
+    }
+
+    /**
+     * Abandons work that cannot finish in time: fails unless the wait plus
+     * {@link #MIN_CALL_BUDGET} is still left.
+     *
+     * @param wait      Time that will pass before the call is made
+     * @param operation What is about to be done, for the error message
+     * @throws DeadlineExceededException if too little time is left
+     */
+    public void require(Duration wait, String operation) {
+        if (bounded && remainingNanos() < wait.toNanos() + MIN_CALL_BUDGET.toNanos()) {
+            throw exceeded(operation);
+        }
+    }
+
+    /**
+     * Creates the exception for work abandoned at this deadline.
+     *
+     * @param operation What could not be done in time
+     * @return The exception to throw
+     */
+    public DeadlineExceededException exceeded(String operation) {
+        return new DeadlineExceededException("Request deadline exceeded before " + operation
+                + " could complete (" + TimeUnit.NANOSECONDS.toMillis(remainingNanos()) + " ms left).");
+    }
+
+    private static void restore(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    /**
+     * Attachment of a deadline to a thread.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        /**
+         * Restores the thread's previous deadline.
+         */
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.weatherforecast.resilience;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Gives every API request a {@link Deadline}. Callers can ask for a shorter
+ * or longer budget in milliseconds with the {@code X-Request-Timeout} header;
+ * requests without a valid header get the default, and no request gets more
+ * than the maximum.
+ *
+ * @since 1.1
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    /** Header carrying the caller's time budget in milliseconds */
+    public static final String REQUEST_TIMEOUT = "X-Request-Timeout";
+
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+
+    /**
+     * Constructs a new DeadlineFilter.
+     *
+     * @param defaultTimeout Budget of requests without a header
+     * @param maxTimeout     Largest budget a caller can ask for
+     */
+    public DeadlineFilter(Duration defaultTimeout, Duration maxTimeout) {
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (Deadline.Scope scope = Deadline.after(timeout(request.getHeader(REQUEST_TIMEOUT))).attach()) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    /**
+     * Parses the requested budget, falling back to the default.
+     */
+    Duration timeout(String header) {
+        if (header == null || header.isBlank()) {
+            return defaultTimeout;
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            if (millis <= 0) {
+                return defaultTimeout;
+            }
+            Duration requested = Duration.ofMillis(millis);
+            return requested.compareTo(maxTimeout) > 0 ? maxTimeout : requested;
+        } catch (NumberFormatException e) {
+            return defaultTimeout;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.weatherforecast.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Low-overhead, lock-free latency histogram over a sliding time window.
+ * Values are bucketed log-linearly (8 sub-buckets per power of two, so each
+ * bucket is within 12.5% of its true value) and recorded with a single atomic
+ * increment. Two generations of buckets are kept: the current one and the one
+ * before it, so percentiles always cover between one and two windows of
+ * recent samples.
+ *
+ * @since 1.1
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Highest tracked value is 2^36 microseconds (about 19 hours)
+    private static final int MAX_MAGNITUDE = 36;
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long windowNanos;
+    private final AtomicReference<AtomicLongArray> current = new AtomicReference<>(new AtomicLongArray(BUCKET_COUNT));
+    private volatile AtomicLongArray previous = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong windowStart;
+
+    /**
+     * Constructs a new LatencyHistogram.
+     *
+     * @param window Length of one generation of samples
+     */
+    public LatencyHistogram(Duration window) {
+        this.windowNanos = window.toNanos();
+        this.windowStart = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Records a latency sample.
+     *
+     * @param latencyNanos The observed latency in nanoseconds
+     */
+    public void record(long latencyNanos) {
+        rotateIfNeeded();
+        current.get().incrementAndGet(bucketIndex(Math.max(0, latencyNanos / 1000)));
+    }
+
+    /**
+     * Estimates a percentile of the recent latency distribution.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return The estimated latency, or null if no samples are available
+     */
+    public Duration percentile(double percentile) {
+        rotateIfNeeded();
+        AtomicLongArray now = current.get();
+        AtomicLongArray before = previous;
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += now.get(i) + before.get(i);
+        }
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += now.get(i) + before.get(i);
+            if (seen >= Math.max(1, rank)) {
+                return Duration.ofNanos(bucketUpperBound(i) * 1000);
+            }
+        }
+        return Duration.ofNanos(bucketUpperBound(BUCKET_COUNT - 1) * 1000);
+    }
+
+    /**
+     * @return The number of samples in the current and previous windows
+     */
+    public long count() {
+        AtomicLongArray now = current.get();
+        AtomicLongArray before = previous;
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += now.get(i) + before.get(i);
+        }
+        return total;
+    }
+
+    private void rotateIfNeeded() {
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        // Samples recorded into the old array while it is being recycled are lost,
+        // which is acceptable for an estimate
+        AtomicLongArray recycled = previous;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            recycled.set(i, 0);
+        }
+        previous = current.getAndSet(recycled);
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((micros >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.weatherforecast.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Issues hedged requests to cut tail latency.
+ * When a call has not completed by a configured percentile of recent latency,
+ * a second identical call is started and whichever succeeds first wins.
+ * Hedges are paid for from a budget that earns a fraction of a hedge per call,
+ * so hedging can never add more than that fraction of extra load.
+ * When disabled, calls run inline and only feed the latency histogram.
+ *
+ * @since 1.1
+ */
+public class RequestHedger implements AutoCloseable {
+
+    private static final long TOKEN_SCALE = 1_000_000;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long tokensPerCall;
+    private final long maxTokens;
+    private final ExecutorService executor;
+    private final LatencyHistogram histogram;
+
+    private final AtomicLong budget = new AtomicLong();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    /**
+     * Constructs a new RequestHedger.
+     *
+     * @param enabled      Whether hedged requests are issued at all
+     * @param percentile   Latency percentile after which a hedge is sent
+     * @param minDelay     Lower bound for the hedge delay, used until enough
+     *                     samples have been collected
+     * @param budgetRatio  Maximum extra load from hedges, e.g. 0.05 for 5%
+     * @param maxBurst     Maximum number of hedges that can be saved up
+     * @param histogram    Histogram tracking recent call latency
+     * @param executor     Executor running the attempts; may be null when
+     *                     disabled
+     */
+    public RequestHedger(boolean enabled, double percentile, Duration minDelay, double budgetRatio, int maxBurst,
+            LatencyHistogram histogram, ExecutorService executor) {
+        if (enabled && executor == null) {
+            throw new IllegalArgumentException("An executor is required when hedging is enabled");
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.tokensPerCall = (long) (budgetRatio * TOKEN_SCALE);
+        this.maxTokens = maxBurst * TOKEN_SCALE;
+        this.histogram = histogram;
+        this.executor = executor;
+    }
+
+    /**
+     * Runs the call, hedging it if it is slower than recent calls.
+     *
+     * @param call The idempotent call to execute
+     * @return The result of whichever attempt succeeded first
+     */
+    public <T> T execute(Supplier<T> call) {
+        calls.incrementAndGet();
+        earnBudget();
+        if (!enabled) {
+            return timed(call);
+        }
+
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(() -> timed(call), executor);
+        } catch (RejectedExecutionException e) {
+            return timed(call);
+        }
+
+        try {
+            return primary.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return hedge(primary, call);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for upstream response", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private <T> T hedge(CompletableFuture<T> primary, Supplier<T> call) {
+        if (!spendBudget()) {
+            return join(primary);
+        }
+        CompletableFuture<T> secondary;
+        try {
+            secondary = CompletableFuture.supplyAsync(() -> timed(call), executor);
+        } catch (RejectedExecutionException e) {
+            refundBudget();
+            return join(primary);
+        }
+        hedgesSent.incrementAndGet();
+
+        // First success wins; fail only once both attempts have failed
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((result, error) -> complete(winner, result, error, failures, false));
+        secondary.whenComplete((result, error) -> complete(winner, result, error, failures, true));
+        return join(winner);
+    }
+
+    private <T> void complete(CompletableFuture<T> winner, T result, Throwable error, AtomicInteger failures,
+            boolean isHedge) {
+        if (error == null) {
+            if (winner.complete(result) && isHedge) {
+                hedgesWon.incrementAndGet();
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            winner.completeExceptionally(error);
+        }
+    }
+
+    private <T> T timed(Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = call.get();
+        histogram.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private long hedgeDelayNanos() {
+        Duration observed = histogram.percentile(percentile);
+        return observed == null ? minDelayNanos : Math.max(minDelayNanos, observed.toNanos());
+    }
+
+    private void earnBudget() {
+        budget.getAndUpdate(tokens -> Math.min(maxTokens, tokens + tokensPerCall));
+    }
+
+    private boolean spendBudget() {
+        while (true) {
+            long tokens = budget.get();
+            if (tokens < TOKEN_SCALE) {
+                return false;
+            }
+            if (budget.compareAndSet(tokens, tokens - TOKEN_SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    private void refundBudget() {
+        budget.getAndUpdate(tokens -> Math.min(maxTokens, tokens + TOKEN_SCALE));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * @return Whether hedged requests are issued
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The latency histogram fed by every attempt
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * @return The current delay after which a hedge would be sent, in
+     *         milliseconds
+     */
+    public double getHedgeDelayMillis() {
+        return hedgeDelayNanos() / 1_000_000.0;
+    }
+
+    /**
+     * @return The total number of calls seen
+     */
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    /**
+     * @return The total number of hedged requests sent
+     */
+    public long getHedgesSent() {
+        return hedgesSent.get();
+    }
+
+    /**
+     * @return The number of hedged requests that finished before the original
+     */
+    public long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    /**
+     * Stops the attempt executor.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.model.BulkForecastResult;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.RawForecast;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.repository.GeocodingCache;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.resilience.AdmissionController;
+import com.example.weatherforecast.resilience.ClientRateLimiter;
+import com.example.weatherforecast.resilience.Deadline;
+import com.example.weatherforecast.tracing.Tracer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams forecasts for long lists of zip/country pairs as newline delimited
+ * JSON. Input is read one line at a time and at most {@code parallelism}
+ * forecasts are in flight per export; a new line is only read once a result
+ * has been written. A slow client therefore slows down reading and fetching
+ * instead of buffering results, and memory use does not depend on the size
+ * of the list. Results are written in completion order.
+ * <p>
+ * Each entry is looked up in the weather cache like an interactive request,
+ * and only misses are fetched, through the same admission control. Codes
+ * that have not been geocoded yet wait for a single geocoding permit shared
+ * by all exports, so exports hold at most one Nominatim call at a time and
+ * leave its other permits to interactive lookups. Every miss is also charged
+ * to the client's upstream rate limit, waiting for a token if need be, so a
+ * long list of new codes costs a client as much as looking each one up on
+ * its own. Each export has a deadline of {@code max-duration-minutes};
+ * fetches rejected by admission control or an upstream concurrency limit are
+ * retried with capped exponential backoff for up to
+ * {@code max-retry-seconds} before they become error lines.
+ *
+ * @since 1.1
+ */
+@Component
+public class BulkForecastExporter {
+
+    private final WeatherService weatherService;
+    private final GeocodingCache geocodingCache;
+    private final CurrentConditionsDeriver currentConditionsDeriver;
+    private final AdmissionController admissionController;
+    private final ClientRateLimiter upstreamRateLimiter;
+    private final ForecastCacheLookup cacheLookup;
+    private final ObjectMapper objectMapper;
+    private final int parallelism;
+    private final long retryDelayMs;
+    private final long maxRetryDelayMs;
+    private final Duration maxRetryWait;
+    private final Duration maxDuration;
+    private final Semaphore exportPermits;
+    private final Semaphore geocodingPermit = new Semaphore(1, true);
+    private final ExecutorService executor;
+
+    private final AtomicInteger activeExports = new AtomicInteger();
+    private final AtomicLong exportedLines = new AtomicLong();
+
+    /**
+     * Constructs a new BulkForecastExporter.
+     *
+     * @param weatherService           Service used to fetch each forecast
+     * @param cacheRepository          Repository holding the cached forecasts
+     * @param geocodingCache           Cache of codes already geocoded
+     * @param currentConditionsDeriver Re-bases forecasts to the current time
+     * @param admissionController      Sheds fetches that miss the cache under
+     *                                 overload
+     * @param upstreamRateLimiter      Per-client limit charged for each entry
+     *                                 that misses the cache
+     * @param tracer                   Tracer recording the cache lookups
+     * @param objectMapper             ObjectMapper used to write result lines
+     * @param meterRegistry            Registry for export metrics
+     * @param threads                  Worker threads shared by all exports
+     * @param parallelism              Forecasts in flight per export
+     * @param maxConcurrentExports     Exports that may run at the same time
+     * @param retryDelayMs             Delay before the first retry of a
+     *                                 rejected fetch, doubled for each
+     *                                 further retry
+     * @param maxRetryDelayMs          Longest delay between retries
+     * @param maxRetrySeconds          Time a rejected fetch is retried for
+     *                                 before it becomes an error line
+     * @param maxDurationMinutes       Time an export may take
+     */
+    public BulkForecastExporter(WeatherService weatherService, WeatherCacheRepository cacheRepository,
+            GeocodingCache geocodingCache, CurrentConditionsDeriver currentConditionsDeriver,
+            AdmissionController admissionController, ClientRateLimiter upstreamRateLimiter, Tracer tracer,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${weather.export.threads:16}") int threads,
+            @Value("${weather.export.parallelism:8}") int parallelism,
+            @Value("${weather.export.max-concurrent:2}") int maxConcurrentExports,
+            @Value("${weather.export.retry-delay-ms:500}") long retryDelayMs,
+            @Value("${weather.export.max-retry-delay-ms:8000}") long maxRetryDelayMs,
+            @Value("${weather.export.max-retry-seconds:30}") long maxRetrySeconds,
+            @Value("${weather.export.max-duration-minutes:60}") long maxDurationMinutes) {
+        this.weatherService = weatherService;
+        this.geocodingCache = geocodingCache;
+        this.currentConditionsDeriver = currentConditionsDeriver;
+        this.admissionController = admissionController;
+        this.upstreamRateLimiter = upstreamRateLimiter;
+        this.cacheLookup = new ForecastCacheLookup(cacheRepository, currentConditionsDeriver, tracer);
+        this.objectMapper = objectMapper;
+        this.parallelism = parallelism;
+        this.retryDelayMs = retryDelayMs;
+        this.maxRetryDelayMs = maxRetryDelayMs;
+        this.maxRetryWait = Duration.ofSeconds(maxRetrySeconds);
+        this.maxDuration = Duration.ofMinutes(maxDurationMinutes);
+        this.exportPermits = new Semaphore(maxConcurrentExports);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "forecast-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("weather.export.active", activeExports, AtomicInteger::get)
+                .description("Bulk exports currently streaming")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.export.lines", exportedLines, AtomicLong::get)
+                .description("Result lines written by bulk exports")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves a slot for a new export. Every successful call must be followed
+     * by {@link #export}, which releases the slot when it finishes.
+     *
+     * @throws ConcurrencyLimitExceededException if too many exports are running
+     */
+    public void reserve() {
+        if (!exportPermits.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException("Too many bulk exports in progress");
+        }
+    }
+
+    /**
+     * Reads zip/country pairs and writes one result line per pair.
+     * Each input line holds a zip code, optionally followed by a comma,
+     * semicolon or tab and a country code. Blank lines, lines starting with
+     * {@code #} and a {@code zipCode} header are skipped.
+     *
+     * @param input              The list of pairs
+     * @param defaultCountryCode Country used for lines without one
+     * @param projection         The parts of each forecast to write
+     * @param clientId           Client whose upstream rate limit is charged
+     *                           for entries that miss the cache, or null
+     * @param output             Where result lines are written
+     * @throws IOException if reading the input or writing to the client fails
+     */
+    public void export(Reader input, String defaultCountryCode, ForecastProjection projection, String clientId,
+            OutputStream output) throws IOException {
+        activeExports.incrementAndGet();
+        Deadline deadline = Deadline.after(maxDuration);
+        CompletionService<BulkForecastResult> completionService = new ExecutorCompletionService<>(executor);
+        Set<Future<BulkForecastResult>> inFlight = new HashSet<>();
+        boolean written = false;
+        try (BufferedReader reader = new BufferedReader(input);
+                SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n")
+                        .writeValues(StreamUtils.nonClosing(output))) {
+            boolean inputDone = false;
+            while (true) {
+                while (!inputDone && inFlight.size() < parallelism) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        inputDone = true;
+                    } else if (isEntry(line)) {
+                        String[] pair = parse(line, defaultCountryCode);
+                        inFlight.add(completionService.submit(
+                                () -> fetch(pair[0], pair[1], projection, clientId, deadline)));
+                    }
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+                Future<BulkForecastResult> completed = completionService.poll();
+                if (completed == null) {
+                    // Nothing else is ready; push what we have before waiting
+                    writer.flush();
+                    completed = completionService.take();
+                }
+                inFlight.remove(completed);
+                writer.write(completed.get());
+                written = true;
+                exportedLines.incrementAndGet();
+            }
+            writer.flush();
+            if (written) {
+                output.write('\n');
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Export failed", e.getCause());
+        } finally {
+            // Stop work for a client that went away
+            inFlight.forEach(pending -> pending.cancel(true));
+            activeExports.decrementAndGet();
+            exportPermits.release();
+        }
+    }
+
+    private BulkForecastResult fetch(String zipCode, String countryCode, ForecastProjection projection,
+            String clientId, Deadline deadline) throws InterruptedException {
+        try (Deadline.Scope scope = deadline.attach()) {
+            Instant now = Instant.now();
+            ForecastCacheLookup.Result lookup = cacheLookup.lookup(
+                    WeatherCacheRepository.zipCodeKey(zipCode, countryCode), projection, now);
+            WeatherResponse response = lookup.isHit()
+                    ? lookup.view()
+                    : fetchUncached(zipCode, countryCode, projection, lookup.cached(), clientId, deadline);
+            WeatherResponse forecast = projection.apply(
+                    currentConditionsDeriver.derive(response, projection.getHourlyLength()), now);
+            return new BulkForecastResult(zipCode, countryCode, forecast, null);
+        } catch (RuntimeException e) {
+            return new BulkForecastResult(zipCode, countryCode, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Fetches a forecast that missed the cache, geocoding the code under the
+     * shared geocoding permit if it is not known yet, and retries rejected
+     * fetches while the retry window and the export's deadline allow.
+     */
+    private WeatherResponse fetchUncached(String zipCode, String countryCode, ForecastProjection projection,
+            RawForecast cached, String clientId, Deadline deadline) throws InterruptedException {
+        if (clientId != null) {
+            chargeUpstream(clientId, deadline);
+        }
+        boolean geocode = geocodingCache.get(zipCode, countryCode) == null;
+        if (geocode && !geocodingPermit.tryAcquire(deadline.remainingNanos(), TimeUnit.NANOSECONDS)) {
+            throw deadline.exceeded("the geocoding lookup");
+        }
+        try {
+            long retryUntil = System.nanoTime() + maxRetryWait.toNanos();
+            long delayMs = retryDelayMs;
+            while (true) {
+                try {
+                    return admissionController.execute(
+                            () -> weatherService.getWeatherForecast(zipCode, countryCode, projection, cached));
+                } catch (ConcurrencyLimitExceededException e) {
+                    long delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMs);
+                    if (deadline.remainingNanos() < delayNanos || retryUntil - System.nanoTime() < delayNanos) {
+                        throw e;
+                    }
+                    Thread.sleep(delayMs);
+                    delayMs = Math.min(delayMs * 2, maxRetryDelayMs);
+                }
+            }
+        } finally {
+            if (geocode) {
+                geocodingPermit.release();
+            }
+        }
+    }
+
+    /**
+     * Charges an entry that misses the cache to the client's upstream limit,
+     * waiting for a token as long as the export has time left.
+     */
+    private void chargeUpstream(String clientId, Deadline deadline) throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = upstreamRateLimiter.tryAcquire(clientId)) > 0) {
+            deadline.require(Duration.ofNanos(waitNanos), "the forecast fetch");
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Tells list entries apart from blank lines, comments and the header.
+     */
+    static boolean isEntry(String line) {
+        String trimmed = line.trim();
+        return !trimmed.isEmpty() && !trimmed.startsWith("#")
+                && !trimmed.toLowerCase(Locale.ROOT).startsWith("zipcode");
+    }
+
+    /**
+     * Splits a list entry into its zip code and country code.
+     */
+    static String[] parse(String line, String defaultCountryCode) {
+        String[] parts = line.split("[,;\t]", 3);
+        String zipCode = parts[0].trim();
+        String countryCode = parts.length > 1 && !parts[1].isBlank()
+                ? parts[1].trim().toUpperCase(Locale.ROOT)
+                : defaultCountryCode;
+        return new String[] { zipCode, countryCode };
+    }
+
+    /**
+     * @return The number of exports currently streaming
+     */
+    public int getActiveExports() {
+        return activeExports.get();
+    }
+
+    /**
+     * Stops the worker pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,500 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.GeocodingException;
+import com.example.weatherforecast.exception.InvalidRequestException;
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.GeocodingJobStatus;
+import com.example.weatherforecast.model.GeocodingJobStatus.State;
+import com.example.weatherforecast.model.GeocodingResult;
+import com.example.weatherforecast.repository.GeocodingCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Geocodes long lists of zip/country pairs in the background. Jobs are run
+ * one at a time by a single worker, one Nominatim lookup after another, so a
+ * job takes at most one of the once-a-second slots that every Nominatim call
+ * shares under its usage policy and leaves the rest to interactive lookups
+ * and exports. Codes that are already known are skipped without a lookup,
+ * and every resolved code goes straight into the {@link GeocodingCache}, so
+ * forecasts for it no longer wait on Nominatim.
+ * <p>
+ * Each job lives in its own directory: the submitted codes, one result line
+ * per processed code, appended and flushed as it is written, and a status
+ * file replaced atomically every few codes. The result lines are the
+ * checkpoint: after a restart, a job resumes at the first code without a
+ * result, and the results of all jobs are loaded back into the cache.
+ *
+ * @since 1.1
+ */
+@Component
+public class BulkGeocoder {
+
+    private static final String CODES_FILE = "codes.txt";
+    private static final String RESULTS_FILE = "results.ndjson";
+    private static final String STATUS_FILE = "status.json";
+
+    private final GeocodingService geocodingService;
+    private final GeocodingCache geocodingCache;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int maxCodes;
+    private final int maxPendingJobs;
+    private final int checkpointInterval;
+    private final long retryDelayMs;
+    private final long maxRetryDelayMs;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final BlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService worker;
+
+    private final AtomicLong resolvedCodes = new AtomicLong();
+    private final AtomicLong skippedCodes = new AtomicLong();
+    private final AtomicLong failedCodes = new AtomicLong();
+
+    /**
+     * Constructs a new BulkGeocoder.
+     *
+     * @param geocodingService   Service resolving each code
+     * @param geocodingCache     Cache of resolved codes
+     * @param objectMapper       ObjectMapper used for result and status files
+     * @param meterRegistry      Registry for job metrics
+     * @param directory          Directory jobs are kept in
+     * @param maxCodes           Most codes a job may hold
+     * @param maxPendingJobs     Jobs that may be queued or running at a time
+     * @param checkpointInterval Codes processed between status file updates
+     * @param retryDelayMs       Delay before retrying a code Nominatim could
+     *                           not take, doubled for each further retry
+     * @param maxRetryDelayMs    Longest delay between retries
+     */
+    public BulkGeocoder(GeocodingService geocodingService, GeocodingCache geocodingCache,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${weather.geocoding.jobs.directory:${java.io.tmpdir}/weather-geocoding-jobs}") String directory,
+            @Value("${weather.geocoding.jobs.max-codes:100000}") int maxCodes,
+            @Value("${weather.geocoding.jobs.max-pending:10}") int maxPendingJobs,
+            @Value("${weather.geocoding.jobs.checkpoint-interval:25}") int checkpointInterval,
+            @Value("${weather.geocoding.jobs.retry-delay-ms:5000}") long retryDelayMs,
+            @Value("${weather.geocoding.jobs.max-retry-delay-ms:60000}") long maxRetryDelayMs) {
+        this.geocodingService = geocodingService;
+        this.geocodingCache = geocodingCache;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.maxCodes = maxCodes;
+        this.maxPendingJobs = maxPendingJobs;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+        this.retryDelayMs = retryDelayMs;
+        this.maxRetryDelayMs = maxRetryDelayMs;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "geocoding-jobs");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("weather.geocoding.jobs.pending", this, BulkGeocoder::getPendingJobs)
+                .description("Bulk geocoding jobs queued or running")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.geocoding.jobs.codes", resolvedCodes, AtomicLong::get)
+                .tag("outcome", "resolved")
+                .description("Codes processed by bulk geocoding jobs")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.geocoding.jobs.codes", skippedCodes, AtomicLong::get)
+                .tag("outcome", "skipped")
+                .description("Codes processed by bulk geocoding jobs")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.geocoding.jobs.codes", failedCodes, AtomicLong::get)
+                .tag("outcome", "failed")
+                .description("Codes processed by bulk geocoding jobs")
+                .register(meterRegistry);
+        Gauge.builder("weather.geocoding.cache.size", geocodingCache, GeocodingCache::size)
+                .description("Geocoded codes held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resumes the jobs found on disk and starts the worker.
+     *
+     * @throws IOException if the job directory cannot be read
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        recover();
+        worker.execute(this::runJobs);
+    }
+
+    /**
+     * Stores a list of zip/country pairs as a new job and queues it. Entries
+     * are read like those of a bulk export: a zip code, optionally followed
+     * by a comma, semicolon or tab and a country code.
+     *
+     * @param input              The list of pairs
+     * @param defaultCountryCode Country used for lines without one
+     * @return The status of the queued job
+     * @throws IOException if the list cannot be read or stored
+     * @throws InvalidRequestException if the list is empty or too long
+     * @throws ConcurrencyLimitExceededException if too many jobs are pending
+     */
+    public GeocodingJobStatus submit(Reader input, String defaultCountryCode) throws IOException {
+        if (getPendingJobs() >= maxPendingJobs) {
+            throw new ConcurrencyLimitExceededException("Too many geocoding jobs in progress");
+        }
+        String id = UUID.randomUUID().toString();
+        Path jobDirectory = directory.resolve(id);
+        Files.createDirectories(jobDirectory);
+        int total = 0;
+        try (BufferedReader reader = new BufferedReader(input);
+                BufferedWriter writer = Files.newBufferedWriter(jobDirectory.resolve(CODES_FILE),
+                        StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!BulkForecastExporter.isEntry(line)) {
+                    continue;
+                }
+                if (++total > maxCodes) {
+                    break;
+                }
+                String[] pair = BulkForecastExporter.parse(line, defaultCountryCode);
+                writer.write(pair[0] + "," + pair[1]);
+                writer.newLine();
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(jobDirectory);
+            throw e;
+        }
+        if (total == 0 || total > maxCodes) {
+            deleteQuietly(jobDirectory);
+            throw new InvalidRequestException(total == 0 ? "The list holds no postal codes"
+                    : "A geocoding job may hold at most " + maxCodes + " postal codes");
+        }
+        Instant now = Instant.now();
+        Job job = new Job(jobDirectory, GeocodingJobStatus.builder()
+                .id(id)
+                .state(State.QUEUED)
+                .total(total)
+                .submittedAt(now)
+                .updatedAt(now)
+                .build());
+        writeStatus(job);
+        jobs.put(id, job);
+        queue.add(job);
+        return job.status;
+    }
+
+    /**
+     * Looks up the progress of a job.
+     *
+     * @param id The job identifier
+     * @return The job's status, or null if there is no such job
+     */
+    public GeocodingJobStatus getStatus(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        GeocodingJobStatus status = job.status;
+        if (status.getState() != State.RUNNING || job.processedThisRun == 0) {
+            return status;
+        }
+        double secondsPerCode = (System.nanoTime() - job.runStartNanos) / 1e9 / job.processedThisRun;
+        return status.toBuilder()
+                .estimatedSecondsRemaining((long) Math.ceil((status.getTotal() - status.getProcessed())
+                        * secondsPerCode))
+                .build();
+    }
+
+    /**
+     * Copies the result lines a job has written so far.
+     *
+     * @param id     The job identifier
+     * @param output Where the NDJSON lines are written
+     * @return false if there is no such job
+     * @throws IOException if the results cannot be read or written
+     */
+    public boolean copyResults(String id, OutputStream output) throws IOException {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return false;
+        }
+        Path results = job.directory.resolve(RESULTS_FILE);
+        // Copy up to the current length only; the worker may be appending
+        long length = Files.exists(results) ? Files.size(results) : 0;
+        if (length > 0) {
+            try (InputStream in = Files.newInputStream(results)) {
+                StreamUtils.copyRange(in, output, 0, length - 1);
+            }
+        }
+        return true;
+    }
+
+    private void runJobs() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                process(queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Geocodes the codes of a job that have no result yet.
+     */
+    void process(Job job) throws InterruptedException {
+        job.update(job.status.toBuilder().state(State.RUNNING).updatedAt(Instant.now()).build());
+        job.runStartNanos = System.nanoTime();
+        job.processedThisRun = 0;
+        try {
+            writeStatus(job);
+            try (BufferedReader codes = Files.newBufferedReader(job.directory.resolve(CODES_FILE),
+                    StandardCharsets.UTF_8);
+                    BufferedWriter results = Files.newBufferedWriter(job.directory.resolve(RESULTS_FILE),
+                            StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (int i = 0; i < job.status.getProcessed(); i++) {
+                    codes.readLine();
+                }
+                String line;
+                while ((line = codes.readLine()) != null) {
+                    String[] pair = line.split(",", 2);
+                    GeocodingResult result = geocode(pair[0], pair[1]);
+                    results.write(objectMapper.writeValueAsString(result));
+                    results.newLine();
+                    results.flush();
+                    job.processedThisRun++;
+                    job.update(count(job.status.toBuilder(), job.status, result).updatedAt(Instant.now()).build());
+                    if (job.status.getProcessed() % checkpointInterval == 0) {
+                        writeStatus(job);
+                    }
+                }
+            }
+            job.update(job.status.toBuilder().state(State.COMPLETED).updatedAt(Instant.now()).build());
+            writeStatus(job);
+        } catch (IOException e) {
+            job.update(job.status.toBuilder().state(State.FAILED).error(e.getMessage()).updatedAt(Instant.now())
+                    .build());
+            writeStatusQuietly(job);
+        } catch (InterruptedException e) {
+            // Shutting down; the job resumes from its results on the next start
+            writeStatusQuietly(job);
+            throw e;
+        }
+    }
+
+    /**
+     * Geocodes one code, waiting out rate limits, concurrency limits and an
+     * open circuit breaker rather than failing the code.
+     */
+    private GeocodingResult geocode(String zipCode, String countryCode) throws InterruptedException {
+        Coordinates known = geocodingCache.get(zipCode, countryCode);
+        if (known != null) {
+            skippedCodes.incrementAndGet();
+            return new GeocodingResult(zipCode, countryCode, known, true, null);
+        }
+        for (int attempt = 0;; attempt++) {
+            try {
+                Coordinates coordinates = geocodingService.getCoordinatesForZipCode(zipCode, countryCode);
+                geocodingCache.put(zipCode, countryCode, coordinates);
+                resolvedCodes.incrementAndGet();
+                return new GeocodingResult(zipCode, countryCode, coordinates, null, null);
+            } catch (ConcurrencyLimitExceededException | CallNotPermittedException e) {
+                backOff(attempt);
+            } catch (GeocodingException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // Interrupted while pacing; the code is retried on the next start
+                    throw new InterruptedException();
+                }
+                if (e.getMessage() == null || !e.getMessage().startsWith("Rate limit exceeded")) {
+                    failedCodes.incrementAndGet();
+                    return new GeocodingResult(zipCode, countryCode, null, null, e.getMessage());
+                }
+                backOff(attempt);
+            } catch (RuntimeException e) {
+                failedCodes.incrementAndGet();
+                return new GeocodingResult(zipCode, countryCode, null, null, e.getMessage());
+            }
+        }
+    }
+
+    private void backOff(int attempt) throws InterruptedException {
+        Thread.sleep(Math.min(maxRetryDelayMs, retryDelayMs << Math.min(attempt, 20)));
+    }
+
+    private static GeocodingJobStatus.GeocodingJobStatusBuilder count(
+            GeocodingJobStatus.GeocodingJobStatusBuilder builder, GeocodingJobStatus status, GeocodingResult result) {
+        builder.processed(status.getProcessed() + 1);
+        if (result.getError() != null) {
+            builder.failed(status.getFailed() + 1);
+        } else if (Boolean.TRUE.equals(result.getSkipped())) {
+            builder.skipped(status.getSkipped() + 1);
+        } else {
+            builder.resolved(status.getResolved() + 1);
+        }
+        return builder;
+    }
+
+    /**
+     * Loads the jobs kept on disk. Counts are rebuilt from the result lines,
+     * which are the authoritative record of progress; a line cut short by a
+     * crash is dropped so its code is geocoded again.
+     */
+    void recover() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Job> unfinished = new ArrayList<>();
+        try (DirectoryStream<Path> jobDirectories = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path jobDirectory : jobDirectories) {
+                Path statusFile = jobDirectory.resolve(STATUS_FILE);
+                if (!Files.exists(statusFile)) {
+                    continue;
+                }
+                GeocodingJobStatus saved = objectMapper.readValue(statusFile.toFile(), GeocodingJobStatus.class);
+                GeocodingJobStatus.GeocodingJobStatusBuilder builder = saved.toBuilder().processed(0).resolved(0)
+                        .skipped(0).failed(0).estimatedSecondsRemaining(null);
+                GeocodingJobStatus status = builder.build();
+                Path results = jobDirectory.resolve(RESULTS_FILE);
+                if (Files.exists(results)) {
+                    truncateToLastLine(results);
+                    try (BufferedReader reader = Files.newBufferedReader(results, StandardCharsets.UTF_8)) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            GeocodingResult result = objectMapper.readValue(line, GeocodingResult.class);
+                            if (result.getCoordinates() != null) {
+                                geocodingCache.put(result.getZipCode(), result.getCountryCode(),
+                                        result.getCoordinates());
+                            }
+                            status = count(status.toBuilder(), status, result).build();
+                        }
+                    }
+                }
+                if (status.getState() == State.QUEUED || status.getState() == State.RUNNING) {
+                    status = status.toBuilder().state(State.QUEUED).build();
+                }
+                Job job = new Job(jobDirectory, status);
+                jobs.put(status.getId(), job);
+                if (status.getState() == State.QUEUED) {
+                    unfinished.add(job);
+                }
+            }
+        }
+        unfinished.sort(Comparator.comparing(job -> job.status.getSubmittedAt()));
+        queue.addAll(unfinished);
+    }
+
+    private static void truncateToLastLine(Path file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long length = raf.length();
+            long end = length;
+            while (end > 0) {
+                raf.seek(end - 1);
+                if (raf.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < length) {
+                raf.setLength(end);
+            }
+        }
+    }
+
+    private void writeStatus(Job job) throws IOException {
+        Path temporary = job.directory.resolve(STATUS_FILE + ".tmp");
+        objectMapper.writeValue(temporary.toFile(), job.status);
+        Files.move(temporary, job.directory.resolve(STATUS_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeStatusQuietly(Job job) {
+        try {
+            writeStatus(job);
+        } catch (IOException e) {
+            // The result lines still record the progress
+        }
+    }
+
+    private static void deleteQuietly(Path jobDirectory) {
+        try {
+            Files.deleteIfExists(jobDirectory.resolve(CODES_FILE));
+            Files.deleteIfExists(jobDirectory);
+        } catch (IOException e) {
+            // Left behind without a status file, so never loaded
+        }
+    }
+
+    /**
+     * @return The number of jobs queued or running
+     */
+    public int getPendingJobs() {
+        int pending = 0;
+        for (Job job : jobs.values()) {
+            State state = job.status.getState();
+            if (state == State.QUEUED || state == State.RUNNING) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Stops the worker. A running job resumes on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * A job's directory and its latest status, replaced only by the worker
+     * once queued.
+     */
+    static final class Job {
+
+        final Path directory;
+        volatile GeocodingJobStatus status;
+        volatile long runStartNanos;
+        volatile int processedThisRun;
+
+        Job(Path directory, GeocodingJobStatus status) {
+            this.directory = directory;
+            this.status = status;
+        }
+
+        void update(GeocodingJobStatus status) {
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.exception.InvalidRequestException;
+import com.example.weatherforecast.model.Coordinates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Validates caller supplied coordinates and snaps them to a grid of fixed
+ * decimal precision. Nearby requests then share one cached forecast; at the
+ * default of 2 decimals a cell is about 1.1 km across, finer than the weather
+ * model's own grid.
+ *
+ * @since 1.1
+ */
+@Component
+public class CoordinateGrid {
+
+    private final int precision;
+
+    /**
+     * Constructs a new CoordinateGrid.
+     *
+     * @param precision Number of decimal places coordinates are rounded to
+     */
+    public CoordinateGrid(@Value("${weather.coordinates.precision:2}") int precision) {
+        this.precision = precision;
+    }
+
+    /**
+     * Parses, validates and rounds a coordinate pair.
+     *
+     * @param latitude  Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @return The rounded coordinates
+     * @throws InvalidRequestException if a value is missing, not a number or
+     *                                 out of range
+     */
+    public Coordinates snap(String latitude, String longitude) {
+        double lat = parse("lat", latitude);
+        double lon = parse("lon", longitude);
+        if (lat < -90 || lat > 90) {
+            throw new InvalidRequestException("lat must be between -90 and 90.");
+        }
+        if (lon < -180 || lon > 180) {
+            throw new InvalidRequestException("lon must be between -180 and 180.");
+        }
+        return new Coordinates(round(lat), round(lon));
+    }
+
+    private static double parse(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new InvalidRequestException(name + " is required.");
+        }
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (Double.isFinite(parsed)) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new InvalidRequestException(name + " must be a number in decimal degrees.");
+    }
+
+    private double round(double value) {
+        // Avoid -0.0 so both zeros share a cache key
+        return BigDecimal.valueOf(value).setScale(precision, RoundingMode.HALF_UP).doubleValue() + 0.0;
+    }
+
+    /**
+     * @return Number of decimal places coordinates are rounded to
+     */
+    public int getPrecision() {
+        return precision;
+    }
+}
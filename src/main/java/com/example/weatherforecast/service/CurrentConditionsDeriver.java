@@ -0,0 +1,179 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.WeatherResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Derives current conditions from a cached hourly series at read time.
+ * When enabled, forecasts are fetched with a longer hourly series and can stay
+ * cached for several hours: the current temperature is interpolated from the
+ * series at the current time, and the hourly window is re-based to start at
+ * the current hour.
+ *
+ * @since 1.1
+ */
+@Component
+public class CurrentConditionsDeriver {
+
+    private static final int WINDOW_HOURS = 24;
+
+    private final boolean enabled;
+    private final int maxAgeHours;
+    private final Clock clock;
+
+    /**
+     * Constructs a new CurrentConditionsDeriver.
+     *
+     * @param enabled     Whether current conditions are derived on read
+     * @param maxAgeHours How long a cached forecast may be served
+     */
+    @Autowired
+    public CurrentConditionsDeriver(@Value("${weather.forecast.derive-current.enabled:false}") boolean enabled,
+            @Value("${weather.forecast.derive-current.max-age-hours:6}") int maxAgeHours) {
+        this(enabled, maxAgeHours, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a new CurrentConditionsDeriver with an explicit clock.
+     *
+     * @param enabled     Whether current conditions are derived on read
+     * @param maxAgeHours How long a cached forecast may be served
+     * @param clock       Clock used to determine the current time
+     */
+    public CurrentConditionsDeriver(boolean enabled, int maxAgeHours, Clock clock) {
+        this.enabled = enabled;
+        this.maxAgeHours = maxAgeHours;
+        this.clock = clock;
+    }
+
+    /**
+     * @return Whether current conditions are derived on read
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return How long a cached forecast may be served
+     */
+    public Duration getMaxAge() {
+        return Duration.ofHours(maxAgeHours);
+    }
+
+    /**
+     * Number of hourly entries to fetch so that a full window is still
+     * available when the forecast reaches its maximum age.
+     *
+     * @return The hourly series length to request
+     */
+    public int getSeriesHours() {
+        return getSeriesHours(WINDOW_HOURS);
+    }
+
+    /**
+     * Number of hourly entries to fetch so that a window of the given length
+     * is still available when the forecast reaches its maximum age.
+     *
+     * @param windowHours Length of the window served to clients
+     * @return The hourly series length to request
+     */
+    public int getSeriesHours(int windowHours) {
+        // One extra hour so the last window can still interpolate
+        return windowHours + maxAgeHours + 1;
+    }
+
+    /**
+     * Widens a projection to what has to be materialized from a cached
+     * forecast to answer it: when enabled, the projection's hourly window
+     * from the current hour with one extra entry to interpolate towards. A
+     * projection of the current conditions without the hourly series gets the
+     * current and the next hour, which the projection leaves out of the
+     * response again.
+     *
+     * @param projection The projection requested
+     * @return The projection to materialize; the input if derivation is
+     *         disabled or neither the hourly series nor the current conditions
+     *         were requested
+     */
+    public ForecastProjection viewProjection(ForecastProjection projection) {
+        if (!enabled) {
+            return projection;
+        }
+        if (projection.includes(ForecastProjection.Field.HOURLY)) {
+            return projection.withHours(projection.getHourlyLength() + 1);
+        }
+        if (projection.includes(ForecastProjection.Field.CURRENT)) {
+            return projection.withHourly(2);
+        }
+        return projection;
+    }
+
+    /**
+     * Re-bases a forecast to the current time.
+     * The returned forecast is a copy; the cached instance is never modified.
+     *
+     * @param response The (possibly cached) forecast
+     * @return A forecast whose current temperature and hourly window reflect the
+     *         current time, or the input unchanged if derivation is disabled or
+     *         the series does not cover the current time
+     */
+    public WeatherResponse derive(WeatherResponse response) {
+        return derive(response, WINDOW_HOURS);
+    }
+
+    /**
+     * Re-bases a forecast to the current time, keeping an hourly window of the
+     * given length.
+     *
+     * @param response    The (possibly cached) forecast
+     * @param windowHours Number of hourly entries to keep from the current hour
+     * @return A re-based copy, or the input unchanged if derivation is disabled
+     *         or the series does not cover the current time
+     */
+    public WeatherResponse derive(WeatherResponse response, int windowHours) {
+        if (!enabled || response == null || response.getHourlyForecast() == null
+                || response.getHourlyForecast().isEmpty()) {
+            return response;
+        }
+        List<WeatherResponse.HourlyForecast> series = response.getHourlyForecast();
+        Integer utcOffsetSeconds = response.getUtcOffsetSeconds();
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(utcOffsetSeconds == null ? 0 : utcOffsetSeconds);
+        LocalDateTime localNow = LocalDateTime.ofInstant(clock.instant(), offset);
+
+        int index = -1;
+        for (int i = 0; i < series.size() && !series.get(i).getTime().isAfter(localNow); i++) {
+            index = i;
+        }
+        if (index < 0) {
+            return response;
+        }
+
+        WeatherResponse.HourlyForecast hour = series.get(index);
+        double currentTemperature = hour.getTemperature();
+        if (index + 1 < series.size()) {
+            WeatherResponse.HourlyForecast next = series.get(index + 1);
+            double elapsed = Duration.between(hour.getTime(), localNow).toSeconds();
+            double span = Duration.between(hour.getTime(), next.getTime()).toSeconds();
+            if (span > 0) {
+                currentTemperature += (next.getTemperature() - hour.getTemperature()) * elapsed / span;
+            }
+        }
+
+        List<WeatherResponse.HourlyForecast> window = new ArrayList<>(
+                series.subList(index, Math.min(series.size(), index + windowHours)));
+        return response.toBuilder()
+                .currentTemperature(Math.round(currentTemperature * 10) / 10.0)
+                .hourlyForecast(window)
+                .build();
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.exception.ErrorResponse;
+import com.example.weatherforecast.model.WeatherResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes forecast updates to Server-Sent Events subscribers.
+ * Each subscribed zip code is fetched once per refresh interval, no matter how
+ * many clients follow it, and the result is fanned out to every subscriber.
+ * Delivery never blocks the refresh: each subscriber has a one-slot mailbox
+ * per zip code that newer forecasts overwrite, drained by a bounded sender
+ * pool. Subscribers that keep falling behind are dropped.
+ *
+ * @since 1.1
+ */
+@Component
+public class ForecastBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(ForecastBroadcaster.class);
+
+    private final WeatherService weatherService;
+    private final CurrentConditionsDeriver currentConditionsDeriver;
+    private final int maxSubscribers;
+    private final int maxCoalescedUpdates;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService fetchExecutor;
+    private final ExecutorService sendExecutor;
+
+    /**
+     * Constructs a new ForecastBroadcaster and starts the refresh schedule.
+     *
+     * @param weatherService           Service used to fetch each subscribed zip
+     *                                 code
+     * @param currentConditionsDeriver Re-bases forecasts to the current time
+     * @param meterRegistry            Registry for subscriber metrics
+     * @param refreshIntervalSeconds   How often subscribed zip codes are
+     *                                 refreshed
+     * @param maxSubscribers           Maximum number of concurrent subscribers
+     * @param maxCoalescedUpdates      Updates a subscriber may miss in a row
+     *                                 before it is dropped
+     * @param fetchThreads             Threads fetching forecasts during a refresh
+     * @param sendThreads              Threads writing events to subscribers
+     */
+    public ForecastBroadcaster(WeatherService weatherService, CurrentConditionsDeriver currentConditionsDeriver,
+            MeterRegistry meterRegistry,
+            @Value("${weather.stream.refresh-interval-seconds:60}") long refreshIntervalSeconds,
+            @Value("${weather.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${weather.stream.max-coalesced-updates:3}") int maxCoalescedUpdates,
+            @Value("${weather.stream.fetch-threads:4}") int fetchThreads,
+            @Value("${weather.stream.send-threads:8}") int sendThreads) {
+        this.weatherService = weatherService;
+        this.currentConditionsDeriver = currentConditionsDeriver;
+        this.maxSubscribers = maxSubscribers;
+        this.maxCoalescedUpdates = maxCoalescedUpdates;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("forecast-refresh"));
+        this.fetchExecutor = Executors.newFixedThreadPool(fetchThreads, daemon("forecast-fetch"));
+        this.sendExecutor = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxSubscribers)), daemon("forecast-send"));
+
+        Gauge.builder("weather.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Connected forecast stream subscribers")
+                .register(meterRegistry);
+        Gauge.builder("weather.stream.topics", topics, Map::size)
+                .description("Zip codes with at least one stream subscriber")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.stream.coalesced", coalescedCount, AtomicLong::get)
+                .description("Updates replaced by a newer one before delivery")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.stream.dropped", droppedCount, AtomicLong::get)
+                .description("Subscribers dropped for falling behind")
+                .register(meterRegistry);
+
+        if (refreshIntervalSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalSeconds, refreshIntervalSeconds,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Subscribes an emitter to forecast updates for the given zip codes.
+     * Forecasts already in the cache are delivered right away.
+     *
+     * @param zipCodes    Zip codes to follow
+     * @param countryCode The ISO 3166-1 alpha-2 country code
+     * @param emitter     The emitter events are written to
+     * @return false if the subscriber limit has been reached
+     */
+    public boolean subscribe(List<String> zipCodes, String countryCode, SseEmitter emitter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return false;
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        for (String zipCode : zipCodes) {
+            String key = zipCode + "_" + countryCode;
+            Topic topic = topics.compute(key, (k, existing) -> {
+                Topic t = existing != null ? existing : new Topic(zipCode, countryCode);
+                t.subscribers.add(subscriber);
+                return t;
+            });
+            subscriber.topics.add(topic);
+            WeatherResponse latest = topic.latest;
+            if (latest != null) {
+                subscriber.offer(key, latest);
+            } else if (topic.initialFetchRequested.compareAndSet(false, true)) {
+                // First subscriber of a new zip code should not wait a full interval
+                fetchAsync(key, topic);
+            }
+        }
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        return true;
+    }
+
+    /**
+     * Fetches every subscribed zip code once and publishes the results.
+     * Runs on the refresh schedule; exposed for tests.
+     */
+    public void refresh() {
+        for (Map.Entry<String, Topic> entry : topics.entrySet()) {
+            fetchAsync(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void fetchAsync(String key, Topic topic) {
+        try {
+            fetchExecutor.execute(() -> fetchAndPublish(key, topic));
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipping refresh of {} during shutdown", key);
+        }
+    }
+
+    private void fetchAndPublish(String key, Topic topic) {
+        if (topic.subscribers.isEmpty()) {
+            return;
+        }
+        Object event;
+        try {
+            WeatherResponse response = weatherService.getWeatherForecast(topic.zipCode, topic.countryCode);
+            topic.latest = response;
+            event = response;
+        } catch (RuntimeException e) {
+            event = ErrorResponse.of(503, "Weather Service Error", e.getMessage(), "/api/weather/stream");
+        }
+        for (Subscriber subscriber : topic.subscribers) {
+            subscriber.offer(key, event);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        for (Topic topic : subscriber.topics) {
+            topic.subscribers.remove(subscriber);
+            String key = topic.zipCode + "_" + topic.countryCode;
+            topics.computeIfPresent(key, (k, t) -> t.subscribers.isEmpty() ? null : t);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        droppedCount.incrementAndGet();
+        unsubscribe(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    /**
+     * @return The number of connected subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * @return The number of subscribers dropped for falling behind
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return The number of updates replaced before they were delivered
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Stops the refresh schedule and the worker pools and ends every open
+     * stream, so graceful shutdown does not wait for them to time out.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        fetchExecutor.shutdownNow();
+        sendExecutor.shutdownNow();
+        for (Topic topic : topics.values()) {
+            for (Subscriber subscriber : topic.subscribers) {
+                unsubscribe(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A zip code followed by one or more subscribers.
+     */
+    private static final class Topic {
+        private final String zipCode;
+        private final String countryCode;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean initialFetchRequested = new AtomicBoolean();
+        private volatile WeatherResponse latest;
+
+        private Topic(String zipCode, String countryCode) {
+            this.zipCode = zipCode;
+            this.countryCode = countryCode;
+        }
+    }
+
+    /**
+     * One connected client with a one-slot mailbox per followed zip code.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Topic> topics = ConcurrentHashMap.newKeySet();
+        private final Map<String, Object> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicInteger missedInARow = new AtomicInteger();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(String key, Object event) {
+            if (closed.get()) {
+                return;
+            }
+            if (pending.put(key, event) != null) {
+                coalescedCount.incrementAndGet();
+                if (missedInARow.incrementAndGet() > maxCoalescedUpdates) {
+                    drop(this);
+                    return;
+                }
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sendExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Sender pool is saturated; the mailbox keeps the latest update
+                // for the next refresh
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Iterator<Map.Entry<String, Object>> iterator = pending.entrySet().iterator();
+                while (iterator.hasNext() && !closed.get()) {
+                    Map.Entry<String, Object> entry = iterator.next();
+                    Object event = entry.getValue();
+                    // Only remove what we send, a newer update may have replaced it meanwhile
+                    pending.remove(entry.getKey(), event);
+                    emitter.send(SseEmitter.event()
+                            .id(entry.getKey())
+                            .name(event instanceof ErrorResponse ? "error" : "forecast")
+                            .data(event instanceof WeatherResponse response
+                                    ? currentConditionsDeriver.derive(response)
+                                    : event));
+                }
+                missedInARow.set(0);
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.diagnostics.CacheLookupEvent;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.RawForecast;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.tracing.Span;
+import com.example.weatherforecast.tracing.Tracer;
+
+import java.time.Instant;
+
+/**
+ * The single weather cache lookup of a forecast request, shared by the
+ * controller, the weather service and the bulk export. A lookup reads the
+ * cached forecast once, traces the read as a {@code cache.lookup} span and
+ * records a {@link CacheLookupEvent}; a hit when the forecast covers the
+ * projection, widened as {@link CurrentConditionsDeriver#viewProjection}
+ * requires.
+ *
+ * @since 1.1
+ */
+public class ForecastCacheLookup {
+
+    private final WeatherCacheRepository cacheRepository;
+    private final CurrentConditionsDeriver currentConditionsDeriver;
+    private final Tracer tracer;
+
+    /**
+     * Constructs a new ForecastCacheLookup.
+     *
+     * @param cacheRepository          Repository holding the cached forecasts
+     * @param currentConditionsDeriver Widens projections to what is
+     *                                 materialized from the cache
+     * @param tracer                   Tracer recording the lookup
+     */
+    public ForecastCacheLookup(WeatherCacheRepository cacheRepository,
+            CurrentConditionsDeriver currentConditionsDeriver, Tracer tracer) {
+        this.cacheRepository = cacheRepository;
+        this.currentConditionsDeriver = currentConditionsDeriver;
+        this.tracer = tracer;
+    }
+
+    /**
+     * The outcome of a lookup: the cached forecast, if any, and the projection
+     * materialized from it if it covers it. A miss hands the cached forecast
+     * on to the fetch, which does not read the cache again.
+     *
+     * @param cached The cached forecast, or null
+     * @param view   The materialized projection, or null on a miss
+     */
+    public record Result(RawForecast cached, WeatherResponse view) {
+
+        /**
+         * @return Whether the cached forecast covered the projection
+         */
+        public boolean isHit() {
+            return view != null;
+        }
+    }
+
+    /**
+     * Materializes a projection from the cached forecast, if there is one that
+     * covers it.
+     *
+     * @param cacheKey   The key of the location
+     * @param projection The projection requested
+     * @param now        The current time
+     * @return The cached forecast and, on a hit, its view
+     */
+    public Result lookup(String cacheKey, ForecastProjection projection, Instant now) {
+        CacheLookupEvent event = CacheLookupEvent.begin(cacheKey);
+        try (Span span = tracer.startSpan("cache.lookup")) {
+            ForecastProjection viewProjection = currentConditionsDeriver.viewProjection(projection);
+            RawForecast cached = cacheRepository.getFromCache(cacheKey);
+            boolean hit = cached != null && cached.covers(viewProjection, now);
+            event.commit(hit);
+            return new Result(cached, hit ? cached.view(viewProjection, now, true) : null);
+        }
+    }
+}
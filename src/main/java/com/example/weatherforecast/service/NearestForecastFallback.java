@@ -0,0 +1,97 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.RawForecast;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.repository.SpatialForecastIndex;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Degraded mode answer for locations without a cached forecast while the
+ * weather service is unavailable: the nearest cached forecast within a
+ * configurable radius, marked as approximate.
+ *
+ * @since 1.1
+ */
+@Component
+public class NearestForecastFallback {
+
+    private final WeatherCacheRepository cacheRepository;
+    private final boolean enabled;
+    private final double radiusKm;
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+
+    /**
+     * Constructs a new NearestForecastFallback.
+     *
+     * @param cacheRepository Repository holding the cached forecasts
+     * @param meterRegistry   Registry for fallback metrics
+     * @param enabled         Whether nearby forecasts are served at all
+     * @param radiusKm        Maximum distance to a nearby forecast
+     */
+    public NearestForecastFallback(WeatherCacheRepository cacheRepository, MeterRegistry meterRegistry,
+            @Value("${weather.fallback.nearest.enabled:true}") boolean enabled,
+            @Value("${weather.fallback.nearest.radius-km:25}") double radiusKm) {
+        this.cacheRepository = cacheRepository;
+        this.enabled = enabled;
+        this.radiusKm = radiusKm;
+
+        FunctionCounter.builder("weather.fallback.nearest", served, AtomicLong::get)
+                .description("Requests answered with a nearby cached forecast")
+                .tag("outcome", "served")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.fallback.nearest", notFound, AtomicLong::get)
+                .description("Requests answered with a nearby cached forecast")
+                .tag("outcome", "not_found")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds the nearest cached forecast that covers a projection.
+     *
+     * @param coordinates The requested location
+     * @param zipCode     ZIP code for the response, or null
+     * @param projection  The fields, hours and days the forecast must cover
+     * @param now         The current time
+     * @return The nearest cached forecast materialized for the projection and
+     *         marked as approximate, or null if there is none within the radius
+     *         or the fallback is disabled
+     */
+    public WeatherResponse findNearest(Coordinates coordinates, String zipCode, ForecastProjection projection,
+            Instant now) {
+        if (!enabled) {
+            return null;
+        }
+        for (SpatialForecastIndex.Neighbor neighbor : cacheRepository.findNearby(coordinates, radiusKm)) {
+            RawForecast cached = cacheRepository.getFromCache(neighbor.cacheKey());
+            // Skips entries that expired or do not hold what was asked for
+            if (cached != null && cached.covers(projection, now)) {
+                served.incrementAndGet();
+                WeatherResponse nearest = cached.view(projection, now, true);
+                nearest.setZipCode(zipCode);
+                nearest.setApproximate(true);
+                nearest.setApproximateDistanceKm(Math.round(neighbor.distanceKm() * 10) / 10.0);
+                return nearest;
+            }
+        }
+        notFound.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * @return Maximum distance to a nearby forecast in kilometers
+     */
+    public double getRadiusKm() {
+        return radiusKm;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.weatherforecast.service;
 
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.RawForecast;
 import com.example.weatherforecast.model.WeatherResponse;
 import com.example.weatherforecast.exception.WeatherServiceException;
 
@@ -13,4 +16,50 @@ public interface WeatherService {
      * @throws WeatherServiceException if the forecast cannot be retrieved
      */
     WeatherResponse getWeatherForecast(String zipCode, String countryCode) throws WeatherServiceException;
+
+    /**
+     * Get the parts of a weather forecast selected by a projection for a given
+     * ZIP code. The result may hold more than the projection asks for.
+     * 
+     * @param zipCode     The ZIP code to get the forecast for
+     * @param countryCode The country code (ISO 3166-1 alpha-2)
+     * @param projection  The fields, hours and days needed
+     * @return WeatherResponse containing at least the projected data
+     * @throws WeatherServiceException if the forecast cannot be retrieved
+     */
+    WeatherResponse getWeatherForecast(String zipCode, String countryCode, ForecastProjection projection)
+            throws WeatherServiceException;
+
+    /**
+     * Fetch the parts of a weather forecast selected by a projection for a
+     * given ZIP code, for a caller that has already looked the code up in the
+     * forecast cache and found nothing covering the projection. The cache is
+     * not read again.
+     * 
+     * @param zipCode     The ZIP code to get the forecast for
+     * @param countryCode The country code (ISO 3166-1 alpha-2)
+     * @param projection  The fields, hours and days needed
+     * @param cached      The cached forecast that did not cover the
+     *                    projection, or null
+     * @return WeatherResponse containing at least the projected data
+     * @throws WeatherServiceException if the forecast cannot be retrieved
+     */
+    WeatherResponse getWeatherForecast(String zipCode, String countryCode, ForecastProjection projection,
+            RawForecast cached) throws WeatherServiceException;
+
+    /**
+     * Fetch the parts of a weather forecast selected by a projection for known
+     * coordinates, without geocoding, for a caller that has already looked
+     * them up in the forecast cache and found nothing covering the
+     * projection. The cache is not read again.
+     * 
+     * @param coordinates The coordinates to get the forecast for
+     * @param projection  The fields, hours and days needed
+     * @param cached      The cached forecast that did not cover the
+     *                    projection, or null
+     * @return WeatherResponse containing at least the projected data
+     * @throws WeatherServiceException if the forecast cannot be retrieved
+     */
+    WeatherResponse getWeatherForecast(Coordinates coordinates, ForecastProjection projection, RawForecast cached)
+            throws WeatherServiceException;
 }
\ No newline at end of file
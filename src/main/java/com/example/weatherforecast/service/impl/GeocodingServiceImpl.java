@@ -1,15 +1,17 @@
 package com.example.weatherforecast.service.impl;
 
 import com.example.weatherforecast.client.NominatimClient;
+import com.example.weatherforecast.diagnostics.GeocodeEvent;
 import com.example.weatherforecast.exception.GeocodingException;
 import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.repository.GeocodingCache;
 import com.example.weatherforecast.service.GeocodingService;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
  * Implementation of the GeocodingService interface that uses the Nominatim API.
  * Converts zip/postal codes to geographic coordinates using OpenStreetMap data.
+ * Resolved codes are cached, so each code is only looked up once.
  * 
  * @see GeocodingService
  * @since 1.0
@@ -18,14 +20,17 @@ import org.springframework.stereotype.Service;
 public class GeocodingServiceImpl implements GeocodingService {
 
     private final NominatimClient nominatimClient;
+    private final GeocodingCache geocodingCache;
 
     /**
      * Constructs a new GeocodingServiceImpl with the required Nominatim client.
      * 
      * @param nominatimClient Client for accessing the Nominatim geocoding API
+     * @param geocodingCache  Cache of codes already resolved
      */
-    public GeocodingServiceImpl(NominatimClient nominatimClient) {
+    public GeocodingServiceImpl(NominatimClient nominatimClient, GeocodingCache geocodingCache) {
         this.nominatimClient = nominatimClient;
+        this.geocodingCache = geocodingCache;
     }
 
     /**
@@ -43,6 +48,21 @@ public class GeocodingServiceImpl implements GeocodingService {
         zipCode = zipCode.trim();
         countryCode = (countryCode == null || countryCode.trim().isEmpty()) ? "US" : countryCode.trim().toUpperCase();
 
-        return nominatimClient.getCoordinatesForZipCode(zipCode, countryCode);
+        GeocodeEvent event = GeocodeEvent.begin(zipCode, countryCode);
+        Coordinates cached = geocodingCache.get(zipCode, countryCode);
+        if (cached != null) {
+            event.commit(true, true);
+            return cached;
+        }
+        Coordinates coordinates = null;
+        try {
+            coordinates = nominatimClient.getCoordinatesForZipCode(zipCode, countryCode);
+        } finally {
+            event.commit(false, coordinates != null);
+        }
+        if (coordinates != null) {
+            geocodingCache.put(zipCode, countryCode, coordinates);
+        }
+        return coordinates;
     }
 }
\ No newline at end of file
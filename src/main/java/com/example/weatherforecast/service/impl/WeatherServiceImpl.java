@@ -4,15 +4,45 @@ import com.example.weatherforecast.client.OpenMeteoClient;
 import com.example.weatherforecast.exception.GeocodingException;
 import com.example.weatherforecast.exception.WeatherServiceException;
 import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.PostalCodeSuggestion;
+import com.example.weatherforecast.model.RawForecast;
 import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.repository.PostalCodeIndex;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.resilience.Deadline;
+import com.example.weatherforecast.service.CurrentConditionsDeriver;
+import com.example.weatherforecast.service.ForecastCacheLookup;
 import com.example.weatherforecast.service.GeocodingService;
+import com.example.weatherforecast.service.NearestForecastFallback;
 import com.example.weatherforecast.service.WeatherService;
-import org.springframework.cache.annotation.Cacheable;
+import com.example.weatherforecast.tracing.Span;
+import com.example.weatherforecast.tracing.Tracer;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 /**
  * Implementation of the WeatherService that uses geocoding and weather APIs
  * to retrieve weather forecasts for locations specified by zip/postal codes.
+ * The complete forecast of a location is fetched once, for a configurable
+ * number of days, and cached as a {@link RawForecast}; every projection is
+ * materialized from it on read, so different views of a location share one
+ * upstream call. Callers that have already looked a location up in the
+ * cache pass what they found, so the cache is read once per request. While
+ * the weather service circuit breaker is open, a location is answered with
+ * whatever its cached forecast still covers, or else with the nearest cached
+ * forecast, marked as approximate; while the geocoding circuit breaker is
+ * open, postal codes are located with the postal code dataset. Each
+ * lookup is traced, with cache access and upstream calls as child spans.
+ * Geocoding and the forecast call share the request's {@link Deadline}, so
+ * a lookup that has spent its budget on geocoding fails fast instead of
+ * starting the forecast call.
  * 
  * @see WeatherService
  */
@@ -21,6 +51,14 @@ public class WeatherServiceImpl implements WeatherService {
 
     private final GeocodingService geocodingService;
     private final OpenMeteoClient openMeteoClient;
+    private final CurrentConditionsDeriver currentConditionsDeriver;
+    private final WeatherCacheRepository cacheRepository;
+    private final NearestForecastFallback nearestForecastFallback;
+    private final PostalCodeIndex postalCodeIndex;
+    private final Tracer tracer;
+    private final ForecastCacheLookup cacheLookup;
+    private final int fetchDays;
+    private final Clock clock = Clock.systemUTC();
 
     /**
      * Constructs a new WeatherServiceImpl with required dependencies.
@@ -28,10 +66,30 @@ public class WeatherServiceImpl implements WeatherService {
      * @param geocodingService Service for converting zip codes to geographic
      *                         coordinates
      * @param openMeteoClient  Client for accessing the Open-Meteo weather API
+     * @param currentConditionsDeriver Decides how long an hourly series to
+     *                                 fetch
+     * @param cacheRepository  Repository for caching weather data
+     * @param nearestForecastFallback Finds nearby cached forecasts while the
+     *                                weather service is unavailable
+     * @param postalCodeIndex  Locates postal codes while the geocoding
+     *                         service is unavailable
+     * @param tracer           Tracer recording the stages of a lookup
+     * @param fetchDays        Days of forecast fetched per location, unless a
+     *                         request needs more
      */
-    public WeatherServiceImpl(GeocodingService geocodingService, OpenMeteoClient openMeteoClient) {
+    public WeatherServiceImpl(GeocodingService geocodingService, OpenMeteoClient openMeteoClient,
+            CurrentConditionsDeriver currentConditionsDeriver, WeatherCacheRepository cacheRepository,
+            NearestForecastFallback nearestForecastFallback, PostalCodeIndex postalCodeIndex, Tracer tracer,
+            @Value("${weather.forecast.fetch-days:8}") int fetchDays) {
         this.geocodingService = geocodingService;
         this.openMeteoClient = openMeteoClient;
+        this.currentConditionsDeriver = currentConditionsDeriver;
+        this.cacheRepository = cacheRepository;
+        this.nearestForecastFallback = nearestForecastFallback;
+        this.postalCodeIndex = postalCodeIndex;
+        this.tracer = tracer;
+        this.cacheLookup = new ForecastCacheLookup(cacheRepository, currentConditionsDeriver, tracer);
+        this.fetchDays = fetchDays;
     }
 
     /**
@@ -40,16 +98,162 @@ public class WeatherServiceImpl implements WeatherService {
      * then fetches weather data for those coordinates.
      */
     @Override
-    @Cacheable(value = "weatherCache", key = "#zipCode + '_' + #countryCode", unless = "#result == null")
     public WeatherResponse getWeatherForecast(String zipCode, String countryCode) throws WeatherServiceException {
+        return getWeatherForecast(zipCode, countryCode, ForecastProjection.DEFAULT);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The response is materialized from the cached forecast if it covers the
+     * projection. Otherwise the complete forecast is fetched, for at least as
+     * many days as the cached one held, and replaces it.
+     */
+    @Override
+    public WeatherResponse getWeatherForecast(String zipCode, String countryCode, ForecastProjection projection)
+            throws WeatherServiceException {
+        String cacheKey = WeatherCacheRepository.zipCodeKey(zipCode, countryCode);
+        return traced(cacheKey, span -> getOrFetch(span, cacheKey, zipCode, projection,
+                zipCodeLocator(zipCode, countryCode)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The complete forecast is fetched, for at least as many days as the
+     * cached one held, and replaces it.
+     */
+    @Override
+    public WeatherResponse getWeatherForecast(String zipCode, String countryCode, ForecastProjection projection,
+            RawForecast cached) throws WeatherServiceException {
+        String cacheKey = WeatherCacheRepository.zipCodeKey(zipCode, countryCode);
+        return traced(cacheKey, span -> fetch(span, cacheKey, zipCode, projection, cached,
+                zipCodeLocator(zipCode, countryCode)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Forecasts are cached per coordinate pair, so callers should round
+     * coordinates to the precision they want to share a cache entry at.
+     */
+    @Override
+    public WeatherResponse getWeatherForecast(Coordinates coordinates, ForecastProjection projection,
+            RawForecast cached) throws WeatherServiceException {
+        String cacheKey = WeatherCacheRepository.coordinatesKey(coordinates);
+        return traced(cacheKey, span -> fetch(span, cacheKey, null, projection, cached, () -> coordinates));
+    }
+
+    private Supplier<Coordinates> zipCodeLocator(String zipCode, String countryCode) {
+        return () -> {
+            try {
+                // Get coordinates for the ZIP code
+                return geocodingService.getCoordinatesForZipCode(zipCode, countryCode);
+            } catch (GeocodingException e) {
+                throw new WeatherServiceException("Error getting coordinates: " + e.getMessage(), e);
+            } catch (CallNotPermittedException e) {
+                // Degraded mode; the dataset's coordinates are not kept as the code's geocoding result
+                PostalCodeSuggestion known = postalCodeIndex.find(
+                        countryCode == null || countryCode.isBlank() ? "US" : countryCode.trim(), zipCode.trim());
+                if (known == null) {
+                    throw e;
+                }
+                return known.getCoordinates();
+            }
+        };
+    }
+
+    private WeatherResponse traced(String cacheKey, Function<Span, WeatherResponse> lookup) {
+        try (Span span = tracer.startSpan("weather.forecast")) {
+            span.setAttribute("cache.key", cacheKey);
+            try {
+                return lookup.apply(span);
+            } catch (RuntimeException e) {
+                span.recordError(e);
+                throw e;
+            }
+        }
+    }
+
+    private WeatherResponse getOrFetch(Span span, String cacheKey, String zipCode, ForecastProjection projection,
+            Supplier<Coordinates> locator) {
+        ForecastCacheLookup.Result lookup = cacheLookup.lookup(cacheKey, projection, clock.instant());
+        if (lookup.isHit()) {
+            span.setAttribute("cache.hit", true);
+            return lookup.view();
+        }
+        return fetch(span, cacheKey, zipCode, projection, lookup.cached(), locator);
+    }
+
+    /**
+     * Fetches the complete forecast after a cache miss and caches it, or
+     * falls back while an upstream circuit breaker is open.
+     */
+    private WeatherResponse fetch(Span span, String cacheKey, String zipCode, ForecastProjection projection,
+            RawForecast cached, Supplier<Coordinates> locator) {
+        Instant now = clock.instant();
+        ForecastProjection viewProjection = currentConditionsDeriver.viewProjection(projection);
+        span.setAttribute("cache.hit", false);
+        int days = cached != null ? Math.max(fetchDaysFor(projection), cached.getDayCount()) : fetchDaysFor(projection);
+
+        Coordinates coordinates = null;
+        RawForecast forecast;
         try {
-            // Get coordinates for the ZIP code
-            Coordinates coordinates = geocodingService.getCoordinatesForZipCode(zipCode, countryCode);
+            coordinates = locator.get();
+            forecast = openMeteoClient.getForecast(coordinates, zipCode, days);
+        } catch (CallNotPermittedException e) {
+            // Degraded mode; approximate answers are never cached
+            WeatherResponse fallback = fallback(span, cached, coordinates, zipCode, viewProjection, now);
+            if (fallback == null) {
+                throw e;
+            }
+            return fallback;
+        }
+        if (forecast == null) {
+            return null;
+        }
+        try (Span put = tracer.startSpan("cache.put")) {
+            cacheRepository.putInCache(cacheKey, forecast);
+        }
+        return forecast.view(viewProjection, now, false);
+    }
 
-            // Get weather forecast for the coordinates
-            return openMeteoClient.getWeatherForecast(coordinates, zipCode);
-        } catch (GeocodingException e) {
-            throw new WeatherServiceException("Error getting coordinates: " + e.getMessage(), e);
+    /**
+     * Answers a lookup while an upstream circuit breaker is open: with the
+     * location's own cached forecast as far as it still reaches, or else with
+     * the nearest cached forecast once the location is known.
+     */
+    private WeatherResponse fallback(Span span, RawForecast cached, Coordinates coordinates, String zipCode,
+            ForecastProjection viewProjection, Instant now) {
+        if (cached != null) {
+            span.setAttribute("fallback", "cached");
+            WeatherResponse partial = cached.view(viewProjection, now, true);
+            partial.setApproximate(true);
+            partial.setApproximateDistanceKm(0.0);
+            return partial;
+        }
+        if (coordinates == null) {
+            return null;
+        }
+        WeatherResponse nearest = nearestForecastFallback.findNearest(coordinates, zipCode, viewProjection, now);
+        if (nearest != null) {
+            span.setAttribute("fallback", "nearest");
+        }
+        return nearest;
+    }
+
+    /**
+     * Number of days to fetch so the forecast covers a projection, including
+     * the hourly series current conditions are derived from until the entry
+     * reaches its maximum age.
+     */
+    private int fetchDaysFor(ForecastProjection projection) {
+        int days = Math.max(fetchDays, projection.getDays());
+        if (projection.includes(ForecastProjection.Field.HOURLY)) {
+            int windowHours = projection.getHourlyLength();
+            int hours = currentConditionsDeriver.isEnabled()
+                    ? currentConditionsDeriver.getSeriesHours(windowHours)
+                    : windowHours;
+            // The series starts at local midnight; one more day lets the current hour move on
+            days = Math.max(days, (hours + 23) / 24 + 1);
         }
+        return Math.min(days, ForecastProjection.MAX_DAYS);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package com.example.weatherforecast.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands ended spans to an exporter on a background thread. Request threads only
+ * offer spans to a bounded queue; when the queue is full, spans are dropped
+ * rather than slowing requests down. The exporter receives batches of up to
+ * {@code batchSize} spans, at least every {@code flushInterval} while spans
+ * are waiting.
+ *
+ * @since 1.1
+ */
+public class AsyncSpanProcessor implements SpanProcessor, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncSpanProcessor.class);
+
+    private final SpanExporter exporter;
+    private final BlockingQueue<Span> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread worker;
+
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a new AsyncSpanProcessor and starts its export thread.
+     *
+     * @param exporter      Destination of the spans
+     * @param queueSize     Spans that may wait for export before new ones are
+     *                      dropped
+     * @param batchSize     Maximum spans per export call
+     * @param flushInterval Longest time a span waits for its batch to fill
+     */
+    public AsyncSpanProcessor(SpanExporter exporter, int queueSize, int batchSize, Duration flushInterval) {
+        this.exporter = exporter;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.worker = new Thread(this::run, "span-exporter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void onEnd(Span span) {
+        if (!running || !queue.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<Span> batch = new ArrayList<>(batchSize);
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                export(batch);
+            } else if (!running) {
+                return;
+            }
+        }
+    }
+
+    private void collect(List<Span> batch) throws InterruptedException {
+        if (!running) {
+            queue.drainTo(batch, batchSize);
+            return;
+        }
+        Span first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize && running) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            Span next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void export(List<Span> batch) {
+        try {
+            exporter.export(batch);
+            exported.addAndGet(batch.size());
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            log.warn("Could not export {} spans: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stops accepting spans, exports the ones still queued and closes the
+     * exporter. The export thread is not interrupted, since that would close
+     * interruptible channels it may be writing to; it notices within one flush
+     * interval.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            exporter.close();
+        } catch (Exception e) {
+            log.warn("Could not close span exporter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return Spans handed to the exporter successfully
+     */
+    public long getExportedCount() {
+        return exported.get();
+    }
+
+    /**
+     * @return Spans dropped because the queue was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return Spans lost because the exporter failed
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return Spans waiting for export
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.weatherforecast.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Appends spans to a local file, one JSON object per line.
+ *
+ * @since 1.1
+ */
+public class FileSpanExporter implements SpanExporter {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private BufferedWriter writer;
+
+    /**
+     * Constructs a new FileSpanExporter. The file and its directory are created
+     * on the first export.
+     *
+     * @param path         The file to append to
+     * @param objectMapper ObjectMapper used to write the lines
+     */
+    public FileSpanExporter(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void export(List<Span> spans) throws IOException {
+        if (writer == null) {
+            Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        }
+        for (Span span : spans) {
+            writer.write(objectMapper.writeValueAsString(toJson(span)));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    private ObjectNode toJson(Span span) {
+        ObjectNode node = objectMapper.createObjectNode()
+                .put("traceId", span.getTraceId())
+                .put("spanId", span.getSpanId())
+                .put("parentSpanId", span.getParentSpanId())
+                .put("name", span.getName())
+                .put("start", Instant.EPOCH.plusNanos(span.getStartEpochNanos()).toString())
+                .put("durationMicros", span.getDurationNanos() / 1000);
+        if (!span.getAttributes().isEmpty()) {
+            node.set("attributes", objectMapper.valueToTree(span.getAttributes()));
+        }
+        if (span.getError() != null) {
+            node.put("error", span.getError());
+        }
+        return node;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
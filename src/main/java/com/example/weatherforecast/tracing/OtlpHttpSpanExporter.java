@@ -0,0 +1,112 @@
+package com.example.weatherforecast.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends spans to an OpenTelemetry collector using OTLP over HTTP with the JSON
+ * encoding ({@code POST /v1/traces}). Any collector, or a stand-in accepting
+ * the same payload, can receive them.
+ *
+ * @since 1.1
+ */
+public class OtlpHttpSpanExporter implements SpanExporter {
+
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_SERVER = 2;
+    private static final int STATUS_CODE_ERROR = 2;
+
+    private final URI endpoint;
+    private final String serviceName;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    /**
+     * Constructs a new OtlpHttpSpanExporter.
+     *
+     * @param endpoint     The collector's traces endpoint, e.g.
+     *                     http://localhost:4318/v1/traces
+     * @param serviceName  Service name reported with the spans
+     * @param objectMapper ObjectMapper used to write the payload
+     * @param timeout      Timeout for connecting and for each export
+     */
+    public OtlpHttpSpanExporter(URI endpoint, String serviceName, ObjectMapper objectMapper, Duration timeout) {
+        this.endpoint = endpoint;
+        this.serviceName = serviceName;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void export(List<Span> spans) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(toPayload(spans))))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting spans", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Collector returned HTTP " + response.statusCode());
+        }
+    }
+
+    ObjectNode toPayload(List<Span> spans) {
+        ObjectNode payload = objectMapper.createObjectNode();
+        ObjectNode resourceSpans = payload.putArray("resourceSpans").addObject();
+        attributes(resourceSpans.putObject("resource").putArray("attributes"), Map.of("service.name", serviceName));
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", "com.example.weatherforecast");
+        ArrayNode spanArray = scopeSpans.putArray("spans");
+        for (Span span : spans) {
+            ObjectNode node = spanArray.addObject()
+                    .put("traceId", span.getTraceId())
+                    .put("spanId", span.getSpanId())
+                    .put("name", span.getName())
+                    .put("kind", span.isRoot() ? SPAN_KIND_SERVER : SPAN_KIND_INTERNAL)
+                    // 64-bit integers are strings in the OTLP JSON encoding
+                    .put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()))
+                    .put("endTimeUnixNano", Long.toString(span.getStartEpochNanos() + span.getDurationNanos()));
+            if (span.getParentSpanId() != null) {
+                node.put("parentSpanId", span.getParentSpanId());
+            }
+            attributes(node.putArray("attributes"), span.getAttributes());
+            if (span.getError() != null) {
+                node.putObject("status").put("code", STATUS_CODE_ERROR).put("message", span.getError());
+            }
+        }
+        return payload;
+    }
+
+    private static void attributes(ArrayNode target, Map<String, ?> attributes) {
+        attributes.forEach((key, value) -> {
+            ObjectNode typed = target.addObject().put("key", key).putObject("value");
+            if (value instanceof Boolean b) {
+                typed.put("boolValue", b);
+            } else if (value instanceof Integer || value instanceof Long) {
+                typed.put("intValue", value.toString());
+            } else if (value instanceof Number n) {
+                typed.put("doubleValue", n.doubleValue());
+            } else {
+                typed.put("stringValue", value.toString());
+            }
+        });
+    }
+}
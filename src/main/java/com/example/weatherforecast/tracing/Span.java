@@ -0,0 +1,177 @@
+package com.example.weatherforecast.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A timed stage of a request. Spans are created by a {@link Tracer} and become
+ * the current span of their thread until they are ended, so spans started in
+ * between are recorded as their children. Spans of traces that were not
+ * sampled record nothing.
+ * <p>
+ * Spans are meant to be used with try-with-resources:
+ *
+ * <pre>
+ * try (Span span = tracer.startSpan("forecast.http")) {
+ *     span.setAttribute("http.status", 200);
+ * }
+ * </pre>
+ *
+ * @since 1.1
+ */
+public final class Span implements AutoCloseable {
+
+    /**
+     * Span returned for stages of traces that are not sampled.
+     */
+    static final Span NOOP = new Span(null, "noop", null, null, null, false, false);
+
+    private final Tracer tracer;
+    private final String name;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final Span previous;
+    private final boolean root;
+    private final boolean sampled;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final AtomicBoolean ended = new AtomicBoolean();
+
+    private volatile long durationNanos;
+    private Map<String, Object> attributes;
+    private String error;
+
+    Span(Tracer tracer, String name, String traceId, String parentSpanId, Span previous, boolean root,
+            boolean sampled) {
+        this.tracer = tracer;
+        this.name = name;
+        this.traceId = traceId;
+        this.parentSpanId = parentSpanId;
+        this.previous = previous;
+        this.root = root;
+        this.sampled = sampled;
+        if (sampled) {
+            this.spanId = Tracer.newSpanId();
+            this.startEpochNanos = System.currentTimeMillis() * 1_000_000;
+            this.startNanoTime = System.nanoTime();
+        } else {
+            this.spanId = null;
+            this.startEpochNanos = 0;
+            this.startNanoTime = 0;
+        }
+    }
+
+    /**
+     * Adds an attribute to the span.
+     *
+     * @param key   Attribute name
+     * @param value Attribute value; strings, numbers and booleans are exported
+     *              as such, anything else as its string form
+     * @return This span
+     */
+    public Span setAttribute(String key, Object value) {
+        if (sampled && value != null) {
+            synchronized (this) {
+                if (attributes == null) {
+                    attributes = new LinkedHashMap<>();
+                }
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Marks the span as failed.
+     *
+     * @param e The failure
+     * @return This span
+     */
+    public Span recordError(Throwable e) {
+        if (sampled) {
+            error = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+        }
+        return this;
+    }
+
+    /**
+     * Ends the span and restores the span that was current when it started.
+     * Only the first call has an effect.
+     */
+    public void end() {
+        if (this == NOOP || !ended.compareAndSet(false, true)) {
+            return;
+        }
+        if (sampled) {
+            durationNanos = System.nanoTime() - startNanoTime;
+        }
+        tracer.onEnd(this);
+    }
+
+    /**
+     * Ends the span.
+     */
+    @Override
+    public void close() {
+        end();
+    }
+
+    /**
+     * @return The W3C trace context header value identifying this span, or null
+     *         if it is not sampled
+     */
+    public String traceparent() {
+        return sampled ? "00-" + traceId + "-" + spanId + "-01" : null;
+    }
+
+    Span getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return true if this span started a trace in this process, possibly
+     *         continuing a caller's trace
+     */
+    boolean isRoot() {
+        return root;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public synchronized Map<String, Object> getAttributes() {
+        return attributes != null ? Collections.unmodifiableMap(new LinkedHashMap<>(attributes)) : Map.of();
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.weatherforecast.tracing;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes batches of ended spans to a destination. Called from a single
+ * background thread.
+ *
+ * @since 1.1
+ */
+public interface SpanExporter extends AutoCloseable {
+
+    /**
+     * Exports a batch of spans.
+     *
+     * @param spans The spans, in the order they ended
+     * @throws IOException if the destination cannot be written
+     */
+    void export(List<Span> spans) throws IOException;
+
+    /**
+     * Releases the destination.
+     *
+     * @throws IOException if the destination cannot be closed
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
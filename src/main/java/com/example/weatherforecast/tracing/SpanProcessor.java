@@ -0,0 +1,17 @@
+package com.example.weatherforecast.tracing;
+
+/**
+ * Receives the spans of sampled traces as they end.
+ *
+ * @since 1.1
+ */
+@FunctionalInterface
+public interface SpanProcessor {
+
+    /**
+     * Called on the thread that ended the span; must not block.
+     *
+     * @param span The ended span
+     */
+    void onEnd(Span span);
+}
@@ -0,0 +1,174 @@
+package com.example.weatherforecast.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Lightweight in-process tracer. The sampling decision is made once, when a
+ * trace starts, and applies to every span of the trace; spans of unsampled
+ * traces cost a thread-local lookup and nothing else. Ended spans of sampled
+ * traces are handed to a {@link SpanProcessor}, which must not block.
+ * <p>
+ * The current span is kept per thread. Work handed to another thread joins the
+ * trace through {@link #wrap(Supplier)}.
+ *
+ * @since 1.1
+ */
+public class Tracer {
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private final double sampleRatio;
+    private final SpanProcessor processor;
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+
+    /**
+     * Constructs a new Tracer.
+     *
+     * @param sampleRatio Fraction of new traces that are recorded, 0 to 1
+     * @param processor   Receives the ended spans of sampled traces
+     */
+    public Tracer(double sampleRatio, SpanProcessor processor) {
+        if (sampleRatio < 0 || sampleRatio > 1) {
+            throw new IllegalArgumentException("Sample ratio must be between 0 and 1: " + sampleRatio);
+        }
+        this.sampleRatio = sampleRatio;
+        this.processor = processor;
+    }
+
+    /**
+     * Starts a span as a child of the current span, or a new trace if there is
+     * none.
+     *
+     * @param name Name of the stage
+     * @return The started span, which must be ended
+     */
+    public Span startSpan(String name) {
+        Span parent = current.get();
+        if (parent == null) {
+            boolean sampled = sampleTrace();
+            return open(new Span(this, name, sampled ? newTraceId() : null, null, null, true, sampled));
+        }
+        if (!parent.isSampled()) {
+            return Span.NOOP;
+        }
+        return open(new Span(this, name, parent.getTraceId(), parent.getSpanId(), parent, false, true));
+    }
+
+    /**
+     * Starts a new trace, continuing the caller's trace if a valid W3C
+     * {@code traceparent} is given. The caller's sampling decision is honoured.
+     *
+     * @param name        Name of the root stage
+     * @param traceparent The incoming trace context header, or null
+     * @return The started span, which must be ended
+     */
+    public Span startTrace(String name, String traceparent) {
+        Span previous = current.get();
+        if (traceparent != null && TRACEPARENT.matcher(traceparent).matches()) {
+            String traceId = traceparent.substring(3, 35);
+            String parentSpanId = traceparent.substring(36, 52);
+            boolean sampled = (Integer.parseInt(traceparent.substring(53, 55), 16) & 1) == 1;
+            if (!traceId.equals(INVALID_TRACE_ID) && !parentSpanId.equals(INVALID_SPAN_ID)) {
+                return open(new Span(this, name, sampled ? traceId : null, sampled ? parentSpanId : null, previous,
+                        true, sampled));
+            }
+        }
+        boolean sampled = sampleTrace();
+        return open(new Span(this, name, sampled ? newTraceId() : null, null, previous, true, sampled));
+    }
+
+    /**
+     * @return The current span of this thread, or a span that records nothing
+     */
+    public Span currentSpan() {
+        Span span = current.get();
+        return span != null ? span : Span.NOOP;
+    }
+
+    /**
+     * Makes a call join the current trace when it runs on another thread.
+     *
+     * @param call The call to run later
+     * @return A call that runs with the span that is current now
+     */
+    public <T> Supplier<T> wrap(Supplier<T> call) {
+        Span captured = current.get();
+        if (captured == null) {
+            return call;
+        }
+        return () -> {
+            Span previous = current.get();
+            current.set(captured);
+            try {
+                return call.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Creates a tracer that samples nothing, for tests and tools that do not
+     * need tracing.
+     *
+     * @return A tracer that records no spans
+     */
+    public static Tracer noop() {
+        return new Tracer(0, span -> {
+        });
+    }
+
+    void onEnd(Span span) {
+        if (current.get() == span) {
+            restore(span.getPrevious());
+        }
+        if (span.isSampled()) {
+            processor.onEnd(span);
+        }
+    }
+
+    private Span open(Span span) {
+        current.set(span);
+        return span;
+    }
+
+    private void restore(Span span) {
+        if (span == null) {
+            current.remove();
+        } else {
+            current.set(span);
+        }
+    }
+
+    private boolean sampleTrace() {
+        return sampleRatio > 0 && ThreadLocalRandom.current().nextDouble() < sampleRatio;
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high;
+        long low;
+        do {
+            high = random.nextLong();
+            low = random.nextLong();
+        } while (high == 0 && low == 0);
+        return hex(high) + hex(low);
+    }
+
+    static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return hex(id);
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0000000000000000".substring(digits.length()) + digits;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.weatherforecast.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Starts a trace for every API request. An incoming W3C {@code traceparent}
+ * header is continued, and sampled requests get a {@code traceparent}
+ * response header naming their trace. Streaming responses are traced up to
+ * the point the request thread hands them off.
+ *
+ * @since 1.1
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+
+    /**
+     * Constructs a new TracingFilter.
+     *
+     * @param tracer The tracer starting the request spans
+     */
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (Span span = tracer.startTrace("http.request", request.getHeader(TRACEPARENT))) {
+            if (span.isSampled()) {
+                span.setAttribute("http.method", request.getMethod());
+                response.setHeader(TRACEPARENT, span.traceparent());
+            }
+            try {
+                chain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                span.recordError(e);
+                throw e;
+            } finally {
+                span.setAttribute("http.route", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+                span.setAttribute("http.status", response.getStatus());
+            }
+        }
+    }
+}
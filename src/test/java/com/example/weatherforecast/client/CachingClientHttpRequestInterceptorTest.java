@@ -0,0 +1,157 @@
+package com.example.weatherforecast.client;
+
+import com.example.weatherforecast.client.CachingClientHttpRequestInterceptor.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class CachingClientHttpRequestInterceptorTest {
+
+    private static final URI FORECAST = URI.create("https://api.open-meteo.com/v1/forecast?latitude=40.73");
+    private static final String HOST = "api.open-meteo.com";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-04-21T10:00:00Z"));
+    private CachingClientHttpRequestInterceptor cache;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CachingClientHttpRequestInterceptor(1024 * 1024, 64 * 1024, Duration.ofHours(1), clock);
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(cache);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void testFreshResponse_ServedWithoutNetworkCall() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+        server.expect(requestTo(FORECAST)).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"a\":1}", MediaType.APPLICATION_JSON).headers(headers));
+
+        assertEquals("{\"a\":1}", restTemplate.getForObject(FORECAST, String.class));
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals("{\"a\":1}", restTemplate.getForObject(FORECAST, String.class));
+
+        server.verify();
+        assertEquals(1, cache.getCount(HOST, Outcome.MISS));
+        assertEquals(1, cache.getCount(HOST, Outcome.HIT));
+    }
+
+    @Test
+    void testStaleResponse_RevalidatedWithETag() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+        headers.setETag("\"v1\"");
+        server.expect(requestTo(FORECAST))
+                .andRespond(withSuccess("{\"a\":1}", MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo(FORECAST)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(headers));
+
+        restTemplate.getForObject(FORECAST, String.class);
+        clock.advance(Duration.ofSeconds(90));
+        assertEquals("{\"a\":1}", restTemplate.getForObject(FORECAST, String.class));
+        // The 304 renewed the freshness lifetime
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals("{\"a\":1}", restTemplate.getForObject(FORECAST, String.class));
+
+        server.verify();
+        assertEquals(1, cache.getCount(HOST, Outcome.MISS));
+        assertEquals(1, cache.getCount(HOST, Outcome.REVALIDATED));
+        assertEquals(1, cache.getCount(HOST, Outcome.HIT));
+    }
+
+    @Test
+    void testChangedResponse_ReplacesStoredOne() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("no-cache");
+        headers.setLastModified(Instant.parse("2025-04-21T09:00:00Z"));
+        server.expect(requestTo(FORECAST))
+                .andRespond(withSuccess("{\"a\":1}", MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo(FORECAST)).andExpect(header(HttpHeaders.IF_MODIFIED_SINCE,
+                        "Mon, 21 Apr 2025 09:00:00 GMT"))
+                .andRespond(withSuccess("{\"a\":2}", MediaType.APPLICATION_JSON).headers(headers));
+
+        restTemplate.getForObject(FORECAST, String.class);
+        assertEquals("{\"a\":2}", restTemplate.getForObject(FORECAST, String.class));
+
+        server.verify();
+        assertEquals(2, cache.getCount(HOST, Outcome.MISS));
+    }
+
+    @Test
+    void testNoStoreResponse_NotCached() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("no-store, max-age=60");
+        server.expect(requestTo(FORECAST))
+                .andRespond(withSuccess("{\"a\":1}", MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo(FORECAST))
+                .andRespond(withSuccess("{\"a\":1}", MediaType.APPLICATION_JSON).headers(headers));
+
+        restTemplate.getForObject(FORECAST, String.class);
+        restTemplate.getForObject(FORECAST, String.class);
+
+        server.verify();
+        assertEquals(0, cache.getStoredCount());
+        assertEquals(2, cache.getCount(HOST, Outcome.MISS));
+    }
+
+    @Test
+    void testResponseWithoutCacheHeaders_NotCached() {
+        server.expect(requestTo(FORECAST)).andRespond(withSuccess("{\"a\":1}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(FORECAST)).andRespond(withSuccess("{\"a\":1}", MediaType.APPLICATION_JSON));
+
+        restTemplate.getForObject(FORECAST, String.class);
+        restTemplate.getForObject(FORECAST, String.class);
+
+        server.verify();
+        assertEquals(0, cache.getCount(HOST, Outcome.HIT));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            this.instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.weatherforecast.client;
 
+import com.example.weatherforecast.exception.DeadlineExceededException;
 import com.example.weatherforecast.exception.GeocodingException;
 import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.resilience.AdaptiveConcurrencyLimiter;
+import com.example.weatherforecast.resilience.Deadline;
+import com.example.weatherforecast.tracing.Tracer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +18,7 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +34,9 @@ class NominatimClientTest {
     @Mock
     private CircuitBreaker circuitBreaker;
 
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter("nominatimApi",
+            100, 100, 100, 0.9, Duration.ofMinutes(1), Duration.ZERO, 0);
+
     private ObjectMapper objectMapper;
     private NominatimClient nominatimClient;
 
@@ -43,7 +51,8 @@ class NominatimClientTest {
             return supplier.get();
         });
 
-        nominatimClient = new NominatimClient(restTemplate, objectMapper, circuitBreaker);
+        nominatimClient = new NominatimClient(restTemplate, objectMapper, circuitBreaker,
+                concurrencyLimiter, Tracer.noop());
     }
 
     @Test
@@ -120,6 +129,16 @@ class NominatimClientTest {
         assertTrue(exception.getMessage().contains("Invalid postal code format"));
     }
 
+    @Test
+    void testGetCoordinatesForZipCode_AbandonedWhenDeadlineTooShort() {
+        try (Deadline.Scope scope = Deadline.after(Duration.ofMillis(50)).attach()) {
+            assertThrows(DeadlineExceededException.class,
+                    () -> nominatimClient.getCoordinatesForZipCode("10001", "US"));
+        }
+
+        verify(restTemplate, never()).getForEntity(any(URI.class), eq(String.class));
+    }
+
     @Test
     void testGetCoordinatesForZipCode_CircuitBreakerTest() {
         String zipCode = "10001";
@@ -127,7 +146,8 @@ class NominatimClientTest {
 
         // Create a new mock for this test to avoid conflicts
         CircuitBreaker testCircuitBreaker = mock(CircuitBreaker.class);
-        NominatimClient testClient = new NominatimClient(restTemplate, objectMapper, testCircuitBreaker);
+        NominatimClient testClient = new NominatimClient(restTemplate, objectMapper, testCircuitBreaker,
+                concurrencyLimiter, Tracer.noop());
 
         // Configure circuit breaker to throw an exception
         when(testCircuitBreaker.executeSupplier(any())).thenThrow(new RuntimeException("Circuit breaker open"));
@@ -2,19 +2,31 @@ package com.example.weatherforecast.client;
 
 import com.example.weatherforecast.exception.WeatherServiceException;
 import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.RawForecast;
 import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.resilience.AdaptiveConcurrencyLimiter;
+import com.example.weatherforecast.resilience.LatencyHistogram;
+import com.example.weatherforecast.resilience.RequestHedger;
+import com.example.weatherforecast.tracing.Tracer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +42,11 @@ class OpenMeteoClientTest {
     @Mock
     private CircuitBreaker circuitBreaker;
 
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter("openMeteoApi",
+            100, 100, 100, 0.9, Duration.ofMinutes(1), Duration.ZERO, 0);
+    private final RequestHedger requestHedger = new RequestHedger(false, 95, Duration.ZERO, 0, 0,
+            new LatencyHistogram(Duration.ofMinutes(1)), null);
+
     private ObjectMapper objectMapper;
     private OpenMeteoClient openMeteoClient;
 
@@ -44,46 +61,12 @@ class OpenMeteoClientTest {
             return supplier.get();
         });
 
-        openMeteoClient = new OpenMeteoClient(restTemplate, objectMapper, circuitBreaker);
+        openMeteoClient = new OpenMeteoClient(restTemplate, objectMapper, circuitBreaker,
+                concurrencyLimiter, requestHedger, Tracer.noop());
     }
 
     @Test
-    void testGetWeatherForecast_Success() throws Exception {
-        Coordinates coordinates = new Coordinates(40.7305, -73.9925);
-        String zipCode = "10001";
-
-        String mockResponse = """
-                {
-                    "current_weather": {
-                        "temperature": 22.5
-                    },
-                    "daily": {
-                        "temperature_2m_max": [25.0],
-                        "temperature_2m_min": [18.0]
-                    },
-                    "hourly": {
-                        "time": ["2025-04-21T00:00"],
-                        "temperature_2m": [20.5]
-                    }
-                }
-                """;
-
-        when(restTemplate.getForEntity(any(URI.class), eq(String.class)))
-                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
-
-        WeatherResponse result = openMeteoClient.getWeatherForecast(coordinates, zipCode);
-
-        assertNotNull(result);
-        assertEquals(zipCode, result.getZipCode());
-        assertEquals(22.5, result.getCurrentTemperature(), 0.0001);
-        assertEquals(25.0, result.getHighTemperature(), 0.0001);
-        assertEquals(18.0, result.getLowTemperature(), 0.0001);
-        assertFalse(result.isFromCache());
-        assertFalse(result.getHourlyForecast().isEmpty());
-    }
-
-    @Test
-    void testGetWeatherForecast_NetworkError() {
+    void testGetForecast_NetworkError() {
         Coordinates coordinates = new Coordinates(40.7305, -73.9925);
         String zipCode = "10001";
 
@@ -91,14 +74,14 @@ class OpenMeteoClientTest {
                 .thenThrow(new RestClientException("Network error"));
 
         Exception exception = assertThrows(WeatherServiceException.class, () -> {
-            openMeteoClient.getWeatherForecast(coordinates, zipCode);
+            openMeteoClient.getForecast(coordinates, zipCode, 1);
         });
 
         assertTrue(exception.getMessage().contains("Error communicating with weather service"));
     }
 
     @Test
-    void testGetWeatherForecast_InvalidJsonResponse() {
+    void testGetForecast_InvalidJsonResponse() {
         Coordinates coordinates = new Coordinates(40.7305, -73.9925);
         String zipCode = "10001";
         String invalidJson = "{invalid json}";
@@ -107,14 +90,14 @@ class OpenMeteoClientTest {
                 .thenReturn(new ResponseEntity<>(invalidJson, HttpStatus.OK));
 
         Exception exception = assertThrows(WeatherServiceException.class, () -> {
-            openMeteoClient.getWeatherForecast(coordinates, zipCode);
+            openMeteoClient.getForecast(coordinates, zipCode, 1);
         });
 
         assertTrue(exception.getMessage().contains("Error parsing weather service response"));
     }
 
     @Test
-    void testGetWeatherForecast_NullResponse() {
+    void testGetForecast_NullResponse() {
         Coordinates coordinates = new Coordinates(40.7305, -73.9925);
         String zipCode = "10001";
 
@@ -122,14 +105,14 @@ class OpenMeteoClientTest {
                 .thenReturn(new ResponseEntity<>(null, HttpStatus.OK));
 
         Exception exception = assertThrows(WeatherServiceException.class, () -> {
-            openMeteoClient.getWeatherForecast(coordinates, zipCode);
+            openMeteoClient.getForecast(coordinates, zipCode, 1);
         });
 
         assertTrue(exception.getMessage().contains("No weather data received"));
     }
 
     @Test
-    void testGetWeatherForecast_FallbackToHourlyTemperature() throws Exception {
+    void testGetForecast_FallbackToHourlyTemperature() throws Exception {
         Coordinates coordinates = new Coordinates(40.7305, -73.9925);
         String zipCode = "10001";
 
@@ -150,28 +133,87 @@ class OpenMeteoClientTest {
         when(restTemplate.getForEntity(any(URI.class), eq(String.class)))
                 .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
 
-        WeatherResponse result = openMeteoClient.getWeatherForecast(coordinates, zipCode);
+        RawForecast result = openMeteoClient.getForecast(coordinates, zipCode, 1);
+        WeatherResponse current = result.view(ForecastProjection.of("current", null, null), Instant.now(), false);
+
+        assertEquals(20.5, current.getCurrentTemperature(), 0.0001); // Should fallback to first hourly value
+    }
+
+    @Test
+    void testGetForecast_ParsesCompleteForecast() throws Exception {
+        Coordinates coordinates = new Coordinates(40.7305, -73.9925);
+
+        String mockResponse = """
+                {
+                    "utc_offset_seconds": -14400,
+                    "current_weather": {
+                        "time": "2025-04-21T02:15",
+                        "temperature": 17.2
+                    },
+                    "daily": {
+                        "time": ["2025-04-21", "2025-04-22"],
+                        "temperature_2m_max": [25.0, 26.0],
+                        "temperature_2m_min": [18.0, 19.0]
+                    },
+                    "hourly": {
+                        "time": ["2025-04-21T00:00", "2025-04-21T01:00", "2025-04-21T02:00"],
+                        "temperature_2m": [20.5, 19.0, 17.0]
+                    }
+                }
+                """;
+
+        when(restTemplate.getForEntity(any(URI.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
+
+        RawForecast result = openMeteoClient.getForecast(coordinates, "10001", 2);
+
+        assertEquals("10001", result.getZipCode());
+        assertEquals(-14400, result.getUtcOffsetSeconds());
+        assertEquals(3, result.getHourCount());
+        assertEquals(2, result.getDayCount());
+        assertEquals(LocalDateTime.of(2025, 4, 21, 2, 0), result.getLastHour());
+        String query = openMeteoClient.buildForecastUri(coordinates, 2).getQuery();
+        assertTrue(query.contains("hourly=temperature_2m"));
+        assertTrue(query.contains("daily=temperature_2m_max,temperature_2m_min"));
+        assertTrue(query.contains("current_weather=true"));
+        assertTrue(query.contains("forecast_days=2"));
+    }
+
+    @Test
+    void testGetForecast_FetchTimeFromDateAndAge() throws Exception {
+        Coordinates coordinates = new Coordinates(40.7305, -73.9925);
+        Instant generated = Instant.now().minus(2, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+
+        // A body the HTTP cache kept, received 2 hours ago when it was already 60 seconds old
+        HttpHeaders headers = new HttpHeaders();
+        headers.setDate(generated.plusSeconds(60).toEpochMilli());
+        headers.set("Age", "60");
+        when(restTemplate.getForEntity(any(URI.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("{\"current_weather\": {\"temperature\": 17.2}}", headers,
+                        HttpStatus.OK));
+
+        RawForecast result = openMeteoClient.getForecast(coordinates, "10001", 1);
 
-        assertNotNull(result);
-        assertEquals(20.5, result.getCurrentTemperature(), 0.0001); // Should fallback to first hourly value
+        assertEquals(LocalDateTime.ofInstant(generated, ZoneId.systemDefault()), result.getFetchedAt());
     }
 
     @Test
-    void testGetWeatherForecast_CircuitBreakerTest() {
+    void testGetForecast_CircuitBreakerTest() {
         Coordinates coordinates = new Coordinates(40.7305, -73.9925);
         String zipCode = "10001";
 
         // Create a new mock for this test to avoid conflicts
         CircuitBreaker testCircuitBreaker = mock(CircuitBreaker.class);
-        OpenMeteoClient testClient = new OpenMeteoClient(restTemplate, objectMapper, testCircuitBreaker);
+        OpenMeteoClient testClient = new OpenMeteoClient(restTemplate, objectMapper, testCircuitBreaker,
+                concurrencyLimiter, requestHedger, Tracer.noop());
 
         // Configure circuit breaker to throw an exception
         when(testCircuitBreaker.executeSupplier(any())).thenThrow(new RuntimeException("Circuit breaker open"));
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
-            testClient.getWeatherForecast(coordinates, zipCode);
+            testClient.getForecast(coordinates, zipCode, 1);
         });
 
         assertTrue(exception.getMessage().contains("Circuit breaker open"));
     }
-}
\ No newline at end of file
+}
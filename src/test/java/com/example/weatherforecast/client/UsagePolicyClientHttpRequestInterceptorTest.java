@@ -0,0 +1,95 @@
+package com.example.weatherforecast.client;
+
+import com.example.weatherforecast.exception.DeadlineExceededException;
+import com.example.weatherforecast.resilience.Deadline;
+import com.example.weatherforecast.tracing.Tracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.never;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class UsagePolicyClientHttpRequestInterceptorTest {
+
+    private static final URI SEARCH = URI.create("https://nominatim.openstreetmap.org/search?postalcode=10001");
+    private static final URI OTHER_SEARCH = URI.create("https://nominatim.openstreetmap.org/search?postalcode=94105");
+    private static final URI FORECAST = URI.create("https://api.open-meteo.com/v1/forecast?latitude=40.73");
+    private static final Duration DELAY = Duration.ofMillis(300);
+
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new CachingClientHttpRequestInterceptor(1024 * 1024, 64 * 1024,
+                Duration.ofHours(1), Clock.systemUTC()));
+        restTemplate.getInterceptors().add(new UsagePolicyClientHttpRequestInterceptor(
+                "nominatim.openstreetmap.org", "nominatimApi", DELAY, Tracer.noop()));
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void testNetworkCalls_SpacedByInterval() {
+        server.expect(requestTo(SEARCH)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(OTHER_SEARCH)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        long start = System.nanoTime();
+        restTemplate.getForObject(SEARCH, String.class);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(DELAY) < 0);
+        restTemplate.getForObject(OTHER_SEARCH, String.class);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(DELAY) >= 0);
+
+        server.verify();
+    }
+
+    @Test
+    void testCacheHit_NotPaced() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+        server.expect(requestTo(SEARCH))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(headers));
+        restTemplate.getForObject(SEARCH, String.class);
+
+        long start = System.nanoTime();
+        assertEquals("[]", restTemplate.getForObject(SEARCH, String.class));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(DELAY) < 0);
+
+        server.verify();
+    }
+
+    @Test
+    void testOtherHost_NotPaced() {
+        server.expect(requestTo(FORECAST)).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        long start = System.nanoTime();
+        restTemplate.getForObject(FORECAST, String.class);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(DELAY) < 0);
+
+        server.verify();
+    }
+
+    @Test
+    void testNetworkCall_AbandonedWhenDeadlineTooShort() {
+        server.expect(requestTo(SEARCH)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(never(), requestTo(OTHER_SEARCH));
+        restTemplate.getForObject(SEARCH, String.class);
+
+        try (Deadline.Scope scope = Deadline.after(Duration.ofMillis(200)).attach()) {
+            assertThrows(DeadlineExceededException.class,
+                    () -> restTemplate.getForObject(OTHER_SEARCH, String.class));
+        }
+
+        server.verify();
+    }
+}
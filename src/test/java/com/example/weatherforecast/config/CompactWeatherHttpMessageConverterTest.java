@@ -0,0 +1,97 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.model.CompactWeatherResponse;
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactWeatherHttpMessageConverterTest {
+
+    private final CompactWeatherHttpMessageConverter converter = new CompactWeatherHttpMessageConverter();
+
+    @Test
+    public void testCanWrite_OnlyWeatherResponsesInBinaryEncodings() {
+        assertTrue(converter.canWrite(WeatherResponse.class, MediaType.APPLICATION_CBOR));
+        assertTrue(converter.canWrite(WeatherResponse.class, CompactWeatherHttpMessageConverter.APPLICATION_SMILE));
+        assertFalse(converter.canWrite(WeatherResponse.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(String.class, MediaType.APPLICATION_CBOR));
+        assertFalse(converter.canRead(WeatherResponse.class, MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    public void testWrite_CborPacksSeriesWithEpochTimes() throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(createResponse(24), MediaType.APPLICATION_CBOR, message);
+
+        CompactWeatherResponse compact = new CBORMapper().readValue(message.getBodyAsBytes(),
+                CompactWeatherResponse.class);
+
+        assertEquals("10001", compact.getZipCode());
+        assertEquals(22.5f, compact.getCurrentTemperature());
+        // 2025-04-21T00:00 at UTC-4
+        assertEquals(1745208000L, compact.getHourlyStart());
+        assertEquals(3600, compact.getHourlyStep());
+        assertEquals(24, compact.getHourlyTemperatures().length);
+        assertEquals(21.0f, compact.getHourlyTemperatures()[1]);
+        assertEquals(LocalDate.of(2025, 4, 21).toEpochDay(), compact.getDailyStart());
+        assertArrayEquals(new float[] { 25.0f, 26.0f }, compact.getDailyHighTemperatures());
+    }
+
+    @Test
+    public void testWrite_SmileWhenRequested() throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(createResponse(24), CompactWeatherHttpMessageConverter.APPLICATION_SMILE, message);
+
+        CompactWeatherResponse compact = new SmileMapper().readValue(message.getBodyAsBytes(),
+                CompactWeatherResponse.class);
+
+        assertEquals(24, compact.getHourlyTemperatures().length);
+    }
+
+    @Test
+    public void testWrite_SmallerThanJson() throws Exception {
+        WeatherResponse response = createResponse(168);
+        ObjectMapper jsonMapper = new ApiClientConfig().objectMapper();
+        int jsonSize = jsonMapper.writeValueAsBytes(response).length;
+
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_CBOR, message);
+
+        assertTrue(message.getBodyAsBytes().length * 4 < jsonSize,
+                "CBOR " + message.getBodyAsBytes().length + " bytes vs JSON " + jsonSize + " bytes");
+    }
+
+    private WeatherResponse createResponse(int hours) {
+        List<WeatherResponse.HourlyForecast> hourly = new ArrayList<>();
+        for (int i = 0; i < hours; i++) {
+            hourly.add(new WeatherResponse.HourlyForecast(LocalDateTime.of(2025, 4, 21, 0, 0).plusHours(i),
+                    20.0 + i % 10));
+        }
+        List<WeatherResponse.DailyForecast> daily = List.of(
+                new WeatherResponse.DailyForecast(LocalDate.of(2025, 4, 21), 25.0, 18.0),
+                new WeatherResponse.DailyForecast(LocalDate.of(2025, 4, 22), 26.0, 19.0));
+        return WeatherResponse.builder()
+                .zipCode("10001")
+                .coordinates(new Coordinates(40.7305, -73.9925))
+                .currentTemperature(22.5)
+                .highTemperature(25.0)
+                .lowTemperature(18.0)
+                .hourlyForecast(hourly)
+                .dailyForecast(daily)
+                .timestamp(LocalDateTime.of(2025, 4, 21, 15, 30))
+                .utcOffsetSeconds(-14400)
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.weatherforecast.config;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeatherJsonModuleTest {
+
+    private final ObjectMapper reflective = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ObjectMapper generated = new ApiClientConfig().objectMapper();
+
+    @Test
+    public void testSerialize_FullForecastMatchesAnnotatedModel() throws Exception {
+        assertSameJson(createResponse(48, 3));
+    }
+
+    @Test
+    public void testSerialize_SparseForecastOmitsNullFields() throws Exception {
+        WeatherResponse response = WeatherResponse.builder()
+                .coordinates(new Coordinates(40.73, -73.99))
+                .currentTemperature(-0.0)
+                .fromCache(true)
+                .utcOffsetSeconds(-14400)
+                .build();
+
+        assertSameJson(response);
+        assertEquals("{\"coordinates\":{\"latitude\":40.73,\"longitude\":-73.99},\"currentTemperature\":-0.0,"
+                + "\"fromCache\":true}", generated.writeValueAsString(response));
+    }
+
+    @Test
+    public void testSerialize_ApproximateForecast() throws Exception {
+        WeatherResponse response = createResponse(24, 0).toBuilder()
+                .approximate(true)
+                .approximateDistanceKm(12.345)
+                .build();
+
+        assertSameJson(response);
+    }
+
+    @Test
+    public void testSerialize_UnusualTimestamps() throws Exception {
+        List<WeatherResponse.HourlyForecast> hourly = new ArrayList<>();
+        hourly.add(new WeatherResponse.HourlyForecast(null, 1.5));
+        hourly.add(new WeatherResponse.HourlyForecast(LocalDateTime.of(999, 1, 2, 3, 4, 5), 2.5));
+        hourly.add(new WeatherResponse.HourlyForecast(LocalDateTime.of(2025, 12, 31, 23, 59, 59, 999), 3.5));
+        WeatherResponse response = WeatherResponse.builder()
+                .hourlyForecast(hourly)
+                .dailyForecast(List.of(new WeatherResponse.DailyForecast(LocalDate.of(2025, 1, 9), 1, 0)))
+                .timestamp(LocalDateTime.of(2025, 4, 21, 9, 0))
+                .build();
+
+        assertSameJson(response);
+        assertSameJson(hourly);
+    }
+
+    @Test
+    public void testSerialize_HonoursMapperIndentation() throws Exception {
+        WeatherResponse response = createResponse(2, 2);
+
+        assertEquals(reflective.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(response),
+                generated.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(response));
+    }
+
+    @Test
+    public void testSerialize_RoundTrips() throws Exception {
+        WeatherResponse response = createResponse(24, 2);
+
+        WeatherResponse parsed = generated.readValue(generated.writeValueAsBytes(response), WeatherResponse.class);
+
+        assertEquals(response.getHourlyForecast(), parsed.getHourlyForecast());
+        assertEquals(response.getDailyForecast(), parsed.getDailyForecast());
+        // The timestamp format has second precision
+        assertEquals(response.getTimestamp().withNano(0), parsed.getTimestamp());
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertEquals(reflective.writeValueAsString(value), generated.writeValueAsString(value));
+        assertArrayEquals(reflective.writeValueAsBytes(value), generated.writeValueAsBytes(value));
+    }
+
+    private WeatherResponse createResponse(int hours, int days) {
+        List<WeatherResponse.HourlyForecast> hourly = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2025, 4, 21, 0, 0);
+        for (int i = 0; i < hours; i++) {
+            hourly.add(new WeatherResponse.HourlyForecast(start.plusHours(i), 12.3 + (i % 17) * 0.7));
+        }
+        List<WeatherResponse.DailyForecast> daily = null;
+        if (days > 0) {
+            daily = new ArrayList<>();
+            for (int i = 0; i < days; i++) {
+                daily.add(new WeatherResponse.DailyForecast(LocalDate.of(2025, 4, 21).plusDays(i), 20 + i, 10 - i));
+            }
+        }
+        return WeatherResponse.builder()
+                .zipCode("10001")
+                .coordinates(new Coordinates(40.7305, -73.9925))
+                .currentTemperature(22.5)
+                .highTemperature(25.0)
+                .lowTemperature(18.0)
+                .hourlyForecast(hourly)
+                .dailyForecast(daily)
+                .timestamp(LocalDateTime.of(2025, 4, 21, 9, 30, 15, 123_000_000))
+                .fromCache(false)
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.config.ApiClientConfig;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.resilience.ClientRateLimiter;
+import com.example.weatherforecast.service.CoordinateGrid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class ClientRateLimitInterceptorTest {
+
+    @Mock
+    private WeatherCacheRepository cacheRepository;
+
+    private ClientRateLimiter requestLimiter;
+    private ClientRateLimiter upstreamLimiter;
+    private ClientRateLimitInterceptor interceptor;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        requestLimiter = new ClientRateLimiter("requests", 1, 5, 100, Duration.ofMinutes(5), 4);
+        upstreamLimiter = new ClientRateLimiter("upstream", 0.1, 1, 100, Duration.ofMinutes(5), 4);
+        interceptor = new ClientRateLimitInterceptor(requestLimiter, upstreamLimiter, cacheRepository,
+                new CoordinateGrid(2), new ApiClientConfig().objectMapper(), "X-API-Key");
+    }
+
+    @Test
+    public void testPreHandle_CacheHitsUseRequestLimitOnly() throws Exception {
+        when(cacheRepository.isInCache("10001_US")).thenReturn(true);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(interceptor.preHandle(zipCodeRequest("10001", "10.0.0.1"), new MockHttpServletResponse(),
+                    null));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(zipCodeRequest("10001", "10.0.0.1"), response, null));
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Too Many Requests"));
+        assertEquals(0, upstreamLimiter.getAllowedCount());
+    }
+
+    @Test
+    public void testPreHandle_MissesUseStricterUpstreamLimit() throws Exception {
+        when(cacheRepository.isInCache(anyString())).thenReturn(false);
+
+        assertTrue(interceptor.preHandle(zipCodeRequest("10001", "10.0.0.1"), new MockHttpServletResponse(), null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(zipCodeRequest("94105", "10.0.0.1"), response, null));
+        assertEquals(429, response.getStatus());
+        assertEquals("10", response.getHeader("Retry-After"));
+        // Another client is not affected
+        assertTrue(interceptor.preHandle(zipCodeRequest("94105", "10.0.0.2"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    public void testPreHandle_CoordinatesAreRoundedBeforeCacheCheck() throws Exception {
+        when(cacheRepository.isInCache("@40.73,-73.99")).thenReturn(true);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = request("/api/weather/coordinates", "10.0.0.1");
+            request.setParameter("lat", "40.7305");
+            request.setParameter("lon", "-73.9925");
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        }
+
+        assertEquals(0, upstreamLimiter.getAllowedCount());
+    }
+
+    @Test
+    public void testPreHandle_ApiKeyIdentifiesClient() throws Exception {
+        when(cacheRepository.isInCache(anyString())).thenReturn(false);
+
+        MockHttpServletRequest first = zipCodeRequest("10001", "10.0.0.1");
+        first.addHeader("X-API-Key", "partner-a");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+        // Same address, different key
+        MockHttpServletRequest second = zipCodeRequest("10001", "10.0.0.1");
+        second.addHeader("X-API-Key", "partner-b");
+        assertTrue(interceptor.preHandle(second, new MockHttpServletResponse(), null));
+        MockHttpServletRequest third = zipCodeRequest("10001", "10.0.0.9");
+        third.addHeader("X-API-Key", "partner-a");
+
+        assertFalse(interceptor.preHandle(third, new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    public void testPreHandle_StreamChargedPerUncachedZipCode() throws Exception {
+        ClientRateLimiter burstyUpstreamLimiter = new ClientRateLimiter("upstream", 0.1, 3, 100,
+                Duration.ofMinutes(5), 4);
+        ClientRateLimitInterceptor streamInterceptor = new ClientRateLimitInterceptor(requestLimiter,
+                burstyUpstreamLimiter, cacheRepository, new CoordinateGrid(2), new ApiClientConfig().objectMapper(),
+                "X-API-Key");
+        when(cacheRepository.isInCache(anyString())).thenReturn(false);
+        when(cacheRepository.isInCache("10001_US")).thenReturn(true);
+
+        assertTrue(streamInterceptor.preHandle(streamRequest("10001,94105,60601", "10.0.0.1"),
+                new MockHttpServletResponse(), null));
+        // Two of the three tokens are gone, so two more uncached codes are over the limit
+        assertFalse(streamInterceptor.preHandle(streamRequest("02101,73301", "10.0.0.1"),
+                new MockHttpServletResponse(), null));
+        assertTrue(streamInterceptor.preHandle(streamRequest("02101", "10.0.0.1"), new MockHttpServletResponse(),
+                null));
+    }
+
+    @Test
+    public void testPreHandle_ExposesClientId() throws Exception {
+        MockHttpServletRequest request = request("/api/weather/export", "10.0.0.1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/weather/export");
+        request.addHeader("X-API-Key", "partner-a");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        assertEquals("key:partner-a", request.getAttribute(ClientRateLimitInterceptor.CLIENT_ID_ATTRIBUTE));
+        assertEquals(0, upstreamLimiter.getAllowedCount());
+    }
+
+    private MockHttpServletRequest streamRequest(String zipCodes, String address) {
+        MockHttpServletRequest request = request("/api/weather/stream", address);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/weather/stream");
+        request.setParameter("zipCodes", zipCodes);
+        return request;
+    }
+
+    private MockHttpServletRequest zipCodeRequest(String zipCode, String address) {
+        MockHttpServletRequest request = request("/api/weather/zipcode/" + zipCode, address);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/weather/zipcode/{zipCode}");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("zipCode", zipCode));
+        return request;
+    }
+
+    private MockHttpServletRequest request(String uri, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(address);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/weather/coordinates");
+        return request;
+    }
+}
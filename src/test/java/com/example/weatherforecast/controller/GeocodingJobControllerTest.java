@@ -0,0 +1,158 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.GlobalExceptionHandler;
+import com.example.weatherforecast.exception.InvalidRequestException;
+import com.example.weatherforecast.model.GeocodingJobStatus;
+import com.example.weatherforecast.service.BulkGeocoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GeocodingJobControllerTest {
+
+    private static final String JOBS = "/api/weather/geocode/jobs";
+    private static final String LINE = "{\"zipCode\":\"10001\",\"countryCode\":\"US\",\"skipped\":true}\n";
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private BulkGeocoder bulkGeocoder;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new GeocodingJobController(bulkGeocoder))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    public void testSubmitList_AcceptedWithLocation() throws Exception {
+        when(bulkGeocoder.submit(any(Reader.class), eq("CA"))).thenReturn(jobStatus("job-1"));
+
+        mockMvc.perform(post(JOBS)
+                .param("countryCode", "CA")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("M5V 2T6\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", JOBS + "/job-1"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    @Test
+    public void testSubmitFile_AcceptedWithLocation() throws Exception {
+        when(bulkGeocoder.submit(any(Reader.class), eq("US"))).thenReturn(jobStatus("job-2"));
+        MockMultipartFile file = new MockMultipartFile("file", "zips.csv", "text/csv",
+                "10001\n94105\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart(JOBS).file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", JOBS + "/job-2"))
+                .andExpect(jsonPath("$.total").value(2));
+    }
+
+    @Test
+    public void testSubmitList_EmptyList() throws Exception {
+        when(bulkGeocoder.submit(any(Reader.class), anyString()))
+                .thenThrow(new InvalidRequestException("The list holds no postal codes"));
+
+        mockMvc.perform(post(JOBS)
+                .contentType(MediaType.TEXT_PLAIN)
+                .content(""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("The list holds no postal codes"));
+    }
+
+    @Test
+    public void testSubmitList_TooManyPendingJobs() throws Exception {
+        when(bulkGeocoder.submit(any(Reader.class), anyString()))
+                .thenThrow(new ConcurrencyLimitExceededException("Too many geocoding jobs in progress"));
+
+        mockMvc.perform(post(JOBS)
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("10001\n"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
+    @Test
+    public void testGetStatus() throws Exception {
+        when(bulkGeocoder.getStatus("job-1")).thenReturn(jobStatus("job-1"));
+
+        mockMvc.perform(get(JOBS + "/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value("job-1"));
+        mockMvc.perform(get(JOBS + "/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testGetResults() throws Exception {
+        when(bulkGeocoder.getStatus("job-1")).thenReturn(jobStatus("job-1"));
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write(LINE.getBytes(StandardCharsets.UTF_8));
+            return true;
+        }).when(bulkGeocoder).copyResults(eq("job-1"), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get(JOBS + "/job-1/results"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(LINE));
+    }
+
+    @Test
+    public void testGetResults_UnknownJob() throws Exception {
+        mockMvc.perform(get(JOBS + "/unknown/results"))
+                .andExpect(status().isNotFound());
+        verify(bulkGeocoder, never()).copyResults(anyString(), any());
+    }
+
+    private static GeocodingJobStatus jobStatus(String id) {
+        return GeocodingJobStatus.builder()
+                .id(id)
+                .state(GeocodingJobStatus.State.QUEUED)
+                .total(2)
+                .submittedAt(Instant.parse("2025-04-21T10:00:00Z"))
+                .updatedAt(Instant.parse("2025-04-21T10:00:00Z"))
+                .build();
+    }
+}
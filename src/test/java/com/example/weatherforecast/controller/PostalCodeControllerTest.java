@@ -0,0 +1,91 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.exception.GlobalExceptionHandler;
+import com.example.weatherforecast.repository.PostalCodeIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PostalCodeControllerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        PostalCodeIndex postalCodeIndex = new PostalCodeIndex.Builder()
+                .add("US", "10001", "New York", 40.7484, -73.9967)
+                .add("US", "10002", "New York", 40.7152, -73.9877)
+                .add("US", "10010", "New York", 40.7393, -73.9817)
+                .add("GB", "SW1A 1AA", "London", 51.501, -0.1416)
+                .build();
+        mockMvc = MockMvcBuilders.standaloneSetup(new PostalCodeController(postalCodeIndex, 2, 3600))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    public void testSuggest_Success() throws Exception {
+        mockMvc.perform(get("/api/postal/suggest").param("prefix", " 100 "))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].postalCode").value("10001"))
+                .andExpect(jsonPath("$[0].countryCode").value("US"))
+                .andExpect(jsonPath("$[0].placeName").value("New York"))
+                .andExpect(jsonPath("$[0].coordinates.latitude").value(40.7484));
+    }
+
+    @Test
+    public void testSuggest_LimitAndCountry() throws Exception {
+        mockMvc.perform(get("/api/postal/suggest")
+                .param("prefix", "sw1")
+                .param("country", "GB")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].postalCode").value("SW1A 1AA"));
+    }
+
+    @Test
+    public void testSuggest_NoMatches() throws Exception {
+        mockMvc.perform(get("/api/postal/suggest").param("prefix", "99"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void testSuggest_InvalidPrefix() throws Exception {
+        mockMvc.perform(get("/api/postal/suggest").param("prefix", "  "))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("prefix must be 1 to 12 characters"));
+        mockMvc.perform(get("/api/postal/suggest").param("prefix", "1234567890123"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSuggest_InvalidCountryOrLimit() throws Exception {
+        mockMvc.perform(get("/api/postal/suggest")
+                .param("prefix", "100")
+                .param("country", "USA"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("country must be an ISO 3166-1 alpha-2 code"));
+        mockMvc.perform(get("/api/postal/suggest")
+                .param("prefix", "100")
+                .param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("limit must be positive"));
+    }
+}
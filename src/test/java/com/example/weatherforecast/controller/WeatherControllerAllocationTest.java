@@ -0,0 +1,244 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.client.CachingClientHttpRequestInterceptor;
+import com.example.weatherforecast.client.NominatimClient;
+import com.example.weatherforecast.client.OpenMeteoClient;
+import com.example.weatherforecast.config.ApiClientConfig;
+import com.example.weatherforecast.exception.GeocodingException;
+import com.example.weatherforecast.exception.WeatherServiceException;
+import com.example.weatherforecast.management.HotKeyTracker;
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.repository.GeocodingCache;
+import com.example.weatherforecast.repository.PostalCodeIndex;
+import com.example.weatherforecast.repository.SpatialForecastIndex;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.resilience.AdaptiveConcurrencyLimiter;
+import com.example.weatherforecast.resilience.AdmissionController;
+import com.example.weatherforecast.resilience.LatencyHistogram;
+import com.example.weatherforecast.resilience.RequestHedger;
+import com.example.weatherforecast.service.CoordinateGrid;
+import com.example.weatherforecast.service.CurrentConditionsDeriver;
+import com.example.weatherforecast.service.NearestForecastFallback;
+import com.example.weatherforecast.service.impl.GeocodingServiceImpl;
+import com.example.weatherforecast.service.impl.WeatherServiceImpl;
+import com.example.weatherforecast.tracing.Tracer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets of {@code GET /api/weather/zipcode/{zipCode}}. The
+ * controller runs on the real service, cache and client stack, with the
+ * upstreams stubbed at the HTTP request factory and hedging off so every
+ * request stays on the calling thread. Bytes allocated per request, including
+ * JSON serialization of the response, are read from the thread's allocation
+ * counter after the JIT has warmed up.
+ * <p>
+ * Budgets can be tightened or relaxed with system properties, e.g.
+ * {@code mvn test -Dweather.allocation.hit-path-bytes=32768}.
+ */
+public class WeatherControllerAllocationTest {
+
+    private static final long HIT_PATH_BUDGET = Long.getLong("weather.allocation.hit-path-bytes", 48 * 1024);
+    private static final long MISS_PATH_BUDGET = Long.getLong("weather.allocation.miss-path-bytes", 512 * 1024);
+    private static final long REJECTED_PATH_BUDGET = Long.getLong("weather.allocation.rejected-path-bytes",
+            64 * 1024);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("weather.allocation.warmup-requests", 3000);
+    private static final int MEASURED_REQUESTS = Integer.getInteger("weather.allocation.measured-requests", 1000);
+
+    private static final String ZIP_CODE = "10001";
+    private static final String COUNTRY_CODE = "US";
+
+    private final ObjectMapper objectMapper = new ApiClientConfig().objectMapper();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private CaffeineCacheManager cacheManager;
+    private HotKeyTracker hotKeyTracker;
+    private WeatherController weatherController;
+
+    @BeforeEach
+    public void setup() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        byte[] forecast = forecastJson(LocalDate.now(ZoneOffset.UTC).minusDays(1), 10);
+        ClientHttpRequestFactory upstream = (uri, method) -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(forecast, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(response);
+            return request;
+        };
+        RestTemplate restTemplate = new ApiClientConfig().restTemplate(upstream,
+                new CachingClientHttpRequestInterceptor(16 * 1024 * 1024, 512 * 1024, Duration.ofHours(1),
+                        Clock.systemUTC()), Tracer.noop());
+        // Invalid postal codes must not open the breaker, or the rejected path would change midway
+        CircuitBreakerConfig breakerConfig = CircuitBreakerConfig.custom()
+                .ignoreExceptions(GeocodingException.class)
+                .build();
+
+        NominatimClient nominatimClient = new NominatimClient(restTemplate, objectMapper,
+                CircuitBreaker.of("nominatimApi", breakerConfig), new AdaptiveConcurrencyLimiter("nominatimApi", 100,
+                        100, 100, 0.9, Duration.ofMinutes(1), Duration.ZERO, 0), Tracer.noop());
+        OpenMeteoClient openMeteoClient = new OpenMeteoClient(restTemplate, objectMapper,
+                CircuitBreaker.of("openMeteoApi", breakerConfig), new AdaptiveConcurrencyLimiter("openMeteoApi", 100,
+                        100, 100, 0.9, Duration.ofMinutes(1), Duration.ZERO, 0),
+                new RequestHedger(false, 95, Duration.ZERO, 0, 0, new LatencyHistogram(Duration.ofMinutes(1)), null),
+                Tracer.noop());
+        GeocodingCache geocodingCache = new GeocodingCache(1000);
+        // Nominatim lookups pause for its usage policy, so the miss path starts from a geocoded zip code
+        geocodingCache.put(ZIP_CODE, COUNTRY_CODE, new Coordinates(40.7484, -73.9967));
+
+        cacheManager = new CaffeineCacheManager("weatherCache");
+        WeatherCacheRepository cacheRepository = new WeatherCacheRepository(cacheManager,
+                new SpatialForecastIndex(25));
+        CurrentConditionsDeriver currentConditionsDeriver = new CurrentConditionsDeriver(false, 6,
+                Clock.systemUTC());
+        WeatherServiceImpl weatherService = new WeatherServiceImpl(
+                new GeocodingServiceImpl(nominatimClient, geocodingCache), openMeteoClient, currentConditionsDeriver,
+                cacheRepository, new NearestForecastFallback(cacheRepository, new SimpleMeterRegistry(), true, 25),
+                PostalCodeIndex.empty(), Tracer.noop(), 8);
+        hotKeyTracker = new HotKeyTracker(true, 1024, 4, 100, Duration.ofHours(1));
+        weatherController = new WeatherController(weatherService, cacheRepository, currentConditionsDeriver,
+                new CoordinateGrid(2), Tracer.noop(), new AdmissionController(100, Duration.ofMinutes(1),
+                        Duration.ofSeconds(1)), hotKeyTracker);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (hotKeyTracker != null) {
+            hotKeyTracker.close();
+        }
+    }
+
+    @Test
+    public void testHitPath_WithinBudget() {
+        WeatherResponse first = request(ZIP_CODE);
+        assertFalse(first.isFromCache());
+        assertTrue(request(ZIP_CODE).isFromCache());
+
+        long bytes = allocatedBytesPerRequest(() -> {
+        }, () -> request(ZIP_CODE));
+
+        assertWithinBudget("hit", bytes, HIT_PATH_BUDGET);
+    }
+
+    @Test
+    public void testMissPath_WithinBudget() {
+        Runnable evict = () -> cacheManager.getCache("weatherCache")
+                .evict(WeatherCacheRepository.zipCodeKey(ZIP_CODE, COUNTRY_CODE));
+        evict.run();
+        assertFalse(request(ZIP_CODE).isFromCache());
+
+        long bytes = allocatedBytesPerRequest(evict, () -> request(ZIP_CODE));
+
+        assertWithinBudget("miss", bytes, MISS_PATH_BUDGET);
+    }
+
+    @Test
+    public void testRejectedPostalCode_WithinBudget() {
+        assertThrows(WeatherServiceException.class, () -> request("ABCDE"));
+
+        long bytes = allocatedBytesPerRequest(() -> {
+        }, () -> {
+            try {
+                request("ABCDE");
+                fail("Invalid postal code accepted");
+            } catch (WeatherServiceException e) {
+                // Expected; the handler turns it into a 500 response
+            }
+        });
+
+        assertWithinBudget("rejected postal code", bytes, REJECTED_PATH_BUDGET);
+    }
+
+    private WeatherResponse request(String zipCode) {
+        ResponseEntity<WeatherResponse> response = weatherController.getWeatherByZipCode(zipCode, COUNTRY_CODE, null,
+                null, null);
+        try {
+            objectMapper.writeValue(OutputStream.nullOutputStream(), response.getBody());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return response.getBody();
+    }
+
+    /**
+     * Runs warm-up requests, then averages the bytes allocated by the measured
+     * requests, leaving out the setup run before each one.
+     */
+    private long allocatedBytesPerRequest(Runnable setup, Runnable request) {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            setup.run();
+            request.run();
+        }
+        long total = 0;
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            setup.run();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            request.run();
+            total += threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        return total / MEASURED_REQUESTS;
+    }
+
+    private static void assertWithinBudget(String path, long bytes, long budget) {
+        assertTrue(bytes <= budget, () -> String.format(
+                "The %s path allocated %,d bytes per request, over its budget of %,d bytes", path, bytes, budget));
+    }
+
+    /**
+     * An Open-Meteo response with hourly temperatures and daily highs and lows
+     * for a number of days, in UTC.
+     */
+    private static byte[] forecastJson(LocalDate start, int days) {
+        StringJoiner hourlyTimes = new StringJoiner(",");
+        StringJoiner hourlyTemperatures = new StringJoiner(",");
+        StringJoiner dailyTimes = new StringJoiner(",");
+        StringJoiner highs = new StringJoiner(",");
+        StringJoiner lows = new StringJoiner(",");
+        for (int day = 0; day < days; day++) {
+            LocalDate date = start.plusDays(day);
+            dailyTimes.add("\"" + date + "\"");
+            highs.add("25.0");
+            lows.add("15.0");
+            for (int hour = 0; hour < 24; hour++) {
+                hourlyTimes.add("\"" + date.atTime(hour, 0) + "\"");
+                hourlyTemperatures.add(String.valueOf(15.0 + hour % 12));
+            }
+        }
+        return ("{\"latitude\":40.75,\"longitude\":-74.0,\"utc_offset_seconds\":0,"
+                + "\"current_weather\":{\"temperature\":21.5},"
+                + "\"hourly\":{\"time\":[" + hourlyTimes + "],\"temperature_2m\":[" + hourlyTemperatures + "]},"
+                + "\"daily\":{\"time\":[" + dailyTimes + "],\"temperature_2m_max\":[" + highs + "],"
+                + "\"temperature_2m_min\":[" + lows + "]}}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,28 +1,54 @@
 package com.example.weatherforecast.controller;
 
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.DeadlineExceededException;
 import com.example.weatherforecast.exception.WeatherServiceException;
+import com.example.weatherforecast.management.HotKeyTracker;
 import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.RawForecast;
 import com.example.weatherforecast.model.WeatherResponse;
 import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.resilience.AdmissionController;
+import com.example.weatherforecast.service.CoordinateGrid;
+import com.example.weatherforecast.service.CurrentConditionsDeriver;
 import com.example.weatherforecast.service.WeatherService;
+import com.example.weatherforecast.tracing.Tracer;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -36,6 +62,23 @@ public class WeatherControllerTest {
     @Mock
     private WeatherCacheRepository cacheRepository;
 
+    @Spy
+    private CurrentConditionsDeriver currentConditionsDeriver = new CurrentConditionsDeriver(false, 6,
+            Clock.systemUTC());
+
+    @Spy
+    private CoordinateGrid coordinateGrid = new CoordinateGrid(2);
+
+    @Spy
+    private Tracer tracer = Tracer.noop();
+
+    @Spy
+    private AdmissionController admissionController = new AdmissionController(100, Duration.ofMinutes(1),
+            Duration.ofSeconds(1));
+
+    @Spy
+    private HotKeyTracker hotKeyTracker = new HotKeyTracker(true, 256, 4, 10, Duration.ofHours(1));
+
     @InjectMocks
     private WeatherController weatherController;
 
@@ -45,6 +88,11 @@ public class WeatherControllerTest {
         mockMvc = MockMvcBuilders.standaloneSetup(weatherController).build();
     }
 
+    @AfterEach
+    public void tearDown() {
+        hotKeyTracker.close();
+    }
+
     @Test
     public void testGetWeatherByZipCode_Success() throws Exception {
         // Prepare test data
@@ -67,7 +115,8 @@ public class WeatherControllerTest {
 
         // Configure mocks
         when(cacheRepository.isInCache(zipCode + "_" + countryCode)).thenReturn(false);
-        when(weatherService.getWeatherForecast(zipCode, countryCode)).thenReturn(mockResponse);
+        when(weatherService.getWeatherForecast(zipCode, countryCode, ForecastProjection.DEFAULT, null))
+                .thenReturn(mockResponse);
 
         // Perform test
         mockMvc.perform(get("/api/weather/zipcode/" + zipCode)
@@ -87,24 +136,11 @@ public class WeatherControllerTest {
         String zipCode = "10001";
         String countryCode = "US";
 
-        Coordinates coordinates = new Coordinates(40.7305, -73.9925);
-        List<WeatherResponse.HourlyForecast> hourlyForecasts = new ArrayList<>();
-        hourlyForecasts.add(new WeatherResponse.HourlyForecast(LocalDateTime.now(), 20.5));
-
-        WeatherResponse mockResponse = WeatherResponse.builder()
-                .zipCode(zipCode)
-                .coordinates(coordinates)
-                .currentTemperature(22.5)
-                .highTemperature(25.0)
-                .lowTemperature(18.0)
-                .hourlyForecast(hourlyForecasts)
-                .timestamp(LocalDateTime.now())
-                .fromCache(true)
-                .build();
+        RawForecast mockForecast = cachedForecast(zipCode, new Coordinates(40.7305, -73.9925));
 
         // Configure mocks - these are likely not being set up correctly
         when(cacheRepository.isInCache(anyString())).thenReturn(true);
-        when(cacheRepository.getFromCache(anyString())).thenReturn(mockResponse);
+        when(cacheRepository.getFromCache(anyString())).thenReturn(mockForecast);
 
         // Execute the request and print the response content
         MvcResult result = mockMvc.perform(get("/api/weather/zipcode/" + zipCode)
@@ -136,7 +172,7 @@ public class WeatherControllerTest {
         String countryCode = "US";
 
         when(cacheRepository.isInCache(zipCode + "_" + countryCode)).thenReturn(false);
-        when(weatherService.getWeatherForecast(zipCode, countryCode))
+        when(weatherService.getWeatherForecast(zipCode, countryCode, ForecastProjection.DEFAULT, null))
                 .thenThrow(new WeatherServiceException("External API error"));
 
         // First, capture the response to see what's actually returned
@@ -164,7 +200,7 @@ public class WeatherControllerTest {
         String countryCode = "XX"; // Invalid country code
 
         when(cacheRepository.isInCache(zipCode + "_" + countryCode)).thenReturn(false);
-        when(weatherService.getWeatherForecast(zipCode, countryCode))
+        when(weatherService.getWeatherForecast(zipCode, countryCode, ForecastProjection.DEFAULT, null))
                 .thenThrow(new WeatherServiceException("Invalid country code"));
 
         // First, capture the response to see what's actually returned
@@ -185,6 +221,26 @@ public class WeatherControllerTest {
                 .andExpect(jsonPath("$.message").exists()); // Changed from errorMessage to message
     }
 
+    @Test
+    public void testGetWeatherByZipCode_DeadlineExceeded() throws Exception {
+        when(weatherService.getWeatherForecast("10001", "US", ForecastProjection.DEFAULT, null))
+                .thenThrow(new DeadlineExceededException("Deadline exceeded before the weather service responded"));
+        when(weatherService.getWeatherForecast(eq(new Coordinates(40.73, -73.99)), any(ForecastProjection.class),
+                isNull()))
+                .thenThrow(new DeadlineExceededException("Deadline exceeded before the weather service responded"));
+
+        mockMvc.perform(get("/api/weather/zipcode/10001")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.status").value(504))
+                .andExpect(jsonPath("$.message").exists());
+        mockMvc.perform(get("/api/weather/coordinates")
+                .param("lat", "40.7305")
+                .param("lon", "-73.9925")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isGatewayTimeout());
+    }
+
     @Test
     public void testGetWeatherByZipCode_DefaultCountryCode() throws Exception {
         String zipCode = "10001";
@@ -202,7 +258,8 @@ public class WeatherControllerTest {
                 .build();
 
         when(cacheRepository.isInCache(zipCode + "_US")).thenReturn(false);
-        when(weatherService.getWeatherForecast(zipCode, "US")).thenReturn(mockResponse);
+        when(weatherService.getWeatherForecast(zipCode, "US", ForecastProjection.DEFAULT, null))
+                .thenReturn(mockResponse);
 
         mockMvc.perform(get("/api/weather/zipcode/" + zipCode)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -210,4 +267,241 @@ public class WeatherControllerTest {
                 .andExpect(jsonPath("$.zipCode").value(zipCode));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testGetWeatherByZipCode_SparseProjection() throws Exception {
+        String zipCode = "10001";
+
+        WeatherResponse mockResponse = WeatherResponse.builder()
+                .zipCode(zipCode)
+                .coordinates(new Coordinates(40.7305, -73.9925))
+                .currentTemperature(22.5)
+                .timestamp(LocalDateTime.now())
+                .fromCache(false)
+                .build();
+
+        when(cacheRepository.isInCache(zipCode + "_US")).thenReturn(false);
+        when(weatherService.getWeatherForecast(eq(zipCode), eq("US"), any(ForecastProjection.class), isNull()))
+                .thenReturn(mockResponse);
+
+        mockMvc.perform(get("/api/weather/zipcode/" + zipCode)
+                .param("fields", "current")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentTemperature").value(22.5))
+                .andExpect(jsonPath("$.highTemperature").doesNotExist())
+                .andExpect(jsonPath("$.hourlyForecast").doesNotExist());
+    }
+
+    @Test
+    public void testGetWeatherByZipCode_InvalidProjection() throws Exception {
+        mockMvc.perform(get("/api/weather/zipcode/10001")
+                .param("hours", "500")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    public void testGetWeatherByCoordinates_RoundsAndSkipsGeocoding() throws Exception {
+        Coordinates rounded = new Coordinates(40.73, -73.99);
+        WeatherResponse mockResponse = WeatherResponse.builder()
+                .coordinates(rounded)
+                .currentTemperature(22.5)
+                .highTemperature(25.0)
+                .lowTemperature(18.0)
+                .hourlyForecast(new ArrayList<>())
+                .timestamp(LocalDateTime.now())
+                .fromCache(false)
+                .build();
+
+        when(weatherService.getWeatherForecast(rounded, ForecastProjection.DEFAULT, null)).thenReturn(mockResponse);
+
+        mockMvc.perform(get("/api/weather/coordinates")
+                .param("lat", "40.7305")
+                .param("lon", "-73.9925")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.coordinates.latitude").value(40.73))
+                .andExpect(jsonPath("$.zipCode").doesNotExist());
+    }
+
+    @Test
+    public void testGetWeatherByCoordinates_InvalidCoordinates() throws Exception {
+        mockMvc.perform(get("/api/weather/coordinates")
+                .param("lat", "91")
+                .param("lon", "0")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/weather/coordinates")
+                .param("lat", "abc")
+                .param("lon", "0")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/weather/coordinates")
+                .param("lat", "40.7")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetWeatherByZipCode_OverloadedShedsMissesButServesHits() throws Exception {
+        RawForecast cachedForecast = cachedForecast("10001", new Coordinates(40.7305, -73.9925));
+
+        doThrow(new ConcurrencyLimitExceededException("Server is overloaded"))
+                .when(admissionController).execute(any());
+        when(cacheRepository.isInCache("10001_US")).thenReturn(true);
+        when(cacheRepository.getFromCache("10001_US")).thenReturn(cachedForecast);
+        when(cacheRepository.isInCache("94105_US")).thenReturn(false);
+
+        mockMvc.perform(get("/api/weather/zipcode/10001")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromCache").value(true));
+        mockMvc.perform(get("/api/weather/zipcode/94105")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        verify(weatherService, never()).getWeatherForecast(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    public void testGetWeatherByCoordinates_ServesCachedForecastWithoutAdmission() throws Exception {
+        RawForecast cachedForecast = cachedForecast(null, new Coordinates(40.73, -73.99));
+
+        doThrow(new ConcurrencyLimitExceededException("Server is overloaded"))
+                .when(admissionController).execute(any());
+        when(cacheRepository.getFromCache("@40.73,-73.99")).thenReturn(cachedForecast);
+
+        mockMvc.perform(get("/api/weather/coordinates")
+                .param("lat", "40.7305")
+                .param("lon", "-73.9925")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromCache").value(true));
+        mockMvc.perform(get("/api/weather/coordinates")
+                .param("lat", "51.5")
+                .param("lon", "-0.12")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void testViewsByZipCode_ServedFromOneCachedForecast() throws Exception {
+        when(cacheRepository.getFromCache("10001_US")).thenReturn(cachedForecast("10001",
+                new Coordinates(40.7305, -73.9925)));
+
+        mockMvc.perform(get("/api/weather/zipcode/10001/daily"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dailyForecast.length()").value(7))
+                .andExpect(jsonPath("$.hourlyForecast").doesNotExist())
+                .andExpect(jsonPath("$.currentTemperature").doesNotExist());
+        mockMvc.perform(get("/api/weather/zipcode/10001/hourly").param("hours", "12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hourlyForecast.length()").value(12))
+                .andExpect(jsonPath("$.highTemperature").doesNotExist());
+        mockMvc.perform(get("/api/weather/zipcode/10001/current"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentTemperature").value(22.5))
+                .andExpect(jsonPath("$.fromCache").value(true));
+        mockMvc.perform(get("/api/weather/zipcode/10001/daily").param("days", "20"))
+                .andExpect(status().isBadRequest());
+        verify(weatherService, never()).getWeatherForecast(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    public void testRequestsCountedTowardsHotKeys() throws Exception {
+        when(cacheRepository.getFromCache("10001_US")).thenReturn(cachedForecast("10001",
+                new Coordinates(40.7305, -73.9925)));
+        when(weatherService.getWeatherForecast("94105", "US", ForecastProjection.DEFAULT, null))
+                .thenReturn(WeatherResponse.builder()
+                        .zipCode("94105")
+                        .timestamp(LocalDateTime.now())
+                        .build());
+
+        mockMvc.perform(get("/api/weather/zipcode/10001")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/weather/zipcode/10001/current")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/weather/zipcode/94105")).andExpect(status().isOk());
+
+        HotKeyTracker.Report report = hotKeyTracker.report(5);
+        assertEquals("10001_US", report.byRequests().get(0).key());
+        assertEquals(2, report.byRequests().get(0).requests());
+        assertEquals(1, report.byMisses().size());
+        assertEquals("94105_US", report.byMisses().get(0).key());
+        assertEquals(1.0, report.byMisses().get(0).missRatio(), 0.0001);
+        assertEquals("94105_US", report.byUpstreamTime().get(0).key());
+        assertTrue(report.byUpstreamTime().get(0).upstreamMillis() > 0);
+    }
+
+    @Test
+    public void testGetCurrentByZipCode_DerivedFromHoursOldForecast() throws Exception {
+        CurrentConditionsDeriver deriver = new CurrentConditionsDeriver(true, 6, Clock.systemUTC());
+        WeatherController derivingController = new WeatherController(weatherService, cacheRepository, deriver,
+                coordinateGrid, tracer, admissionController, hotKeyTracker);
+        MockMvc derivingMockMvc = MockMvcBuilders.standaloneSetup(derivingController).build();
+        // Fetched four hours ago; the series warms by one degree per hour from then on
+        LocalDateTime fetchHour = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusHours(4);
+        double[] series = new double[48];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = i;
+        }
+        when(cacheRepository.getFromCache("10001_US")).thenReturn(new RawForecast("10001",
+                new Coordinates(40.7305, -73.9925), 0, fetchHour, -40.0, fetchHour, series,
+                fetchHour.toLocalDate(), new double[] {25.0, 26.0}, new double[] {18.0, 18.5}));
+
+        double earliest = hoursSince(fetchHour);
+        MvcResult result = derivingMockMvc.perform(get("/api/weather/zipcode/10001/current"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hourlyForecast").doesNotExist())
+                .andExpect(jsonPath("$.fromCache").value(true))
+                .andReturn();
+        double latest = hoursSince(fetchHour);
+
+        double current = JsonPath.<Number>read(result.getResponse().getContentAsString(), "$.currentTemperature")
+                .doubleValue();
+        assertTrue(current >= Math.floor(earliest * 10) / 10 && current <= Math.ceil(latest * 10) / 10,
+                () -> "Expected an interpolated temperature between " + earliest + " and " + latest + ", was "
+                        + current);
+        verify(weatherService, never()).getWeatherForecast(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    public void testGetHourlyByZipCode_DaysWindowKeptWhenDerived() throws Exception {
+        when(cacheRepository.getFromCache("10001_US")).thenReturn(cachedForecast("10001",
+                new Coordinates(40.7305, -73.9925)));
+
+        mockMvc.perform(get("/api/weather/zipcode/10001")
+                .param("fields", "hourly")
+                .param("days", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hourlyForecast.length()").value(72));
+
+        CurrentConditionsDeriver deriver = new CurrentConditionsDeriver(true, 6, Clock.systemUTC());
+        WeatherController derivingController = new WeatherController(weatherService, cacheRepository, deriver,
+                coordinateGrid, tracer, admissionController, hotKeyTracker);
+        MockMvc derivingMockMvc = MockMvcBuilders.standaloneSetup(derivingController).build();
+        LocalDateTime fetchHour = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusHours(4);
+        when(cacheRepository.getFromCache("10001_US")).thenReturn(new RawForecast("10001",
+                new Coordinates(40.7305, -73.9925), 0, fetchHour, 22.5, fetchHour, new double[5 * 24],
+                fetchHour.toLocalDate(), new double[] {25.0, 26.0, 27.0, 26.5},
+                new double[] {18.0, 18.5, 19.0, 17.5}));
+
+        derivingMockMvc.perform(get("/api/weather/zipcode/10001")
+                .param("fields", "hourly")
+                .param("days", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hourlyForecast.length()").value(72));
+        verify(weatherService, never()).getWeatherForecast(anyString(), anyString(), any(), any());
+    }
+
+    private static double hoursSince(LocalDateTime start) {
+        return Duration.between(start, LocalDateTime.now(ZoneOffset.UTC)).toMillis() / 3_600_000.0;
+    }
+
+    private static RawForecast cachedForecast(String zipCode, Coordinates coordinates) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        double[] highs = {25.0, 26.0, 27.0, 26.5, 24.0, 23.0, 22.5, 24.5};
+        double[] lows = {18.0, 18.5, 19.0, 17.5, 16.0, 15.0, 15.5, 16.5};
+        return new RawForecast(zipCode, coordinates, 0, LocalDateTime.now(), 22.5, today.atStartOfDay(),
+                new double[8 * 24], today, highs, lows);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.GlobalExceptionHandler;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.service.BulkForecastExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class WeatherExportControllerTest {
+
+    private static final String LINE = "{\"zipCode\":\"10001\",\"countryCode\":\"US\"}\n";
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private BulkForecastExporter bulkForecastExporter;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(4);
+            output.write(LINE.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bulkForecastExporter).export(any(Reader.class), any(), any(), any(), any(OutputStream.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(new WeatherExportController(bulkForecastExporter))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    public void testExportList_StreamsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/weather/export")
+                .param("countryCode", "CA")
+                .param("fields", "current")
+                .requestAttr(ClientRateLimitInterceptor.CLIENT_ID_ATTRIBUTE, "key:partner-a")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("10001\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(LINE));
+        verify(bulkForecastExporter).reserve();
+        verify(bulkForecastExporter).export(any(Reader.class), eq("CA"),
+                eq(ForecastProjection.of("current", null, null)), eq("key:partner-a"), any(OutputStream.class));
+    }
+
+    @Test
+    public void testExportFile_StreamsNdjson() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "zips.csv", "text/csv",
+                "10001,US\n".getBytes(StandardCharsets.UTF_8));
+
+        MvcResult result = mockMvc.perform(multipart("/api/weather/export").file(file))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(LINE));
+    }
+
+    @Test
+    public void testExportList_InvalidProjection() throws Exception {
+        mockMvc.perform(post("/api/weather/export")
+                .param("days", "20")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("10001\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(400));
+        verify(bulkForecastExporter, never()).reserve();
+    }
+
+    @Test
+    public void testExportList_TooManyExports() throws Exception {
+        doThrow(new ConcurrencyLimitExceededException("Too many bulk exports in progress"))
+                .when(bulkForecastExporter).reserve();
+
+        mockMvc.perform(post("/api/weather/export")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("10001\n"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Too many bulk exports in progress"));
+        verify(bulkForecastExporter, never()).export(any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.weatherforecast.controller;
+
+import com.example.weatherforecast.service.ForecastBroadcaster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class WeatherStreamControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ForecastBroadcaster forecastBroadcaster;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new WeatherStreamController(forecastBroadcaster, 60_000, 3))
+                .build();
+    }
+
+    @Test
+    public void testStreamWeather_Subscribes() throws Exception {
+        when(forecastBroadcaster.subscribe(anyList(), anyString(), any())).thenReturn(true);
+
+        mockMvc.perform(get("/api/weather/stream")
+                .param("zipCodes", "10001, 94105,10001")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+        verify(forecastBroadcaster).subscribe(eq(List.of("10001", "94105")), eq("US"), any());
+    }
+
+    @Test
+    public void testStreamWeather_InvalidZipCodeCount() throws Exception {
+        mockMvc.perform(get("/api/weather/stream")
+                .param("zipCodes", " , ")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:error")))
+                .andExpect(content().string(containsString("between 1 and 3 zip codes")));
+        mockMvc.perform(get("/api/weather/stream")
+                .param("zipCodes", "10001,10002,10003,10004")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+        verify(forecastBroadcaster, never()).subscribe(anyList(), anyString(), any());
+    }
+
+    @Test
+    public void testStreamWeather_MissingZipCodes() throws Exception {
+        mockMvc.perform(get("/api/weather/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testStreamWeather_TooManySubscribers() throws Exception {
+        when(forecastBroadcaster.subscribe(anyList(), anyString(), any())).thenReturn(false);
+
+        mockMvc.perform(get("/api/weather/stream")
+                .param("zipCodes", "10001")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:error")));
+    }
+}
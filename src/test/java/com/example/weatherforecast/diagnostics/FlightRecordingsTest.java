@@ -0,0 +1,85 @@
+package com.example.weatherforecast.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecordingsTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecordings recordings;
+
+    @BeforeEach
+    public void setup() {
+        recordings = new FlightRecordings(directory, Duration.ofMinutes(5), 10 * 1024 * 1024, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recordings.close();
+    }
+
+    @Test
+    public void testStop_DumpsApplicationEvents() throws Exception {
+        recordings.start("default");
+        assertTrue(recordings.isRunning());
+
+        CacheLookupEvent.begin("zip:10001:US").commit(true);
+        GeocodeEvent.begin("10001", "US").commit(true, true);
+        Path dump = recordings.stop();
+
+        assertFalse(recordings.isRunning());
+        assertEquals(dump.toString(), recordings.status().get("lastDump"));
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent lookup = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.weatherforecast.CacheLookup"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("zip:10001:US", lookup.getString("cacheKey"));
+        assertTrue(lookup.getBoolean("hit"));
+        assertTrue(events.stream()
+                .anyMatch(event -> event.getEventType().getName().equals("com.example.weatherforecast.Geocode")));
+    }
+
+    @Test
+    public void testDump_KeepsNewestDumps() throws Exception {
+        recordings.start("default");
+        recordings.dump();
+        Thread.sleep(5);
+        recordings.dump();
+        Thread.sleep(5);
+        Path last = recordings.dump();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> dumps = files.sorted().toList();
+            assertEquals(2, dumps.size());
+            assertEquals(last, dumps.get(1));
+        }
+    }
+
+    @Test
+    public void testStart_RejectsUnknownSettings() {
+        assertThrows(IllegalArgumentException.class, () -> recordings.start("../settings"));
+        assertFalse(recordings.isRunning());
+    }
+
+    @Test
+    public void testDump_FailsWithoutRecording() {
+        assertThrows(IllegalStateException.class, () -> recordings.dump());
+        assertThrows(IllegalStateException.class, () -> recordings.stop());
+        assertEquals("CLOSED", recordings.status().get("state"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.weatherforecast.management;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void testEstimate_NeverBelowTrueCount() {
+        HeavyHitters heavyHitters = new HeavyHitters(64, 4, 10);
+        for (int i = 0; i < 1000; i++) {
+            heavyHitters.add("zip" + i, i % 7 + 1);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(heavyHitters.estimate("zip" + i) >= i % 7 + 1, "estimate for zip" + i);
+        }
+    }
+
+    @Test
+    void testTop_FindsHeavyKeysAmongManyLightOnes() {
+        HeavyHitters heavyHitters = new HeavyHitters(1024, 4, 10);
+        for (int round = 0; round < 100; round++) {
+            heavyHitters.add("10001_US", 5);
+            heavyHitters.add("94105_US", 3);
+            for (int i = 0; i < 50; i++) {
+                heavyHitters.add("light" + (round * 50 + i), 1);
+            }
+        }
+
+        List<Map.Entry<String, Long>> top = heavyHitters.top(2);
+        assertEquals(2, top.size());
+        assertEquals("10001_US", top.get(0).getKey());
+        assertEquals("94105_US", top.get(1).getKey());
+        assertTrue(top.get(0).getValue() >= 500);
+    }
+
+    @Test
+    void testTop_LimitedToCapacity() {
+        HeavyHitters heavyHitters = new HeavyHitters(256, 4, 3);
+        for (int i = 0; i < 20; i++) {
+            heavyHitters.add("zip" + i, 1);
+        }
+
+        assertEquals(3, heavyHitters.top(10).size());
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(0, 4, 10));
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(64, 4, 0));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.weatherforecast.model;
+
+import com.example.weatherforecast.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ForecastProjectionTest {
+
+    // 14:30 local time at UTC-4
+    private static final Instant NOW = Instant.parse("2025-04-21T18:30:00Z");
+
+    @Test
+    public void testOf_DefaultsToDefaultProjection() {
+        assertSame(ForecastProjection.DEFAULT, ForecastProjection.of(null, null, null));
+        assertSame(ForecastProjection.DEFAULT, ForecastProjection.of("current,daily,hourly", null, 1));
+    }
+
+    @Test
+    public void testOf_RejectsInvalidParameters() {
+        assertThrows(InvalidRequestException.class, () -> ForecastProjection.of("wind", null, null));
+        assertThrows(InvalidRequestException.class, () -> ForecastProjection.of(null, 0, null));
+        assertThrows(InvalidRequestException.class, () -> ForecastProjection.of(null, null, 17));
+    }
+
+    @Test
+    public void testApply_LeavesOutUnselectedFields() {
+        WeatherResponse entry = createResponse(LocalDateTime.of(2025, 4, 21, 12, 0), 12, 3);
+
+        WeatherResponse projected = ForecastProjection.of("hourly,daily", 3, 2).apply(entry, NOW);
+
+        assertNull(projected.getCurrentTemperature());
+        assertEquals(25.0, projected.getHighTemperature(), 0.0001);
+        assertEquals(2, projected.getDailyForecast().size());
+        assertEquals(3, projected.getHourlyForecast().size());
+        assertEquals(LocalDateTime.of(2025, 4, 21, 14, 0), projected.getHourlyForecast().get(0).getTime());
+        // The cached entry is never modified
+        assertEquals(22.5, entry.getCurrentTemperature(), 0.0001);
+        assertEquals(12, entry.getHourlyForecast().size());
+    }
+
+    private WeatherResponse createResponse(LocalDateTime seriesStart, int hours, int days) {
+        List<WeatherResponse.HourlyForecast> hourly = new ArrayList<>();
+        for (int i = 0; i < hours; i++) {
+            hourly.add(new WeatherResponse.HourlyForecast(seriesStart.plusHours(i), 20.0 + i));
+        }
+        List<WeatherResponse.DailyForecast> daily = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            daily.add(new WeatherResponse.DailyForecast(LocalDate.of(2025, 4, 21).plusDays(i), 25.0, 18.0));
+        }
+        return WeatherResponse.builder()
+                .zipCode("10001")
+                .currentTemperature(22.5)
+                .highTemperature(25.0)
+                .lowTemperature(18.0)
+                .hourlyForecast(hourly)
+                .dailyForecast(daily)
+                .timestamp(LocalDateTime.now())
+                .utcOffsetSeconds(-14400)
+                .build();
+    }
+}
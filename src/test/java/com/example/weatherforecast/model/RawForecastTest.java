@@ -0,0 +1,86 @@
+package com.example.weatherforecast.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawForecastTest {
+
+    // 2025-04-21T10:20 in New York (UTC-4)
+    private static final Instant NOW = Instant.parse("2025-04-21T14:20:00Z");
+
+    private final RawForecast forecast = forecast(3);
+
+    @Test
+    void testView_DefaultIsTodayFromLocalMidnight() {
+        WeatherResponse view = forecast.view(ForecastProjection.DEFAULT, NOW, false);
+
+        assertEquals(21.5, view.getCurrentTemperature(), 0.0001);
+        assertEquals(20.0, view.getHighTemperature(), 0.0001);
+        assertEquals(10.0, view.getLowTemperature(), 0.0001);
+        assertNull(view.getDailyForecast());
+        assertEquals(24, view.getHourlyForecast().size());
+        assertEquals(LocalDateTime.of(2025, 4, 21, 0, 0), view.getHourlyForecast().get(0).getTime());
+        assertEquals(-14400, view.getUtcOffsetSeconds());
+        assertFalse(view.isFromCache());
+    }
+
+    @Test
+    void testView_HoursStartAtLocalCurrentHour() {
+        WeatherResponse view = forecast.view(ForecastProjection.of("hourly", 5, null), NOW, true);
+
+        assertNull(view.getCurrentTemperature());
+        assertNull(view.getHighTemperature());
+        assertEquals(5, view.getHourlyForecast().size());
+        assertEquals(LocalDateTime.of(2025, 4, 21, 10, 0), view.getHourlyForecast().get(0).getTime());
+        assertEquals(10.0, view.getHourlyForecast().get(0).getTemperature(), 0.0001);
+        assertTrue(view.isFromCache());
+    }
+
+    @Test
+    void testView_DailyStartsTodayAfterLocalMidnight() {
+        // 01:00 on the 22nd in New York
+        Instant nextDay = Instant.parse("2025-04-22T05:00:00Z");
+        WeatherResponse view = forecast.view(ForecastProjection.of("daily", null, 2), nextDay, true);
+
+        assertEquals(21.0, view.getHighTemperature(), 0.0001);
+        assertEquals(2, view.getDailyForecast().size());
+        assertEquals(LocalDate.of(2025, 4, 23), view.getDailyForecast().get(1).getDate());
+    }
+
+    @Test
+    void testCovers() {
+        assertTrue(forecast.covers(ForecastProjection.DEFAULT, NOW));
+        assertTrue(forecast.covers(ForecastProjection.of("daily", null, 3), NOW));
+        assertFalse(forecast.covers(ForecastProjection.of("daily", null, 4), NOW));
+        // 10:00 on the first of 3 days leaves 62 hours
+        assertTrue(forecast.covers(ForecastProjection.of("hourly", 62, null), NOW));
+        assertFalse(forecast.covers(ForecastProjection.of("hourly", 63, null), NOW));
+        assertFalse(forecast.covers(ForecastProjection.DEFAULT, Instant.parse("2025-04-20T12:00:00Z")));
+
+        RawForecast withoutCurrent = new RawForecast(null, null, 0, LocalDateTime.now(), null, null, new double[0],
+                null, new double[0], new double[0]);
+        assertFalse(withoutCurrent.covers(ForecastProjection.of("current", null, null), NOW));
+        assertFalse(withoutCurrent.covers(ForecastProjection.of("hourly", 1, null), NOW));
+    }
+
+    private static RawForecast forecast(int days) {
+        double[] hourly = new double[24 * days];
+        for (int i = 0; i < hourly.length; i++) {
+            hourly[i] = i;
+        }
+        double[] highs = new double[days];
+        double[] lows = new double[days];
+        for (int i = 0; i < days; i++) {
+            highs[i] = 20.0 + i;
+            lows[i] = 10.0 + i;
+        }
+        return new RawForecast("10001", new Coordinates(40.7305, -73.9925), -14400,
+                LocalDateTime.of(2025, 4, 21, 14, 0), 21.5, LocalDateTime.of(2025, 4, 21, 0, 0), hourly,
+                LocalDate.of(2025, 4, 21), highs, lows);
+    }
+}
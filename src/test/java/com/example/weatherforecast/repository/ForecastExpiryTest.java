@@ -0,0 +1,152 @@
+package com.example.weatherforecast.repository;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.RawForecast;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForecastExpiryTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-04-21T10:20:00Z"));
+
+    @Test
+    void testTimeToLive_Fixed() {
+        ForecastExpiry expiry = expiry(ForecastExpiry.Policy.FIXED);
+
+        assertEquals(Duration.ofMinutes(15), expiry.timeToLive(response(0)));
+    }
+
+    @Test
+    void testTimeToLive_HourBoundaryUsesLocalOffset() {
+        ForecastExpiry expiry = expiry(ForecastExpiry.Policy.HOUR_BOUNDARY);
+
+        // 10:20 UTC is 15:50 in India (UTC+05:30)
+        assertEquals(Duration.ofMinutes(40), expiry.timeToLive(response(0)));
+        assertEquals(Duration.ofMinutes(10), expiry.timeToLive(response(5 * 3600 + 1800)));
+    }
+
+    @Test
+    void testTimeToLive_ModelUpdate() {
+        ForecastExpiry expiry = new ForecastExpiry(ForecastExpiry.Policy.MODEL_UPDATE, Duration.ofMinutes(15),
+                Duration.ofHours(3), Duration.ofMinutes(30), Duration.ofMinutes(1), Duration.ofHours(6), clock);
+
+        // Runs land at 09:30, 12:30, ... so the next one after 10:20 is at 12:30
+        assertEquals(Duration.ofMinutes(130), expiry.timeToLive(response(0)));
+    }
+
+    @Test
+    void testTimeToLive_ClampedToBounds() {
+        ForecastExpiry expiry = new ForecastExpiry(ForecastExpiry.Policy.MODEL_UPDATE, Duration.ofMinutes(15),
+                Duration.ofHours(6), Duration.ZERO, Duration.ofMinutes(5), Duration.ofHours(1), clock);
+        assertEquals(Duration.ofHours(1), expiry.timeToLive(response(0)));
+
+        clock.set(Instant.parse("2025-04-21T12:02:00Z"));
+        expiry = expiry(ForecastExpiry.Policy.MODEL_UPDATE);
+        assertEquals(Duration.ofMinutes(5), expiry.timeToLive(response(0)));
+    }
+
+    @Test
+    void testTimeToLive_SeriesLastsUntilWindowOrMidnight() {
+        ForecastExpiry expiry = new ForecastExpiry(ForecastExpiry.Policy.SERIES, Duration.ofMinutes(15),
+                Duration.ofHours(1), Duration.ZERO, Duration.ofMinutes(1), Duration.ofHours(12), clock);
+
+        // 31 hours from 10:00 can fill (and interpolate) a 24 hour window until 16:00
+        assertEquals(Duration.ofMinutes(340), expiry.timeToLive(seriesResponse(LocalDateTime.of(2025, 4, 21, 10, 0))));
+
+        // Starting at 20:00 the daily high and low go stale at midnight first
+        clock.set(Instant.parse("2025-04-21T20:20:00Z"));
+        assertEquals(Duration.ofMinutes(220), expiry.timeToLive(seriesResponse(LocalDateTime.of(2025, 4, 21, 20, 0))));
+    }
+
+    @Test
+    void testTimeToLive_NonForecastValuesUseFixedTtl() {
+        ForecastExpiry expiry = expiry(ForecastExpiry.Policy.MODEL_UPDATE);
+
+        assertEquals(Duration.ofMinutes(15), expiry.timeToLive("not a forecast"));
+    }
+
+    /**
+     * Simulates one zip code requested every minute and counts upstream fetches
+     * during one steady-state day under each policy.
+     */
+    @Test
+    void testUpstreamCallsPerZipPerDay() {
+        assertEquals(96, upstreamCallsPerDay(expiry(ForecastExpiry.Policy.FIXED)));
+        assertEquals(24, upstreamCallsPerDay(expiry(ForecastExpiry.Policy.HOUR_BOUNDARY)));
+        assertEquals(24, upstreamCallsPerDay(expiry(ForecastExpiry.Policy.MODEL_UPDATE)));
+        assertEquals(8, upstreamCallsPerDay(new ForecastExpiry(ForecastExpiry.Policy.MODEL_UPDATE,
+                Duration.ofMinutes(15), Duration.ofHours(3), Duration.ofMinutes(5), Duration.ofMinutes(1),
+                Duration.ofHours(6), clock)));
+    }
+
+    private int upstreamCallsPerDay(ForecastExpiry expiry) {
+        Instant start = Instant.parse("2025-04-20T00:00:00Z");
+        Instant countFrom = start.plus(Duration.ofDays(1));
+        Instant expiresAt = start;
+        int calls = 0;
+        for (int minute = 0; minute < 2 * 24 * 60; minute++) {
+            Instant now = start.plus(Duration.ofMinutes(minute));
+            if (!now.isBefore(expiresAt)) {
+                clock.set(now);
+                expiresAt = now.plus(expiry.timeToLive(response(0)));
+                if (!now.isBefore(countFrom)) {
+                    calls++;
+                }
+            }
+        }
+        return calls;
+    }
+
+    private ForecastExpiry expiry(ForecastExpiry.Policy policy) {
+        return new ForecastExpiry(policy, Duration.ofMinutes(15), Duration.ofHours(1), Duration.ofMinutes(5),
+                Duration.ofMinutes(5), Duration.ofHours(3), clock);
+    }
+
+    private RawForecast response(int utcOffsetSeconds) {
+        return forecast(utcOffsetSeconds, null, new double[0]);
+    }
+
+    private RawForecast seriesResponse(LocalDateTime start) {
+        return forecast(0, start, new double[31]);
+    }
+
+    private RawForecast forecast(int utcOffsetSeconds, LocalDateTime hourlyStart, double[] hourly) {
+        return new RawForecast("10001", new Coordinates(40.7305, -73.9925), utcOffsetSeconds, LocalDateTime.now(),
+                null, hourlyStart, hourly, null, new double[0], new double[0]);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.weatherforecast.repository;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.RawForecast;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ForecastWeigherTest {
+
+    private final ForecastWeigher weigher = new ForecastWeigher();
+
+    @Test
+    public void testWeigh_GrowsWithHourlySeries() {
+        int day = weigher.weigh("10001_US", forecast(1));
+        int week = weigher.weigh("10001_US", forecast(8));
+
+        assertTrue(day > 500 && day < 1_000, "1 day weighed " + day);
+        assertTrue(week > 1_800 && week < 2_500, "8 days weighed " + week);
+        assertEquals(7 * 24 * ForecastWeigher.DOUBLE + 2 * 7 * ForecastWeigher.DOUBLE, week - day);
+    }
+
+    @Test
+    public void testWeigh_EmptyForecastIsSmall() {
+        RawForecast current = new RawForecast(null, new Coordinates(40.73, -73.99), null, LocalDateTime.now(), 21.0,
+                null, new double[0], null, new double[0], new double[0]);
+
+        assertTrue(weigher.weigh("@40.73,-73.99", current) < 500);
+    }
+
+    @Test
+    public void testWeigh_CountsKey() {
+        RawForecast forecast = forecast(1);
+
+        assertEquals(10, weigher.weigh("1234567890_US", forecast) - weigher.weigh("123_US", forecast) + 3);
+    }
+
+    private RawForecast forecast(int days) {
+        return new RawForecast("10001", new Coordinates(40.73, -73.99), -14400, LocalDateTime.now(), 12.5,
+                LocalDateTime.of(2025, 4, 21, 0, 0), new double[24 * days], LocalDate.of(2025, 4, 21),
+                new double[days], new double[days]);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.weatherforecast.repository;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.PostalCodeSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostalCodeIndexTest {
+
+    private static final String DATASET = String.join("\n",
+            "US\t10001\tNew York\tNew York\tNY\tNew York\t061\t\t\t40.7484\t-73.9967\t4",
+            "US\t10002\tNew York\tNew York\tNY\tNew York\t061\t\t\t40.7152\t-73.9877\t4",
+            "US\t10010\tNew York\tNew York\tNY\tNew York\t061\t\t\t40.7393\t-73.9817\t4",
+            "US\t1001\tDuplicate\t\t\t\t\t\t\t0\t0\t",
+            "US\t1001\tAgawam\tMassachusetts\tMA\tHampden\t013\t\t\t42.0702\t-72.6227\t4",
+            "US\t11201\tBrooklyn\tNew York\tNY\tKings\t047\t\t\t40.6944\t-73.9906\t4",
+            "GB\tSW1A 1AA\tLondon\tEngland\tENG\t\t\tWestminster\t\t51.501\t-0.1416\t6",
+            "DE\t10115\tBerlin\tBerlin\tBE\t\t00\tBerlin\t11000\t52.5323\t13.3846\t4",
+            "DE\t80331\tMünchen\tBayern\tBY\t\t091\t\t09162\t48.1345\t11.571\t4",
+            "country\tpostal\tplace\t\t\t\t\t\t\tlatitude\tlongitude\t");
+
+    @Test
+    public void testSuggest_MatchesPrefixWithinCountryInOrder() throws Exception {
+        PostalCodeIndex index = PostalCodeIndex.read(new StringReader(DATASET));
+
+        List<PostalCodeSuggestion> suggestions = index.suggest("US", "100", 10);
+
+        assertEquals(List.of("10001", "10002", "1001", "10010"), codes(suggestions));
+        assertEquals(List.of("10001", "10002"), codes(index.suggest("US", "100", 2)));
+        assertEquals(new Coordinates(40.7484, -73.9967), suggestions.get(0).getCoordinates());
+        assertEquals("New York", suggestions.get(0).getPlaceName());
+        assertEquals("US", suggestions.get(0).getCountryCode());
+    }
+
+    @Test
+    public void testSuggest_FirstEntryOfDuplicateCodeWins() throws Exception {
+        PostalCodeIndex index = PostalCodeIndex.read(new StringReader(DATASET));
+
+        List<PostalCodeSuggestion> suggestions = index.suggest("US", "1001", 1);
+
+        assertEquals("1001", suggestions.get(0).getPostalCode());
+        assertEquals("Duplicate", suggestions.get(0).getPlaceName());
+        assertEquals(8, index.size());
+    }
+
+    @Test
+    public void testSuggest_CaseInsensitiveAndNonAsciiPlaceNames() throws Exception {
+        PostalCodeIndex index = PostalCodeIndex.read(new StringReader(DATASET));
+
+        assertEquals(List.of("SW1A 1AA"), codes(index.suggest("gb", "sw1a ", 10)));
+        assertEquals("München", index.suggest("DE", "8", 10).get(0).getPlaceName());
+        assertTrue(index.suggest("DE", "9", 10).isEmpty());
+        assertTrue(index.suggest("FR", "75", 10).isEmpty());
+        assertTrue(PostalCodeIndex.empty().suggest("US", "1", 10).isEmpty());
+    }
+
+    @Test
+    public void testFind_MatchesWholeCodeOnly() throws Exception {
+        PostalCodeIndex index = PostalCodeIndex.read(new StringReader(DATASET));
+
+        assertEquals("1001", index.find("US", "1001").getPostalCode());
+        assertEquals(new Coordinates(40.7484, -73.9967), index.find("us", "10001").getCoordinates());
+        assertEquals("London", index.find("GB", "sw1a 1aa").getPlaceName());
+        assertNull(index.find("US", "100"));
+        assertNull(index.find("US", "99999"));
+        assertNull(PostalCodeIndex.empty().find("US", "10001"));
+    }
+
+    @Test
+    public void testSuggest_MatchesLinearScan() {
+        Random random = new Random(7);
+        PostalCodeIndex.Builder builder = new PostalCodeIndex.Builder();
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String code = String.valueOf(random.nextInt(100000));
+            codes.add(code);
+            builder.add(i % 2 == 0 ? "US" : "CA", code, "Place " + i, 0, 0);
+        }
+        PostalCodeIndex index = builder.build();
+
+        for (String prefix : List.of("1", "12", "123", "9999", "5")) {
+            long expected = new TreeSet<>(everyOther(codes)).stream()
+                    .filter(code -> code.startsWith(prefix))
+                    .count();
+            List<String> found = codes(index.suggest("US", prefix, Integer.MAX_VALUE / 2));
+            assertEquals(expected, found.size(), prefix);
+            assertEquals(found.stream().sorted().toList(), found);
+        }
+    }
+
+    private static List<String> everyOther(List<String> codes) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < codes.size(); i += 2) {
+            result.add(codes.get(i));
+        }
+        return result;
+    }
+
+    private static List<String> codes(List<PostalCodeSuggestion> suggestions) {
+        return suggestions.stream().map(PostalCodeSuggestion::getPostalCode).toList();
+    }
+}
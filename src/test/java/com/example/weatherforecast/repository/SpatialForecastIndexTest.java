@@ -0,0 +1,102 @@
+package com.example.weatherforecast.repository;
+
+import com.example.weatherforecast.model.Coordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpatialForecastIndexTest {
+
+    private final SpatialForecastIndex index = new SpatialForecastIndex(25);
+
+    @Test
+    public void testGeohash_KnownValue() {
+        assertEquals("u4pruydqqvj", SpatialForecastIndex.geohash(57.64911, 10.40744, 11));
+    }
+
+    @Test
+    public void testFindWithin_NearestFirstAndWithinRadius() {
+        index.put("10001_US", new Coordinates(40.7484, -73.9857)); // Manhattan
+        index.put("11201_US", new Coordinates(40.6943, -73.9903)); // Brooklyn
+        index.put("19103_US", new Coordinates(39.9526, -75.1652)); // Philadelphia
+
+        List<SpatialForecastIndex.Neighbor> found = index.findWithin(new Coordinates(40.7306, -73.9866), 25);
+
+        assertEquals(List.of("10001_US", "11201_US"), found.stream().map(SpatialForecastIndex.Neighbor::cacheKey).toList());
+        assertEquals(2.0, found.get(0).distanceKm(), 0.1);
+    }
+
+    @Test
+    public void testFindWithin_AcrossCellBoundariesAndAntimeridian() {
+        index.put("east", new Coordinates(0.0, 179.9));
+        index.put("north", new Coordinates(0.1, -179.9));
+
+        List<SpatialForecastIndex.Neighbor> found = index.findWithin(new Coordinates(0.0, -179.95), 25);
+
+        assertEquals(2, found.size());
+    }
+
+    @Test
+    public void testFindWithin_MatchesBruteForce() {
+        Random random = new Random(42);
+        Coordinates[] points = new Coordinates[2000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Coordinates(random.nextDouble() * 20 + 60, random.nextDouble() * 40 - 20);
+            index.put("p" + i, points[i]);
+        }
+        for (int query = 0; query < 50; query++) {
+            Coordinates center = new Coordinates(random.nextDouble() * 20 + 60, random.nextDouble() * 40 - 20);
+            long expected = 0;
+            for (Coordinates point : points) {
+                if (SpatialForecastIndex.distanceKm(center, point) <= 60) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, index.findWithin(center, 60).size());
+        }
+    }
+
+    @Test
+    public void testPutAndRemove_MovesAndDropsLocations() {
+        index.put("10001_US", new Coordinates(40.7484, -73.9857));
+        index.put("10001_US", new Coordinates(39.9526, -75.1652));
+
+        assertTrue(index.findWithin(new Coordinates(40.7484, -73.9857), 25).isEmpty());
+        assertEquals(1, index.findWithin(new Coordinates(39.9526, -75.1652), 25).size());
+
+        index.remove("10001_US");
+        assertEquals(0, index.size());
+        assertTrue(index.findWithin(new Coordinates(39.9526, -75.1652), 25).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentInsertsAndRemovals() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            int offset = thread;
+            executor.submit(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    String key = "k" + (i % 100);
+                    Coordinates coordinates = new Coordinates(40 + (i % 7) * 0.01, -74 + offset * 0.01);
+                    if (i % 3 == 0) {
+                        index.remove(key);
+                    } else {
+                        index.put(key, coordinates);
+                    }
+                    index.findWithin(coordinates, 25);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Every indexed location is still found, and nothing else is
+        assertEquals(index.size(), index.findWithin(new Coordinates(40.03, -73.97), 25).size());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.weatherforecast.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeatherCacheCapacityTest {
+
+    private Cache<Object, Object> cache;
+    private WeatherCacheCapacity capacity;
+
+    @BeforeEach
+    public void setup() {
+        // Every entry weighs 100 bytes
+        cache = Caffeine.newBuilder()
+                .maximumWeight(1_000)
+                .weigher((key, value) -> 100)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        // Heap monitoring off; pressure and recovery are driven by the tests
+        capacity = new WeatherCacheCapacity(cache, 1_000, 200, 0, 0.6, 0.5, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        capacity.close();
+    }
+
+    @Test
+    public void testResize_EvictsDownToNewCapacity() {
+        fill(10);
+        assertEquals(1_000, capacity.getWeightedBytes());
+
+        capacity.resize(500);
+        cache.cleanUp();
+
+        assertEquals(500, capacity.getConfiguredBytes());
+        assertEquals(500, capacity.getEffectiveBytes());
+        assertEquals(5, capacity.getEntryCount());
+        assertEquals(5, capacity.getEvictionCount());
+        assertThrows(IllegalArgumentException.class, () -> capacity.resize(100));
+    }
+
+    @Test
+    public void testHeapPressure_ShrinksToMinimumAndRecoversStepwise() {
+        fill(10);
+
+        capacity.onHeapPressure();
+        cache.cleanUp();
+        assertEquals(500, capacity.getEffectiveBytes());
+        assertEquals(5, capacity.getEntryCount());
+
+        capacity.onHeapPressure();
+        capacity.onHeapPressure();
+        assertEquals(200, capacity.getEffectiveBytes());
+        assertEquals(1_000, capacity.getConfiguredBytes());
+        assertEquals(3, capacity.getHeapPressureEvents());
+
+        // Heap still busy: no growth
+        capacity.recover(0.7);
+        assertEquals(200, capacity.getEffectiveBytes());
+        capacity.recover(0.1);
+        assertEquals(400, capacity.getEffectiveBytes());
+        capacity.recover(0.1);
+        capacity.recover(0.1);
+        assertEquals(1_000, capacity.getEffectiveBytes());
+    }
+
+    @Test
+    public void testResize_ReplacesPressureReduction() {
+        capacity.onHeapPressure();
+
+        capacity.resize(2_000);
+
+        assertEquals(2_000, capacity.getEffectiveBytes());
+    }
+
+    @Test
+    public void testConstructor_RequiresWeightedCache() {
+        Cache<Object, Object> counted = Caffeine.newBuilder().maximumSize(10).build();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new WeatherCacheCapacity(counted, 1_000, 200, 0, 0, 0.5, Duration.ofMinutes(1)));
+    }
+
+    private void fill(int entries) {
+        for (int i = 0; i < entries; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        cache.cleanUp();
+    }
+}
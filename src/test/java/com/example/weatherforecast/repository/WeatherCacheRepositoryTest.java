@@ -1,7 +1,7 @@
 package com.example.weatherforecast.repository;
 
 import com.example.weatherforecast.model.Coordinates;
-import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.model.RawForecast;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -9,11 +9,15 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class WeatherCacheRepositoryTest {
@@ -24,12 +28,14 @@ class WeatherCacheRepositoryTest {
     @Mock
     private Cache cache;
 
+    private SpatialForecastIndex spatialIndex;
     private WeatherCacheRepository weatherCacheRepository;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        weatherCacheRepository = new WeatherCacheRepository(cacheManager);
+        spatialIndex = new SpatialForecastIndex(25);
+        weatherCacheRepository = new WeatherCacheRepository(cacheManager, spatialIndex);
     }
 
     @Test
@@ -39,7 +45,7 @@ class WeatherCacheRepositoryTest {
 
         when(cacheManager.getCache("weatherCache")).thenReturn(cache);
         when(cache.get(cacheKey)).thenReturn(valueWrapper);
-        when(valueWrapper.get()).thenReturn(createMockWeatherResponse());
+        when(valueWrapper.get()).thenReturn(createMockForecast());
 
         boolean result = weatherCacheRepository.isInCache(cacheKey);
 
@@ -72,18 +78,16 @@ class WeatherCacheRepositoryTest {
     @Test
     void testGetFromCache_Success() {
         String cacheKey = "10001_US";
-        WeatherResponse mockResponse = createMockWeatherResponse();
+        RawForecast mockForecast = createMockForecast();
         Cache.ValueWrapper valueWrapper = mock(Cache.ValueWrapper.class);
 
         when(cacheManager.getCache("weatherCache")).thenReturn(cache);
         when(cache.get(cacheKey)).thenReturn(valueWrapper);
-        when(valueWrapper.get()).thenReturn(mockResponse);
+        when(valueWrapper.get()).thenReturn(mockForecast);
 
-        WeatherResponse result = weatherCacheRepository.getFromCache(cacheKey);
+        RawForecast result = weatherCacheRepository.getFromCache(cacheKey);
 
-        assertNotNull(result);
-        assertTrue(result.isFromCache());
-        assertEquals(mockResponse.getZipCode(), result.getZipCode());
+        assertSame(mockForecast, result);
     }
 
     @Test
@@ -93,7 +97,7 @@ class WeatherCacheRepositoryTest {
         when(cacheManager.getCache("weatherCache")).thenReturn(cache);
         when(cache.get(cacheKey)).thenReturn(null);
 
-        WeatherResponse result = weatherCacheRepository.getFromCache(cacheKey);
+        RawForecast result = weatherCacheRepository.getFromCache(cacheKey);
 
         assertNull(result);
     }
@@ -104,7 +108,7 @@ class WeatherCacheRepositoryTest {
 
         when(cacheManager.getCache("weatherCache")).thenReturn(null);
 
-        WeatherResponse result = weatherCacheRepository.getFromCache(cacheKey);
+        RawForecast result = weatherCacheRepository.getFromCache(cacheKey);
 
         assertNull(result);
     }
@@ -118,21 +122,26 @@ class WeatherCacheRepositoryTest {
         when(cache.get(cacheKey)).thenReturn(valueWrapper);
         when(valueWrapper.get()).thenReturn(null);
 
-        WeatherResponse result = weatherCacheRepository.getFromCache(cacheKey);
+        RawForecast result = weatherCacheRepository.getFromCache(cacheKey);
 
         assertNull(result);
     }
 
-    private WeatherResponse createMockWeatherResponse() {
-        return WeatherResponse.builder()
-                .zipCode("10001")
-                .coordinates(new Coordinates(40.7305, -73.9925))
-                .currentTemperature(22.5)
-                .highTemperature(25.0)
-                .lowTemperature(18.0)
-                .hourlyForecast(new ArrayList<>())
-                .timestamp(LocalDateTime.now())
-                .fromCache(false)
-                .build();
+    @Test
+    void testPutInCache_IndexesLocation() {
+        when(cacheManager.getCache("weatherCache")).thenReturn(cache);
+
+        weatherCacheRepository.putInCache("10001_US", createMockForecast());
+
+        verify(cache).put(eq("10001_US"), any(RawForecast.class));
+        List<SpatialForecastIndex.Neighbor> nearby = weatherCacheRepository
+                .findNearby(new Coordinates(40.75, -73.99), 10);
+        assertEquals(1, nearby.size());
+        assertEquals("10001_US", nearby.get(0).cacheKey());
+    }
+
+    private RawForecast createMockForecast() {
+        return new RawForecast("10001", new Coordinates(40.7305, -73.9925), 0, LocalDateTime.now(), 22.5, null,
+                new double[0], LocalDate.now(), new double[] {25.0}, new double[] {18.0});
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.example.weatherforecast.resilience;
+
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void testExecute_ReturnsResult() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 0.5,
+                Duration.ofSeconds(1), Duration.ZERO, 0);
+
+        assertEquals("ok", limiter.execute(() -> "ok"));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testExecute_RejectsBeyondLimitWhenFailingFast() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 0.5,
+                Duration.ofSeconds(10), Duration.ZERO, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> blocked = executor.submit(() -> limiter.execute(() -> {
+                started.countDown();
+                await(finish);
+                return "first";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ConcurrencyLimitExceededException.class, () -> limiter.execute(() -> "second"));
+            assertEquals(1, limiter.getRejectedCount());
+
+            finish.countDown();
+            assertEquals("first", blocked.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_QueuedCallGetsPermitWhenReleased() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 0.5,
+                Duration.ofSeconds(10), Duration.ofSeconds(5), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> limiter.execute(() -> {
+                started.countDown();
+                await(finish);
+                return "first";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<String> queued = executor.submit(() -> limiter.execute(() -> "second"));
+            finish.countDown();
+
+            assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+            assertEquals(0, limiter.getRejectedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_QueueWaitBoundedByDeadline() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 0.5,
+                Duration.ofSeconds(10), Duration.ofSeconds(5), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> limiter.execute(() -> {
+                started.countDown();
+                await(finish);
+                return "first";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            long start = System.nanoTime();
+            try (Deadline.Scope scope = Deadline.after(Duration.ofMillis(100)).attach()) {
+                assertThrows(DeadlineExceededException.class, () -> limiter.execute(() -> "second"));
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+            assertEquals(1, limiter.getRejectedCount());
+            assertEquals(0, limiter.getQueued());
+        } finally {
+            finish.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLimit_ShrinksOnSlowCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 20, 0.5,
+                Duration.ZERO, Duration.ZERO, 0);
+
+        limiter.execute(() -> "slow");
+        assertEquals(5.0, limiter.getLimit(), 0.0001);
+
+        limiter.execute(() -> "slow");
+        limiter.execute(() -> "slow");
+        assertEquals(2.0, limiter.getLimit(), 0.0001); // never below the minimum
+    }
+
+    @Test
+    void testLimit_ShrinksOnTimeout() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 20, 0.5,
+                Duration.ofSeconds(10), Duration.ZERO, 0);
+
+        assertThrows(ResourceAccessException.class, () -> limiter.execute(() -> {
+            throw new ResourceAccessException("Read timed out", new SocketTimeoutException());
+        }));
+
+        assertEquals(5.0, limiter.getLimit(), 0.0001);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testLimit_GrowsOnlyWhenUtilised() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 20, 0.5,
+                Duration.ofSeconds(10), Duration.ZERO, 0);
+
+        // A single in-flight call uses half of a limit of 2, so the limit grows
+        limiter.execute(() -> "fast");
+        assertEquals(2.5, limiter.getLimit(), 0.0001);
+
+        // With a limit of 2.5 one call is no longer enough to count as utilised
+        limiter.execute(() -> "fast");
+        assertEquals(2.5, limiter.getLimit(), 0.0001);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
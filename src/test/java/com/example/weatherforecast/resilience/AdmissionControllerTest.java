@@ -0,0 +1,97 @@
+package com.example.weatherforecast.resilience;
+
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControllerTest {
+
+    @Test
+    public void testExecute_RejectsAboveMaxInFlight() throws Exception {
+        AdmissionController admission = new AdmissionController(1, Duration.ofSeconds(10), Duration.ofSeconds(10));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> admission.execute(() -> {
+            running.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ConcurrencyLimitExceededException.class, () -> admission.execute(() -> "second"));
+        assertEquals(1, admission.getInFlight());
+
+        release.countDown();
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("third", admission.execute(() -> "third"));
+        assertEquals(0, admission.getInFlight());
+        assertEquals(2, admission.getAdmittedCount());
+        assertEquals(1, admission.getRejectedInFlightCount());
+    }
+
+    @Test
+    public void testExecute_ShedsWhileStandingDelayIsAboveTarget() throws Exception {
+        AdmissionController admission = new AdmissionController(10, Duration.ofMillis(20), Duration.ofMillis(200));
+
+        // Every request in the interval is slow, so the next interval sheds
+        admission.execute(() -> sleep(250));
+        admission.execute(() -> sleep(100));
+        Thread.sleep(150);
+
+        assertThrows(ConcurrencyLimitExceededException.class, () -> admission.execute(() -> "shed"));
+        assertTrue(admission.getStandingDelayMillis() >= 20);
+        assertEquals(1, admission.getRejectedDelayCount());
+
+        // An interval without completed requests resets the delay
+        Thread.sleep(250);
+        assertEquals("admitted", admission.execute(() -> "admitted"));
+    }
+
+    @Test
+    public void testExecute_OneSlowRequestDoesNotShed() throws Exception {
+        AdmissionController admission = new AdmissionController(10, Duration.ofMillis(20), Duration.ofMillis(200));
+
+        admission.execute(() -> sleep(250));
+        admission.execute(() -> "fast");
+        Thread.sleep(250);
+
+        assertEquals("admitted", admission.execute(() -> "admitted"));
+        assertEquals(0, admission.getRejectedDelayCount());
+    }
+
+    @Test
+    public void testExecute_ReleasesPermitWhenCallFails() {
+        AdmissionController admission = new AdmissionController(1, Duration.ofSeconds(10), Duration.ofSeconds(10));
+
+        assertThrows(IllegalStateException.class, () -> admission.execute(() -> {
+            throw new IllegalStateException("upstream failed");
+        }));
+
+        assertEquals(0, admission.getInFlight());
+        assertEquals("next", admission.execute(() -> "next"));
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slept";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.weatherforecast.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerMetricsTest {
+
+    private final MockClock clock = new MockClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    public void setup() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.TIME_BASED)
+                .slidingWindowSize(60)
+                .minimumNumberOfCalls(2)
+                .slowCallDurationThreshold(Duration.ofMillis(1))
+                .slowCallRateThreshold(50)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config, new CircuitBreakerMetrics(meterRegistry));
+        circuitBreaker = registry.circuitBreaker("openMeteoApi");
+    }
+
+    @Test
+    public void testState_ExportedPerState() {
+        assertEquals(1.0, state("closed"));
+        assertEquals(0.0, state("open"));
+
+        circuitBreaker.transitionToOpenState();
+
+        assertEquals(0.0, state("closed"));
+        assertEquals(1.0, state("open"));
+    }
+
+    @Test
+    public void testTransition_TimesStateThatWasLeft() {
+        clock.add(Duration.ofSeconds(5));
+        circuitBreaker.transitionToOpenState();
+        clock.add(Duration.ofSeconds(30));
+        circuitBreaker.transitionToHalfOpenState();
+
+        assertEquals(5.0, transition("closed", "open").totalTime(TimeUnit.SECONDS), 0.001);
+        assertEquals(30.0, transition("open", "half_open").totalTime(TimeUnit.SECONDS), 0.001);
+        assertEquals(1, transition("open", "half_open").count());
+    }
+
+    @Test
+    public void testSlowCalls_OpenBreakerAndAreExported() {
+        assertEquals(-1.0, meterRegistry.get("weather.circuitbreaker.slow.call.rate").gauge().value());
+
+        circuitBreaker.onSuccess(10, TimeUnit.MILLISECONDS);
+        circuitBreaker.onSuccess(10, TimeUnit.MILLISECONDS);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(1.0, state("open"));
+        assertEquals(1, transition("closed", "open").count());
+        assertEquals(0.0, meterRegistry.get("weather.circuitbreaker.failure.rate").gauge().value());
+    }
+
+    private double state(String state) {
+        return meterRegistry.get("weather.circuitbreaker.state")
+                .tag("name", "openMeteoApi")
+                .tag("state", state)
+                .gauge()
+                .value();
+    }
+
+    private Timer transition(String from, String to) {
+        return meterRegistry.get("weather.circuitbreaker.transition")
+                .tag("name", "openMeteoApi")
+                .tag("from", from)
+                .tag("to", to)
+                .timer();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.weatherforecast.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientRateLimiterTest {
+
+    @Test
+    public void testTryAcquire_AllowsBurstThenRejectsWithWait() {
+        ClientRateLimiter limiter = new ClientRateLimiter("test", 1, 3, 100, Duration.ofMinutes(5), 4);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"));
+        }
+        long wait = limiter.tryAcquire("ip:10.0.0.1");
+
+        assertTrue(wait > 0 && wait <= 1_000_000_000L, "wait was " + wait);
+        assertEquals(3, limiter.getAllowedCount());
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testTryAcquire_WeightedTakesSeveralTokens() {
+        ClientRateLimiter limiter = new ClientRateLimiter("test", 1, 5, 100, Duration.ofMinutes(5), 4);
+
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1", 4));
+        long wait = limiter.tryAcquire("ip:10.0.0.1", 2);
+
+        assertTrue(wait > 0 && wait <= 1_000_000_000L, "wait was " + wait);
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"));
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire("ip:10.0.0.1", 6));
+    }
+
+    @Test
+    public void testTryAcquire_ClientsHaveSeparateBuckets() {
+        ClientRateLimiter limiter = new ClientRateLimiter("test", 1, 1, 100, Duration.ofMinutes(5), 4);
+
+        assertEquals(0, limiter.tryAcquire("key:a"));
+        assertTrue(limiter.tryAcquire("key:a") > 0);
+        assertEquals(0, limiter.tryAcquire("key:b"));
+    }
+
+    @Test
+    public void testTryAcquire_RefillsAtRate() throws InterruptedException {
+        ClientRateLimiter limiter = new ClientRateLimiter("test", 50, 1, 100, Duration.ofMinutes(5), 4);
+
+        assertEquals(0, limiter.tryAcquire("key:a"));
+        assertTrue(limiter.tryAcquire("key:a") > 0);
+        Thread.sleep(40);
+
+        assertEquals(0, limiter.tryAcquire("key:a"));
+    }
+
+    @Test
+    public void testTryAcquire_MemoryStaysBounded() {
+        ClientRateLimiter limiter = new ClientRateLimiter("test", 1, 1, 64, Duration.ofMinutes(5), 4);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("ip:" + i);
+        }
+
+        assertTrue(limiter.getClientCount() <= 64, "tracked " + limiter.getClientCount());
+        assertTrue(limiter.getEvictedCount() >= 10_000 - 64);
+    }
+
+    @Test
+    public void testTryAcquire_EvictsIdleClientsBeforeActiveOnes() throws InterruptedException {
+        ClientRateLimiter limiter = new ClientRateLimiter("test", 1000, 1, 2, Duration.ofMillis(20), 1);
+
+        limiter.tryAcquire("idle");
+        Thread.sleep(40);
+        // Drain the active client's bucket so it would be the one to lose state
+        limiter.tryAcquire("active");
+        limiter.tryAcquire("new");
+
+        assertEquals(2, limiter.getClientCount());
+        assertTrue(limiter.tryAcquire("active") > 0, "active client kept its bucket");
+    }
+
+    @Test
+    public void testConstructor_RejectsInvalidRate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClientRateLimiter("test", 0, 1, 10, Duration.ofMinutes(1), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClientRateLimiter("test", 1, 0, 10, Duration.ofMinutes(1), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClientRateLimiter("test", 1, 1, 0, Duration.ofMinutes(1), 1));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.weatherforecast.resilience;
+
+import com.example.weatherforecast.exception.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+
+    @Test
+    void testCurrent_NoneOutsideScope() {
+        assertSame(Deadline.NONE, Deadline.current());
+        assertFalse(Deadline.NONE.isExpired());
+        assertEquals(5000, Deadline.NONE.timeoutMillis(5000));
+    }
+
+    @Test
+    void testAttach_RestoresPreviousDeadline() {
+        Deadline outer = Deadline.after(Duration.ofSeconds(10));
+        Deadline inner = Deadline.after(Duration.ofSeconds(1));
+        try (Deadline.Scope outerScope = outer.attach()) {
+            try (Deadline.Scope innerScope = inner.attach()) {
+                assertSame(inner, Deadline.current());
+            }
+            assertSame(outer, Deadline.current());
+        }
+        assertSame(Deadline.NONE, Deadline.current());
+    }
+
+    @Test
+    void testTimeoutMillis_CutToRemainingBudget() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(2));
+
+        assertTrue(deadline.timeoutMillis(5000) <= 2000);
+        assertTrue(deadline.timeoutMillis(5000) > 1000);
+        assertEquals(500, deadline.timeoutMillis(500));
+        assertTrue(deadline.timeoutMillis(0) <= 2000);
+    }
+
+    @Test
+    void testTimeoutMillis_NeverZeroOnceExpired() {
+        Deadline deadline = Deadline.after(Duration.ZERO);
+
+        assertTrue(deadline.isExpired());
+        assertEquals(1, deadline.timeoutMillis(5000));
+    }
+
+    @Test
+    void testRequire_FailsWhenWaitDoesNotFit() {
+        Deadline deadline = Deadline.after(Duration.ofMillis(800));
+
+        assertDoesNotThrow(() -> deadline.require(Duration.ZERO, "the call"));
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+                () -> deadline.require(Duration.ofSeconds(1), "the call"));
+        assertTrue(exception.getMessage().contains("the call"));
+    }
+
+    @Test
+    void testWrap_CarriesDeadlineToOtherThread() throws Exception {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        Supplier<Deadline> wrapped;
+        try (Deadline.Scope scope = deadline.attach()) {
+            wrapped = Deadline.wrap(Deadline::current);
+        }
+
+        assertSame(deadline, CompletableFuture.supplyAsync(wrapped).get());
+        assertSame(Deadline.NONE, CompletableFuture.supplyAsync(Deadline::current).get());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.weatherforecast.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentile_NoSamples() {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofMinutes(1));
+
+        assertNull(histogram.percentile(95));
+        assertEquals(0, histogram.count());
+    }
+
+    @Test
+    void testPercentile_WithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofMinutes(1));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(Duration.ofMillis(i).toNanos());
+        }
+
+        assertEquals(100, histogram.count());
+        assertEquals(50, histogram.percentile(50).toMillis(), 50 * 0.125);
+        assertEquals(95, histogram.percentile(95).toMillis(), 95 * 0.125);
+        assertEquals(100, histogram.percentile(100).toMillis(), 100 * 0.125);
+    }
+
+    @Test
+    void testBucketIndex_UpperBoundContainsValue() {
+        for (long micros : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1000, 123_456, 5_000_000 }) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= micros, "upper bound for " + micros);
+            assertTrue(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < micros, "lower bound for " + micros);
+        }
+    }
+
+    @Test
+    void testRotation_ForgetsOldSamples() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofMillis(20));
+        histogram.record(Duration.ofSeconds(5).toNanos());
+
+        // Two full windows later the sample has aged out of both generations
+        Thread.sleep(30);
+        histogram.record(Duration.ofMillis(1).toNanos());
+        Thread.sleep(30);
+        histogram.record(Duration.ofMillis(1).toNanos());
+
+        assertTrue(histogram.percentile(100).toMillis() < 5);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.weatherforecast.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testExecute_DisabledRunsInlineAndRecordsLatency() {
+        RequestHedger hedger = new RequestHedger(false, 95, Duration.ZERO, 0, 0,
+                new LatencyHistogram(Duration.ofMinutes(1)), null);
+
+        assertEquals("ok", hedger.execute(() -> "ok"));
+        assertEquals(1, hedger.getHistogram().count());
+        assertEquals(0, hedger.getHedgesSent());
+    }
+
+    @Test
+    void testExecute_FastCallIsNotHedged() {
+        RequestHedger hedger = new RequestHedger(true, 95, Duration.ofSeconds(1), 1.0, 10,
+                new LatencyHistogram(Duration.ofMinutes(1)), executor);
+
+        assertEquals("ok", hedger.execute(() -> "ok"));
+        assertEquals(0, hedger.getHedgesSent());
+    }
+
+    @Test
+    void testExecute_SlowCallIsHedgedAndHedgeWins() {
+        RequestHedger hedger = new RequestHedger(true, 95, Duration.ofMillis(20), 1.0, 10,
+                new LatencyHistogram(Duration.ofMinutes(1)), executor);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(release);
+                return "primary";
+            }
+            return "hedge";
+        });
+        release.countDown();
+
+        assertEquals("hedge", result);
+        assertEquals(1, hedger.getHedgesSent());
+        assertEquals(1, hedger.getHedgesWon());
+    }
+
+    @Test
+    void testExecute_NoHedgeWithoutBudget() {
+        RequestHedger hedger = new RequestHedger(true, 95, Duration.ofMillis(10), 0.05, 10,
+                new LatencyHistogram(Duration.ofMinutes(1)), executor);
+
+        String result = hedger.execute(() -> {
+            sleep(50);
+            return "primary";
+        });
+
+        assertEquals("primary", result);
+        assertEquals(0, hedger.getHedgesSent());
+    }
+
+    @Test
+    void testExecute_FailsOnlyWhenBothAttemptsFail() {
+        RequestHedger hedger = new RequestHedger(true, 95, Duration.ofMillis(10), 1.0, 10,
+                new LatencyHistogram(Duration.ofMinutes(1)), executor);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(50);
+                throw new IllegalStateException("primary failed");
+            }
+            sleep(100);
+            return "hedge";
+        });
+        assertEquals("hedge", result);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> hedger.execute(() -> {
+            sleep(50);
+            throw new IllegalStateException("upstream down");
+        }));
+        assertEquals("upstream down", exception.getMessage());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
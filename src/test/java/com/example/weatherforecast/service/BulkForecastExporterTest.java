@@ -0,0 +1,330 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.config.ApiClientConfig;
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.WeatherServiceException;
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.RawForecast;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.repository.GeocodingCache;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import com.example.weatherforecast.resilience.AdmissionController;
+import com.example.weatherforecast.resilience.ClientRateLimiter;
+import com.example.weatherforecast.tracing.Tracer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BulkForecastExporterTest {
+
+    @Mock
+    private WeatherService weatherService;
+
+    @Mock
+    private WeatherCacheRepository cacheRepository;
+
+    private final GeocodingCache geocodingCache = new GeocodingCache(100_000);
+    private final AdmissionController admissionController = new AdmissionController(100, Duration.ofMinutes(1),
+            Duration.ofSeconds(1));
+    // Two tokens, then one every 100 seconds
+    private final ClientRateLimiter upstreamRateLimiter = new ClientRateLimiter("upstream", 0.01, 2, 100,
+            Duration.ofMinutes(5), 4);
+    private final ObjectMapper objectMapper = new ApiClientConfig().objectMapper();
+    private BulkForecastExporter exporter;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(weatherService.getWeatherForecast(anyString(), anyString(), any(ForecastProjection.class), any()))
+                .thenAnswer(invocation -> createResponse(invocation.getArgument(0)));
+        exporter = exporter(1, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        exporter.shutdown();
+    }
+
+    @Test
+    public void testExport_WritesOneLinePerEntry() throws Exception {
+        when(weatherService.getWeatherForecast(eq("00000"), eq("US"), any(ForecastProjection.class), any()))
+                .thenThrow(new WeatherServiceException("No location"));
+        String input = "zipCode,countryCode\n10001\n# comment\n\nM5V 3L9,ca\n00000\n";
+
+        List<JsonNode> lines = export(input);
+
+        assertEquals(3, lines.size());
+        assertTrue(lines.stream().anyMatch(l -> l.path("countryCode").asText().equals("CA")
+                && l.path("forecast").path("zipCode").asText().equals("M5V 3L9")));
+        assertTrue(lines.stream().anyMatch(l -> l.path("zipCode").asText().equals("10001")
+                && l.path("forecast").has("hourlyForecast")));
+        assertTrue(lines.stream().anyMatch(l -> l.path("zipCode").asText().equals("00000")
+                && l.path("error").asText().equals("No location") && !l.has("forecast")));
+    }
+
+    @Test
+    public void testExport_AppliesProjection() throws Exception {
+        exporter.reserve();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exporter.export(new StringReader("10001\n"), "US", ForecastProjection.of("current", null, null), null,
+                output);
+
+        JsonNode line = objectMapper.readTree(output.toString(StandardCharsets.UTF_8));
+        assertTrue(line.path("forecast").has("currentTemperature"));
+        assertFalse(line.path("forecast").has("hourlyForecast"));
+    }
+
+    @Test
+    public void testExport_BoundedParallelism() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            geocodingCache.put(String.format("%05d", i), "US", new Coordinates(40.7, -74.0));
+        }
+        AtomicInteger maxRunning = countConcurrentFetches();
+
+        List<JsonNode> lines = export(zipList(50));
+
+        assertEquals(50, lines.size());
+        assertTrue(maxRunning.get() <= 2, "max concurrent fetches " + maxRunning.get());
+    }
+
+    @Test
+    public void testExport_GeocodesOneCodeAtATime() throws Exception {
+        AtomicInteger maxRunning = countConcurrentFetches();
+
+        List<JsonNode> lines = export(zipList(20));
+
+        assertEquals(20, lines.size());
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void testExport_CachedForecastNotFetched() throws Exception {
+        when(cacheRepository.getFromCache("10001_US")).thenReturn(createForecast("10001"));
+
+        List<JsonNode> lines = export("10001\n");
+
+        assertEquals("10001", lines.get(0).path("forecast").path("zipCode").asText());
+        verify(weatherService, never()).getWeatherForecast(anyString(), anyString(), any(ForecastProjection.class),
+                any());
+    }
+
+    @Test
+    public void testExport_MissesPassAdmissionControl() throws Exception {
+        export(zipList(3));
+
+        assertEquals(3, admissionController.getAdmittedCount());
+    }
+
+    @Test
+    public void testExport_SlowClientStopsReadingInput() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        OutputStream blockedClient = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    unblock.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        exporter.reserve();
+        Thread exportThread = new Thread(() -> {
+            try {
+                exporter.export(new StringReader(zipList(10_000)), "US", ForecastProjection.DEFAULT, null,
+                        blockedClient);
+            } catch (Exception e) {
+                // Not expected
+            }
+        });
+        exportThread.start();
+
+        Thread.sleep(300);
+        // Only a write buffer worth of results plus the in-flight window was fetched
+        verify(weatherService, atMost(100)).getWeatherForecast(anyString(), anyString(),
+                any(ForecastProjection.class), any());
+
+        unblock.countDown();
+        exportThread.join(10_000);
+        verify(weatherService, times(10_000)).getWeatherForecast(anyString(), anyString(),
+                any(ForecastProjection.class), any());
+    }
+
+    @Test
+    public void testExport_ChargesMissesToClientUpstreamLimit() throws Exception {
+        when(cacheRepository.getFromCache("10001_US")).thenReturn(createForecast("10001"));
+
+        List<JsonNode> lines = export("10001\n00001\n00002\n00003\n", "key:partner-a");
+
+        assertEquals(4, lines.size());
+        // The cached entry is free; the third miss would wait past the export's deadline
+        assertEquals(1, lines.stream().filter(l -> l.has("error")).count());
+        verify(weatherService, times(2)).getWeatherForecast(anyString(), anyString(), any(ForecastProjection.class),
+                any());
+        assertTrue(upstreamRateLimiter.tryAcquire("key:partner-a") > 0);
+        assertEquals(0, upstreamRateLimiter.tryAcquire("key:partner-b"));
+    }
+
+    @Test
+    public void testExport_RetriesWhenUpstreamLimited() throws Exception {
+        when(weatherService.getWeatherForecast(eq("10001"), eq("US"), any(ForecastProjection.class), any()))
+                .thenThrow(new ConcurrencyLimitExceededException("limit"))
+                .thenAnswer(invocation -> createResponse("10001"));
+
+        List<JsonNode> lines = export("10001\n");
+
+        assertEquals("10001", lines.get(0).path("forecast").path("zipCode").asText());
+        verify(weatherService, times(2)).getWeatherForecast(eq("10001"), eq("US"), any(ForecastProjection.class),
+                any());
+    }
+
+    @Test
+    public void testExport_KeepsRetryingUpstreamLimitedWithinRetryWindow() throws Exception {
+        when(weatherService.getWeatherForecast(eq("10001"), eq("US"), any(ForecastProjection.class), any()))
+                .thenThrow(new ConcurrencyLimitExceededException("limit"))
+                .thenThrow(new ConcurrencyLimitExceededException("limit"))
+                .thenThrow(new ConcurrencyLimitExceededException("limit"))
+                .thenThrow(new ConcurrencyLimitExceededException("limit"))
+                .thenThrow(new ConcurrencyLimitExceededException("limit"))
+                .thenAnswer(invocation -> createResponse("10001"));
+
+        List<JsonNode> lines = export("10001\n");
+
+        assertEquals("10001", lines.get(0).path("forecast").path("zipCode").asText());
+        verify(weatherService, times(6)).getWeatherForecast(eq("10001"), eq("US"), any(ForecastProjection.class),
+                any());
+    }
+
+    @Test
+    public void testExport_GivesUpUpstreamLimitedAfterRetryWindow() throws Exception {
+        assertGivesUpUpstreamLimited(exporter(0, 1));
+    }
+
+    @Test
+    public void testExport_GivesUpUpstreamLimitedAtDeadline() throws Exception {
+        assertGivesUpUpstreamLimited(exporter(1, 0));
+    }
+
+    @Test
+    public void testReserve_RejectsAboveConcurrentExportLimit() throws Exception {
+        exporter.reserve();
+        assertThrows(ConcurrencyLimitExceededException.class, () -> exporter.reserve());
+
+        exporter.export(new StringReader(""), "US", ForecastProjection.DEFAULT, null, new ByteArrayOutputStream());
+        exporter.reserve();
+    }
+
+    private void assertGivesUpUpstreamLimited(BulkForecastExporter limited) throws Exception {
+        when(weatherService.getWeatherForecast(eq("10001"), eq("US"), any(ForecastProjection.class), any()))
+                .thenThrow(new ConcurrencyLimitExceededException("limit"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try {
+            limited.reserve();
+            limited.export(new StringReader("10001\n"), "US", ForecastProjection.DEFAULT, null, output);
+        } finally {
+            limited.shutdown();
+        }
+
+        JsonNode line = objectMapper.readTree(output.toString(StandardCharsets.UTF_8).trim());
+        assertEquals("limit", line.path("error").asText());
+        verify(weatherService, times(1)).getWeatherForecast(eq("10001"), eq("US"), any(ForecastProjection.class),
+                any());
+    }
+
+    private BulkForecastExporter exporter(long maxRetrySeconds, long maxDurationMinutes) {
+        return new BulkForecastExporter(weatherService, cacheRepository, geocodingCache,
+                new CurrentConditionsDeriver(false, 6, Clock.systemUTC()), admissionController, upstreamRateLimiter,
+                Tracer.noop(), objectMapper, new SimpleMeterRegistry(), 4, 2, 1, 1, 4, maxRetrySeconds,
+                maxDurationMinutes);
+    }
+
+    private AtomicInteger countConcurrentFetches() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(weatherService.getWeatherForecast(anyString(), anyString(), any(ForecastProjection.class), any()))
+                .thenAnswer(invocation -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    running.decrementAndGet();
+                    return createResponse(invocation.getArgument(0));
+                });
+        return maxRunning;
+    }
+
+    private List<JsonNode> export(String input) throws Exception {
+        return export(input, null);
+    }
+
+    private List<JsonNode> export(String input, String clientId) throws Exception {
+        exporter.reserve();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Reader reader = new StringReader(input);
+        exporter.export(reader, "US", ForecastProjection.DEFAULT, clientId, output);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static String zipList(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(String.format("%05d", i)).append(",US\n");
+        }
+        return builder.toString();
+    }
+
+    private WeatherResponse createResponse(String zipCode) {
+        List<WeatherResponse.HourlyForecast> hourly = new ArrayList<>();
+        hourly.add(new WeatherResponse.HourlyForecast(LocalDateTime.of(2025, 4, 21, 0, 0), 20.5));
+        return WeatherResponse.builder()
+                .zipCode(zipCode)
+                .currentTemperature(22.5)
+                .highTemperature(25.0)
+                .lowTemperature(18.0)
+                .hourlyForecast(hourly)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static RawForecast createForecast(String zipCode) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return new RawForecast(zipCode, new Coordinates(40.7305, -73.9925), 0, LocalDateTime.now(), 22.5,
+                today.atStartOfDay(), new double[8 * 24], today, new double[8], new double[8]);
+    }
+}
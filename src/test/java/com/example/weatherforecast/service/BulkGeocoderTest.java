@@ -0,0 +1,151 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.config.ApiClientConfig;
+import com.example.weatherforecast.exception.ConcurrencyLimitExceededException;
+import com.example.weatherforecast.exception.GeocodingException;
+import com.example.weatherforecast.exception.InvalidRequestException;
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.GeocodingJobStatus;
+import com.example.weatherforecast.repository.GeocodingCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class BulkGeocoderTest {
+
+    @Mock
+    private GeocodingService geocodingService;
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ApiClientConfig().objectMapper();
+    private final GeocodingCache geocodingCache = new GeocodingCache(1000);
+    private final List<BulkGeocoder> geocoders = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(geocodingService.getCoordinatesForZipCode(anyString(), anyString()))
+                .thenAnswer(invocation -> new Coordinates(40.0, -74.0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        geocoders.forEach(BulkGeocoder::shutdown);
+    }
+
+    @Test
+    public void testJob_GeocodesSkipsKnownAndRecordsFailures() throws Exception {
+        geocodingCache.put("10001", "US", new Coordinates(40.7305, -73.9925));
+        when(geocodingService.getCoordinatesForZipCode("00000", "US"))
+                .thenThrow(new GeocodingException("No location found for postal code '00000'"));
+        BulkGeocoder geocoder = newGeocoder();
+        geocoder.start();
+
+        GeocodingJobStatus submitted = geocoder.submit(new StringReader("zipCode\n10001\n94105\n00000\n"), "US");
+        GeocodingJobStatus status = awaitCompletion(geocoder, submitted.getId());
+
+        assertEquals(3, status.getTotal());
+        assertEquals(3, status.getProcessed());
+        assertEquals(1, status.getSkipped());
+        assertEquals(1, status.getResolved());
+        assertEquals(1, status.getFailed());
+        assertNotNull(geocodingCache.get("94105", "US"));
+        verify(geocodingService, never()).getCoordinatesForZipCode("10001", "US");
+        assertEquals(3, results(geocoder, submitted.getId()).length);
+    }
+
+    @Test
+    public void testJob_RetriesCodesRejectedByConcurrencyLimit() throws Exception {
+        when(geocodingService.getCoordinatesForZipCode("94105", "US"))
+                .thenThrow(new ConcurrencyLimitExceededException("busy"))
+                .thenReturn(new Coordinates(37.79, -122.39));
+        BulkGeocoder geocoder = newGeocoder();
+        geocoder.start();
+
+        GeocodingJobStatus submitted = geocoder.submit(new StringReader("94105\n"), "US");
+        GeocodingJobStatus status = awaitCompletion(geocoder, submitted.getId());
+
+        assertEquals(1, status.getResolved());
+        verify(geocodingService, times(2)).getCoordinatesForZipCode("94105", "US");
+    }
+
+    @Test
+    public void testRestart_ResumesAfterLastCompleteResult() throws Exception {
+        BulkGeocoder first = newGeocoder();
+        GeocodingJobStatus submitted = first.submit(new StringReader("10001\n94105\n60601\n"), "US");
+        first.shutdown();
+        // The first code was done before the restart; the second was being written
+        Files.writeString(directory.resolve(submitted.getId()).resolve("results.ndjson"),
+                "{\"zipCode\":\"10001\",\"countryCode\":\"US\",\"coordinates\":{\"latitude\":40.7,"
+                        + "\"longitude\":-73.9}}\n{\"zipCode\":\"941",
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE);
+
+        BulkGeocoder second = newGeocoder();
+        second.start();
+        GeocodingJobStatus status = awaitCompletion(second, submitted.getId());
+
+        assertEquals(3, status.getProcessed());
+        assertEquals(3, status.getResolved());
+        assertEquals(3, results(second, submitted.getId()).length);
+        assertEquals(40.7, geocodingCache.get("10001", "US").getLatitude(), 0.0001);
+        verify(geocodingService, never()).getCoordinatesForZipCode("10001", "US");
+        verify(geocodingService).getCoordinatesForZipCode("94105", "US");
+    }
+
+    @Test
+    public void testSubmit_RejectsEmptyList() {
+        BulkGeocoder geocoder = newGeocoder();
+
+        assertThrows(InvalidRequestException.class, () -> geocoder.submit(new StringReader("# nothing\n"), "US"));
+    }
+
+    @Test
+    public void testGetStatus_UnknownJob() {
+        assertNull(newGeocoder().getStatus("missing"));
+    }
+
+    private BulkGeocoder newGeocoder() {
+        BulkGeocoder geocoder = new BulkGeocoder(geocodingService, geocodingCache, objectMapper,
+                new SimpleMeterRegistry(), directory.toString(), 100, 2, 2, 1, 10);
+        geocoders.add(geocoder);
+        return geocoder;
+    }
+
+    private GeocodingJobStatus awaitCompletion(BulkGeocoder geocoder, String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            GeocodingJobStatus status = geocoder.getStatus(id);
+            if (status.getState() == GeocodingJobStatus.State.COMPLETED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Job did not complete: " + geocoder.getStatus(id));
+        return null;
+    }
+
+    private static String[] results(BulkGeocoder geocoder, String id) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertTrue(geocoder.copyResults(id, output));
+        return output.toString(StandardCharsets.UTF_8).split("\n");
+    }
+}
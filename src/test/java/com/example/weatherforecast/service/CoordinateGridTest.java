@@ -0,0 +1,39 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.exception.InvalidRequestException;
+import com.example.weatherforecast.model.Coordinates;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoordinateGridTest {
+
+    private final CoordinateGrid grid = new CoordinateGrid(2);
+
+    @Test
+    public void testSnap_RoundsToPrecision() {
+        assertEquals(new Coordinates(40.73, -73.99), grid.snap("40.7305", "-73.9925"));
+        assertEquals(grid.snap("40.7251", "-73.9949"), grid.snap("40.7349", "-73.9851"));
+    }
+
+    @Test
+    public void testSnap_NegativeZeroSharesKeyWithZero() {
+        Coordinates coordinates = grid.snap("-0.001", "0.001");
+
+        assertEquals("0.0", String.valueOf(coordinates.getLatitude()));
+    }
+
+    @Test
+    public void testSnap_AcceptsBounds() {
+        assertEquals(new Coordinates(-90, 180), grid.snap("-90", "180"));
+    }
+
+    @Test
+    public void testSnap_RejectsInvalidValues() {
+        assertThrows(InvalidRequestException.class, () -> grid.snap("90.5", "0"));
+        assertThrows(InvalidRequestException.class, () -> grid.snap("0", "-180.01"));
+        assertThrows(InvalidRequestException.class, () -> grid.snap("NaN", "0"));
+        assertThrows(InvalidRequestException.class, () -> grid.snap("north", "0"));
+        assertThrows(InvalidRequestException.class, () -> grid.snap(null, "0"));
+    }
+}
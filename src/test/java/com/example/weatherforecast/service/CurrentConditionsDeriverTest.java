@@ -0,0 +1,99 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.WeatherResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CurrentConditionsDeriverTest {
+
+    private static final LocalDateTime SERIES_START = LocalDateTime.of(2025, 4, 21, 8, 0);
+
+    @Test
+    public void testDerive_DisabledReturnsInput() {
+        CurrentConditionsDeriver deriver = new CurrentConditionsDeriver(false, 6, clockAt("2025-04-21T10:30:00Z"));
+        WeatherResponse response = createResponse(0);
+
+        assertSame(response, deriver.derive(response));
+    }
+
+    @Test
+    public void testDerive_InterpolatesCurrentTemperature() {
+        CurrentConditionsDeriver deriver = new CurrentConditionsDeriver(true, 6, clockAt("2025-04-21T10:30:00Z"));
+
+        WeatherResponse derived = deriver.derive(createResponse(0));
+
+        // 10:00 is 12.0 and 11:00 is 13.0 in the series
+        assertEquals(12.5, derived.getCurrentTemperature(), 0.0001);
+        assertEquals(24, derived.getHourlyForecast().size());
+        assertEquals(LocalDateTime.of(2025, 4, 21, 10, 0), derived.getHourlyForecast().get(0).getTime());
+    }
+
+    @Test
+    public void testDerive_UsesLocationOffset() {
+        // 08:15 UTC is 10:15 at UTC+02:00
+        CurrentConditionsDeriver deriver = new CurrentConditionsDeriver(true, 6, clockAt("2025-04-21T08:15:00Z"));
+
+        WeatherResponse derived = deriver.derive(createResponse(2 * 3600));
+
+        assertEquals(12.3, derived.getCurrentTemperature(), 0.0001);
+        assertEquals(LocalDateTime.of(2025, 4, 21, 10, 0), derived.getHourlyForecast().get(0).getTime());
+    }
+
+    @Test
+    public void testDerive_DoesNotModifyCachedInstance() {
+        CurrentConditionsDeriver deriver = new CurrentConditionsDeriver(true, 6, clockAt("2025-04-21T10:30:00Z"));
+        WeatherResponse cached = createResponse(0);
+
+        deriver.derive(cached);
+
+        assertEquals(10.0, cached.getCurrentTemperature(), 0.0001);
+        assertEquals(31, cached.getHourlyForecast().size());
+    }
+
+    @Test
+    public void testDerive_BeforeSeriesStartReturnsInput() {
+        CurrentConditionsDeriver deriver = new CurrentConditionsDeriver(true, 6, clockAt("2025-04-21T07:00:00Z"));
+        WeatherResponse response = createResponse(0);
+
+        assertSame(response, deriver.derive(response));
+    }
+
+    @Test
+    public void testGetSeriesHours() {
+        CurrentConditionsDeriver deriver = new CurrentConditionsDeriver(true, 6, Clock.systemUTC());
+
+        assertEquals(31, deriver.getSeriesHours());
+    }
+
+    private Clock clockAt(String instant) {
+        return Clock.fixed(Instant.parse(instant), ZoneOffset.UTC);
+    }
+
+    private WeatherResponse createResponse(int utcOffsetSeconds) {
+        // Series starting at 08:00 local time, one degree warmer every hour
+        List<WeatherResponse.HourlyForecast> series = new ArrayList<>();
+        for (int i = 0; i < 31; i++) {
+            series.add(new WeatherResponse.HourlyForecast(SERIES_START.plusHours(i), 10.0 + i));
+        }
+        return WeatherResponse.builder()
+                .zipCode("10001")
+                .coordinates(new Coordinates(40.7305, -73.9925))
+                .currentTemperature(10.0)
+                .highTemperature(25.0)
+                .lowTemperature(18.0)
+                .hourlyForecast(series)
+                .timestamp(LocalDateTime.now())
+                .fromCache(true)
+                .utcOffsetSeconds(utcOffsetSeconds)
+                .build();
+    }
+}
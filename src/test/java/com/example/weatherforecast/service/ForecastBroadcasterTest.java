@@ -0,0 +1,166 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.WeatherResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ForecastBroadcasterTest {
+
+    @Mock
+    private WeatherService weatherService;
+
+    private ForecastBroadcaster broadcaster;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(weatherService.getWeatherForecast(anyString(), anyString()))
+                .thenAnswer(invocation -> createResponse(invocation.getArgument(0)));
+        broadcaster = new ForecastBroadcaster(weatherService, new CurrentConditionsDeriver(false, 6, Clock.systemUTC()),
+                new SimpleMeterRegistry(), 0, 2, 2, 2, 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    public void testSubscribe_FetchesEachZipOnceForAllSubscribers() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(1);
+        RecordingEmitter second = new RecordingEmitter(1);
+
+        assertTrue(broadcaster.subscribe(List.of("10001"), "US", first));
+        assertTrue(broadcaster.subscribe(List.of("10001"), "US", second));
+
+        assertTrue(first.await());
+        assertTrue(second.await());
+        verify(weatherService, times(1)).getWeatherForecast("10001", "US");
+    }
+
+    @Test
+    public void testRefresh_FansOutToEverySubscriber() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(2);
+        RecordingEmitter second = new RecordingEmitter(2);
+        broadcaster.subscribe(List.of("10001", "90210"), "US", first);
+        broadcaster.subscribe(List.of("10001", "90210"), "US", second);
+        first.awaitCount(2);
+        second.awaitCount(2);
+
+        first.reset(2);
+        second.reset(2);
+        broadcaster.refresh();
+
+        assertTrue(first.await());
+        assertTrue(second.await());
+        verify(weatherService, times(2)).getWeatherForecast("10001", "US");
+        verify(weatherService, times(2)).getWeatherForecast("90210", "US");
+    }
+
+    @Test
+    public void testSubscribe_RejectedAboveLimit() {
+        assertTrue(broadcaster.subscribe(List.of("10001"), "US", new RecordingEmitter(1)));
+        assertTrue(broadcaster.subscribe(List.of("10001"), "US", new RecordingEmitter(1)));
+
+        assertFalse(broadcaster.subscribe(List.of("10001"), "US", new RecordingEmitter(1)));
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    public void testSlowSubscriber_IsCoalescedThenDroppedWithoutBlockingOthers() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(1) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    unblock.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(builder);
+            }
+        };
+        RecordingEmitter fast = new RecordingEmitter(1);
+        broadcaster.subscribe(List.of("10001"), "US", slow);
+        broadcaster.subscribe(List.of("10001"), "US", fast);
+        assertTrue(fast.await());
+
+        // The slow subscriber is stuck on its first event; each refresh overwrites its mailbox
+        for (int i = 0; i < 4; i++) {
+            fast.reset(1);
+            broadcaster.refresh();
+            assertTrue(fast.await());
+        }
+
+        // Fan-out to the slow subscriber may still be in flight on the fetch pool
+        long deadline = System.currentTimeMillis() + 5000;
+        while (broadcaster.getDroppedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(broadcaster.getCoalescedCount() >= 3);
+        assertEquals(1, broadcaster.getDroppedCount());
+        assertEquals(1, broadcaster.getSubscriberCount());
+        unblock.countDown();
+    }
+
+    private WeatherResponse createResponse(String zipCode) {
+        return WeatherResponse.builder()
+                .zipCode(zipCode)
+                .coordinates(new Coordinates(40.7305, -73.9925))
+                .currentTemperature(22.5)
+                .highTemperature(25.0)
+                .lowTemperature(18.0)
+                .hourlyForecast(new ArrayList<>())
+                .timestamp(LocalDateTime.now())
+                .fromCache(false)
+                .build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch latch;
+
+        RecordingEmitter(int expectedEvents) {
+            reset(expectedEvents);
+        }
+
+        void reset(int expectedEvents) {
+            latch = new CountDownLatch(expectedEvents);
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+
+        void awaitCount(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            events.add(builder);
+            latch.countDown();
+        }
+    }
+}
@@ -3,15 +3,19 @@ package com.example.weatherforecast.service;
 import com.example.weatherforecast.model.Coordinates;
 import com.example.weatherforecast.client.NominatimClient;
 import com.example.weatherforecast.exception.GeocodingException;
+import com.example.weatherforecast.repository.GeocodingCache;
 import com.example.weatherforecast.service.impl.GeocodingServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class GeocodingServiceTest {
@@ -19,6 +23,9 @@ public class GeocodingServiceTest {
     @Mock
     private NominatimClient nominatimClient;
 
+    @Spy
+    private GeocodingCache geocodingCache = new GeocodingCache(100);
+
     @InjectMocks
     private GeocodingServiceImpl geocodingService;
 
@@ -46,6 +53,18 @@ public class GeocodingServiceTest {
         assertEquals(expectedCoordinates.getLongitude(), result.getLongitude(), 0.0001);
     }
 
+    @Test
+    public void testGetCoordinatesForZipCode_ResolvedOnce() {
+        Coordinates expectedCoordinates = new Coordinates(40.7305, -73.9925);
+        when(nominatimClient.getCoordinatesForZipCode("10001", "US")).thenReturn(expectedCoordinates);
+
+        geocodingService.getCoordinatesForZipCode("10001", "US");
+        Coordinates result = geocodingService.getCoordinatesForZipCode(" 10001 ", "us");
+
+        assertEquals(expectedCoordinates, result);
+        verify(nominatimClient, times(1)).getCoordinatesForZipCode("10001", "US");
+    }
+
     @Test
     public void testGetCoordinatesForZipCode_Error() {
         // Prepare test data
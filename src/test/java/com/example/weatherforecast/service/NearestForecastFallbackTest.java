@@ -0,0 +1,93 @@
+package com.example.weatherforecast.service;
+
+import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.RawForecast;
+import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.repository.SpatialForecastIndex;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NearestForecastFallbackTest {
+
+    private CaffeineCacheManager cacheManager;
+    private WeatherCacheRepository cacheRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private NearestForecastFallback fallback;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager = new CaffeineCacheManager("weatherCache");
+        cacheRepository = new WeatherCacheRepository(cacheManager, new SpatialForecastIndex(25));
+        meterRegistry = new SimpleMeterRegistry();
+        fallback = new NearestForecastFallback(cacheRepository, meterRegistry, true, 25);
+    }
+
+    @Test
+    public void testFindNearest_ReturnsMarkedCopyOfNearestForecast() {
+        RawForecast manhattan = createForecast("10001", new Coordinates(40.7484, -73.9857));
+        cacheRepository.putInCache("10001_US", manhattan);
+        cacheRepository.putInCache("11201_US", createForecast("11201", new Coordinates(40.6943, -73.9903)));
+
+        WeatherResponse result = fallback.findNearest(new Coordinates(40.7306, -73.9866), "10003",
+                ForecastProjection.DEFAULT, Instant.now());
+
+        assertEquals("10003", result.getZipCode());
+        assertEquals(manhattan.getCoordinates(), result.getCoordinates());
+        assertEquals(Boolean.TRUE, result.getApproximate());
+        assertEquals(2.0, result.getApproximateDistanceKm(), 0.1);
+        assertTrue(result.isFromCache());
+        assertEquals(1.0, meterRegistry.get("weather.fallback.nearest").tag("outcome", "served")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void testFindNearest_NothingWithinRadius() {
+        cacheRepository.putInCache("19103_US", createForecast("19103", new Coordinates(39.9526, -75.1652)));
+
+        assertNull(fallback.findNearest(new Coordinates(40.7306, -73.9866), "10003", ForecastProjection.DEFAULT,
+                Instant.now()));
+        assertEquals(1.0, meterRegistry.get("weather.fallback.nearest").tag("outcome", "not_found")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void testFindNearest_SkipsEvictedAndInsufficientForecasts() {
+        cacheRepository.putInCache("10001_US", createForecast("10001", new Coordinates(40.7484, -73.9857)));
+        cacheManager.getCache("weatherCache").evict("10001_US");
+        RawForecast currentOnly = new RawForecast("11201", new Coordinates(40.6943, -73.9903), 0,
+                LocalDateTime.now(), 22.5, null, new double[0], null, new double[0], new double[0]);
+        cacheRepository.putInCache("11201_US", currentOnly);
+
+        assertNull(fallback.findNearest(new Coordinates(40.7306, -73.9866), "10003",
+                ForecastProjection.of("daily", null, null), Instant.now()));
+        assertNotNull(fallback.findNearest(new Coordinates(40.7306, -73.9866), "10003",
+                ForecastProjection.of("current", null, null), Instant.now()));
+    }
+
+    @Test
+    public void testFindNearest_Disabled() {
+        cacheRepository.putInCache("10001_US", createForecast("10001", new Coordinates(40.7484, -73.9857)));
+        NearestForecastFallback disabled = new NearestForecastFallback(cacheRepository, new SimpleMeterRegistry(),
+                false, 25);
+
+        assertNull(disabled.findNearest(new Coordinates(40.7306, -73.9866), "10003", ForecastProjection.DEFAULT,
+                Instant.now()));
+    }
+
+    private RawForecast createForecast(String zipCode, Coordinates coordinates) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return new RawForecast(zipCode, coordinates, 0, LocalDateTime.now(), 22.5, today.atStartOfDay(),
+                new double[48], today, new double[] {25.0, 26.0}, new double[] {18.0, 19.0});
+    }
+}
@@ -4,21 +4,34 @@ import com.example.weatherforecast.client.OpenMeteoClient;
 import com.example.weatherforecast.exception.GeocodingException;
 import com.example.weatherforecast.exception.WeatherServiceException;
 import com.example.weatherforecast.model.Coordinates;
+import com.example.weatherforecast.model.ForecastProjection;
+import com.example.weatherforecast.model.RawForecast;
 import com.example.weatherforecast.model.WeatherResponse;
+import com.example.weatherforecast.repository.PostalCodeIndex;
+import com.example.weatherforecast.repository.WeatherCacheRepository;
 import com.example.weatherforecast.service.impl.WeatherServiceImpl;
+import com.example.weatherforecast.tracing.Tracer;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class WeatherServiceTest {
@@ -29,12 +42,30 @@ public class WeatherServiceTest {
   @Mock
   private OpenMeteoClient openMeteoClient;
 
-  @InjectMocks
+  @Mock
+  private WeatherCacheRepository cacheRepository;
+
+  @Mock
+  private NearestForecastFallback nearestForecastFallback;
+
+  @Spy
+  private CurrentConditionsDeriver currentConditionsDeriver = new CurrentConditionsDeriver(false, 6,
+      Clock.systemUTC());
+
+  @Spy
+  private Tracer tracer = Tracer.noop();
+
+  private final PostalCodeIndex postalCodeIndex = new PostalCodeIndex.Builder()
+      .add("US", "10001", "New York", 40.7484, -73.9967)
+      .build();
+
   private WeatherServiceImpl weatherService;
 
   @BeforeEach
   public void setup() {
     MockitoAnnotations.openMocks(this);
+    weatherService = new WeatherServiceImpl(geocodingService, openMeteoClient, currentConditionsDeriver,
+        cacheRepository, nearestForecastFallback, postalCodeIndex, tracer, 8);
   }
 
   @Test
@@ -43,23 +74,11 @@ public class WeatherServiceTest {
     String zipCode = "10001";
     String countryCode = "US";
     Coordinates coordinates = new Coordinates(40.7305, -73.9925);
-    List<WeatherResponse.HourlyForecast> hourlyForecasts = new ArrayList<>();
-    hourlyForecasts.add(new WeatherResponse.HourlyForecast(LocalDateTime.now(), 20.5));
-
-    WeatherResponse expectedResponse = WeatherResponse.builder()
-        .zipCode(zipCode)
-        .coordinates(coordinates)
-        .currentTemperature(22.5)
-        .highTemperature(25.0)
-        .lowTemperature(18.0)
-        .hourlyForecast(hourlyForecasts)
-        .timestamp(LocalDateTime.now())
-        .fromCache(false)
-        .build();
+    RawForecast fetched = forecast(zipCode, coordinates, 22.5, 8);
 
     // Configure mocks
     when(geocodingService.getCoordinatesForZipCode(zipCode, countryCode)).thenReturn(coordinates);
-    when(openMeteoClient.getWeatherForecast(any(Coordinates.class), anyString())).thenReturn(expectedResponse);
+    when(openMeteoClient.getForecast(coordinates, zipCode, 8)).thenReturn(fetched);
 
     // Execute the service method
     WeatherResponse result = weatherService.getWeatherForecast(zipCode, countryCode);
@@ -70,7 +89,10 @@ public class WeatherServiceTest {
     assertEquals(22.5, result.getCurrentTemperature(), 0.0001);
     assertEquals(25.0, result.getHighTemperature(), 0.0001);
     assertEquals(18.0, result.getLowTemperature(), 0.0001);
+    assertEquals(24, result.getHourlyForecast().size());
+    assertNull(result.getDailyForecast());
     assertFalse(result.isFromCache());
+    verify(cacheRepository).putInCache("10001_US", fetched);
   }
 
   @Test
@@ -100,7 +122,7 @@ public class WeatherServiceTest {
 
     // Configure mocks
     when(geocodingService.getCoordinatesForZipCode(zipCode, countryCode)).thenReturn(coordinates);
-    when(openMeteoClient.getWeatherForecast(any(Coordinates.class), anyString()))
+    when(openMeteoClient.getForecast(any(Coordinates.class), anyString(), anyInt()))
         .thenThrow(new WeatherServiceException("Error fetching weather data"));
 
     // Execute the service method and verify it throws the expected exception
@@ -111,4 +133,164 @@ public class WeatherServiceTest {
     // Verify the exception message
     assertTrue(exception.getMessage().contains("Error fetching weather data"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testGetWeatherForecast_CachedForecastAnswersEveryView() {
+    when(cacheRepository.getFromCache("10001_US"))
+        .thenReturn(forecast("10001", new Coordinates(40.7305, -73.9925), 22.5, 8));
+
+    WeatherResponse current = weatherService.getWeatherForecast("10001", "US",
+        ForecastProjection.of("current", null, null));
+    WeatherResponse daily = weatherService.getWeatherForecast("10001", "US",
+        ForecastProjection.of("daily", null, 7));
+    WeatherResponse hourly = weatherService.getWeatherForecast("10001", "US",
+        ForecastProjection.of("hourly", 48, null));
+
+    assertEquals(22.5, current.getCurrentTemperature(), 0.0001);
+    assertNull(current.getHourlyForecast());
+    assertTrue(current.isFromCache());
+    assertEquals(7, daily.getDailyForecast().size());
+    assertNull(daily.getCurrentTemperature());
+    assertEquals(48, hourly.getHourlyForecast().size());
+    assertNull(hourly.getHighTemperature());
+    verify(geocodingService, never()).getCoordinatesForZipCode(anyString(), anyString());
+    verify(openMeteoClient, never()).getForecast(any(), any(), anyInt());
+  }
+
+  @Test
+  public void testGetWeatherForecast_MissFetchesAtLeastCachedDays() {
+    Coordinates coordinates = new Coordinates(40.7305, -73.9925);
+    RawForecast fetched = forecast("10001", coordinates, 22.5, 12);
+    when(cacheRepository.getFromCache("10001_US")).thenReturn(forecast("10001", coordinates, null, 12));
+    when(geocodingService.getCoordinatesForZipCode("10001", "US")).thenReturn(coordinates);
+    when(openMeteoClient.getForecast(coordinates, "10001", 12)).thenReturn(fetched);
+
+    WeatherResponse result = weatherService.getWeatherForecast("10001", "US",
+        ForecastProjection.of("current", null, null));
+
+    assertEquals(22.5, result.getCurrentTemperature(), 0.0001);
+    assertFalse(result.isFromCache());
+    verify(cacheRepository).putInCache("10001_US", fetched);
+  }
+
+  @Test
+  public void testGetWeatherForecast_LookedUpMissDoesNotReadCacheAgain() {
+    Coordinates coordinates = new Coordinates(40.7305, -73.9925);
+    RawForecast cached = forecast("10001", coordinates, null, 12);
+    RawForecast fetched = forecast("10001", coordinates, 22.5, 12);
+    when(geocodingService.getCoordinatesForZipCode("10001", "US")).thenReturn(coordinates);
+    when(openMeteoClient.getForecast(coordinates, "10001", 12)).thenReturn(fetched);
+
+    WeatherResponse result = weatherService.getWeatherForecast("10001", "US",
+        ForecastProjection.of("current", null, null), cached);
+
+    assertEquals(22.5, result.getCurrentTemperature(), 0.0001);
+    verify(cacheRepository, never()).getFromCache(anyString());
+    verify(cacheRepository).putInCache("10001_US", fetched);
+  }
+
+  @Test
+  public void testGetWeatherForecast_LongRequestsFetchMoreDays() {
+    Coordinates coordinates = new Coordinates(40.7305, -73.9925);
+    when(geocodingService.getCoordinatesForZipCode("10001", "US")).thenReturn(coordinates);
+    when(openMeteoClient.getForecast(eq(coordinates), eq("10001"), anyInt()))
+        .thenReturn(forecast("10001", coordinates, 22.5, 16));
+
+    weatherService.getWeatherForecast("10001", "US", ForecastProjection.of("daily", null, 14));
+
+    verify(openMeteoClient).getForecast(coordinates, "10001", 14);
+  }
+
+  @Test
+  public void testGetWeatherForecast_CoordinatesSkipGeocodingAndShareCacheKey() {
+    Coordinates coordinates = new Coordinates(40.73, -73.99);
+    RawForecast fetched = forecast(null, coordinates, 22.5, 8);
+    when(openMeteoClient.getForecast(coordinates, null, 8)).thenReturn(fetched);
+
+    WeatherResponse result = weatherService.getWeatherForecast(coordinates, ForecastProjection.DEFAULT, null);
+
+    assertEquals(coordinates, result.getCoordinates());
+    verify(cacheRepository).putInCache("@40.73,-73.99", fetched);
+    verify(geocodingService, never()).getCoordinatesForZipCode(anyString(), anyString());
+  }
+
+  @Test
+  public void testGetWeatherForecast_CircuitOpenServesNearestCachedForecast() {
+    Coordinates coordinates = new Coordinates(40.7305, -73.9925);
+    WeatherResponse nearest = WeatherResponse.builder()
+        .zipCode("10001")
+        .coordinates(new Coordinates(40.7484, -73.9857))
+        .currentTemperature(22.5)
+        .approximate(true)
+        .build();
+    when(geocodingService.getCoordinatesForZipCode("10001", "US")).thenReturn(coordinates);
+    when(openMeteoClient.getForecast(coordinates, "10001", 8)).thenThrow(circuitOpen());
+    when(nearestForecastFallback.findNearest(eq(coordinates), eq("10001"), eq(ForecastProjection.DEFAULT),
+        any())).thenReturn(nearest);
+
+    WeatherResponse result = weatherService.getWeatherForecast("10001", "US");
+
+    assertSame(nearest, result);
+    verify(cacheRepository, never()).putInCache(anyString(), any());
+  }
+
+  @Test
+  public void testGetWeatherForecast_CircuitOpenWithoutNearbyForecast() {
+    Coordinates coordinates = new Coordinates(40.73, -73.99);
+    when(openMeteoClient.getForecast(coordinates, null, 8)).thenThrow(circuitOpen());
+
+    assertThrows(CallNotPermittedException.class,
+        () -> weatherService.getWeatherForecast(coordinates, ForecastProjection.DEFAULT, null));
+  }
+
+  @Test
+  public void testGetWeatherForecast_CircuitOpenServesWhatCachedForecastCovers() {
+    Coordinates coordinates = new Coordinates(40.7305, -73.9925);
+    ForecastProjection week = ForecastProjection.of("daily", null, 7);
+    when(cacheRepository.getFromCache(WeatherCacheRepository.zipCodeKey("10001", "US")))
+        .thenReturn(forecast("10001", coordinates, 22.5, 3));
+    when(geocodingService.getCoordinatesForZipCode("10001", "US")).thenReturn(coordinates);
+    when(openMeteoClient.getForecast(eq(coordinates), eq("10001"), anyInt())).thenThrow(circuitOpen());
+
+    WeatherResponse result = weatherService.getWeatherForecast("10001", "US", week);
+
+    assertTrue(result.getApproximate());
+    assertEquals(0.0, result.getApproximateDistanceKm());
+    assertEquals(3, result.getDailyForecast().size());
+    verify(nearestForecastFallback, never()).findNearest(any(), any(), any(), any());
+    verify(cacheRepository, never()).putInCache(anyString(), any());
+  }
+
+  @Test
+  public void testGetWeatherForecast_GeocodingCircuitOpenUsesPostalCodeDataset() {
+    Coordinates known = new Coordinates(40.7484, -73.9967);
+    RawForecast fetched = forecast("10001", known, 22.5, 8);
+    when(geocodingService.getCoordinatesForZipCode(anyString(), anyString()))
+        .thenThrow(circuitOpen("nominatimApi"));
+    when(openMeteoClient.getForecast(known, "10001", 8)).thenReturn(fetched);
+
+    WeatherResponse result = weatherService.getWeatherForecast("10001", "US");
+
+    assertEquals(known, result.getCoordinates());
+    assertThrows(CallNotPermittedException.class, () -> weatherService.getWeatherForecast("94105", "US"));
+  }
+
+  private static RawForecast forecast(String zipCode, Coordinates coordinates, Double currentTemperature,
+      int days) {
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    double[] highs = new double[days];
+    double[] lows = new double[days];
+    Arrays.fill(highs, 25.0);
+    Arrays.fill(lows, 18.0);
+    return new RawForecast(zipCode, coordinates, 0, LocalDateTime.now(), currentTemperature,
+        today.atStartOfDay(), new double[24 * days], today, highs, lows);
+  }
+
+  private static CallNotPermittedException circuitOpen() {
+    return circuitOpen("openMeteoApi");
+  }
+
+  private static CallNotPermittedException circuitOpen(String name) {
+    return CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults(name));
+  }
+}
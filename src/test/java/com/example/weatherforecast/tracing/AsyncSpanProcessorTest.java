@@ -0,0 +1,86 @@
+package com.example.weatherforecast.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncSpanProcessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testClose_ExportsQueuedSpansToFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("spans.ndjson");
+        AsyncSpanProcessor processor = new AsyncSpanProcessor(new FileSpanExporter(file, objectMapper), 16, 4,
+                Duration.ofSeconds(10));
+        Tracer tracer = new Tracer(1, processor);
+
+        try (Span root = tracer.startSpan("weather.forecast")) {
+            root.setAttribute("cache.hit", false);
+            try (Span child = tracer.startSpan("forecast.http")) {
+                child.recordError(new IOException("timeout"));
+            }
+        }
+        processor.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode child = objectMapper.readTree(lines.get(0));
+        JsonNode root = objectMapper.readTree(lines.get(1));
+        assertEquals("forecast.http", child.get("name").asText());
+        assertEquals("IOException: timeout", child.get("error").asText());
+        assertEquals(root.get("spanId").asText(), child.get("parentSpanId").asText());
+        assertFalse(root.get("attributes").get("cache.hit").asBoolean());
+        assertEquals(2, processor.getExportedCount());
+    }
+
+    @Test
+    public void testOnEnd_DropsSpansWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch exporting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncSpanProcessor processor = new AsyncSpanProcessor(batch -> {
+            exporting.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1, 1, Duration.ofMillis(10));
+        Tracer tracer = new Tracer(1, processor);
+
+        tracer.startSpan("first").end();
+        assertTrue(exporting.await(5, TimeUnit.SECONDS));
+        tracer.startSpan("queued").end();
+        tracer.startSpan("dropped").end();
+        release.countDown();
+        processor.close();
+
+        assertEquals(1, processor.getDroppedCount());
+        assertEquals(2, processor.getExportedCount());
+    }
+
+    @Test
+    public void testExport_CountsFailures() {
+        AsyncSpanProcessor processor = new AsyncSpanProcessor(batch -> {
+            throw new IOException("collector down");
+        }, 16, 16, Duration.ofMillis(10));
+        Tracer tracer = new Tracer(1, processor);
+
+        tracer.startSpan("forecast.http").end();
+        processor.close();
+
+        assertEquals(1, processor.getFailedCount());
+        assertEquals(0, processor.getExportedCount());
+    }
+}
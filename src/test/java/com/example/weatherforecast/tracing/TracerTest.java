@@ -0,0 +1,121 @@
+package com.example.weatherforecast.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracerTest {
+
+    private final List<Span> ended = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testStartSpan_ChildrenShareTraceOfCurrentSpan() {
+        Tracer tracer = new Tracer(1, ended::add);
+
+        try (Span root = tracer.startSpan("weather.forecast")) {
+            try (Span child = tracer.startSpan("cache.lookup")) {
+                assertSame(child, tracer.currentSpan());
+                assertEquals(root.getTraceId(), child.getTraceId());
+                assertEquals(root.getSpanId(), child.getParentSpanId());
+            }
+            assertSame(root, tracer.currentSpan());
+        }
+
+        assertSame(Span.NOOP, tracer.currentSpan());
+        assertEquals(List.of("cache.lookup", "weather.forecast"), ended.stream().map(Span::getName).toList());
+        assertNull(ended.get(1).getParentSpanId());
+    }
+
+    @Test
+    public void testStartSpan_UnsampledTraceRecordsNothing() {
+        Tracer tracer = new Tracer(0, ended::add);
+
+        try (Span root = tracer.startSpan("weather.forecast")) {
+            assertFalse(root.isSampled());
+            assertNull(root.traceparent());
+            try (Span child = tracer.startSpan("cache.lookup")) {
+                child.setAttribute("cache.key", "10001_US");
+                assertSame(Span.NOOP, child);
+            }
+        }
+
+        assertTrue(ended.isEmpty());
+        assertSame(Span.NOOP, tracer.currentSpan());
+    }
+
+    @Test
+    public void testStartTrace_ContinuesSampledCaller() {
+        Tracer tracer = new Tracer(0, ended::add);
+        String traceparent = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+        try (Span span = tracer.startTrace("http.request", traceparent)) {
+            assertTrue(span.isSampled());
+            assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", span.getTraceId());
+            assertEquals("00f067aa0ba902b7", span.getParentSpanId());
+            assertTrue(span.traceparent().startsWith("00-4bf92f3577b34da6a3ce929d0e0e4736-"));
+        }
+
+        assertEquals(1, ended.size());
+    }
+
+    @Test
+    public void testStartTrace_HonoursUnsampledCallerAndIgnoresInvalidHeaders() {
+        Tracer tracer = new Tracer(1, ended::add);
+
+        try (Span span = tracer.startTrace("http.request",
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00")) {
+            assertFalse(span.isSampled());
+        }
+        try (Span span = tracer.startTrace("http.request", "00-00000000000000000000000000000000-00f067aa0ba902b7-01")) {
+            assertTrue(span.isSampled());
+            assertNotEquals("00000000000000000000000000000000", span.getTraceId());
+            assertNull(span.getParentSpanId());
+        }
+        try (Span span = tracer.startTrace("http.request", "garbage")) {
+            assertTrue(span.isSampled());
+        }
+
+        assertEquals(2, ended.size());
+    }
+
+    @Test
+    public void testWrap_CarriesSpanToOtherThread() {
+        Tracer tracer = new Tracer(1, ended::add);
+
+        try (Span root = tracer.startSpan("weather.forecast")) {
+            Span child = CompletableFuture.supplyAsync(tracer.wrap(() -> {
+                try (Span span = tracer.startSpan("forecast.http")) {
+                    return span;
+                }
+            })).join();
+
+            assertEquals(root.getSpanId(), child.getParentSpanId());
+            assertSame(root, tracer.currentSpan());
+        }
+    }
+
+    @Test
+    public void testEnd_IsIdempotentAndRecordsAttributes() {
+        Tracer tracer = new Tracer(1, ended::add);
+
+        Span span = tracer.startSpan("forecast.http");
+        span.setAttribute("http.status", 200).recordError(new IllegalStateException("boom"));
+        span.end();
+        span.end();
+
+        assertEquals(1, ended.size());
+        assertEquals(200, span.getAttributes().get("http.status"));
+        assertEquals("IllegalStateException: boom", span.getError());
+        assertTrue(span.getDurationNanos() > 0);
+    }
+
+    @Test
+    public void testConstructor_RejectsInvalidRatio() {
+        assertThrows(IllegalArgumentException.class, () -> new Tracer(1.5, ended::add));
+        assertThrows(IllegalArgumentException.class, () -> new Tracer(-0.1, ended::add));
+    }
+}